@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.events.mongodb;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.kie.kogito.metrics.KogitoMeters;
+
+/**
+ * Counters of the batches inserted by {@link MongoDBEventPublisher} when batching is enabled,
+ * exported as <code>kogito_events_mongodb_*</code> meters tagged with the events database.
+ */
+public class BatchStatistics {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    void registerMeters(String database) {
+        String[] tags = { "database", database };
+        KogitoMeters.counter("kogito_events_mongodb_batches_total", "Batches of events inserted in the outbox collections", this, BatchStatistics::getBatches, tags);
+        KogitoMeters.counter("kogito_events_mongodb_batch_events_total", "Events inserted in the outbox collections by batches", this, BatchStatistics::getEvents, tags);
+        KogitoMeters.gauge("kogito_events_mongodb_batch_size_max", "Largest batch of events inserted in an outbox collection", this, BatchStatistics::getMaxBatchSize, tags);
+        KogitoMeters.gauge("kogito_events_mongodb_batch_size_average", "Average batch of events inserted in an outbox collection", this, BatchStatistics::getAverageBatchSize, tags);
+    }
+
+    void record(int batchSize) {
+        batches.increment();
+        events.add(batchSize);
+        maxBatchSize.accumulateAndGet(batchSize, Math::max);
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : (double) events.sum() / count;
+    }
+}
@@ -18,8 +18,13 @@
  */
 package org.kie.kogito.events.mongodb;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
@@ -27,6 +32,7 @@ import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
 import org.kie.kogito.event.process.ProcessInstanceDataEvent;
 import org.kie.kogito.event.usertask.UserTaskInstanceDataEvent;
+import org.kie.kogito.events.mongodb.codec.CodecUtils;
 import org.kie.kogito.events.mongodb.codec.EventMongoDBCodecProvider;
 import org.kie.kogito.mongodb.transaction.AbstractTransactionManager;
 import org.slf4j.Logger;
@@ -37,6 +43,9 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
 
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
 
@@ -45,9 +54,13 @@ public abstract class MongoDBEventPublisher implements EventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(MongoDBEventPublisher.class);
 
     static final String ID = "_id";
+    static final String INSERTED_AT_INDEX = "kogitoInsertedAtTTL";
+    static final long DEFAULT_BATCH_TTL_SECONDS = 60L;
+    static final String EXPIRE_AFTER_SECONDS = "expireAfterSeconds";
 
     private MongoCollection<ProcessInstanceDataEvent> processInstanceDataEventCollection;
     private MongoCollection<UserTaskInstanceDataEvent> userTaskInstanceDataEventCollection;
+    private final BatchStatistics batchStatistics = new BatchStatistics();
 
     protected abstract MongoClient mongoClient();
 
@@ -63,12 +76,49 @@ public abstract class MongoDBEventPublisher implements EventPublisher {
 
     protected abstract String userTasksEventsCollection();
 
+    /**
+     * When enabled, the events published together are inserted with one <code>insertMany</code> per collection and
+     * removed later on by a TTL index, instead of being inserted and deleted one by one.
+     */
+    protected boolean batchEnabled() {
+        return false;
+    }
+
+    /**
+     * Seconds a published event is kept in the outbox collection when batching is enabled
+     */
+    protected long batchTtlSeconds() {
+        return DEFAULT_BATCH_TTL_SECONDS;
+    }
+
     protected void configure() {
-        CodecRegistry registry = CodecRegistries.fromRegistries(MongoClientSettings.getDefaultCodecRegistry(), fromProviders(new EventMongoDBCodecProvider(),
+        CodecRegistry registry = CodecRegistries.fromRegistries(MongoClientSettings.getDefaultCodecRegistry(), fromProviders(new EventMongoDBCodecProvider(batchEnabled()),
                 PojoCodecProvider.builder().automatic(true).build()));
         MongoDatabase mongoDatabase = mongoClient().getDatabase(eventsDatabaseName()).withCodecRegistry(registry);
         processInstanceDataEventCollection = mongoDatabase.getCollection(processInstancesEventsCollection(), ProcessInstanceDataEvent.class).withCodecRegistry(registry);
         userTaskInstanceDataEventCollection = mongoDatabase.getCollection(userTasksEventsCollection(), UserTaskInstanceDataEvent.class).withCodecRegistry(registry);
+        if (batchEnabled()) {
+            createExpirationIndex(mongoDatabase, processInstanceDataEventCollection);
+            createExpirationIndex(mongoDatabase, userTaskInstanceDataEventCollection);
+            batchStatistics.registerMeters(eventsDatabaseName());
+        }
+    }
+
+    private void createExpirationIndex(MongoDatabase mongoDatabase, MongoCollection<?> collection) {
+        long ttl = batchTtlSeconds();
+        Optional<Document> index = collection.listIndexes().into(new ArrayList<>()).stream().filter(i -> INSERTED_AT_INDEX.equals(i.getString("name"))).findFirst();
+        if (index.isEmpty()) {
+            // MongoDB removes the documents once committed and older than the TTL, whichever instance inserted them
+            collection.createIndex(Indexes.ascending(CodecUtils.INSERTED_AT), new IndexOptions().name(INSERTED_AT_INDEX).expireAfter(ttl, TimeUnit.SECONDS));
+            return;
+        }
+        Number expireAfterSeconds = index.get().get(EXPIRE_AFTER_SECONDS, Number.class);
+        if (expireAfterSeconds == null || expireAfterSeconds.longValue() != ttl) {
+            // createIndex fails with IndexOptionsConflict when the options of an existing index change, collMod updates it in place
+            logger.info("Updating TTL of index {} of collection {} to {} seconds", INSERTED_AT_INDEX, collection.getNamespace(), ttl);
+            mongoDatabase.runCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                    .append("index", new Document("name", INSERTED_AT_INDEX).append(EXPIRE_AFTER_SECONDS, ttl)));
+        }
     }
 
     @Override
@@ -102,8 +152,41 @@ public abstract class MongoDBEventPublisher implements EventPublisher {
 
     @Override
     public void publish(Collection<DataEvent<?>> events) {
+        if (!batchEnabled()) {
+            for (DataEvent<?> event : events) {
+                publish(event);
+            }
+            return;
+        }
+        List<ProcessInstanceDataEvent> processInstanceEvents = new ArrayList<>();
+        List<UserTaskInstanceDataEvent> userTaskEvents = new ArrayList<>();
         for (DataEvent<?> event : events) {
-            publish(event);
+            if (this.processInstancesEvents() && event instanceof ProcessInstanceDataEvent) {
+                processInstanceEvents.add((ProcessInstanceDataEvent) event);
+            } else if (this.userTasksEvents() && event instanceof UserTaskInstanceDataEvent) {
+                userTaskEvents.add((UserTaskInstanceDataEvent) event);
+            } else {
+                logger.debug("Unknown type of event '{}', ignoring", event.getType());
+            }
+        }
+        publishEvents(processInstanceDataEventCollection, processInstanceEvents);
+        publishEvents(userTaskInstanceDataEventCollection, userTaskEvents);
+    }
+
+    private <T extends DataEvent<?>> void publishEvents(MongoCollection<T> collection, List<T> events) {
+        if (events.isEmpty()) {
+            return;
         }
+        InsertManyOptions options = new InsertManyOptions().ordered(false);
+        if (transactionManager().enabled()) {
+            collection.insertMany(transactionManager().getClientSession(), events, options);
+        } else {
+            collection.insertMany(events, options);
+        }
+        batchStatistics.record(events.size());
+    }
+
+    public BatchStatistics batchStatistics() {
+        return batchStatistics;
     }
 }
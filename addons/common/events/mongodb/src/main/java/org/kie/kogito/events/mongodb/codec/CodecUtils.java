@@ -36,6 +36,11 @@ public class CodecUtils {
 
     static final String ID = "_id";
 
+    /**
+     * Date the event document was inserted at, only written when the outbox collection relies on a TTL index to remove published events
+     */
+    public static final String INSERTED_AT = "kogitoInsertedAt";
+
     private static final Codec<Document> CODEC = new DocumentCodec(CodecRegistries.fromRegistries(
             MongoClientSettings.getDefaultCodecRegistry(),
             fromProviders(PojoCodecProvider.builder().automatic(true).build())));
@@ -18,6 +18,8 @@
  */
 package org.kie.kogito.events.mongodb.codec;
 
+import java.util.Date;
+
 import org.bson.BsonReader;
 import org.bson.BsonString;
 import org.bson.BsonValue;
@@ -40,6 +42,19 @@ public class ProcessInstanceDataEventCodec implements CollectibleCodec<ProcessIn
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessInstanceDataEventCodec.class);
 
+    private final boolean insertionTime;
+
+    public ProcessInstanceDataEventCodec() {
+        this(false);
+    }
+
+    /**
+     * @param insertionTime if true, the encoded document includes the {@link CodecUtils#INSERTED_AT} date, so a TTL index can remove it
+     */
+    public ProcessInstanceDataEventCodec(boolean insertionTime) {
+        this.insertionTime = insertionTime;
+    }
+
     @Override
     public ProcessInstanceDataEvent generateIdIfAbsentFromDocument(ProcessInstanceDataEvent processInstanceDataEvent) {
         return processInstanceDataEvent;
@@ -71,6 +86,9 @@ public class ProcessInstanceDataEventCodec implements CollectibleCodec<ProcessIn
             mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
             Document document = Document.parse(mapper.writeValueAsString(processInstanceDataEvent));
             document.put(CodecUtils.ID, processInstanceDataEvent.getId());
+            if (insertionTime) {
+                document.put(CodecUtils.INSERTED_AT, new Date());
+            }
             codec().encode(bsonWriter, document, encoderContext);
         } catch (JsonProcessingException e) {
             LOGGER.error("Could not process json event", e);
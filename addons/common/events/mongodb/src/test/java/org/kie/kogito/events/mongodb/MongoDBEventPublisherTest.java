@@ -20,8 +20,11 @@ package org.kie.kogito.events.mongodb;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.event.AbstractDataEvent;
@@ -30,18 +33,30 @@ import org.kie.kogito.event.process.ProcessInstanceDataEvent;
 import org.kie.kogito.event.process.ProcessInstanceStateDataEvent;
 import org.kie.kogito.event.usertask.UserTaskInstanceDataEvent;
 import org.kie.kogito.event.usertask.UserTaskInstanceStateDataEvent;
+import org.kie.kogito.events.mongodb.codec.CodecUtils;
 import org.kie.kogito.mongodb.transaction.AbstractTransactionManager;
+import org.mockito.ArgumentCaptor;
 
+import com.mongodb.MongoNamespace;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.ListIndexesIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.events.mongodb.MongoDBEventPublisher.DEFAULT_BATCH_TTL_SECONDS;
+import static org.kie.kogito.events.mongodb.MongoDBEventPublisher.EXPIRE_AFTER_SECONDS;
 import static org.kie.kogito.events.mongodb.MongoDBEventPublisher.ID;
+import static org.kie.kogito.events.mongodb.MongoDBEventPublisher.INSERTED_AT_INDEX;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -56,13 +71,24 @@ class MongoDBEventPublisherTest {
 
     private MongoCollection mongoCollection;
 
+    private List<Document> indexes;
+
     private ProcessInstanceStateDataEvent processInstanceDataEvent;
 
     private UserTaskInstanceStateDataEvent userTaskInstanceDataEvent;
 
     private AbstractDataEvent<?> event;
 
-    private MongoDBEventPublisher publisher = new MongoDBEventPublisher() {
+    private MongoDBEventPublisher publisher = new TestMongoDBEventPublisher(false);
+
+    private class TestMongoDBEventPublisher extends MongoDBEventPublisher {
+
+        private final boolean batch;
+
+        private TestMongoDBEventPublisher(boolean batch) {
+            this.batch = batch;
+        }
+
         @Override
         protected MongoClient mongoClient() {
             return mongoClient;
@@ -98,7 +124,11 @@ class MongoDBEventPublisherTest {
             return "testTECollection";
         }
 
-    };
+        @Override
+        protected boolean batchEnabled() {
+            return batch;
+        }
+    }
 
     @BeforeEach
     void setUp() {
@@ -109,6 +139,15 @@ class MongoDBEventPublisherTest {
         when(mongoDatabase.withCodecRegistry(any())).thenReturn(mongoDatabase);
         when(mongoDatabase.getCollection(any(), any())).thenReturn(mongoCollection);
         when(mongoCollection.withCodecRegistry(any())).thenReturn(mongoCollection);
+        when(mongoCollection.getNamespace()).thenReturn(new MongoNamespace("testDB", "testCollection"));
+        indexes = new ArrayList<>();
+        ListIndexesIterable<Document> listIndexes = mock(ListIndexesIterable.class);
+        when(listIndexes.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(indexes);
+            return target;
+        });
+        when(mongoCollection.listIndexes()).thenReturn(listIndexes);
 
         transactionManager = mock(AbstractTransactionManager.class);
 
@@ -219,4 +258,88 @@ class MongoDBEventPublisherTest {
         verify(mongoCollection).deleteOne(eq(clientSession), eq(Filters.eq(ID, "testUserTaskInstanceEvent")));
 
     }
+
+    @Test
+    void configure_batch() {
+        new TestMongoDBEventPublisher(true).configure();
+
+        ArgumentCaptor<IndexOptions> optionsCaptor = ArgumentCaptor.forClass(IndexOptions.class);
+        verify(mongoCollection, times(2)).createIndex(eq(Indexes.ascending(CodecUtils.INSERTED_AT)), optionsCaptor.capture());
+        assertThat(optionsCaptor.getAllValues()).allSatisfy(options -> {
+            assertThat(options.getName()).isEqualTo(INSERTED_AT_INDEX);
+            assertThat(options.getExpireAfter(TimeUnit.SECONDS)).isEqualTo(DEFAULT_BATCH_TTL_SECONDS);
+        });
+    }
+
+    @Test
+    void configure_batchWithExistingIndex() {
+        indexes.add(new Document("name", INSERTED_AT_INDEX).append(EXPIRE_AFTER_SECONDS, (int) DEFAULT_BATCH_TTL_SECONDS));
+
+        new TestMongoDBEventPublisher(true).configure();
+
+        verify(mongoCollection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+        verify(mongoDatabase, never()).runCommand(any(Bson.class));
+    }
+
+    @Test
+    void configure_batchWithChangedTtl() {
+        indexes.add(new Document("name", INSERTED_AT_INDEX).append(EXPIRE_AFTER_SECONDS, 3600));
+
+        new TestMongoDBEventPublisher(true).configure();
+
+        verify(mongoCollection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+        ArgumentCaptor<Document> commandCaptor = ArgumentCaptor.forClass(Document.class);
+        verify(mongoDatabase, times(2)).runCommand(commandCaptor.capture());
+        assertThat(commandCaptor.getAllValues()).allSatisfy(command -> {
+            assertThat(command.getString("collMod")).isEqualTo("testCollection");
+            assertThat(command.get("index", Document.class))
+                    .containsEntry("name", INSERTED_AT_INDEX)
+                    .containsEntry(EXPIRE_AFTER_SECONDS, DEFAULT_BATCH_TTL_SECONDS);
+        });
+    }
+
+    @Test
+    void configure_withoutBatch() {
+        publisher.configure();
+        verify(mongoCollection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    @Test
+    void testPublishEvents_batch() {
+        MongoDBEventPublisher batchPublisher = new TestMongoDBEventPublisher(true);
+        batchPublisher.configure();
+
+        List<DataEvent<?>> events = new ArrayList<>();
+        events.add(processInstanceDataEvent);
+        events.add(userTaskInstanceDataEvent);
+        events.add(event);
+
+        batchPublisher.publish(events);
+
+        verify(mongoCollection).insertMany(eq(List.of(processInstanceDataEvent)), any(InsertManyOptions.class));
+        verify(mongoCollection).insertMany(eq(List.of(userTaskInstanceDataEvent)), any(InsertManyOptions.class));
+        verify(mongoCollection, never()).insertOne(any());
+        verify(mongoCollection, never()).deleteOne(any());
+        assertThat(batchPublisher.batchStatistics().getBatches()).isEqualTo(2);
+        assertThat(batchPublisher.batchStatistics().getEvents()).isEqualTo(2);
+        assertThat(batchPublisher.batchStatistics().getMaxBatchSize()).isEqualTo(1);
+        // published events are removed by the TTL index
+        verify(mongoCollection, never()).deleteMany(any(Bson.class));
+    }
+
+    @Test
+    void testPublishEvents_batchWithTransaction() {
+        ClientSession clientSession = mock(ClientSession.class);
+        when(transactionManager.getClientSession()).thenReturn(clientSession);
+        when(transactionManager.enabled()).thenReturn(true);
+        MongoDBEventPublisher batchPublisher = new TestMongoDBEventPublisher(true);
+        batchPublisher.configure();
+
+        batchPublisher.publish(List.of(processInstanceDataEvent, userTaskInstanceDataEvent));
+
+        verify(mongoCollection).insertMany(eq(clientSession), eq(List.of(processInstanceDataEvent)), any(InsertManyOptions.class));
+        verify(mongoCollection).insertMany(eq(clientSession), eq(List.of(userTaskInstanceDataEvent)), any(InsertManyOptions.class));
+        verify(mongoCollection, never()).deleteOne(eq(clientSession), any());
+        verify(mongoCollection, never()).deleteMany(eq(clientSession), any(Bson.class));
+    }
 }
@@ -127,6 +127,7 @@ class ProcessInstanceDataEventCodecTest {
             ArgumentCaptor<Document> captor = ArgumentCaptor.forClass(Document.class);
             verify(mockCodec, times(1)).encode(eq(writer), captor.capture(), eq(context));
             Document doc = captor.getValue();
+            assertThat(doc).doesNotContainKey(CodecUtils.INSERTED_AT);
             Map<String, Object> node = new ObjectMapper().readValue(doc.toJson(), Map.class);
 
             assertThat(node).containsEntry(ID, event.getId())
@@ -160,6 +161,22 @@ class ProcessInstanceDataEventCodecTest {
         }
     }
 
+    @Test
+    void encodeWithInsertionTime() {
+        try (MockedStatic<CodecUtils> codecUtils = mockStatic(CodecUtils.class)) {
+            Codec<Document> mockCodec = mock(Codec.class);
+            codecUtils.when(CodecUtils::codec).thenReturn(mockCodec);
+            BsonWriter writer = mock(BsonWriter.class);
+            EncoderContext context = EncoderContext.builder().build();
+
+            new ProcessInstanceDataEventCodec(true).encode(writer, event, context);
+
+            ArgumentCaptor<Document> captor = ArgumentCaptor.forClass(Document.class);
+            verify(mockCodec).encode(eq(writer), captor.capture(), eq(context));
+            assertThat(captor.getValue().get(CodecUtils.INSERTED_AT)).isInstanceOf(Date.class);
+        }
+    }
+
     @Test
     void getEncoderClass() {
         assertThat(codec.getEncoderClass()).isEqualTo(ProcessInstanceDataEvent.class);
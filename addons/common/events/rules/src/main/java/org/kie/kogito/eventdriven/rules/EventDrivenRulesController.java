@@ -18,10 +18,14 @@
  */
 package org.kie.kogito.eventdriven.rules;
 
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.kie.kogito.config.ConfigBean;
@@ -44,6 +48,8 @@ public class EventDrivenRulesController {
 
     private static final String REQUEST_EVENT_TYPE = "RulesRequest";
     private static final String RESPONSE_EVENT_TYPE = "RulesResponse";
+    // bounds the keys remembered for logging, since they come from incoming events
+    private static final int MAX_LOGGED_UNMATCHED_KEYS = 1000;
 
     private static final Logger LOG = LoggerFactory.getLogger(EventDrivenRulesController.class);
 
@@ -51,6 +57,9 @@ public class EventDrivenRulesController {
     private EventEmitter eventEmitter;
     private EventReceiver eventReceiver;
 
+    // query executors indexed by data class and then by rule unit id and query name, a single handler is subscribed per data class
+    private final Map<Class<?>, Map<List<String>, EventDrivenQueryExecutor<?>>> queryExecutors = new ConcurrentHashMap<>();
+
     protected EventDrivenRulesController() {
     }
 
@@ -65,34 +74,58 @@ public class EventDrivenRulesController {
     }
 
     public <D> void subscribe(EventDrivenQueryExecutor<D> queryExecutor, Class<D> objectClass) {
-        eventReceiver.subscribe(new RequestHandler<>(queryExecutor), objectClass);
+        Map<List<String>, EventDrivenQueryExecutor<?>> executors = new ConcurrentHashMap<>();
+        executors.put(routingKey(queryExecutor.getRuleUnitId(), queryExecutor.getQueryName()), queryExecutor);
+        Map<List<String>, EventDrivenQueryExecutor<?>> previous = queryExecutors.putIfAbsent(objectClass, executors);
+        if (previous == null) {
+            eventReceiver.subscribe(new RequestHandler<D>(executors), objectClass);
+        } else {
+            previous.putAll(executors);
+        }
+    }
+
+    private static List<String> routingKey(String ruleUnitId, String queryName) {
+        return Arrays.asList(ruleUnitId, queryName);
     }
 
     private class RequestHandler<T> implements Function<DataEvent<T>, CompletionStage<?>> {
 
-        private EventDrivenQueryExecutor<T> queryExecutor;
+        private final Map<List<String>, EventDrivenQueryExecutor<?>> queryExecutors;
+        private final Set<List<String>> loggedUnmatchedKeys = ConcurrentHashMap.newKeySet();
 
-        public RequestHandler(EventDrivenQueryExecutor<T> queryExecutor) {
-            this.queryExecutor = queryExecutor;
+        public RequestHandler(Map<List<String>, EventDrivenQueryExecutor<?>> queryExecutors) {
+            this.queryExecutors = queryExecutors;
         }
 
         @Override
         public CompletionStage<?> apply(DataEvent<T> event) {
             KogitoRulesExtension extension = ExtensionProvider.getInstance().parseExtension(KogitoRulesExtension.class, event);
             if (CloudEventUtils.isValidRequest(event, REQUEST_EVENT_TYPE, extension)) {
-                buildResponseCloudEvent(event, queryExecutor.executeQuery(event), extension).ifPresentOrElse(c -> eventEmitter.emit(c),
-                        () -> LOG.info("Extension {} does not match this query executor {}", extension, queryExecutor));
+                findQueryExecutor(extension).ifPresentOrElse(queryExecutor -> eventEmitter.emit(buildResponseCloudEvent(event, queryExecutor.executeQuery(event), extension, queryExecutor)),
+                        () -> logUnmatched(extension));
             } else {
                 LOG.warn("Event {} does not have expected information, discarding it", event);
             }
             return CompletableFuture.completedStage(null);
         }
 
-        private Optional<DataEvent<?>> buildResponseCloudEvent(DataEvent<?> event, Object payload, KogitoRulesExtension extension) {
-            return Objects.equals(queryExecutor.getRuleUnitId(), extension.getRuleUnitId()) && Objects.equals(queryExecutor.getQueryName(), extension.getRuleUnitQuery())
-                    ? Optional.of(DataEventFactory.from(payload, RESPONSE_EVENT_TYPE, CloudEventUtils.buildDecisionSource(config.getServiceUrl(), toKebabCase(queryExecutor.getQueryName())),
-                            Optional.ofNullable(event.getSubject()), extension))
-                    : Optional.empty();
+        private void logUnmatched(KogitoRulesExtension extension) {
+            List<String> key = routingKey(extension.getRuleUnitId(), extension.getRuleUnitQuery());
+            if (loggedUnmatchedKeys.size() < MAX_LOGGED_UNMATCHED_KEYS && loggedUnmatchedKeys.add(key)) {
+                LOG.info("Extension {} does not match any query executor {}, further requests for it are logged at debug level", extension, queryExecutors.values());
+            } else {
+                LOG.debug("Extension {} does not match any query executor {}", extension, queryExecutors.values());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Optional<EventDrivenQueryExecutor<T>> findQueryExecutor(KogitoRulesExtension extension) {
+            return Optional.ofNullable((EventDrivenQueryExecutor<T>) queryExecutors.get(routingKey(extension.getRuleUnitId(), extension.getRuleUnitQuery())));
+        }
+
+        private DataEvent<?> buildResponseCloudEvent(DataEvent<?> event, Object payload, KogitoRulesExtension extension, EventDrivenQueryExecutor<?> queryExecutor) {
+            return DataEventFactory.from(payload, RESPONSE_EVENT_TYPE, CloudEventUtils.buildDecisionSource(config.getServiceUrl(), toKebabCase(queryExecutor.getQueryName())),
+                    Optional.ofNullable(event.getSubject()), extension);
         }
 
         private String toKebabCase(String inputString) {
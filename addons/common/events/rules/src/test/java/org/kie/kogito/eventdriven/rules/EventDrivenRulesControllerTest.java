@@ -18,15 +18,27 @@
  */
 package org.kie.kogito.eventdriven.rules;
 
+import java.net.URI;
+import java.util.Optional;
+import java.util.function.Function;
+
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.config.ConfigBean;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.DataEventFactory;
 import org.kie.kogito.event.EventEmitter;
 import org.kie.kogito.event.EventReceiver;
+import org.kie.kogito.event.cloudevents.extension.KogitoRulesExtension;
+import org.mockito.ArgumentCaptor;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class EventDrivenRulesControllerTest {
 
@@ -51,4 +63,39 @@ class EventDrivenRulesControllerTest {
         verify(eventReceiverMock).subscribe(any(), any());
     }
 
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void testRequestIsRoutedToMatchingQueryExecutor() {
+        KogitoRulesExtension.register();
+        ConfigBean configMock = mock(ConfigBean.class);
+        EventEmitter eventEmitterMock = mock(EventEmitter.class);
+        EventReceiver eventReceiverMock = mock(EventReceiver.class);
+        EventDrivenQueryExecutor<Object> firstQueryExecutor = mockQueryExecutor("firstQuery");
+        EventDrivenQueryExecutor<Object> secondQueryExecutor = mockQueryExecutor("secondQuery");
+
+        EventDrivenRulesController controller = new EventDrivenRulesController(configMock, eventEmitterMock, eventReceiverMock);
+        controller.subscribe(firstQueryExecutor, Object.class);
+        controller.subscribe(secondQueryExecutor, Object.class);
+
+        ArgumentCaptor<Function> handler = ArgumentCaptor.forClass(Function.class);
+        verify(eventReceiverMock, times(1)).subscribe(handler.capture(), eq(Object.class));
+
+        KogitoRulesExtension extension = new KogitoRulesExtension();
+        extension.setRuleUnitId("unit");
+        extension.setRuleUnitQuery("secondQuery");
+        DataEvent<Object> event = DataEventFactory.from(new Object(), "RulesRequest", URI.create("/test"), Optional.empty(), extension);
+        handler.getValue().apply(event);
+
+        verify(firstQueryExecutor, never()).executeQuery(any());
+        verify(secondQueryExecutor).executeQuery(event);
+        verify(eventEmitterMock).emit(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventDrivenQueryExecutor<Object> mockQueryExecutor(String queryName) {
+        EventDrivenQueryExecutor<Object> queryExecutor = mock(EventDrivenQueryExecutor.class);
+        when(queryExecutor.getRuleUnitId()).thenReturn("unit");
+        when(queryExecutor.getQueryName()).thenReturn(queryName);
+        return queryExecutor;
+    }
 }
@@ -23,11 +23,20 @@ import java.util.Map;
 
 public class RandomForestConfiguration {
 
+    // training is a full pass over the window, so it is amortized over a batch of observations
+    public static final int DEFAULT_RETRAIN_OBSERVATIONS = 100;
+    public static final long DEFAULT_RETRAIN_INTERVAL_SECONDS = 0;
+    public static final int DEFAULT_MAX_OBSERVATIONS = 10000;
+
     private String outcomeName;
     private AttributeType outcomeType;
     private double confidenceThreshold;
     private int numTrees;
     private Map<String, AttributeType> inputFeatures = new HashMap<>();
+    private int retrainObservations = DEFAULT_RETRAIN_OBSERVATIONS;
+    private long retrainIntervalSeconds = DEFAULT_RETRAIN_INTERVAL_SECONDS;
+    private int maxObservations = DEFAULT_MAX_OBSERVATIONS;
+    private boolean reservoirSampling;
 
     public int getNumTrees() {
         return numTrees;
@@ -83,4 +92,56 @@ public class RandomForestConfiguration {
     public void setInputFeatures(Map<String, AttributeType> inputFeatures) {
         this.inputFeatures = inputFeatures;
     }
+
+    /**
+     * Returns the number of new observations that trigger a background training of the model
+     *
+     * @return The number of observations
+     */
+    public int getRetrainObservations() {
+        return retrainObservations;
+    }
+
+    public void setRetrainObservations(int retrainObservations) {
+        this.retrainObservations = retrainObservations;
+    }
+
+    /**
+     * Returns the period of the background training of the model, performed only if there are new observations
+     *
+     * @return The period in seconds, 0 if disabled
+     */
+    public long getRetrainIntervalSeconds() {
+        return retrainIntervalSeconds;
+    }
+
+    public void setRetrainIntervalSeconds(long retrainIntervalSeconds) {
+        this.retrainIntervalSeconds = retrainIntervalSeconds;
+    }
+
+    /**
+     * Returns the maximum number of observations used to train the model
+     *
+     * @return The maximum number of observations
+     */
+    public int getMaxObservations() {
+        return maxObservations;
+    }
+
+    public void setMaxObservations(int maxObservations) {
+        this.maxObservations = maxObservations;
+    }
+
+    /**
+     * Returns whether observations beyond the maximum are kept using reservoir sampling instead of a sliding window
+     *
+     * @return true if reservoir sampling is used
+     */
+    public boolean isReservoirSampling() {
+        return reservoirSampling;
+    }
+
+    public void setReservoirSampling(boolean reservoirSampling) {
+        this.reservoirSampling = reservoirSampling;
+    }
 }
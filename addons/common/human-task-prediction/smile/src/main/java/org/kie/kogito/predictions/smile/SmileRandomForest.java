@@ -20,15 +20,23 @@ package org.kie.kogito.predictions.smile;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.kie.api.runtime.process.WorkItem;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
+import org.kie.kogito.metrics.KogitoMeters;
 import org.kie.kogito.prediction.api.PredictionOutcome;
 import org.kie.kogito.prediction.api.PredictionService;
 import org.slf4j.Logger;
@@ -36,35 +44,57 @@ import org.slf4j.LoggerFactory;
 
 import smile.classification.RandomForest;
 import smile.data.Attribute;
-import smile.data.AttributeDataset;
 import smile.data.NominalAttribute;
 import smile.data.NumericAttribute;
 import smile.data.StringAttribute;
 
-public class SmileRandomForest extends AbstractPredictionEngine implements PredictionService {
+public class SmileRandomForest extends AbstractPredictionEngine implements PredictionService, AutoCloseable {
 
     public static final String IDENTIFIER = "SMILERandomForest";
     private static final String UNABLE_PARSE_TEXT = "Unable to parse text";
     private static final Logger logger = LoggerFactory.getLogger(SmileRandomForest.class);
+    private static final AtomicInteger MODELS = new AtomicInteger();
 
-    private final AttributeDataset dataset;
     private final Map<String, Attribute> smileAttributes;
+    private final Attribute[] attributes;
     private final Attribute outcomeAttribute;
     private final AttributeType outcomeAttributeType;
     private final int numAttributes;
     private final int numberTrees;
     protected List<String> attributeNames = new ArrayList<>();
 
-    private Set<String> outcomeSet = new HashSet<>();
     private static final int MINIMUM_OBSERVATIONS = 1200;
-    private int observations = 0;
+    private final AtomicInteger observations = new AtomicInteger();
+
+    // training window, guarded by itself
+    private final List<double[]> windowFeatures = new ArrayList<>();
+    private final List<Integer> windowOutcomes = new ArrayList<>();
+    private final int maxObservations;
+    private final boolean reservoirSampling;
+    private int windowNext;
+    private long windowSeen;
+    private boolean windowChanged;
+
+    private final int retrainObservations;
+    private final ScheduledFuture<?> periodicTraining;
+    private final AtomicBoolean trainingScheduled = new AtomicBoolean();
+    // predictions only read the latest trained snapshot, training never blocks them
+    private volatile TrainedModel trainedModel;
+
+    private final AtomicLong lastTrainingTimeMillis = new AtomicLong();
+    private final AtomicLong predictions = new AtomicLong();
+    private final AtomicLong predictionsLatencyNanos = new AtomicLong();
 
     public SmileRandomForest(RandomForestConfiguration configuration) {
         this(configuration.getInputFeatures(),
                 configuration.getOutcomeName(),
                 configuration.getOutcomeType(),
                 configuration.getConfidenceThreshold(),
-                configuration.getNumTrees());
+                configuration.getNumTrees(),
+                configuration.getRetrainObservations(),
+                configuration.getRetrainIntervalSeconds(),
+                configuration.getMaxObservations(),
+                configuration.isReservoirSampling());
     }
 
     public SmileRandomForest(Map<String, AttributeType> inputFeatures,
@@ -72,8 +102,34 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
             AttributeType outputFeatureType,
             double confidenceThreshold,
             int numberTrees) {
+        this(inputFeatures, outputFeatureName, outputFeatureType, confidenceThreshold, numberTrees,
+                RandomForestConfiguration.DEFAULT_RETRAIN_OBSERVATIONS,
+                RandomForestConfiguration.DEFAULT_RETRAIN_INTERVAL_SECONDS,
+                RandomForestConfiguration.DEFAULT_MAX_OBSERVATIONS,
+                false);
+    }
+
+    /**
+     * @param retrainObservations number of new observations that trigger a background retraining of the model
+     * @param retrainIntervalSeconds period, in seconds, of the background retraining when new observations are available, 0 to disable it
+     * @param maxObservations maximum number of observations used to train the model
+     * @param reservoirSampling if true, once the maximum is reached observations are kept using reservoir sampling
+     *        over the whole history, otherwise only the most recent ones are kept
+     */
+    public SmileRandomForest(Map<String, AttributeType> inputFeatures,
+            String outputFeatureName,
+            AttributeType outputFeatureType,
+            double confidenceThreshold,
+            int numberTrees,
+            int retrainObservations,
+            long retrainIntervalSeconds,
+            int maxObservations,
+            boolean reservoirSampling) {
         super(inputFeatures, outputFeatureName, outputFeatureType, confidenceThreshold);
         this.numberTrees = numberTrees;
+        this.retrainObservations = Math.max(1, retrainObservations);
+        this.maxObservations = Math.max(1, maxObservations);
+        this.reservoirSampling = reservoirSampling;
         smileAttributes = new HashMap<>();
         for (Entry<String, AttributeType> inputFeature : inputFeatures.entrySet()) {
             final String name = inputFeature.getKey();
@@ -85,7 +141,31 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
         outcomeAttribute = createAttribute(outputFeatureName, outputFeatureType);
         outcomeAttributeType = outputFeatureType;
 
-        dataset = new AttributeDataset("dataset", smileAttributes.values().toArray(new Attribute[numAttributes]), outcomeAttribute);
+        attributes = smileAttributes.values().toArray(new Attribute[numAttributes]);
+
+        periodicTraining = retrainIntervalSeconds > 0
+                ? TrainingExecutor.INSTANCE.scheduleWithFixedDelay(this::retrain, retrainIntervalSeconds, retrainIntervalSeconds, TimeUnit.SECONDS)
+                : null;
+        registerMeters(outputFeatureName);
+    }
+
+    // several models may predict the same outcome, so each one is tagged with its own name
+    private void registerMeters(String outcome) {
+        String[] tags = { "model", IDENTIFIER + "-" + MODELS.incrementAndGet(), "outcome", outcome };
+        KogitoMeters.gauge("kogito_prediction_model_age_milliseconds", "Time elapsed since the model used by predictions was trained", this, SmileRandomForest::getModelAgeMillis, tags);
+        KogitoMeters.gauge("kogito_prediction_training_time_milliseconds", "Time spent by the last model training", this, SmileRandomForest::getLastTrainingTimeMillis, tags);
+        KogitoMeters.timer("kogito_prediction", "Predictions performed and the time spent performing them", this, SmileRandomForest::getPredictions,
+                SmileRandomForest::getPredictionsLatencyNanos, tags);
+    }
+
+    /**
+     * Stops the periodic background retraining of this model.
+     */
+    @Override
+    public void close() {
+        if (periodicTraining != null) {
+            periodicTraining.cancel(false);
+        }
     }
 
     protected Attribute createAttribute(String name, AttributeType type) {
@@ -111,7 +191,7 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     }
 
     /**
-     * Add the data provided as a map to a Smile {@link smile.data.Dataset}.
+     * Add the data provided as a map to the observations used to train the model.
      *
      * @param data A map containing the input attribute names as keys and the attribute values as values.
      * @param outcome The value of the outcome (output data).
@@ -129,13 +209,78 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
         }
         try {
             final String outcomeStr = outcome.toString();
-            outcomeSet.add(outcomeStr);
-            dataset.add(features, outcomeAttribute.valueOf(outcomeStr));
+            final int label = (int) outcomeAttribute.valueOf(outcomeStr);
+            synchronized (windowFeatures) {
+                addObservation(features, label);
+                windowChanged = true;
+            }
         } catch (ParseException e) {
             logger.error(UNABLE_PARSE_TEXT, e);
         }
     }
 
+    private void addObservation(double[] features, int label) {
+        windowSeen++;
+        if (windowFeatures.size() < maxObservations) {
+            windowFeatures.add(features);
+            windowOutcomes.add(label);
+            return;
+        }
+        int index;
+        if (reservoirSampling) {
+            // keeps every observation seen so far with the same probability
+            long candidate = ThreadLocalRandom.current().nextLong(windowSeen);
+            if (candidate >= maxObservations) {
+                return;
+            }
+            index = (int) candidate;
+        } else {
+            // sliding window, replaces the oldest observation
+            index = windowNext;
+            windowNext = (windowNext + 1) % maxObservations;
+        }
+        windowFeatures.set(index, features);
+        windowOutcomes.set(index, label);
+    }
+
+    /**
+     * Trains a new model with the current observations and makes it available to predictions.
+     * It does nothing if there are no new observations since the last training.
+     */
+    public synchronized void retrain() {
+        final double[][] x;
+        final int[] y;
+        synchronized (windowFeatures) {
+            trainingScheduled.set(false);
+            if (!windowChanged) {
+                return;
+            }
+            windowChanged = false;
+            x = windowFeatures.toArray(new double[windowFeatures.size()][]);
+            y = windowOutcomes.stream().mapToInt(Integer::intValue).toArray();
+        }
+        // smile requires classes to be numbered from 0 without gaps, but the window might have dropped some outcomes
+        final int[] labels = Arrays.stream(y).distinct().sorted().toArray();
+        if (labels.length < 2) {
+            return;
+        }
+        final int[] classes = Arrays.stream(y).map(label -> Arrays.binarySearch(labels, label)).toArray();
+        final long startTime = System.currentTimeMillis();
+        try {
+            trainedModel = new TrainedModel(new RandomForest(attributes, x, classes, numberTrees), labels, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.warn("Unable to train model with {} observations, keeping previous one", x.length, e);
+        } finally {
+            lastTrainingTimeMillis.set(System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void scheduleRetrain() {
+        if (trainingScheduled.compareAndSet(false, true)) {
+            TrainingExecutor.INSTANCE.execute(this::retrain);
+        }
+    }
+
     /**
      * Build a set of features compatible with Smile's datasets from the map of input data
      *
@@ -175,24 +320,39 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     @Override
     public PredictionOutcome predict(WorkItem task, Map<String, Object> inputData) {
         logger.debug("Predicting with input data: {}", inputData);
-        RandomForest model = null;
-        if (observations > MINIMUM_OBSERVATIONS) {
+        final long startTime = System.nanoTime();
+        try {
+            return doPredict(task, inputData);
+        } finally {
+            predictionsLatencyNanos.addAndGet(System.nanoTime() - startTime);
+            predictions.incrementAndGet();
+        }
+    }
+
+    private PredictionOutcome doPredict(WorkItem task, Map<String, Object> inputData) {
+        final int currentObservations = observations.get();
+        if (currentObservations > MINIMUM_OBSERVATIONS) {
             this.confidenceThreshold = 0.75;
         }
 
+        TrainedModel model = trainedModel;
+        if (model == null) {
+            // the first model is trained in the background as well, meanwhile predictions fall back to no confidence
+            scheduleRetrain();
+        }
+
         Map<String, Object> outcomes = new HashMap<>();
-        if (outcomeSet.size() >= 2) {
-            model = new RandomForest(dataset, this.numberTrees);
+        if (model != null) {
             final double[] features = buildFeatures(inputData);
-            final double[] posteriori = new double[outcomeSet.size()];
-            double prediction = model.predict(features, posteriori);
+            final double[] posteriori = new double[model.labels.length];
+            final int predictedClass = model.randomForest.predict(features, posteriori);
 
-            String predictionStr = dataset.responseAttribute().toString(prediction);
+            String predictionStr = outcomeAttribute.toString(model.labels[predictedClass]);
             outcomes.put(outcomeAttribute.getName(), convertValue(predictionStr, outcomeAttributeType));
-            final double confidence = posteriori[(int) prediction];
+            final double confidence = posteriori[predictedClass];
             outcomes.put("confidence", confidence);
 
-            logger.debug("task id {}, total {} observations, prediction = {}, confidence = {} (threshold = {})", ((KogitoWorkItem) task).getStringId(), this.observations, predictionStr, confidence,
+            logger.debug("task id {}, total {} observations, prediction = {}, confidence = {} (threshold = {})", ((KogitoWorkItem) task).getStringId(), currentObservations, predictionStr, confidence,
                     this.confidenceThreshold);
 
             return new PredictionOutcome(confidence, this.confidenceThreshold, outcomes);
@@ -213,8 +373,64 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     public void train(WorkItem task, Map<String, Object> inputData, Map<String, Object> outputData) {
         logger.debug("Training with input data: {}", inputData);
         logger.debug("Training with output data: {}", outputData);
-        this.observations += 1;
+        int currentObservations = observations.incrementAndGet();
 
         addData(inputData, outputData.get(outcomeAttribute.getName()));
+        if (currentObservations % retrainObservations == 0) {
+            scheduleRetrain();
+        }
+    }
+
+    /**
+     * @return milliseconds elapsed since the model used by predictions was trained, -1 if there is no model yet
+     */
+    public long getModelAgeMillis() {
+        TrainedModel model = trainedModel;
+        return model == null ? -1 : System.currentTimeMillis() - model.trainedAt;
+    }
+
+    /**
+     * @return milliseconds spent by the last model training
+     */
+    public long getLastTrainingTimeMillis() {
+        return lastTrainingTimeMillis.get();
+    }
+
+    /**
+     * @return number of predictions performed
+     */
+    public long getPredictions() {
+        return predictions.get();
+    }
+
+    /**
+     * @return accumulated time, in nanoseconds, spent performing predictions
+     */
+    public long getPredictionsLatencyNanos() {
+        return predictionsLatencyNanos.get();
+    }
+
+    private static class TrainedModel {
+
+        private final RandomForest randomForest;
+        // outcome label of every class of the forest
+        private final int[] labels;
+        private final long trainedAt;
+
+        private TrainedModel(RandomForest randomForest, int[] labels, long trainedAt) {
+            this.randomForest = randomForest;
+            this.labels = labels;
+            this.trainedAt = trainedAt;
+        }
+    }
+
+    // shared by every model, so instances do not leak a thread each
+    private static class TrainingExecutor {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "smile-random-forest-training");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
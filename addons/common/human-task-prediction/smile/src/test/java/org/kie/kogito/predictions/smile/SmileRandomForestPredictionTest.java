@@ -27,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.Model;
 import org.kie.kogito.prediction.api.PredictionAwareHumanTaskWorkItemHandler;
+import org.kie.kogito.prediction.api.PredictionOutcome;
 import org.kie.kogito.prediction.api.PredictionService;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
@@ -35,6 +36,7 @@ import org.kie.kogito.process.bpmn2.BpmnVariables;
 import org.kie.kogito.process.impl.CachedWorkItemHandlerConfig;
 import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
 import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.process.workitems.impl.KogitoWorkItemImpl;
 import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
 import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
 
@@ -72,6 +74,8 @@ public class SmileRandomForestPredictionTest {
         for (int i = 0; i < 8; i++) {
             predictionService.train(null, Collections.singletonMap("ActorId", "mary"), Collections.singletonMap("output", "value"));
         }
+        // fewer observations than needed to trigger a background training
+        ((SmileRandomForest) predictionService).retrain();
     }
 
     @Test
@@ -88,4 +92,68 @@ public class SmileRandomForestPredictionTest {
         assertThat(result.toMap()).hasSize(2)
                 .containsEntry("s", "predicted value");
     }
+
+    @Test
+    public void testPredictionUsesTrainedSnapshot() {
+        SmileRandomForest smileRandomForest = (SmileRandomForest) predictionService;
+        PredictionOutcome outcome = smileRandomForest.predict(new KogitoWorkItemImpl(), Collections.singletonMap("ActorId", "john"));
+        assertThat(outcome.getData()).containsEntry("output", "predicted value");
+        assertThat(smileRandomForest.getModelAgeMillis()).isNotNegative();
+        assertThat(smileRandomForest.getPredictions()).isOne();
+        assertThat(smileRandomForest.getPredictionsLatencyNanos()).isPositive();
+    }
+
+    @Test
+    public void testFirstModelIsTrainedInBackground() throws InterruptedException {
+        final RandomForestConfiguration configuration = new RandomForestConfiguration();
+        configuration.setInputFeatures(Collections.singletonMap("ActorId", AttributeType.NOMINAL));
+        configuration.setOutcomeName("output");
+        configuration.setOutcomeType(AttributeType.NOMINAL);
+        configuration.setConfidenceThreshold(0.7);
+        configuration.setNumTrees(1);
+
+        try (SmileRandomForest smileRandomForest = new SmileRandomForest(configuration)) {
+            for (int i = 0; i < 10; i++) {
+                smileRandomForest.train(null, Collections.singletonMap("ActorId", "john"), Collections.singletonMap("output", "predicted value"));
+                smileRandomForest.train(null, Collections.singletonMap("ActorId", "mary"), Collections.singletonMap("output", "value"));
+            }
+
+            PredictionOutcome fallback = smileRandomForest.predict(new KogitoWorkItemImpl(), Collections.singletonMap("ActorId", "john"));
+            assertThat(fallback.getConfidenceLevel()).isZero();
+            assertThat(fallback.getData()).doesNotContainKey("output");
+
+            for (int i = 0; i < 100 && smileRandomForest.getModelAgeMillis() < 0; i++) {
+                Thread.sleep(100L);
+            }
+            assertThat(smileRandomForest.predict(new KogitoWorkItemImpl(), Collections.singletonMap("ActorId", "john")).getData()).containsEntry("output", "predicted value");
+        }
+    }
+
+    @Test
+    public void testSlidingWindowKeepsMostRecentObservations() {
+        final RandomForestConfiguration configuration = new RandomForestConfiguration();
+        configuration.setInputFeatures(Collections.singletonMap("ActorId", AttributeType.NOMINAL));
+        configuration.setOutcomeName("output");
+        configuration.setOutcomeType(AttributeType.NOMINAL);
+        configuration.setConfidenceThreshold(0.7);
+        configuration.setNumTrees(20);
+        configuration.setMaxObservations(10);
+        configuration.setRetrainObservations(Integer.MAX_VALUE);
+
+        try (SmileRandomForest smileRandomForest = new SmileRandomForest(configuration)) {
+            for (int i = 0; i < 10; i++) {
+                smileRandomForest.train(null, Collections.singletonMap("ActorId", "john"), Collections.singletonMap("output", "predicted value"));
+            }
+            for (int i = 0; i < 6; i++) {
+                smileRandomForest.train(null, Collections.singletonMap("ActorId", "mary"), Collections.singletonMap("output", "value"));
+                smileRandomForest.train(null, Collections.singletonMap("ActorId", "peter"), Collections.singletonMap("output", "other value"));
+            }
+
+            // the first outcome has been dropped from the window, the model is trained with the remaining ones
+            smileRandomForest.retrain();
+            assertThat(smileRandomForest.getModelAgeMillis()).isNotNegative();
+            assertThat(smileRandomForest.predict(new KogitoWorkItemImpl(), Collections.singletonMap("ActorId", "mary")).getData()).containsEntry("output", "value");
+            assertThat(smileRandomForest.predict(new KogitoWorkItemImpl(), Collections.singletonMap("ActorId", "peter")).getData()).containsEntry("output", "other value");
+        }
+    }
 }
@@ -22,10 +22,16 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -44,8 +50,20 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     public static final String PI_DESCRIPTION = "ProcessInstanceDescription";
     public static final String PI_STATUS = "ProcessInstanceStatus";
 
+    /**
+     * Directory, relative to the storage root, holding the business key index of every process
+     */
+    public static final String BUSINESS_KEY_INDEX = ".business-keys";
+
+    private static final String INDEX_KEYS = "keys";
+    private static final String INDEX_INSTANCES = "instances";
+    private static final String INDEX_READY = ".indexed";
+    private static final int MAX_FILE_NAME_LENGTH = 200;
+
     private Process<?> process;
     private Path storage;
+    private Path businessKeyIndex;
+    private volatile boolean businessKeyIndexReady;
 
     private ProcessInstanceMarshallerService marshaller;
 
@@ -56,10 +74,13 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshallerService marshaller) {
         this.process = process;
         this.storage = Paths.get(storage.toString(), process.id());
+        this.businessKeyIndex = Paths.get(storage.toString(), BUSINESS_KEY_INDEX, process.id());
         this.marshaller = marshaller;
 
         try {
             Files.createDirectories(this.storage);
+            Files.createDirectories(this.businessKeyIndex.resolve(INDEX_KEYS));
+            Files.createDirectories(this.businessKeyIndex.resolve(INDEX_INSTANCES));
         } catch (IOException e) {
             throw new RuntimeException("Unable to create directories for file based storage of process instances", e);
         }
@@ -76,6 +97,18 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         return Optional.of(marshaller.unmarshallProcessInstance(data, process, mode));
     }
 
+    @Override
+    public Optional findByBusinessKey(String businessKey, ProcessInstanceReadMode mode) {
+        ensureBusinessKeyIndex();
+        Path keyEntry = businessKeyIndex.resolve(INDEX_KEYS).resolve(fileName(businessKey));
+        if (Files.notExists(keyEntry)) {
+            return Optional.empty();
+        }
+        // the entry might be stale (instance removed meanwhile) or, for very long keys, belong to a different key with the same digest
+        return findById(new String(readBytesFromFile(keyEntry), StandardCharsets.UTF_8), mode)
+                .filter(pi -> businessKey.equals(((ProcessInstance<?>) pi).businessKey()));
+    }
+
     @Override
     public Stream<ProcessInstance> stream(ProcessInstanceReadMode mode) {
         try {
@@ -101,6 +134,10 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
             if (Files.exists(processInstanceStorage)) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            // the index is written first, so an interrupted create never leaves an instance that cannot be found by business key
+            if (instance.businessKey() != null) {
+                indexBusinessKey(id, instance.businessKey());
+            }
             storeProcessInstance(processInstanceStorage, instance);
         }
     }
@@ -122,11 +159,84 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         Path processInstanceStorage = Paths.get(storage.toString(), id);
         try {
             Files.deleteIfExists(processInstanceStorage);
+            removeBusinessKey(id);
         } catch (IOException e) {
             throw new RuntimeException("Unable to remove process instance with id " + id, e);
         }
     }
 
+    private void indexBusinessKey(String id, String businessKey) {
+        try {
+            writeAtomically(businessKeyIndex.resolve(INDEX_INSTANCES).resolve(id), businessKey.getBytes(StandardCharsets.UTF_8));
+            writeAtomically(businessKeyIndex.resolve(INDEX_KEYS).resolve(fileName(businessKey)), id.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to index process instance with id " + id + " by business key " + businessKey, e);
+        }
+    }
+
+    private void removeBusinessKey(String id) throws IOException {
+        Path instanceEntry = businessKeyIndex.resolve(INDEX_INSTANCES).resolve(id);
+        if (Files.notExists(instanceEntry)) {
+            return;
+        }
+        Path keyEntry = businessKeyIndex.resolve(INDEX_KEYS).resolve(fileName(new String(readBytesFromFile(instanceEntry), StandardCharsets.UTF_8)));
+        // another instance might have been started later on with the same business key
+        if (Files.exists(keyEntry) && id.equals(new String(readBytesFromFile(keyEntry), StandardCharsets.UTF_8))) {
+            Files.deleteIfExists(keyEntry);
+        }
+        Files.deleteIfExists(instanceEntry);
+    }
+
+    /**
+     * Indexes the instances stored before the business key index was introduced. Executed once per process.
+     */
+    private void ensureBusinessKeyIndex() {
+        if (businessKeyIndexReady) {
+            return;
+        }
+        synchronized (this) {
+            Path ready = businessKeyIndex.resolve(INDEX_READY);
+            if (!businessKeyIndexReady && Files.notExists(ready)) {
+                try (Stream<ProcessInstance> instances = stream(ProcessInstanceReadMode.READ_ONLY)) {
+                    Iterator<ProcessInstance> iterator = instances.iterator();
+                    while (iterator.hasNext()) {
+                        ProcessInstance<?> instance = iterator.next();
+                        if (instance.businessKey() != null) {
+                            indexBusinessKey(instance.id(), instance.businessKey());
+                        }
+                    }
+                    Files.createFile(ready);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to index process instances by business key", e);
+                }
+            }
+            businessKeyIndexReady = true;
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), null, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String fileName(String businessKey) {
+        byte[] bytes = businessKey.getBytes(StandardCharsets.UTF_8);
+        String fileName = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        if (fileName.length() <= MAX_FILE_NAME_LENGTH) {
+            return fileName;
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     protected void storeProcessInstance(Path processInstanceStorage, ProcessInstance<?> instance) {
         try {
             byte[] data = marshaller.marshallProcessInstance(instance);
@@ -160,6 +160,21 @@ class FileSystemProcessInstancesTest {
         assertEmpty(fileSystemBasedStorage);
     }
 
+    @Test
+    void testFindByBusinessKey() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("businessKey", BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances.findByBusinessKey("businessKey")).hasValueSatisfying(pi -> assertThat(pi.id()).isEqualTo(processInstance.id()));
+        assertThat(instances.findByBusinessKey("anotherBusinessKey")).isEmpty();
+
+        processInstance.abort();
+        assertThat(instances.findByBusinessKey("businessKey")).isEmpty();
+        assertEmpty(instances);
+    }
+
     @Test
     void testBasicFlowWithStartFrom() {
         BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
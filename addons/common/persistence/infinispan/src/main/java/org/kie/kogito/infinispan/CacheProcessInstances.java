@@ -18,8 +18,15 @@
  */
 package org.kie.kogito.infinispan;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Supplier;
@@ -38,24 +45,35 @@ import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 
 @SuppressWarnings({ "rawtypes" })
 public class CacheProcessInstances implements MutableProcessInstances {
 
+    private static final String BUSINESS_KEY_ENTRY = "k:";
+    private static final String INSTANCE_ENTRY = "i:";
+    private static final String INDEX_READY = "m:indexed";
+
     private final RemoteCache<String, byte[]> cache;
+    private final RemoteCache<String, String> businessKeyCache;
     private final ProcessInstanceMarshallerService marshaller;
     private final org.kie.kogito.process.Process<?> process;
     private final boolean lock;
+    private volatile boolean businessKeyIndexReady;
 
     public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName, boolean lock) {
         this.process = process;
         String cacheName = process.id() + "_store";
+        String businessKeyCacheName = process.id() + "_business_key";
         if (ConversionUtils.isEmpty(templateName)) {
             this.cache = cacheManager.administration().getOrCreateCache(cacheName, DefaultTemplate.LOCAL);
+            this.businessKeyCache = cacheManager.administration().getOrCreateCache(businessKeyCacheName, DefaultTemplate.LOCAL);
         } else {
             this.cache = cacheManager.administration().getOrCreateCache(cacheName, templateName);
+            this.businessKeyCache = cacheManager.administration().getOrCreateCache(businessKeyCacheName, templateName);
         }
         this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
         this.lock = lock;
@@ -75,6 +93,14 @@ public class CacheProcessInstances implements MutableProcessInstances {
         return Optional.ofNullable(cache.getWithMetadata(id)).map(record -> unmarshall(record, mode));
     }
 
+    @Override
+    public Optional<? extends ProcessInstance> findByBusinessKey(String businessKey, ProcessInstanceReadMode mode) {
+        ensureBusinessKeyIndex();
+        String id = businessKeyCache.get(BUSINESS_KEY_ENTRY + businessKey);
+        // the index might point to an instance removed while the entry was being written
+        return id == null ? Optional.empty() : findById(id, mode).filter(pi -> businessKey.equals(pi.businessKey()));
+    }
+
     @Override
     public Stream<? extends ProcessInstance> stream(ProcessInstanceReadMode mode) {
         if (lock) {
@@ -85,6 +111,101 @@ public class CacheProcessInstances implements MutableProcessInstances {
         }
     }
 
+    /**
+     * Payloads are opaque to the server, so they cannot be indexed or queried. The page is resolved over the cache keys
+     * (or the business key index when filtering by business key prefix) and only the instances belonging to the page are
+     * read and unmarshalled. Resolving the candidate ids iterates over every key of the cache, so each page costs O(n) in
+     * the number of stored instances, although only a bounded window of ids is kept in memory and sorted.
+     */
+    @Override
+    public ProcessInstancePage<ProcessInstance<?>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        int chunkSize = query.pageSize() + 1;
+        CandidateIds candidates = new CandidateIds(query, chunkSize * ProcessInstancePage.DEFAULT_MAX_CHUNKS);
+        return ProcessInstancePage.of(query, chunkSize, afterId -> readChunk(candidates, afterId, chunkSize, mode));
+    }
+
+    /**
+     * Window over the smallest candidate ids following a given one, collected with a bounded heap instead of sorting the
+     * whole key set. The window is collected again once it has been consumed and more candidates might follow.
+     */
+    private class CandidateIds {
+
+        private final ProcessInstanceQuery query;
+        private final int windowSize;
+        private List<String> ids;
+        private boolean truncated;
+
+        private CandidateIds(ProcessInstanceQuery query, int windowSize) {
+            this.query = query;
+            this.windowSize = windowSize;
+        }
+
+        private List<String> next(String afterId, int count) {
+            if (ids == null || (truncated && (ids.isEmpty() || afterId != null && afterId.compareTo(ids.get(ids.size() - 1)) >= 0))) {
+                ids = collect(afterId);
+                truncated = ids.size() == windowSize;
+            }
+            int index = 0;
+            if (afterId != null) {
+                int position = Collections.binarySearch(ids, afterId);
+                index = position >= 0 ? position + 1 : -position - 1;
+            }
+            return ids.subList(index, Math.min(ids.size(), index + count));
+        }
+
+        private List<String> collect(String afterId) {
+            Stream<String> candidates;
+            if (query.businessKeyPrefix() != null) {
+                ensureBusinessKeyIndex();
+                candidates = businessKeyCache.entrySet().stream()
+                        .filter(e -> e.getKey().startsWith(INSTANCE_ENTRY) && e.getValue().startsWith(query.businessKeyPrefix()))
+                        .map(e -> e.getKey().substring(INSTANCE_ENTRY.length()));
+            } else {
+                candidates = cache.keySet().stream();
+            }
+            // largest id on top, so it is the one evicted when a smaller id shows up
+            PriorityQueue<String> window = new PriorityQueue<>(windowSize + 1, Comparator.reverseOrder());
+            try (Stream<String> keys = candidates) {
+                keys.filter(id -> afterId == null || id.compareTo(afterId) > 0).forEach(id -> {
+                    if (window.size() < windowSize) {
+                        window.add(id);
+                    } else if (id.compareTo(window.peek()) < 0) {
+                        window.poll();
+                        window.add(id);
+                    }
+                });
+            }
+            List<String> sorted = new ArrayList<>(window);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private List<ProcessInstance<?>> readChunk(CandidateIds candidates, String afterId, int limit, ProcessInstanceReadMode mode) {
+        List<ProcessInstance<?>> chunk = new ArrayList<>(limit);
+        String last = afterId;
+        // instances removed after the ids were collected are skipped, so the chunk is only short when ids are exhausted
+        while (chunk.size() < limit) {
+            List<String> slice = candidates.next(last, limit - chunk.size());
+            if (slice.isEmpty()) {
+                break;
+            }
+            last = slice.get(slice.size() - 1);
+            if (lock) {
+                slice.forEach(id -> findWithLock(id, mode).ifPresent(chunk::add));
+            } else {
+                Map<String, byte[]> data = cache.getAll(new LinkedHashSet<>(slice));
+                for (String id : slice) {
+                    byte[] payload = data.get(id);
+                    if (payload != null) {
+                        chunk.add(marshaller.unmarshallProcessInstance(payload, process, mode));
+                    }
+                }
+            }
+        }
+        return chunk;
+    }
+
     private <T> ProcessInstance<?> unmarshall(MetadataValue<T> versionedCache, ProcessInstanceReadMode mode) {
         ProcessInstance<?> instance = marshaller.unmarshallProcessInstance((byte[]) versionedCache.getValue(), process, mode);
         ((AbstractProcessInstance) instance).setVersion(versionedCache.getVersion());
@@ -103,6 +224,12 @@ public class CacheProcessInstances implements MutableProcessInstances {
     @Override
     public void remove(String id) {
         cache.remove(id);
+        String businessKey = businessKeyCache.get(INSTANCE_ENTRY + id);
+        if (businessKey != null) {
+            // another instance might have been started later on with the same business key
+            businessKeyCache.remove(BUSINESS_KEY_ENTRY + businessKey, id);
+            businessKeyCache.remove(INSTANCE_ENTRY + id);
+        }
     }
 
     @Override
@@ -115,6 +242,10 @@ public class CacheProcessInstances implements MutableProcessInstances {
         if (isActive(instance)) {
             byte[] data = marshaller.marshallProcessInstance(instance);
             if (checkDuplicates) {
+                // the index is written first, so an interrupted create never leaves an instance that cannot be found by business key
+                if (instance.businessKey() != null) {
+                    indexBusinessKey(id, instance.businessKey());
+                }
                 byte[] existing = cache.putIfAbsent(id, data);
                 if (existing != null) {
                     throw new ProcessInstanceDuplicatedException(id);
@@ -134,6 +265,29 @@ public class CacheProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private void indexBusinessKey(String id, String businessKey) {
+        businessKeyCache.put(INSTANCE_ENTRY + id, businessKey);
+        businessKeyCache.put(BUSINESS_KEY_ENTRY + businessKey, id);
+    }
+
+    /**
+     * Indexes the instances stored before the business key index was introduced. Executed once per process.
+     */
+    private void ensureBusinessKeyIndex() {
+        if (businessKeyIndexReady) {
+            return;
+        }
+        synchronized (this) {
+            if (!businessKeyIndexReady && !businessKeyCache.containsKey(INDEX_READY)) {
+                try (Stream<? extends ProcessInstance> instances = stream(ProcessInstanceReadMode.READ_ONLY)) {
+                    instances.filter(pi -> pi.businessKey() != null).forEach(pi -> indexBusinessKey(pi.id(), pi.businessKey()));
+                }
+                businessKeyCache.put(INDEX_READY, Boolean.TRUE.toString());
+            }
+            businessKeyIndexReady = true;
+        }
+    }
+
     private void disconnect(String id, ProcessInstance instance) {
         if (this.lock) {
             reloadWithLock(id, instance);
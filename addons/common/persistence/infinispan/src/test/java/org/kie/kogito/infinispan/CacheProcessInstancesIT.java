@@ -18,6 +18,7 @@
  */
 package org.kie.kogito.infinispan;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -53,8 +54,10 @@ import static org.assertj.core.api.Assertions.entry;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ERROR;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abortFirst;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertEmpty;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertFind;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertOne;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.getFirst;
 
@@ -129,6 +132,27 @@ class CacheProcessInstancesIT {
         assertEmpty(instances);
     }
 
+    @Test
+    void testFind() {
+        StaticProcessConfig config = new StaticProcessConfig();
+        ((DefaultWorkItemHandlerConfig) config.workItemHandlers()).register("Human Task", new DefaultKogitoWorkItemHandler());
+        BpmnProcess process = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        List<ProcessInstance<BpmnVariables>> instances = new ArrayList<>();
+        for (String businessKey : List.of("order-1", "order-2", "orderX3", "invoice-1")) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(businessKey, BpmnVariables.create(Collections.singletonMap("test", "test")));
+            processInstance.start();
+            instances.add(processInstance);
+        }
+
+        assertFind(process.instances(), instances, "order-");
+
+        abort(process.instances());
+        assertEmpty(process.instances());
+    }
+
     @Test
     void testValuesReadMode() {
         StaticProcessConfig config = new StaticProcessConfig();
@@ -176,6 +200,26 @@ class CacheProcessInstancesIT {
         assertEmpty(process.instances());
     }
 
+    @Test
+    void testFindByBusinessKey() {
+        StaticProcessConfig config = new StaticProcessConfig();
+        ((DefaultWorkItemHandlerConfig) config.workItemHandlers()).register("Human Task", new DefaultKogitoWorkItemHandler());
+        BpmnProcess process = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("businessKey", BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances.findByBusinessKey("businessKey")).hasValueSatisfying(pi -> assertThat(pi.id()).isEqualTo(processInstance.id()));
+        assertThat(instances.findByBusinessKey("anotherBusinessKey")).isEmpty();
+
+        processInstance.abort();
+        assertThat(instances.findByBusinessKey("businessKey")).isEmpty();
+        assertEmpty(instances);
+    }
+
     private class CacheProcessInstancesFactory extends AbstractProcessInstancesFactory {
 
         CacheProcessInstancesFactory(RemoteCacheManager cacheManager) {
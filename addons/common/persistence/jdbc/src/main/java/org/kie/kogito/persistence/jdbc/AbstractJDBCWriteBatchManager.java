@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit of work listener that keeps, per execution thread, the process instance writes issued while the
+ * unit of work is active and flushes all of them at once, on a single connection.
+ * <p>
+ * Units of work started while another one is active on the same thread (e.g. a nested unit of work executed by a work unit)
+ * get their own batch, and the outer batch is the current one again once they end.
+ * <p>
+ * The flush is a work unit of the unit of work itself, registered with the first write. It runs right after the
+ * process instance work units and before any other work or the publishing of events, so whatever happens next
+ * sees the stored instances and a failed flush (e.g. an optimistic lock conflict) aborts the unit of work.
+ * Pending writes are discarded if the unit of work is aborted.
+ * <p>
+ * Lookups by process instance id read the pending writes, other queries flush them first (see {@link #flushPending()}).
+ */
+public abstract class AbstractJDBCWriteBatchManager implements UnitOfWorkEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractJDBCWriteBatchManager.class);
+
+    /**
+     * Priority of the flush work unit: after process instance work units ({@link WorkUnit#HIGH_PRIORITY}) but before
+     * any other work.
+     */
+    public static final int FLUSH_PRIORITY = WorkUnit.HIGH_PRIORITY + 10;
+
+    private final Repository repository;
+    private final Boolean enabled;
+
+    private final ThreadLocal<Deque<BatchContext>> batchLocal = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public AbstractJDBCWriteBatchManager(DataSource dataSource, Boolean enabled) {
+        this.repository = dataSource == null ? null : new GenericRepository(dataSource);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        if (!enabled()) {
+            return;
+        }
+        batchLocal.get().push(new BatchContext(event.getUnitOfWork()));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        if (!enabled()) {
+            return;
+        }
+        // already flushed by the work unit, unless nothing has been written
+        remove(event.getUnitOfWork());
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        if (!enabled()) {
+            return;
+        }
+        remove(event.getUnitOfWork());
+    }
+
+    private void remove(UnitOfWork unitOfWork) {
+        Deque<BatchContext> contexts = batchLocal.get();
+        contexts.removeIf(context -> context.unitOfWork == unitOfWork);
+        if (contexts.isEmpty()) {
+            batchLocal.remove();
+        }
+    }
+
+    private BatchContext currentContext() {
+        BatchContext context = enabled() ? batchLocal.get().peek() : null;
+        return context == null || context.flushed ? null : context;
+    }
+
+    /**
+     * Returns the batch of the current unit of work, to look for pending writes.
+     * 
+     * @return current batch or <code>null</code> if there is none or it has already been flushed
+     */
+    JDBCWriteBatch currentBatch() {
+        BatchContext context = currentContext();
+        return context == null ? null : context.batch;
+    }
+
+    /**
+     * Returns the batch of the current unit of work, to append writes to it, making sure it is going to be flushed.
+     * 
+     * @return current batch or <code>null</code> if writes must be executed right away
+     */
+    JDBCWriteBatch writeBatch() {
+        BatchContext context = currentContext();
+        if (context == null) {
+            return null;
+        }
+        if (!context.flushRegistered) {
+            context.flushRegistered = true;
+            context.unitOfWork.intercept(new BaseWorkUnit<>(context, this::flush, null, FLUSH_PRIORITY));
+        }
+        return context.batch;
+    }
+
+    /**
+     * Executes the writes pending in the batch of the current unit of work right away, for queries that cannot look
+     * them up by process instance id. The batch stays open, later writes are batched again and flushed at the end
+     * of the unit of work as usual.
+     */
+    void flushPending() {
+        BatchContext context = currentContext();
+        if (context != null && !context.batch.isEmpty()) {
+            JDBCWriteBatch batch = context.batch;
+            LOGGER.debug("Flushing {} pending process instance writes and {} outbox events before a query", batch.operations().size(), batch.outboxEvents().size());
+            repository.executeBatch(batch.operations(), batch.outboxEvents());
+            batch.clear();
+        }
+    }
+
+    private void flush(BatchContext context) {
+        // writes issued from now on, if any, are executed right away
+        context.flushed = true;
+        JDBCWriteBatch batch = context.batch;
+        if (!batch.isEmpty()) {
+            LOGGER.debug("Flushing {} process instance writes and {} outbox events in a single batch", batch.operations().size(), batch.outboxEvents().size());
+            repository.executeBatch(batch.operations(), batch.outboxEvents());
+        }
+    }
+
+    public boolean enabled() {
+        return Boolean.TRUE.equals(enabled);
+    }
+
+    private static class BatchContext {
+
+        private final UnitOfWork unitOfWork;
+        private final JDBCWriteBatch batch = new JDBCWriteBatch();
+        private boolean flushRegistered;
+        private boolean flushed;
+
+        private BatchContext(UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+        }
+    }
+}
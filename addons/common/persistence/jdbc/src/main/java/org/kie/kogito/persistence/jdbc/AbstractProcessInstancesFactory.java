@@ -27,18 +27,30 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
 
     private final DataSource dataSource;
     private final Boolean lock;
+    private final AbstractJDBCWriteBatchManager batchManager;
+    private final Boolean delta;
 
     protected AbstractProcessInstancesFactory() {
         this(null, false);
     }
 
     public AbstractProcessInstancesFactory(DataSource dataSource, Boolean lock) {
+        this(dataSource, lock, null);
+    }
+
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean lock, AbstractJDBCWriteBatchManager batchManager) {
+        this(dataSource, lock, batchManager, false);
+    }
+
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean lock, AbstractJDBCWriteBatchManager batchManager, Boolean delta) {
         this.dataSource = dataSource;
         this.lock = lock;
+        this.batchManager = batchManager;
+        this.delta = delta;
     }
 
     @Override
     public JDBCProcessInstances createProcessInstances(Process<?> process) {
-        return new JDBCProcessInstances(process, dataSource, lock);
+        return new JDBCProcessInstances(process, dataSource, lock, batchManager, delta);
     }
 }
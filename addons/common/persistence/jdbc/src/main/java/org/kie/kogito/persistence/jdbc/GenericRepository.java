@@ -22,44 +22,52 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class GenericRepository extends Repository {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenericRepository.class);
+
     private static final String PAYLOAD = "payload";
+    private static final String PAYLOAD_DELTA = "payload_delta";
     private static final String VERSION = "version";
 
     private final DataSource dataSource;
+    // cleared once the driver answers a batch with Statement.SUCCESS_NO_INFO, so optimistic locks cannot be checked
+    private volatile boolean updateCountsReported = true;
 
     public GenericRepository(DataSource dataSource) {
         this.dataSource = dataSource;
     }
 
     @Override
-    void insertInternal(String processId, String processVersion, UUID id, byte[] payload, String businessKey) {
+    void insertInternal(String processId, String processVersion, UUID id, byte[] payload, int state, String businessKey) {
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement statement = connection.prepareStatement(INSERT)) {
-            String processInstanceId = id.toString();
-            statement.setString(1, processInstanceId);
-            statement.setBytes(2, payload);
-            statement.setString(3, processId);
-            statement.setString(4, processVersion);
-            statement.setLong(5, 0L);
+            bindInsert(statement, processId, processVersion, id, payload, state, 0L);
             statement.executeUpdate();
             if (businessKey != null) {
                 try (PreparedStatement businessKeyStmt = connection.prepareStatement(INSERT_BUSINESS_KEY)) {
-                    businessKeyStmt.setString(1, businessKey);
-                    businessKeyStmt.setString(2, processInstanceId);
+                    bindBusinessKey(businessKeyStmt, id, businessKey);
                     businessKeyStmt.executeUpdate();
                 }
             }
@@ -69,15 +77,10 @@ public class GenericRepository extends Repository {
     }
 
     @Override
-    void updateInternal(String processId, String processVersion, UUID id, byte[] payload) {
+    void updateInternal(String processId, String processVersion, UUID id, byte[] payload, int state) {
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE, processVersion))) {
-            statement.setBytes(1, payload);
-            statement.setString(2, processId);
-            statement.setString(3, id.toString());
-            if (processVersion != null) {
-                statement.setString(4, processVersion);
-            }
+            bindUpdate(statement, processId, processVersion, id, payload, state);
             statement.executeUpdate();
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating process instance %s", id);
@@ -85,17 +88,10 @@ public class GenericRepository extends Repository {
     }
 
     @Override
-    boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version) {
+    boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, int state, long version) {
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE_WITH_LOCK, processVersion))) {
-            statement.setBytes(1, payload);
-            statement.setLong(2, version + 1);
-            statement.setString(3, processId);
-            statement.setString(4, id.toString());
-            statement.setLong(5, version);
-            if (processVersion != null) {
-                statement.setString(6, processVersion);
-            }
+            bindUpdateWithLock(statement, processId, processVersion, id, payload, state, version, version + 1);
             int count = statement.executeUpdate();
             return count == 1;
         } catch (Exception e) {
@@ -103,15 +99,34 @@ public class GenericRepository extends Repository {
         }
     }
 
+    @Override
+    void updateDeltaInternal(String processId, String processVersion, UUID id, byte[] delta, int state) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE_DELTA, processVersion))) {
+            bindUpdate(statement, processId, processVersion, id, delta, state);
+            statement.executeUpdate();
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error updating delta of process instance %s", id);
+        }
+    }
+
+    @Override
+    boolean updateDeltaWithLock(String processId, String processVersion, UUID id, byte[] delta, int state, long version) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE_DELTA_WITH_LOCK, processVersion))) {
+            bindUpdateWithLock(statement, processId, processVersion, id, delta, state, version, version + 1);
+            int count = statement.executeUpdate();
+            return count == 1;
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error updating delta with lock of process instance %s", id);
+        }
+    }
+
     @Override
     boolean deleteInternal(String processId, String processVersion, UUID id) {
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(DELETE, processVersion))) {
-            statement.setString(1, processId);
-            statement.setString(2, id.toString());
-            if (processVersion != null) {
-                statement.setString(3, processVersion);
-            }
+            bindDelete(statement, processId, processVersion, id);
             int count = statement.executeUpdate();
             return count == 1;
         } catch (Exception e) {
@@ -119,8 +134,195 @@ public class GenericRepository extends Repository {
         }
     }
 
+    @Override
+    void executeBatch(List<JDBCWriteBatch.Operation> operations, List<byte[]> outboxEvents) {
+        if (!executeBatchOnce(operations, outboxEvents)) {
+            // rolled back because the driver does not report update counts, now locked updates are executed one by one
+            executeBatchOnce(operations, outboxEvents);
+        }
+    }
+
+    private boolean executeBatchOnce(List<JDBCWriteBatch.Operation> operations, List<byte[]> outboxEvents) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                int start = 0;
+                while (start < operations.size()) {
+                    int end = start + 1;
+                    String sql = sqlFor(operations.get(start));
+                    while (end < operations.size() && sql.equals(sqlFor(operations.get(end)))) {
+                        end++;
+                    }
+                    executeBatch(connection, sql, operations.subList(start, end));
+                    start = end;
+                }
+                if (!outboxEvents.isEmpty()) {
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT_OUTBOX_EVENT)) {
+                        for (byte[] event : outboxEvents) {
+                            statement.setBytes(1, event);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    }
+                }
+                if (autoCommit) {
+                    connection.commit();
+                }
+                return true;
+            } catch (UpdateCountsNotReportedException e) {
+                LOGGER.warn("JDBC driver does not report batch update counts, updates checking the version will not be batched");
+                if (autoCommit) {
+                    connection.rollback();
+                    return false;
+                }
+                // the transaction is not ours, so it cannot be run again, fail so it is rolled back and retried
+                throw new ProcessInstanceOptimisticLockingException(e.getMessage());
+            } catch (SQLException | RuntimeException e) {
+                if (autoCommit) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (ProcessInstanceOptimisticLockingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error executing batch of %d process instance writes", operations.size());
+        }
+    }
+
+    private void executeBatch(Connection connection, String sql, List<JDBCWriteBatch.Operation> operations) throws SQLException {
+        if (!updateCountsReported && operations.get(0).getType() == JDBCWriteBatch.Type.UPDATE_WITH_LOCK) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (JDBCWriteBatch.Operation operation : operations) {
+                    bind(statement, operation);
+                    if (statement.executeUpdate() == 0) {
+                        throw new ProcessInstanceOptimisticLockingException(operation.getId().toString());
+                    }
+                }
+            }
+            return;
+        }
+        List<JDBCWriteBatch.Operation> withBusinessKey = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (JDBCWriteBatch.Operation operation : operations) {
+                bind(statement, operation);
+                statement.addBatch();
+                if (operation.getType() == JDBCWriteBatch.Type.INSERT && operation.getBusinessKey() != null) {
+                    withBusinessKey.add(operation);
+                }
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                JDBCWriteBatch.Operation operation = operations.get(i);
+                if (operation.getType() == JDBCWriteBatch.Type.UPDATE_WITH_LOCK) {
+                    if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                        // the version check cannot be verified
+                        updateCountsReported = false;
+                        throw new UpdateCountsNotReportedException(operation.getId().toString());
+                    }
+                    if (counts[i] == 0) {
+                        throw new ProcessInstanceOptimisticLockingException(operation.getId().toString());
+                    }
+                }
+            }
+        }
+        if (!withBusinessKey.isEmpty()) {
+            try (PreparedStatement businessKeyStmt = connection.prepareStatement(INSERT_BUSINESS_KEY)) {
+                for (JDBCWriteBatch.Operation operation : withBusinessKey) {
+                    bindBusinessKey(businessKeyStmt, operation.getId(), operation.getBusinessKey());
+                    businessKeyStmt.addBatch();
+                }
+                businessKeyStmt.executeBatch();
+            }
+        }
+    }
+
+    private static String sqlFor(JDBCWriteBatch.Operation operation) {
+        switch (operation.getType()) {
+            case INSERT:
+                return INSERT;
+            case UPDATE:
+                return sqlIncludingVersion(operation.isDelta() ? UPDATE_DELTA : UPDATE, operation.getProcessVersion());
+            case UPDATE_WITH_LOCK:
+                return sqlIncludingVersion(operation.isDelta() ? UPDATE_DELTA_WITH_LOCK : UPDATE_WITH_LOCK, operation.getProcessVersion());
+            case DELETE:
+            default:
+                return sqlIncludingVersion(DELETE, operation.getProcessVersion());
+        }
+    }
+
+    private static void bind(PreparedStatement statement, JDBCWriteBatch.Operation operation) throws SQLException {
+        switch (operation.getType()) {
+            case INSERT:
+                bindInsert(statement, operation.getProcessId(), operation.getProcessVersion(), operation.getId(), operation.getPayload(), operation.getState(), operation.getVersion());
+                break;
+            case UPDATE:
+                bindUpdate(statement, operation.getProcessId(), operation.getProcessVersion(), operation.getId(), operation.getPayload(), operation.getState());
+                break;
+            case UPDATE_WITH_LOCK:
+                bindUpdateWithLock(statement, operation.getProcessId(), operation.getProcessVersion(), operation.getId(), operation.getPayload(), operation.getState(),
+                        operation.getExpectedVersion(), operation.getVersion());
+                break;
+            case DELETE:
+            default:
+                bindDelete(statement, operation.getProcessId(), operation.getProcessVersion(), operation.getId());
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, String processId, String processVersion, UUID id, byte[] payload, int state, long version) throws SQLException {
+        statement.setString(1, id.toString());
+        statement.setBytes(2, payload);
+        statement.setString(3, processId);
+        statement.setString(4, processVersion);
+        statement.setLong(5, version);
+        statement.setInt(6, state);
+    }
+
+    private static void bindBusinessKey(PreparedStatement statement, UUID id, String businessKey) throws SQLException {
+        statement.setString(1, businessKey);
+        statement.setString(2, id.toString());
+    }
+
+    private static void bindUpdate(PreparedStatement statement, String processId, String processVersion, UUID id, byte[] payload, int state) throws SQLException {
+        statement.setBytes(1, payload);
+        statement.setInt(2, state);
+        statement.setString(3, processId);
+        statement.setString(4, id.toString());
+        if (processVersion != null) {
+            statement.setString(5, processVersion);
+        }
+    }
+
+    private static void bindUpdateWithLock(PreparedStatement statement, String processId, String processVersion, UUID id, byte[] payload, int state, long expectedVersion,
+            long newVersion) throws SQLException {
+        statement.setBytes(1, payload);
+        statement.setInt(2, state);
+        statement.setLong(3, newVersion);
+        statement.setString(4, processId);
+        statement.setString(5, id.toString());
+        statement.setLong(6, expectedVersion);
+        if (processVersion != null) {
+            statement.setString(7, processVersion);
+        }
+    }
+
+    private static void bindDelete(PreparedStatement statement, String processId, String processVersion, UUID id) throws SQLException {
+        statement.setString(1, processId);
+        statement.setString(2, id.toString());
+        if (processVersion != null) {
+            statement.setString(3, processVersion);
+        }
+    }
+
     private Record from(ResultSet rs) throws SQLException {
-        return new Record(rs.getBytes(PAYLOAD), rs.getLong(VERSION));
+        return new Record(rs.getBytes(PAYLOAD), rs.getBytes(PAYLOAD_DELTA), rs.getLong(VERSION));
     }
 
     @Override
@@ -143,6 +345,23 @@ public class GenericRepository extends Repository {
         return Optional.empty();
     }
 
+    @Override
+    boolean existsInternal(String processId, String processVersion, UUID id) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(EXISTS, processVersion))) {
+            statement.setString(1, processId);
+            statement.setString(2, id.toString());
+            if (processVersion != null) {
+                statement.setString(3, processVersion);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error checking existence of process instance %s", id);
+        }
+    }
+
     @Override
     Optional<Record> findByBusinessKey(String processId, String processVersion, String businessKey) {
         try (Connection connection = dataSource.getConnection();
@@ -232,6 +451,46 @@ public class GenericRepository extends Repository {
         }
     }
 
+    @Override
+    List<Record> findPageInternal(String processId, String processVersion, String afterId, String businessKeyPrefix, Collection<Integer> states, int limit) {
+        String sql = businessKeyPrefix == null ? FIND_ALL : FIND_BY_BUSINESS_KEY_PREFIX;
+        sql = sqlIncludingVersion(sql, processVersion) + (afterId == null ? "" : " " + AFTER_ID)
+                + (states.isEmpty() ? "" : " " + String.format(STATE_IN, states.stream().map(s -> "?").collect(Collectors.joining(","))))
+                + " " + ORDER_BY_ID;
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (businessKeyPrefix != null) {
+                statement.setString(index++, escapeLike(businessKeyPrefix) + "%");
+            }
+            statement.setString(index++, processId);
+            if (processVersion != null) {
+                statement.setString(index++, processVersion);
+            }
+            if (afterId != null) {
+                statement.setString(index++, afterId);
+            }
+            for (Integer state : states) {
+                statement.setInt(index++, state);
+            }
+            statement.setMaxRows(limit);
+            statement.setFetchSize(limit);
+            List<Record> records = new ArrayList<>(limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    records.add(from(resultSet));
+                }
+            }
+            return records;
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding page of process instances after %s, for processId %s", afterId, processId);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private static String sqlIncludingVersion(String statement, String processVersion) {
         return statement + " " + (processVersion == null ? PROCESS_VERSION_IS_NULL : PROCESS_VERSION_EQUALS_TO);
     }
@@ -268,4 +527,13 @@ public class GenericRepository extends Repository {
             throw uncheckedException(e, "Error updating process instance %s-%s", processId, processVersion);
         }
     }
+
+    private static class UpdateCountsNotReportedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private UpdateCountsNotReportedException(String id) {
+            super(id);
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.services.outbox.EventOutbox;
+import org.kie.kogito.services.outbox.OutboxEntry;
+import org.kie.kogito.services.outbox.OutboxEventMarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event outbox backed by the <code>event_outbox</code> table.
+ * <p>
+ * Events are added to the process instance write batch of the current unit of work and therefore inserted in the same
+ * transaction as the process instances, so write batching must be enabled. Events stored outside of a unit of work are
+ * inserted right away.
+ * <p>
+ * Several relays, one per replica, might read the same table. Every fetch claims the rows it returns for a while, so they
+ * are not handed to any other relay unless they are still there once the claim expires.
+ * <p>
+ * A row that cannot be read back (e.g. its event class is no longer available) is left out of the fetched entries and
+ * stays claimed, so it is retried once the claim expires. After the given number of attempts it is flagged as dead letter
+ * and never fetched again, so it does not hold back the events stored after it.
+ */
+public class JDBCEventOutbox implements EventOutbox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCEventOutbox.class);
+
+    public static final long DEFAULT_CLAIM_TIMEOUT_MILLIS = 60000L;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    static final String FIND_UNCLAIMED = "SELECT id FROM event_outbox WHERE dead_letter = FALSE AND (claimed_until IS NULL OR claimed_until < ?) ORDER BY id";
+    static final String CLAIM =
+            "UPDATE event_outbox SET claimed_by = ?, claimed_until = ? WHERE id >= ? AND id <= ? AND dead_letter = FALSE AND (claimed_until IS NULL OR claimed_until < ?)";
+    static final String FIND_CLAIMED = "SELECT id, payload, attempts FROM event_outbox WHERE claimed_by = ? ORDER BY id";
+    static final String FAIL = "UPDATE event_outbox SET attempts = ?, dead_letter = ? WHERE id = ?";
+    static final String RELEASE = "UPDATE event_outbox SET claimed_by = NULL, claimed_until = NULL WHERE id = ?";
+    static final String DELETE = "DELETE FROM event_outbox WHERE id = ?";
+
+    private final DataSource dataSource;
+    private final AbstractJDBCWriteBatchManager batchManager;
+    private final OutboxEventMarshaller marshaller;
+    private final long claimTimeoutMillis;
+    private final int maxAttempts;
+
+    public JDBCEventOutbox(DataSource dataSource, AbstractJDBCWriteBatchManager batchManager) {
+        this(dataSource, batchManager, DEFAULT_CLAIM_TIMEOUT_MILLIS);
+    }
+
+    public JDBCEventOutbox(DataSource dataSource, AbstractJDBCWriteBatchManager batchManager, long claimTimeoutMillis) {
+        this(dataSource, batchManager, claimTimeoutMillis, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public JDBCEventOutbox(DataSource dataSource, AbstractJDBCWriteBatchManager batchManager, long claimTimeoutMillis, int maxAttempts) {
+        if (batchManager == null || !batchManager.enabled()) {
+            throw new IllegalStateException("Event outbox requires process instance write batching, set kogito.persistence.jdbc.batch.enabled to true");
+        }
+        this.dataSource = dataSource;
+        this.batchManager = batchManager;
+        this.marshaller = new OutboxEventMarshaller();
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void append(Collection<DataEvent<?>> events) {
+        JDBCWriteBatch batch = batchManager.writeBatch();
+        if (batch != null) {
+            events.forEach(event -> batch.appendOutboxEvent(marshaller.marshall(event)));
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(Repository.INSERT_OUTBOX_EVENT)) {
+            for (DataEvent<?> event : events) {
+                statement.setBytes(1, marshaller.marshall(event));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error storing " + events.size() + " outbox events", e);
+        }
+    }
+
+    @Override
+    public List<OutboxEntry> fetch(int limit) {
+        long now = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            long first = -1L;
+            long last = -1L;
+            try (PreparedStatement statement = connection.prepareStatement(FIND_UNCLAIMED)) {
+                statement.setMaxRows(limit);
+                statement.setFetchSize(limit);
+                statement.setLong(1, now);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        last = resultSet.getLong("id");
+                        if (first < 0) {
+                            first = last;
+                        }
+                    }
+                }
+            }
+            if (first < 0) {
+                return List.of();
+            }
+            // the conditional update is what actually claims, rows claimed meanwhile by another relay are skipped
+            String claim = UUID.randomUUID().toString();
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM)) {
+                statement.setString(1, claim);
+                statement.setLong(2, now + claimTimeoutMillis);
+                statement.setLong(3, first);
+                statement.setLong(4, last);
+                statement.setLong(5, now);
+                if (statement.executeUpdate() == 0) {
+                    return List.of();
+                }
+            }
+            List<OutboxEntry> result = new ArrayList<>();
+            Map<Long, Integer> failed = new LinkedHashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(FIND_CLAIMED)) {
+                statement.setString(1, claim);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long id = resultSet.getLong("id");
+                        try {
+                            result.add(new OutboxEntry(id, marshaller.unmarshall(resultSet.getBytes("payload"))));
+                        } catch (RuntimeException e) {
+                            int attempts = resultSet.getInt("attempts") + 1;
+                            if (attempts >= maxAttempts) {
+                                LOGGER.error("Outbox event {} could not be read {} times, it is flagged as dead letter and will not be published", id, attempts, e);
+                            } else {
+                                LOGGER.warn("Outbox event {} could not be read (attempt {} of {}), it is retried in {} ms", id, attempts, maxAttempts, claimTimeoutMillis, e);
+                            }
+                            failed.put(id, attempts);
+                        }
+                    }
+                }
+            }
+            if (!failed.isEmpty()) {
+                fail(connection, failed);
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading outbox events", e);
+        }
+    }
+
+    // failed rows keep their claim, so they are retried only once it expires
+    private void fail(Connection connection, Map<Long, Integer> failed) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FAIL)) {
+            for (Map.Entry<Long, Integer> row : failed.entrySet()) {
+                statement.setInt(1, row.getValue());
+                statement.setBoolean(2, row.getValue() >= maxAttempts);
+                statement.setLong(3, row.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    public void remove(List<OutboxEntry> entries) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            for (OutboxEntry entry : entries) {
+                statement.setLong(1, entry.getSequence());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error removing " + entries.size() + " outbox events", e);
+        }
+    }
+
+    @Override
+    public void release(List<OutboxEntry> entries) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(RELEASE)) {
+            for (OutboxEntry entry : entries) {
+                statement.setLong(1, entry.getSequence());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error releasing " + entries.size() + " outbox events", e);
+        }
+    }
+}
@@ -18,17 +18,22 @@
  */
 package org.kie.kogito.persistence.jdbc;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
 import org.jbpm.flow.serialization.ProcessInstanceMarshallerService;
+import org.jbpm.flow.serialization.ProcessInstancePayload;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.slf4j.Logger;
@@ -42,17 +47,34 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     private final ProcessInstanceMarshallerService marshaller;
     private final boolean lock;
     private final Repository repository;
+    private final AbstractJDBCWriteBatchManager batchManager;
+    private final boolean delta;
 
     public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean lock) {
+        this(process, dataSource, lock, null);
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean lock, AbstractJDBCWriteBatchManager batchManager) {
+        this(process, dataSource, lock, batchManager, false);
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean lock, AbstractJDBCWriteBatchManager batchManager, boolean delta) {
         this.process = process;
         this.lock = lock;
         this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withDefaultListeners().build();
         this.repository = new GenericRepository(dataSource);
+        this.batchManager = batchManager;
+        this.delta = delta;
     }
 
     @Override
     public boolean exists(String id) {
-        return findById(id).isPresent();
+        UUID uuid = UUID.fromString(id);
+        JDBCWriteBatch.Operation pending = pendingOperation(uuid);
+        if (pending != null) {
+            return pending.getType() != JDBCWriteBatch.Type.DELETE;
+        }
+        return repository.existsInternal(process.id(), process.version(), uuid);
     }
 
     @SuppressWarnings("unchecked")
@@ -60,7 +82,12 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     public void create(String id, ProcessInstance instance) {
         LOGGER.debug("Creating process instance id: {}, processId: {}, processVersion: {}", id, process.id(), process.version());
         if (isActive(instance)) {
-            repository.insertInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.businessKey());
+            JDBCWriteBatch batch = writeBatch();
+            if (batch != null) {
+                batch.insert(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status(), instance.businessKey());
+            } else {
+                repository.insertInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status(), instance.businessKey());
+            }
         } else {
             LOGGER.warn("Skipping create of process instance id: {}, state: {}", id, instance.status());
         }
@@ -72,13 +99,26 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         LOGGER.debug("Updating process instance id: {}, processId: {}, processVersion: {}", id, process.id(), process.version());
         try {
             if (isActive(instance)) {
-                if (lock) {
-                    boolean isUpdated = repository.updateWithLock(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.version());
+                JDBCWriteBatch batch = writeBatch();
+                if (batch != null && delta) {
+                    updateDelta(batch, id, instance);
+                } else if (batch != null) {
+                    // optimistic lock conflicts are detected per row when the batch is flushed as part of the unit of work
+                    if (lock) {
+                        batch.updateWithLock(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status(), instance.version());
+                    } else {
+                        batch.update(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status(), instance.version());
+                    }
+                } else if (delta) {
+                    updateDelta(id, instance);
+                } else if (lock) {
+                    boolean isUpdated = repository.updateWithLock(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status(),
+                            instance.version());
                     if (!isUpdated) {
                         throw new ProcessInstanceOptimisticLockingException(id);
                     }
                 } else {
-                    repository.updateInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+                    repository.updateInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.status());
                 }
             } else {
                 LOGGER.warn("Process instance id: {}, state: {} is not active, skipping update", id, instance.status());
@@ -88,6 +128,42 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private void updateDelta(JDBCWriteBatch batch, String id, ProcessInstance<?> instance) {
+        UUID uuid = UUID.fromString(id);
+        JDBCWriteBatch.Operation pending = batch.pending(uuid);
+        // a delta is relative to the stored snapshot, so a pending snapshot write is replaced by another snapshot
+        ProcessInstancePayload payload = pending != null && pending.getType() != JDBCWriteBatch.Type.DELETE && !pending.isDelta()
+                ? ProcessInstancePayload.snapshot(marshaller.marshallProcessInstance(instance))
+                : marshaller.marshallProcessInstanceDelta(instance);
+        if (payload.hasDelta()) {
+            if (lock) {
+                batch.updateDeltaWithLock(process.id(), process.version(), uuid, payload.delta(), instance.status(), instance.version());
+            } else {
+                batch.updateDelta(process.id(), process.version(), uuid, payload.delta(), instance.status(), instance.version());
+            }
+        } else if (lock) {
+            batch.updateWithLock(process.id(), process.version(), uuid, payload.snapshot(), instance.status(), instance.version());
+        } else {
+            batch.update(process.id(), process.version(), uuid, payload.snapshot(), instance.status(), instance.version());
+        }
+    }
+
+    private void updateDelta(String id, ProcessInstance<?> instance) {
+        ProcessInstancePayload payload = marshaller.marshallProcessInstanceDelta(instance);
+        if (lock) {
+            boolean isUpdated = payload.hasDelta()
+                    ? repository.updateDeltaWithLock(process.id(), process.version(), UUID.fromString(id), payload.delta(), instance.status(), instance.version())
+                    : repository.updateWithLock(process.id(), process.version(), UUID.fromString(id), payload.snapshot(), instance.status(), instance.version());
+            if (!isUpdated) {
+                throw new ProcessInstanceOptimisticLockingException(id);
+            }
+        } else if (payload.hasDelta()) {
+            repository.updateDeltaInternal(process.id(), process.version(), UUID.fromString(id), payload.delta(), instance.status());
+        } else {
+            repository.updateInternal(process.id(), process.version(), UUID.fromString(id), payload.snapshot(), instance.status());
+        }
+    }
+
     @Override
     public long migrateAll(String targetProcessId, String targetProcessVersion) {
         return repository.migrate(process.id(), process.version(), targetProcessId, targetProcessVersion);
@@ -101,6 +177,11 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     @Override
     public void remove(String id) {
         LOGGER.debug("Removing process instance id: {}, processId: {}", id, process.id());
+        JDBCWriteBatch batch = writeBatch();
+        if (batch != null) {
+            batch.delete(process.id(), process.version(), UUID.fromString(id));
+            return;
+        }
         boolean isDeleted = repository.deleteInternal(process.id(), process.version(), UUID.fromString(id));
         LOGGER.debug("Deleted: {}", isDeleted);
     }
@@ -108,24 +189,79 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     @Override
     public Optional<ProcessInstance<?>> findById(String id, ProcessInstanceReadMode mode) {
         LOGGER.debug("Find process instance id: {}, mode: {}", id, mode);
-        return repository.findByIdInternal(process.id(), process.version(), UUID.fromString(id)).map(r -> unmarshall(r, mode));
+        return findRecord(UUID.fromString(id)).map(r -> unmarshall(r, mode));
+    }
+
+    private Optional<Repository.Record> findRecord(UUID id) {
+        JDBCWriteBatch.Operation pending = pendingOperation(id);
+        if (pending != null) {
+            // read your own writes not flushed yet
+            if (pending.getType() == JDBCWriteBatch.Type.DELETE) {
+                return Optional.empty();
+            }
+            if (pending.isDelta()) {
+                // the pending delta applies to the stored snapshot
+                return repository.findByIdInternal(process.id(), process.version(), id).map(r -> new Repository.Record(r.getPayload(), pending.getPayload(), pending.getVersion()));
+            }
+            return Optional.of(new Repository.Record(pending.getPayload(), pending.getVersion()));
+        }
+        return repository.findByIdInternal(process.id(), process.version(), id);
+    }
+
+    private JDBCWriteBatch.Operation pendingOperation(UUID id) {
+        JDBCWriteBatch batch = currentBatch();
+        JDBCWriteBatch.Operation pending = batch == null ? null : batch.pending(id);
+        return pending != null && pending.getProcessId().equals(process.id()) && Objects.equals(pending.getProcessVersion(), process.version()) ? pending : null;
+    }
+
+    private JDBCWriteBatch currentBatch() {
+        return batchManager == null ? null : batchManager.currentBatch();
+    }
+
+    private JDBCWriteBatch writeBatch() {
+        return batchManager == null ? null : batchManager.writeBatch();
+    }
+
+    private void flushPending() {
+        // queries not keyed by id cannot overlay the pending writes, so they must reach the database first
+        if (batchManager != null) {
+            batchManager.flushPending();
+        }
     }
 
     @Override
     public Optional<ProcessInstance<?>> findByBusinessKey(String businessKey, ProcessInstanceReadMode mode) {
         LOGGER.debug("Find process instance using business Key : {}", businessKey);
+        flushPending();
         return repository.findByBusinessKey(process.id(), process.version(), businessKey).map(r -> unmarshall(r, mode));
     }
 
     @Override
     public Stream<ProcessInstance<?>> stream(ProcessInstanceReadMode mode) {
         LOGGER.debug("Find process instance values using mode: {}", mode);
+        flushPending();
         return repository.findAllInternal(process.id(), process.version())
                 .map(r -> unmarshall(r, mode));
     }
 
+    @Override
+    public ProcessInstancePage<ProcessInstance<?>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        LOGGER.debug("Find process instances using query: {}, mode: {}", query, mode);
+        flushPending();
+        // pagination, business key prefix and states are resolved by the database, remaining criteria are checked once unmarshalled
+        int chunkSize = query.pageSize() + 1;
+        return ProcessInstancePage.of(query, chunkSize, afterId -> repository.findPageInternal(process.id(), process.version(), afterId, query.businessKeyPrefix(), query.states(),
+                chunkSize)
+                .stream()
+                .<ProcessInstance<?>> map(r -> unmarshall(r, mode))
+                .collect(Collectors.toList()));
+    }
+
     private ProcessInstance<?> unmarshall(Repository.Record record, ProcessInstanceReadMode mode) {
-        ProcessInstance<?> instance = marshaller.unmarshallProcessInstance(record.getPayload(), process, mode);
+        // a delta stored while delta persistence was enabled is replayed even if it no longer is, the next full update clears it
+        ProcessInstance<?> instance = delta || record.getDelta() != null
+                ? marshaller.unmarshallProcessInstance(ProcessInstancePayload.of(record.getPayload(), record.getDelta()), process, mode)
+                : marshaller.unmarshallProcessInstance(record.getPayload(), process, mode);
         ((AbstractProcessInstance<?>) instance).setVersion(record.getVersion());
         return instance;
     }
@@ -136,10 +272,12 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     }
 
     private void disconnect(ProcessInstance<?> instance) {
-        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> {
-            Repository.Record r = repository.findByIdInternal(process.id(), process.version(), UUID.fromString(instance.id())).orElseThrow();
-            ((AbstractProcessInstance<?>) instance).setVersion(r.getVersion());
-            return r.getPayload();
-        }));
+        // the stored delta, if any, is replayed whether delta persistence is enabled or not
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(processInstance -> {
+            Repository.Record r = findRecord(UUID.fromString(instance.id())).orElseThrow();
+            processInstance.setVersion(r.getVersion());
+            (delta || r.getDelta() != null ? marshaller.createdDeltaReloadFunction(() -> ProcessInstancePayload.of(r.getPayload(), r.getDelta()))
+                    : marshaller.createdReloadFunction(r::getPayload)).accept(processInstance);
+        });
     }
 }
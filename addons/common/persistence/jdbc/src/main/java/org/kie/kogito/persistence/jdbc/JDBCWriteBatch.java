@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+
+/**
+ * Collects the process instance writes issued during a unit of work so they can be
+ * flushed together on a single connection using JDBC statement batching.
+ * <p>
+ * Consecutive writes for the same process instance are coalesced (e.g. an insert followed by
+ * an update results in a single insert carrying the latest payload), while the relative order of
+ * writes for different instances is preserved.
+ * <p>
+ * When delta persistence is enabled, updates either carry a full snapshot, clearing the stored delta, or only the delta,
+ * which replaces the stored one and keeps the stored snapshot. A delta is relative to the stored snapshot, so it cannot be
+ * coalesced into a pending snapshot write.
+ * <p>
+ * Events stored through {@link JDBCEventOutbox} are kept apart and inserted after the process instance writes, within
+ * the same transaction.
+ */
+class JDBCWriteBatch {
+
+    enum Type {
+        INSERT,
+        UPDATE,
+        UPDATE_WITH_LOCK,
+        DELETE
+    }
+
+    static class Operation {
+        private final Type type;
+        private final String processId;
+        private final String processVersion;
+        private final UUID id;
+        private final String businessKey;
+        private final long expectedVersion;
+        private boolean delta;
+        private byte[] payload;
+        private int state;
+        private long version;
+
+        private Operation(Type type, String processId, String processVersion, UUID id, byte[] payload, int state, String businessKey, long expectedVersion, long version) {
+            this.type = type;
+            this.processId = processId;
+            this.processVersion = processVersion;
+            this.id = id;
+            this.payload = payload;
+            this.state = state;
+            this.businessKey = businessKey;
+            this.expectedVersion = expectedVersion;
+            this.version = version;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        String getProcessId() {
+            return processId;
+        }
+
+        String getProcessVersion() {
+            return processVersion;
+        }
+
+        UUID getId() {
+            return id;
+        }
+
+        byte[] getPayload() {
+            return payload;
+        }
+
+        int getState() {
+            return state;
+        }
+
+        String getBusinessKey() {
+            return businessKey;
+        }
+
+        long getExpectedVersion() {
+            return expectedVersion;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return true if the payload is a delta relative to the stored snapshot
+         */
+        boolean isDelta() {
+            return delta;
+        }
+
+        private void replace(byte[] payload, int state, boolean delta) {
+            this.payload = payload;
+            this.state = state;
+            this.delta = delta;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final Map<UUID, Operation> pending = new HashMap<>();
+    private final List<byte[]> outboxEvents = new ArrayList<>();
+
+    void insert(String processId, String processVersion, UUID id, byte[] payload, int state, String businessKey) {
+        append(new Operation(Type.INSERT, processId, processVersion, id, payload, state, businessKey, 0L, 0L));
+    }
+
+    void update(String processId, String processVersion, UUID id, byte[] payload, int state, long version) {
+        Operation previous = pending.get(id);
+        if (previous != null && previous.type != Type.DELETE) {
+            previous.replace(payload, state, false);
+        } else {
+            append(new Operation(Type.UPDATE, processId, processVersion, id, payload, state, null, version, version));
+        }
+    }
+
+    void updateWithLock(String processId, String processVersion, UUID id, byte[] payload, int state, long version) {
+        Operation previous = pending.get(id);
+        if (previous != null && previous.type != Type.DELETE) {
+            if (previous.version != version) {
+                throw new ProcessInstanceOptimisticLockingException(id.toString());
+            }
+            previous.replace(payload, state, false);
+            previous.version = version + 1;
+        } else {
+            append(new Operation(Type.UPDATE_WITH_LOCK, processId, processVersion, id, payload, state, null, version, version + 1));
+        }
+    }
+
+    void updateDelta(String processId, String processVersion, UUID id, byte[] delta, int state, long version) {
+        Operation previous = pendingDelta(id);
+        if (previous != null) {
+            previous.payload = delta;
+            previous.state = state;
+        } else {
+            Operation operation = new Operation(Type.UPDATE, processId, processVersion, id, delta, state, null, version, version);
+            operation.delta = true;
+            append(operation);
+        }
+    }
+
+    void updateDeltaWithLock(String processId, String processVersion, UUID id, byte[] delta, int state, long version) {
+        Operation previous = pendingDelta(id);
+        if (previous != null) {
+            if (previous.version != version) {
+                throw new ProcessInstanceOptimisticLockingException(id.toString());
+            }
+            previous.payload = delta;
+            previous.state = state;
+            previous.version = version + 1;
+        } else {
+            Operation operation = new Operation(Type.UPDATE_WITH_LOCK, processId, processVersion, id, delta, state, null, version, version + 1);
+            operation.delta = true;
+            append(operation);
+        }
+    }
+
+    private Operation pendingDelta(UUID id) {
+        Operation previous = pending.get(id);
+        if (previous == null || previous.type == Type.DELETE) {
+            return null;
+        }
+        if (!previous.delta) {
+            throw new IllegalStateException("Process instance " + id + " has a pending snapshot write, a delta relative to the stored snapshot cannot be applied");
+        }
+        return previous;
+    }
+
+    void delete(String processId, String processVersion, UUID id) {
+        Operation previous = pending.remove(id);
+        if (previous != null) {
+            operations.remove(previous);
+            if (previous.type == Type.INSERT) {
+                // the instance never reached the database, nothing to delete
+                return;
+            }
+        }
+        append(new Operation(Type.DELETE, processId, processVersion, id, null, 0, null, 0L, 0L));
+    }
+
+    /**
+     * Returns the latest pending write for the given process instance, if any.
+     * 
+     * @param id process instance id
+     * @return latest operation or <code>null</code> when nothing is pending for that instance
+     */
+    Operation pending(UUID id) {
+        return pending.get(id);
+    }
+
+    void appendOutboxEvent(byte[] payload) {
+        outboxEvents.add(payload);
+    }
+
+    List<Operation> operations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    List<byte[]> outboxEvents() {
+        return Collections.unmodifiableList(outboxEvents);
+    }
+
+    boolean isEmpty() {
+        return operations.isEmpty() && outboxEvents.isEmpty();
+    }
+
+    void clear() {
+        operations.clear();
+        pending.clear();
+        outboxEvents.clear();
+    }
+
+    private void append(Operation operation) {
+        operations.add(operation);
+        pending.put(operation.id, operation);
+    }
+}
@@ -18,57 +18,96 @@
  */
 package org.kie.kogito.persistence.jdbc;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
 abstract class Repository {
 
-    static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version) VALUES (?, ?, ?, ?, ?)";
+    static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version, state) VALUES (?, ?, ?, ?, ?, ?)";
     static final String INSERT_BUSINESS_KEY = "INSERT INTO business_key_mapping (business_key,process_instance_id) VALUES (?,?)";
-    static final String FIND_ALL = "SELECT payload, version FROM process_instances WHERE process_id = ?";
-    static final String FIND_BY_ID = "SELECT payload, version FROM process_instances WHERE process_id = ? and id = ?";
-    static final String FIND_BY_BUSINESS_KEY = "SELECT payload, version FROM process_instances INNER JOIN business_key_mapping ON id = process_instance_id WHERE business_key = ? and process_id = ?";
-    static final String UPDATE = "UPDATE process_instances SET payload = ? WHERE process_id = ? and id = ?";
-    static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = ?, version = ? WHERE process_id = ? and id = ? and version = ?";
+    // payload_delta is always read and cleared on full updates, so switching delta persistence off and on never loses or replays a delta
+    static final String FIND_ALL = "SELECT payload, payload_delta, version FROM process_instances WHERE process_id = ?";
+    static final String FIND_BY_ID = "SELECT payload, payload_delta, version FROM process_instances WHERE process_id = ? and id = ?";
+    static final String EXISTS = "SELECT 1 FROM process_instances WHERE process_id = ? and id = ?";
+    static final String FIND_BY_BUSINESS_KEY =
+            "SELECT payload, payload_delta, version FROM process_instances INNER JOIN business_key_mapping ON id = process_instance_id WHERE business_key = ? and process_id = ?";
+    static final String FIND_BY_BUSINESS_KEY_PREFIX =
+            "SELECT payload, payload_delta, version FROM process_instances INNER JOIN business_key_mapping ON id = process_instance_id WHERE business_key LIKE ? ESCAPE '\\' and process_id = ?";
+    static final String UPDATE = "UPDATE process_instances SET payload = ?, payload_delta = NULL, state = ? WHERE process_id = ? and id = ?";
+    static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = ?, payload_delta = NULL, state = ?, version = ? WHERE process_id = ? and id = ? and version = ?";
+    static final String AFTER_ID = "and id > ?";
+    // instances stored before the state column was introduced have no state, they are checked once unmarshalled
+    static final String STATE_IN = "and (state is null or state IN (%s))";
+    static final String ORDER_BY_ID = "ORDER BY id";
+    static final String UPDATE_DELTA = "UPDATE process_instances SET payload_delta = ?, state = ? WHERE process_id = ? and id = ?";
+    static final String UPDATE_DELTA_WITH_LOCK = "UPDATE process_instances SET payload_delta = ?, state = ?, version = ? WHERE process_id = ? and id = ? and version = ?";
     static final String DELETE = "DELETE FROM process_instances WHERE process_id = ? and id = ?";
     static final String PROCESS_VERSION_EQUALS_TO = "and process_version = ?";
     static final String PROCESS_VERSION_IS_NULL = "and process_version is null";
     static final String MIGRATE_BULK = "UPDATE process_instances SET process_id = ?, process_version = ? WHERE process_id = ? ";
+    static final String INSERT_OUTBOX_EVENT = "INSERT INTO event_outbox (payload) VALUES (?)";
     static final String MIGRATE_INSTANCE = "UPDATE process_instances SET process_id = ?, process_version = ? WHERE id = ANY (?) and process_id = ? ";
 
     static class Record {
         private final byte[] payload;
+        private final byte[] delta;
         private final long version;
 
         public byte[] getPayload() {
             return payload;
         }
 
+        public byte[] getDelta() {
+            return delta;
+        }
+
         public long getVersion() {
             return version;
         }
 
         public Record(byte[] payload, long version) {
+            this(payload, null, version);
+        }
+
+        public Record(byte[] payload, byte[] delta, long version) {
             this.payload = payload;
+            this.delta = delta;
             this.version = version;
         }
     }
 
-    abstract void insertInternal(String processId, String processVersion, UUID id, byte[] payload, String businessKey);
+    abstract void insertInternal(String processId, String processVersion, UUID id, byte[] payload, int state, String businessKey);
+
+    abstract void updateInternal(String processId, String processVersion, UUID id, byte[] payload, int state);
 
-    abstract void updateInternal(String processId, String processVersion, UUID id, byte[] payload);
+    abstract boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, int state, long version);
 
-    abstract boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version);
+    abstract void updateDeltaInternal(String processId, String processVersion, UUID id, byte[] delta, int state);
+
+    abstract boolean updateDeltaWithLock(String processId, String processVersion, UUID id, byte[] delta, int state, long version);
 
     abstract boolean deleteInternal(String processId, String processVersion, UUID id);
 
+    abstract void executeBatch(List<JDBCWriteBatch.Operation> operations, List<byte[]> outboxEvents);
+
     abstract Optional<Record> findByIdInternal(String processId, String processVersion, UUID id);
 
+    abstract boolean existsInternal(String processId, String processVersion, UUID id);
+
     abstract Optional<Record> findByBusinessKey(String processId, String processVersion, String businessKey);
 
     abstract Stream<Record> findAllInternal(String processId, String processVersion);
 
+    /**
+     * Reads, ordered by id, at most <code>limit</code> instances whose id is greater than <code>afterId</code>,
+     * whose business key starts with <code>businessKeyPrefix</code>, when not null, and whose state is one of
+     * <code>states</code>, when not empty. Instances without a stored state are always returned.
+     */
+    abstract List<Record> findPageInternal(String processId, String processVersion, String afterId, String businessKeyPrefix, Collection<Integer> states, int limit);
+
     protected RuntimeException uncheckedException(Exception ex, String message, Object... param) {
         return new RuntimeException(String.format(message, param), ex);
     }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc.jobs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.services.jobs.impl.JobDescriptionMarshaller;
+import org.kie.kogito.services.jobs.impl.JobStore;
+
+public class JDBCJobStore implements JobStore {
+
+    static final String INSERT = "INSERT INTO embedded_jobs (id, expiration_time, payload) VALUES (?, ?, ?)";
+    static final String UPDATE = "UPDATE embedded_jobs SET expiration_time = ?, payload = ? WHERE id = ?";
+    static final String DELETE = "DELETE FROM embedded_jobs WHERE id = ?";
+    static final String FIND_DUE = "SELECT payload FROM embedded_jobs WHERE expiration_time <= ? AND (expiration_time > ? OR (expiration_time = ? AND id > ?)) " +
+            "ORDER BY expiration_time, id";
+
+    private final DataSource dataSource;
+    private final JobDescriptionMarshaller marshaller;
+
+    public JDBCJobStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.marshaller = new JobDescriptionMarshaller();
+    }
+
+    @Override
+    public void store(JobDescription jobDescription) {
+        long expiration = JobDescriptionMarshaller.expirationMillis(jobDescription);
+        byte[] payload = marshaller.marshall(jobDescription);
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                statement.setLong(1, expiration);
+                statement.setBytes(2, payload);
+                statement.setString(3, jobDescription.id());
+                if (statement.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                statement.setString(1, jobDescription.id());
+                statement.setLong(2, expiration);
+                statement.setBytes(3, payload);
+                statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error storing job " + jobDescription.id(), e);
+        }
+    }
+
+    @Override
+    public boolean remove(String jobId) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            statement.setString(1, jobId);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error removing job " + jobId, e);
+        }
+    }
+
+    @Override
+    public List<JobDescription> loadJobs(long fromMillis, String fromId, long toMillis, int limit) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(FIND_DUE)) {
+            statement.setMaxRows(limit);
+            statement.setFetchSize(limit);
+            statement.setLong(1, toMillis);
+            statement.setLong(2, fromMillis);
+            statement.setLong(3, fromMillis);
+            statement.setString(4, fromId);
+            List<JobDescription> result = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.add(marshaller.unmarshall(resultSet.getBytes("payload")));
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading jobs expiring before " + toMillis, e);
+        }
+    }
+}
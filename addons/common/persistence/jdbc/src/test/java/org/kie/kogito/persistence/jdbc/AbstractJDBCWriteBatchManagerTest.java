@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AbstractJDBCWriteBatchManagerTest {
+
+    private AbstractJDBCWriteBatchManager batchManager;
+    private UnitOfWorkManager unitOfWorkManager;
+
+    @BeforeEach
+    void setup() {
+        batchManager = new AbstractJDBCWriteBatchManager(null, true) {
+        };
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        unitOfWorkManager.register(batchManager);
+    }
+
+    @Test
+    void testNestedUnitOfWorkKeepsOuterBatch() {
+        UnitOfWork outer = unitOfWorkManager.newUnitOfWork();
+        outer.start();
+        JDBCWriteBatch outerBatch = batchManager.writeBatch();
+
+        UnitOfWork inner = unitOfWorkManager.newUnitOfWork();
+        inner.start();
+        JDBCWriteBatch innerBatch = batchManager.writeBatch();
+        assertThat(innerBatch).isNotNull().isNotSameAs(outerBatch);
+        inner.end();
+
+        assertThat(batchManager.currentBatch()).isSameAs(outerBatch);
+        outer.end();
+        assertThat(batchManager.currentBatch()).isNull();
+    }
+
+    @Test
+    void testAbortedNestedUnitOfWorkKeepsOuterBatch() {
+        UnitOfWork outer = unitOfWorkManager.newUnitOfWork();
+        outer.start();
+        JDBCWriteBatch outerBatch = batchManager.writeBatch();
+
+        UnitOfWork inner = unitOfWorkManager.newUnitOfWork();
+        inner.start();
+        inner.abort();
+
+        assertThat(batchManager.writeBatch()).isSameAs(outerBatch);
+        outer.abort();
+        assertThat(batchManager.currentBatch()).isNull();
+    }
+
+    @Test
+    void testWritesAfterFlushAreNotBatched() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(batchManager.writeBatch()).isNotNull();
+        unitOfWork.end();
+
+        assertThat(batchManager.writeBatch()).isNull();
+    }
+
+    @Test
+    void testDisabled() {
+        batchManager = new AbstractJDBCWriteBatchManager(null, false) {
+        };
+        unitOfWorkManager.register(batchManager);
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+
+        assertThat(batchManager.writeBatch()).isNull();
+        unitOfWork.abort();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.process.ProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.process.ProcessInstance.STATE_ERROR;
+
+class JDBCWriteBatchTest {
+
+    private static final String PROCESS_ID = "process";
+    private static final String PROCESS_VERSION = "1.0";
+
+    @Test
+    void testInsertAndUpdateAreCoalesced() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.insert(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, "key");
+        batch.update(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 0L);
+
+        assertThat(batch.operations()).hasSize(1);
+        JDBCWriteBatch.Operation operation = batch.pending(id);
+        assertThat(operation.getType()).isEqualTo(JDBCWriteBatch.Type.INSERT);
+        assertThat(operation.getPayload()).containsExactly(2);
+        assertThat(operation.getBusinessKey()).isEqualTo("key");
+    }
+
+    @Test
+    void testCoalescedWritesKeepLatestState() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        batch.insert(PROCESS_ID, PROCESS_VERSION, first, new byte[] { 1 }, STATE_ACTIVE, null);
+        batch.update(PROCESS_ID, PROCESS_VERSION, first, new byte[] { 2 }, STATE_ERROR, 0L);
+        batch.updateDelta(PROCESS_ID, PROCESS_VERSION, second, new byte[] { 3 }, STATE_ACTIVE, 0L);
+        batch.updateDelta(PROCESS_ID, PROCESS_VERSION, second, new byte[] { 4 }, STATE_ERROR, 0L);
+
+        assertThat(batch.operations()).hasSize(2);
+        assertThat(batch.pending(first).getState()).isEqualTo(STATE_ERROR);
+        assertThat(batch.pending(second).getState()).isEqualTo(STATE_ERROR);
+    }
+
+    @Test
+    void testInsertAndUpdateWithLockBumpsVersion() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.insert(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, null);
+        batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 0L);
+        batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 3 }, STATE_ACTIVE, 1L);
+
+        assertThat(batch.operations()).hasSize(1);
+        JDBCWriteBatch.Operation operation = batch.pending(id);
+        assertThat(operation.getType()).isEqualTo(JDBCWriteBatch.Type.INSERT);
+        assertThat(operation.getVersion()).isEqualTo(2L);
+        assertThat(operation.getPayload()).containsExactly(3);
+    }
+
+    @Test
+    void testUpdateWithLockKeepsExpectedVersion() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, 5L);
+        batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 6L);
+
+        JDBCWriteBatch.Operation operation = batch.pending(id);
+        assertThat(batch.operations()).hasSize(1);
+        assertThat(operation.getType()).isEqualTo(JDBCWriteBatch.Type.UPDATE_WITH_LOCK);
+        assertThat(operation.getExpectedVersion()).isEqualTo(5L);
+        assertThat(operation.getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void testStaleVersionIsRejected() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, 5L);
+
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                .isThrownBy(() -> batch.updateWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 5L));
+    }
+
+    @Test
+    void testDeleteOfPendingInsertDropsBoth() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.insert(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, null);
+        batch.delete(PROCESS_ID, PROCESS_VERSION, id);
+
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(batch.pending(id)).isNull();
+    }
+
+    @Test
+    void testDeleteReplacesPendingUpdate() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        batch.update(PROCESS_ID, PROCESS_VERSION, first, new byte[] { 1 }, STATE_ACTIVE, 0L);
+        batch.insert(PROCESS_ID, PROCESS_VERSION, second, new byte[] { 2 }, STATE_ACTIVE, null);
+        batch.delete(PROCESS_ID, PROCESS_VERSION, first);
+
+        assertThat(batch.operations()).extracting(JDBCWriteBatch.Operation::getType)
+                .containsExactly(JDBCWriteBatch.Type.INSERT, JDBCWriteBatch.Type.DELETE);
+    }
+
+    @Test
+    void testDeltaUpdatesAreCoalesced() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.updateDeltaWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, 5L);
+        batch.updateDeltaWithLock(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 6L);
+
+        assertThat(batch.operations()).hasSize(1);
+        JDBCWriteBatch.Operation operation = batch.pending(id);
+        assertThat(operation.getType()).isEqualTo(JDBCWriteBatch.Type.UPDATE_WITH_LOCK);
+        assertThat(operation.isDelta()).isTrue();
+        assertThat(operation.getPayload()).containsExactly(2);
+        assertThat(operation.getExpectedVersion()).isEqualTo(5L);
+        assertThat(operation.getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void testSnapshotReplacesPendingDelta() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.updateDelta(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, 0L);
+        batch.update(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 0L);
+
+        assertThat(batch.operations()).hasSize(1);
+        JDBCWriteBatch.Operation operation = batch.pending(id);
+        assertThat(operation.isDelta()).isFalse();
+        assertThat(operation.getPayload()).containsExactly(2);
+    }
+
+    @Test
+    void testDeltaIsNotAppliedToPendingSnapshot() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        UUID id = UUID.randomUUID();
+        batch.insert(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 1 }, STATE_ACTIVE, null);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> batch.updateDelta(PROCESS_ID, PROCESS_VERSION, id, new byte[] { 2 }, STATE_ACTIVE, 0L));
+    }
+
+    @Test
+    void testOutboxEventsAreKeptApart() {
+        JDBCWriteBatch batch = new JDBCWriteBatch();
+        batch.appendOutboxEvent(new byte[] { 1 });
+        batch.appendOutboxEvent(new byte[] { 2 });
+
+        assertThat(batch.isEmpty()).isFalse();
+        assertThat(batch.operations()).isEmpty();
+        assertThat(batch.outboxEvents()).containsExactly(new byte[] { 1 }, new byte[] { 2 });
+    }
+}
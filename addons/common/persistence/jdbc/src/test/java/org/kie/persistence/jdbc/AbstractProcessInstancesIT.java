@@ -20,7 +20,9 @@ package org.kie.persistence.jdbc;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import javax.sql.DataSource;
@@ -50,6 +52,7 @@ import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STAT
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertEmpty;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertFind;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertOne;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.getFirst;
 import static org.mockito.ArgumentMatchers.any;
@@ -179,6 +182,24 @@ abstract class AbstractProcessInstancesIT {
         assertEmpty(process.instances());
     }
 
+    @Test
+    void testFind() {
+        var factory = new TestProcessInstancesFactory(getDataSource(), lock());
+        BpmnProcess process = createProcess(factory, "BPMN2-UserTask.bpmn2");
+        List<ProcessInstance<BpmnVariables>> instances = new ArrayList<>();
+        // the underscore checks the prefix is not taken as a pattern
+        for (String businessKey : List.of("order_1", "order_2", "orderX3", "invoice_1")) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(businessKey, BpmnVariables.create(singletonMap("test", "test")));
+            processInstance.start();
+            instances.add(processInstance);
+        }
+
+        assertFind(process.instances(), instances, "order_");
+
+        abort(process.instances());
+        assertEmpty(process.instances());
+    }
+
     @Test
     void testException() {
         BpmnProcess process = configure(lock());
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.process.ProcessInstanceStateDataEvent;
+import org.kie.kogito.event.process.ProcessInstanceStateEventBody;
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
+import org.kie.kogito.persistence.jdbc.JDBCEventOutbox;
+import org.kie.kogito.services.outbox.OutboxEntry;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.testcontainers.KogitoPostgreSqlContainer;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+class PostgreSqlEventOutboxIT {
+
+    @Container
+    private final static KogitoPostgreSqlContainer PG_CONTAINER = new KogitoPostgreSqlContainer();
+    private static PGSimpleDataSource PG_DATA_SOURCE;
+
+    private UnitOfWorkManager unitOfWorkManager;
+    private JDBCEventOutbox outbox;
+
+    @BeforeAll
+    public static void start() {
+        PG_DATA_SOURCE = new PGSimpleDataSource();
+        PG_DATA_SOURCE.setUrl(PG_CONTAINER.getJdbcUrl());
+        PG_DATA_SOURCE.setUser(PG_CONTAINER.getUsername());
+        PG_DATA_SOURCE.setPassword(PG_CONTAINER.getPassword());
+        AbstractProcessInstancesIT.initMigration(PG_DATA_SOURCE);
+    }
+
+    @BeforeEach
+    void setup() throws SQLException {
+        try (Connection connection = PG_DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM event_outbox");
+        }
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        outbox = new JDBCEventOutbox(PG_DATA_SOURCE, batchManager(true));
+    }
+
+    @Test
+    void testOutboxRequiresBatching() {
+        assertThatThrownBy(() -> new JDBCEventOutbox(PG_DATA_SOURCE, batchManager(false))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testAppendFetchRemove() {
+        outbox.append(List.of(event("1"), event("2"), event("3")));
+
+        List<OutboxEntry> entries = outbox.fetch(2);
+        assertThat(entries).extracting(entry -> entry.getEvent().getId()).containsExactly("1", "2");
+        assertThat(entries.get(0).getEvent()).isInstanceOf(ProcessInstanceStateDataEvent.class);
+
+        outbox.remove(entries);
+        assertThat(outbox.fetch(10)).extracting(entry -> entry.getEvent().getId()).containsExactly("3");
+    }
+
+    @Test
+    void testClaimedEntriesAreNotFetchedByOtherRelays() {
+        JDBCEventOutbox other = new JDBCEventOutbox(PG_DATA_SOURCE, batchManager(true));
+        outbox.append(List.of(event("1"), event("2")));
+
+        List<OutboxEntry> entries = outbox.fetch(10);
+        assertThat(entries).hasSize(2);
+        assertThat(other.fetch(10)).isEmpty();
+
+        outbox.release(entries);
+        assertThat(other.fetch(10)).extracting(entry -> entry.getEvent().getId()).containsExactly("1", "2");
+    }
+
+    @Test
+    void testExpiredClaimIsFetchedAgain() throws InterruptedException {
+        JDBCEventOutbox shortClaim = new JDBCEventOutbox(PG_DATA_SOURCE, batchManager(true), 1L);
+        outbox.append(List.of(event("1")));
+
+        assertThat(shortClaim.fetch(10)).hasSize(1);
+        Thread.sleep(10L);
+        assertThat(outbox.fetch(10)).extracting(entry -> entry.getEvent().getId()).containsExactly("1");
+    }
+
+    @Test
+    void testUnreadableEntryIsSkippedAndDeadLettered() throws SQLException, InterruptedException {
+        JDBCEventOutbox shortClaim = new JDBCEventOutbox(PG_DATA_SOURCE, batchManager(true), 1L, 2);
+        outbox.append(List.of(event("1")));
+        try (Connection connection = PG_DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO event_outbox (payload) VALUES ('not an event'::bytea)");
+        }
+        outbox.append(List.of(event("2")));
+
+        List<OutboxEntry> entries = shortClaim.fetch(10);
+        assertThat(entries).extracting(entry -> entry.getEvent().getId()).containsExactly("1", "2");
+        shortClaim.remove(entries);
+
+        Thread.sleep(10L);
+        assertThat(shortClaim.fetch(10)).isEmpty();
+        Thread.sleep(10L);
+        assertThat(shortClaim.fetch(10)).isEmpty();
+        try (Connection connection = PG_DATA_SOURCE.getConnection(); Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT attempts, dead_letter FROM event_outbox")) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getInt("attempts")).isEqualTo(2);
+            assertThat(resultSet.getBoolean("dead_letter")).isTrue();
+        }
+    }
+
+    @Test
+    void testAppendWithinUnitOfWork() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        outbox.append(List.of(event("1")));
+        assertThat(outbox.fetch(10)).isEmpty();
+        unitOfWork.end();
+
+        assertThat(outbox.fetch(10)).extracting(entry -> entry.getEvent().getId()).containsExactly("1");
+    }
+
+    @Test
+    void testAppendWithinAbortedUnitOfWork() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        outbox.append(List.of(event("1")));
+        unitOfWork.abort();
+
+        assertThat(outbox.fetch(10)).isEmpty();
+    }
+
+    private AbstractJDBCWriteBatchManager batchManager(boolean enabled) {
+        AbstractJDBCWriteBatchManager batchManager = new AbstractJDBCWriteBatchManager(PG_DATA_SOURCE, enabled) {
+        };
+        if (unitOfWorkManager != null) {
+            unitOfWorkManager.register(batchManager);
+        }
+        return batchManager;
+    }
+
+    private static DataEvent<?> event(String id) {
+        ProcessInstanceStateDataEvent event = new ProcessInstanceStateDataEvent();
+        event.setId(id);
+        event.setKogitoProcessInstanceId("pi-" + id);
+        event.setData(ProcessInstanceStateEventBody.create().processId("travels").processInstanceId("pi-" + id).state(1).build());
+        return event;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.descriptors.ProcessInstanceJobDescription;
+import org.kie.kogito.persistence.jdbc.jobs.JDBCJobStore;
+import org.kie.kogito.services.jobs.impl.JobDescriptionMarshaller;
+import org.kie.kogito.testcontainers.KogitoPostgreSqlContainer;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class PostgreSqlJobStoreIT {
+
+    @Container
+    private final static KogitoPostgreSqlContainer PG_CONTAINER = new KogitoPostgreSqlContainer();
+    private static PGSimpleDataSource PG_DATA_SOURCE;
+
+    private JDBCJobStore jobStore;
+
+    @BeforeAll
+    public static void start() {
+        PG_DATA_SOURCE = new PGSimpleDataSource();
+        PG_DATA_SOURCE.setUrl(PG_CONTAINER.getJdbcUrl());
+        PG_DATA_SOURCE.setUser(PG_CONTAINER.getUsername());
+        PG_DATA_SOURCE.setPassword(PG_CONTAINER.getPassword());
+        AbstractProcessInstancesIT.initMigration(PG_DATA_SOURCE);
+    }
+
+    @BeforeEach
+    void setup() throws SQLException {
+        try (Connection connection = PG_DATA_SOURCE.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM embedded_jobs");
+        }
+        jobStore = new JDBCJobStore(PG_DATA_SOURCE);
+    }
+
+    @Test
+    void testStoreUpdatesExistingJob() throws SQLException {
+        ZonedDateTime now = ZonedDateTime.now();
+        jobStore.store(job("job1", now.plusMinutes(1)));
+        // second store of the same id goes through the UPDATE, a plain INSERT would violate the primary key
+        jobStore.store(job("job1", now.plusMinutes(3)));
+
+        assertThat(countRows()).isEqualTo(1);
+        List<JobDescription> jobs = jobStore.loadJobs(Long.MIN_VALUE, "", millis(now.plusMinutes(5)), 10);
+        assertThat(jobs).extracting(JobDescription::id).containsExactly("job1");
+        assertThat(JobDescriptionMarshaller.expirationMillis(jobs.get(0))).isEqualTo(millis(now.plusMinutes(3)));
+        assertThat(jobStore.loadJobs(Long.MIN_VALUE, "", millis(now.plusMinutes(2)), 10)).isEmpty();
+    }
+
+    @Test
+    void testLoadJobsWindow() {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime sameExpiration = now.plusMinutes(2);
+        jobStore.store(job("job3", now.plusMinutes(3)));
+        jobStore.store(job("job2b", sameExpiration));
+        jobStore.store(job("job1", now.minusMinutes(1)));
+        jobStore.store(job("job2a", sameExpiration));
+        jobStore.store(job("job4", now.plusHours(1)));
+        long until = millis(now.plusMinutes(5));
+
+        List<JobDescription> firstPage = jobStore.loadJobs(Long.MIN_VALUE, "", until, 2);
+        assertThat(firstPage).extracting(JobDescription::id).containsExactly("job1", "job2a");
+        // jobs sharing the expiration of the last one read are resumed by id
+        JobDescription last = firstPage.get(1);
+        assertThat(jobStore.loadJobs(JobDescriptionMarshaller.expirationMillis(last), last.id(), until, 2))
+                .extracting(JobDescription::id).containsExactly("job2b", "job3");
+        // the upper bound is inclusive
+        assertThat(jobStore.loadJobs(Long.MIN_VALUE, "", millis(sameExpiration), 10))
+                .extracting(JobDescription::id).containsExactly("job1", "job2a", "job2b");
+
+        assertThat(jobStore.remove("job2a")).isTrue();
+        assertThat(jobStore.remove("job2a")).isFalse();
+        assertThat(jobStore.loadJobs(Long.MIN_VALUE, "", until, 10))
+                .extracting(JobDescription::id).containsExactly("job1", "job2b", "job3");
+    }
+
+    private static int countRows() throws SQLException {
+        try (Connection connection = PG_DATA_SOURCE.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM embedded_jobs")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    private static ProcessInstanceJobDescription job(String id, ZonedDateTime expiration) {
+        return ProcessInstanceJobDescription.newProcessInstanceJobDescriptionBuilder()
+                .id(id)
+                .timerId("timer-" + id)
+                .expirationTime(ExactExpirationTime.of(expiration))
+                .processInstanceId("pi-" + id)
+                .processId("process")
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.drools.io.ClassPathResource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
+import org.kie.kogito.process.impl.DefaultWorkItemHandlerConfig;
+import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.process.workitems.impl.DefaultKogitoWorkItemHandler;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.testcontainers.KogitoPostgreSqlContainer;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
+
+/**
+ * Measures the number of database connections (round trips) needed to persist several process instances
+ * started within the same unit of work, with and without write batching, and checks flush failures abort the unit of work.
+ */
+@Testcontainers
+class PostgreSqlProcessInstancesBatchIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgreSqlProcessInstancesBatchIT.class);
+
+    private static final int INSTANCES_PER_UNIT_OF_WORK = 20;
+
+    @Container
+    private final static KogitoPostgreSqlContainer PG_CONTAINER = new KogitoPostgreSqlContainer();
+    private static PGSimpleDataSource PG_DATA_SOURCE;
+
+    @BeforeAll
+    public static void start() {
+        PG_DATA_SOURCE = new PGSimpleDataSource();
+        PG_DATA_SOURCE.setUrl(PG_CONTAINER.getJdbcUrl());
+        PG_DATA_SOURCE.setUser(PG_CONTAINER.getUsername());
+        PG_DATA_SOURCE.setPassword(PG_CONTAINER.getPassword());
+        AbstractProcessInstancesIT.initMigration(PG_DATA_SOURCE);
+    }
+
+    @Test
+    void testBatchedUnitOfWork() {
+        assertThat(connectionsPerUnitOfWork(true, false)).isEqualTo(1);
+    }
+
+    @Test
+    void testBatchedUnitOfWorkWithLock() {
+        assertThat(connectionsPerUnitOfWork(true, true)).isEqualTo(1);
+    }
+
+    @Test
+    void testNotBatchedUnitOfWork() {
+        assertThat(connectionsPerUnitOfWork(false, false)).isGreaterThanOrEqualTo(INSTANCES_PER_UNIT_OF_WORK);
+    }
+
+    private int connectionsPerUnitOfWork(boolean batchEnabled, boolean lock) {
+        AtomicInteger connections = new AtomicInteger();
+        DataSource dataSource = countingDataSource(PG_DATA_SOURCE, connections);
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        BpmnProcess process = configureProcess(dataSource, unitOfWorkManager, batchEnabled, lock);
+
+        connections.set(0);
+        long start = System.nanoTime();
+        List<ProcessInstance<BpmnVariables>> instances = new ArrayList<>();
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        for (int i = 0; i < INSTANCES_PER_UNIT_OF_WORK; i++) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test")));
+            processInstance.start();
+            instances.add(processInstance);
+        }
+        unitOfWork.end();
+        int count = connections.get();
+        LOGGER.info("Batch enabled {}, lock {}: {} instances persisted using {} connections in {} ms", batchEnabled, lock, INSTANCES_PER_UNIT_OF_WORK, count,
+                (System.nanoTime() - start) / 1_000_000);
+
+        for (ProcessInstance<BpmnVariables> instance : instances) {
+            ProcessInstance<?> stored = process.instances().findById(instance.id()).orElseThrow();
+            assertThat(stored.status()).isEqualTo(STATE_ACTIVE);
+            assertThat(stored.version()).isEqualTo(lock ? 1L : 0L);
+        }
+        abort(process.instances());
+        return count;
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void testFlushConflictAbortsUnitOfWork() {
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        BpmnProcess process = configureProcess(PG_DATA_SOURCE, unitOfWorkManager, true, true);
+        MutableProcessInstances instances = (MutableProcessInstances) process.instances();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+        ProcessInstance<?> stale = instances.findById(processInstance.id()).orElseThrow();
+        instances.update(processInstance.id(), instances.findById(processInstance.id()).orElseThrow());
+
+        // the conflict is detected by the flush work unit, so the unit of work is aborted as usual
+        assertThatThrownBy(() -> UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            instances.update(stale.id(), stale);
+            return null;
+        })).isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+        assertThat(instances.findById(processInstance.id()).orElseThrow().version()).isEqualTo(2L);
+        abort(process.instances());
+    }
+
+    @Test
+    void testQueriesSeePendingWrites() {
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        BpmnProcess process = configureProcess(PG_DATA_SOURCE, unitOfWorkManager, true, false);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("pending", BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+
+        assertThat(process.instances().findByBusinessKey("pending")).map(ProcessInstance::id).contains(processInstance.id());
+        try (Stream<ProcessInstance<BpmnVariables>> stream = process.instances().stream()) {
+            assertThat(stream).extracting(ProcessInstance::id).containsExactly(processInstance.id());
+        }
+        unitOfWork.end();
+
+        assertThat(process.instances().findById(processInstance.id()).orElseThrow().status()).isEqualTo(STATE_ACTIVE);
+        abort(process.instances());
+    }
+
+    private static BpmnProcess configureProcess(DataSource dataSource, UnitOfWorkManager unitOfWorkManager, boolean batchEnabled, boolean lock) {
+        AbstractJDBCWriteBatchManager batchManager = new AbstractJDBCWriteBatchManager(dataSource, batchEnabled) {
+        };
+        unitOfWorkManager.register(batchManager);
+        DefaultWorkItemHandlerConfig workItemHandlerConfig = new DefaultWorkItemHandlerConfig();
+        workItemHandlerConfig.register("Human Task", new DefaultKogitoWorkItemHandler());
+        StaticProcessConfig config = new StaticProcessConfig(workItemHandlerConfig, new DefaultProcessEventListenerConfig(), unitOfWorkManager);
+        BpmnProcess process = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new TestProcessInstancesFactory(dataSource, lock, batchManager));
+        process.configure();
+        abort(process.instances());
+        return process;
+    }
+
+    private static DataSource countingDataSource(DataSource delegate, AtomicInteger connections) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class }, (proxy, method, args) -> {
+            Object result = method.invoke(delegate, args);
+            if (result instanceof Connection) {
+                connections.incrementAndGet();
+            }
+            return result;
+        });
+    }
+}
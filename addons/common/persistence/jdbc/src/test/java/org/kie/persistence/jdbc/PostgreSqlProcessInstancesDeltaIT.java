@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.drools.io.ClassPathResource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
+import org.kie.kogito.process.impl.DefaultWorkItemHandlerConfig;
+import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.process.workitems.impl.DefaultKogitoWorkItemHandler;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.testcontainers.KogitoPostgreSqlContainer;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertEmpty;
+
+@Testcontainers
+class PostgreSqlProcessInstancesDeltaIT {
+
+    private static final String LARGE_VALUE = "x".repeat(100_000);
+
+    @Container
+    private final static KogitoPostgreSqlContainer PG_CONTAINER = new KogitoPostgreSqlContainer();
+    private static PGSimpleDataSource PG_DATA_SOURCE;
+
+    @BeforeAll
+    public static void start() {
+        PG_DATA_SOURCE = new PGSimpleDataSource();
+        PG_DATA_SOURCE.setUrl(PG_CONTAINER.getJdbcUrl());
+        PG_DATA_SOURCE.setUser(PG_CONTAINER.getUsername());
+        PG_DATA_SOURCE.setPassword(PG_CONTAINER.getPassword());
+        AbstractProcessInstancesIT.initMigration(PG_DATA_SOURCE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testDeltaUpdates(boolean lock) throws SQLException {
+        BpmnProcess process = AbstractProcessInstancesIT.createProcess(new TestProcessInstancesFactory(PG_DATA_SOURCE, lock, null, true), "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", LARGE_VALUE)));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> stored = process.instances().findById(processInstance.id()).orElseThrow();
+        stored.updateVariables(BpmnVariables.create(singletonMap("s", "changed")));
+
+        StoredPayload payload = storedPayload(processInstance.id());
+        assertThat(payload.delta).isNotNull();
+        assertThat(payload.delta.length).isLessThan(payload.snapshot.length / 10);
+
+        stored = process.instances().findById(processInstance.id()).orElseThrow();
+        assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE).containsEntry("s", "changed");
+        assertThat(stored.version()).isEqualTo(lock ? 2L : 0L);
+
+        // the next delta replaces the stored one, so it keeps the variables changed since the snapshot
+        stored.updateVariables(BpmnVariables.create(singletonMap("other", "added")));
+
+        payload = storedPayload(processInstance.id());
+        assertThat(payload.delta).isNotNull();
+        stored = process.instances().findById(processInstance.id()).orElseThrow();
+        assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE).containsEntry("s", "changed").containsEntry("other", "added");
+
+        // changing the large variable makes the delta as big as a snapshot, so the instance is compacted
+        stored.updateVariables(BpmnVariables.create(singletonMap("test", LARGE_VALUE + "y")));
+
+        payload = storedPayload(processInstance.id());
+        assertThat(payload.delta).isNull();
+        stored = process.instances().findById(processInstance.id()).orElseThrow();
+        assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE + "y").containsEntry("s", "changed");
+
+        process.instances().findById(processInstance.id()).orElseThrow().abort();
+        assertEmpty(process.instances());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testBatchedDeltaUpdates(boolean lock) throws SQLException {
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        AbstractJDBCWriteBatchManager batchManager = new AbstractJDBCWriteBatchManager(PG_DATA_SOURCE, true) {
+        };
+        unitOfWorkManager.register(batchManager);
+        DefaultWorkItemHandlerConfig workItemHandlerConfig = new DefaultWorkItemHandlerConfig();
+        workItemHandlerConfig.register("Human Task", new DefaultKogitoWorkItemHandler());
+        BpmnProcess process = BpmnProcess.from(new StaticProcessConfig(workItemHandlerConfig, new DefaultProcessEventListenerConfig(), unitOfWorkManager),
+                new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new TestProcessInstancesFactory(PG_DATA_SOURCE, lock, batchManager, true));
+        process.configure();
+        abort(process.instances());
+
+        ProcessInstance<BpmnVariables> first = process.createInstance(BpmnVariables.create(singletonMap("test", LARGE_VALUE)));
+        ProcessInstance<BpmnVariables> second = process.createInstance(BpmnVariables.create(singletonMap("test", LARGE_VALUE)));
+        UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            first.start();
+            second.start();
+            return null;
+        });
+
+        // both deltas are flushed in the same batch
+        UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            process.instances().findById(first.id()).orElseThrow().updateVariables(BpmnVariables.create(singletonMap("s", "first")));
+            process.instances().findById(second.id()).orElseThrow().updateVariables(BpmnVariables.create(singletonMap("s", "second")));
+            return null;
+        });
+
+        for (ProcessInstance<BpmnVariables> instance : List.of(first, second)) {
+            StoredPayload payload = storedPayload(instance.id());
+            assertThat(payload.delta).isNotNull();
+            assertThat(payload.delta.length).isLessThan(payload.snapshot.length / 10);
+            ProcessInstance<BpmnVariables> stored = process.instances().findById(instance.id()).orElseThrow();
+            assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE).containsEntry("s", instance == first ? "first" : "second");
+            assertThat(stored.version()).isEqualTo(lock ? 2L : 0L);
+        }
+
+        abort(process.instances());
+        assertEmpty(process.instances());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testDeltaReadAndClearedWhenDisabled(boolean lock) throws SQLException {
+        BpmnProcess process = AbstractProcessInstancesIT.createProcess(new TestProcessInstancesFactory(PG_DATA_SOURCE, lock, null, true), "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", LARGE_VALUE)));
+        processInstance.start();
+        process.instances().findById(processInstance.id()).orElseThrow().updateVariables(BpmnVariables.create(singletonMap("s", "changed")));
+        assertThat(storedPayload(processInstance.id()).delta).isNotNull();
+
+        // the same instances read once delta persistence is switched off
+        BpmnProcess withoutDelta = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        withoutDelta.setProcessInstancesFactory(new TestProcessInstancesFactory(PG_DATA_SOURCE, lock, null, false));
+        withoutDelta.configure();
+
+        ProcessInstance<BpmnVariables> stored = withoutDelta.instances().findById(processInstance.id()).orElseThrow();
+        assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE).containsEntry("s", "changed");
+
+        stored.updateVariables(BpmnVariables.create(singletonMap("other", "added")));
+        assertThat(storedPayload(processInstance.id()).delta).isNull();
+
+        // switching it back on does not replay the old delta
+        stored = process.instances().findById(processInstance.id()).orElseThrow();
+        assertThat(stored.variables().toMap()).containsEntry("test", LARGE_VALUE).containsEntry("s", "changed").containsEntry("other", "added");
+
+        stored.abort();
+        assertEmpty(process.instances());
+    }
+
+    private static StoredPayload storedPayload(String id) throws SQLException {
+        try (Connection connection = PG_DATA_SOURCE.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT payload, payload_delta FROM process_instances WHERE id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next()).isTrue();
+                return new StoredPayload(resultSet.getBytes(1), resultSet.getBytes(2));
+            }
+        }
+    }
+
+    private static class StoredPayload {
+        private final byte[] snapshot;
+        private final byte[] delta;
+
+        private StoredPayload(byte[] snapshot, byte[] delta) {
+            this.snapshot = snapshot;
+            this.delta = delta;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.kie.persistence.jdbc;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
 import org.kie.kogito.persistence.jdbc.AbstractProcessInstancesFactory;
 import org.kie.kogito.persistence.jdbc.JDBCProcessInstances;
 import org.kie.kogito.process.Process;
@@ -32,6 +33,14 @@ public class TestProcessInstancesFactory extends AbstractProcessInstancesFactory
         super(dataSource, lock);
     }
 
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, AbstractJDBCWriteBatchManager batchManager) {
+        super(dataSource, lock, batchManager);
+    }
+
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, AbstractJDBCWriteBatchManager batchManager, boolean delta) {
+        super(dataSource, lock, batchManager, delta);
+    }
+
     @Override
     public JDBCProcessInstances createProcessInstances(Process<?> process) {
         return spy(super.createProcessInstances(process));
@@ -18,10 +18,13 @@
  */
 package org.kie.kogito.mongodb;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -29,14 +32,14 @@ import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
-import org.jbpm.flow.serialization.MarshallerContextName;
-import org.jbpm.flow.serialization.ProcessInstanceMarshallerService;
 import org.kie.kogito.Model;
 import org.kie.kogito.mongodb.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 
@@ -49,29 +52,33 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.result.UpdateResult;
 
-import static java.util.Collections.singletonMap;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID_INDEX;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
 
 public class MongoDBProcessInstances<T extends Model> implements MutableProcessInstances<T> {
 
     private static final String VERSION = "version";
     private org.kie.kogito.process.Process<?> process;
-    private ProcessInstanceMarshallerService marshaller;
+    private final ProcessInstanceDocumentMarshaller marshaller;
     private final MongoCollection<Document> collection;
     private final AbstractTransactionManager transactionManager;
     private final boolean lock;
 
     public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName, AbstractTransactionManager transactionManager, boolean lock) {
+        this(mongoClient, process, dbName, transactionManager, lock, false);
+    }
+
+    public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName, AbstractTransactionManager transactionManager, boolean lock,
+            boolean binary) {
         this.process = process;
         this.collection = Objects.requireNonNull(getCollection(mongoClient, process.id(), dbName));
-        this.marshaller = ProcessInstanceMarshallerService.newBuilder()
-                .withDefaultObjectMarshallerStrategies()
-                .withDefaultListeners()
-                .withContextEntries(singletonMap(MarshallerContextName.MARSHALLER_FORMAT, MarshallerContextName.MARSHALLER_FORMAT_JSON))
-                .build();
+        this.marshaller = new ProcessInstanceDocumentMarshaller(binary);
         this.transactionManager = Objects.requireNonNull(transactionManager);
         this.lock = lock;
     }
@@ -88,8 +95,39 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(docs, Spliterator.ORDERED), false).map(doc -> unmarshall(doc, mode)).onClose(docs::close);
     }
 
+    @Override
+    public ProcessInstancePage<ProcessInstance<T>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // id range, state and business key are part of the mongo query, the start date is checked once unmarshalled
+        List<Bson> filters = new ArrayList<>();
+        if (!query.states().isEmpty()) {
+            Bson states = Filters.in(STATE, query.states());
+            // json documents omit the state when it holds the default (pending) value
+            filters.add(query.states().contains(ProcessInstance.STATE_PENDING) ? Filters.or(states, Filters.exists(STATE, false)) : states);
+        }
+        if (query.businessKeyPrefix() != null) {
+            filters.add(Filters.regex(BUSINESS_KEY, "^" + Pattern.quote(query.businessKeyPrefix())));
+        }
+        int chunkSize = query.pageSize() + 1;
+        return ProcessInstancePage.of(query, chunkSize, afterId -> findPage(filters, afterId, chunkSize, mode));
+    }
+
+    private List<ProcessInstance<T>> findPage(List<Bson> filters, String afterId, int limit, ProcessInstanceReadMode mode) {
+        List<Bson> pageFilters = new ArrayList<>(filters);
+        if (afterId != null) {
+            pageFilters.add(Filters.gt(PROCESS_INSTANCE_ID, afterId));
+        }
+        Bson filter = pageFilters.isEmpty() ? new Document() : Filters.and(pageFilters);
+        ClientSession clientSession = transactionManager.getClientSession();
+        List<ProcessInstance<T>> instances = new ArrayList<>(limit);
+        (clientSession == null ? collection.find(filter) : collection.find(clientSession, filter))
+                .sort(Sorts.ascending(PROCESS_INSTANCE_ID))
+                .limit(limit)
+                .forEach(doc -> instances.add(unmarshall(doc, mode)));
+        return instances;
+    }
+
     private ProcessInstance<T> unmarshall(Document document, ProcessInstanceReadMode mode) {
-        ProcessInstance<T> instance = (ProcessInstance<T>) marshaller.unmarshallProcessInstance(document.toJson().getBytes(), process, mode);
+        ProcessInstance<T> instance = (ProcessInstance<T>) marshaller.unmarshall(document, process, mode);
         setVersion(instance, document.getLong(VERSION));
         return instance;
     }
@@ -109,7 +147,7 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     protected void updateStorage(String id, ProcessInstance<T> instance, boolean checkDuplicates) {
         ClientSession clientSession = transactionManager.getClientSession();
-        Document doc = Document.parse(new String(marshaller.marshallProcessInstance(instance)));
+        Document doc = marshaller.marshall(instance);
         if (checkDuplicates) {
             createInternal(id, clientSession, doc);
         } else {
@@ -154,7 +192,10 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public boolean exists(String id) {
-        return find(id).isPresent();
+        ClientSession clientSession = transactionManager.getClientSession();
+        // only the indexed id is projected, so the instance document itself is never transferred
+        Bson filter = Filters.eq(PROCESS_INSTANCE_ID, id);
+        return (clientSession != null ? collection.find(clientSession, filter) : collection.find(filter)).projection(Projections.include(PROCESS_INSTANCE_ID)).first() != null;
     }
 
     @Override
@@ -170,7 +211,7 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
     private void reloadProcessInstance(ProcessInstance<T> instance, String id) {
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> find(id).map(reloaded -> {
             setVersion(instance, reloaded.getLong(VERSION));
-            return reloaded.toJson().getBytes();
+            return reloaded;
         }).orElseThrow(() -> new IllegalArgumentException("process instance id " + id + " does not exists in mongodb"))));
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.mongodb;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.jbpm.flow.serialization.MarshallerContextName;
+import org.jbpm.flow.serialization.ProcessInstanceMarshallerService;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+
+import static java.util.Collections.singletonMap;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PAYLOAD;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
+
+/**
+ * Converts process instances to and from MongoDB documents.
+ * <p>
+ * By default the document is the JSON representation of the process instance. When binary mode is enabled, the document
+ * only keeps the fields used for querying (id, process id, state and business key) as native BSON fields, while the
+ * process instance itself is stored as a protobuf binary payload, avoiding the JSON encoding and parsing on every read
+ * and write. Both layouts are always readable, so the mode can be switched on collections that already hold instances.
+ * <p>
+ * In both layouts the instance version is kept as a native document field, added by {@link MongoDBProcessInstances}
+ * to the converted document, so that the optimistic locking filter can still match on it.
+ */
+public class ProcessInstanceDocumentMarshaller {
+
+    private final ProcessInstanceMarshallerService jsonMarshaller;
+    private final ProcessInstanceMarshallerService binaryMarshaller;
+    private final boolean binary;
+
+    public ProcessInstanceDocumentMarshaller(boolean binary) {
+        this.jsonMarshaller = ProcessInstanceMarshallerService.newBuilder()
+                .withDefaultObjectMarshallerStrategies()
+                .withDefaultListeners()
+                .withContextEntries(singletonMap(MarshallerContextName.MARSHALLER_FORMAT, MarshallerContextName.MARSHALLER_FORMAT_JSON))
+                .build();
+        this.binaryMarshaller = ProcessInstanceMarshallerService.newBuilder()
+                .withDefaultObjectMarshallerStrategies()
+                .withDefaultListeners()
+                .build();
+        this.binary = binary;
+    }
+
+    public Document marshall(ProcessInstance<?> instance) {
+        if (!binary) {
+            return Document.parse(new String(jsonMarshaller.marshallProcessInstance(instance)));
+        }
+        Document document = new Document(PROCESS_INSTANCE_ID, instance.id())
+                .append(PROCESS_ID, instance.process().id())
+                .append(STATE, instance.status());
+        if (instance.businessKey() != null) {
+            document.append(BUSINESS_KEY, instance.businessKey());
+        }
+        return document.append(PAYLOAD, new Binary(binaryMarshaller.marshallProcessInstance(instance)));
+    }
+
+    public ProcessInstance<?> unmarshall(Document document, Process<?> process, ProcessInstanceReadMode mode) {
+        return marshallerFor(document).unmarshallProcessInstance(payload(document), process, mode);
+    }
+
+    public Consumer<AbstractProcessInstance<?>> createdReloadFunction(Supplier<Document> documentSupplier) {
+        return instance -> {
+            Document document = documentSupplier.get();
+            marshallerFor(document).createdReloadFunction(() -> payload(document)).accept(instance);
+        };
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    private ProcessInstanceMarshallerService marshallerFor(Document document) {
+        return document.containsKey(PAYLOAD) ? binaryMarshaller : jsonMarshaller;
+    }
+
+    private static byte[] payload(Document document) {
+        Object payload = document.get(PAYLOAD);
+        if (payload == null) {
+            return document.toJson().getBytes();
+        }
+        return payload instanceof Binary ? ((Binary) payload).getData() : (byte[]) payload;
+    }
+}
@@ -65,8 +65,10 @@ import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STAT
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ERROR;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abortFirst;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertEmpty;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertFind;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertOne;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.getFirst;
 
@@ -284,6 +286,31 @@ class MongoDBProcessInstancesIT {
         assertEmpty(instances);
     }
 
+    @Test
+    void testFind() {
+        AbstractTransactionManager transactionManager = new AbstractTransactionManager(mongoClient, false) {
+        };
+        StaticProcessConfig config = new StaticProcessConfig();
+        ((DefaultWorkItemHandlerConfig) config.workItemHandlers()).register("Human Task", new DefaultKogitoWorkItemHandler());
+        BpmnProcess process = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new MongoDBProcessInstancesFactory(mongoClient, transactionManager));
+        process.configure();
+        abort(process.instances());
+
+        List<ProcessInstance<BpmnVariables>> instances = new ArrayList<>();
+        // the dot checks the prefix is not taken as a regular expression
+        for (String businessKey : List.of("order.1", "order.2", "orderX3", "invoice.1")) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(businessKey, BpmnVariables.create(Collections.singletonMap("test", "test")));
+            processInstance.start();
+            instances.add(processInstance);
+        }
+
+        assertFind(process.instances(), instances, "order.");
+
+        abort(process.instances());
+        assertEmpty(process.instances());
+    }
+
     private class MongoDBProcessInstancesFactory extends AbstractProcessInstancesFactory {
 
         public MongoDBProcessInstancesFactory(MongoClient mongoClient, AbstractTransactionManager transactionManager) {
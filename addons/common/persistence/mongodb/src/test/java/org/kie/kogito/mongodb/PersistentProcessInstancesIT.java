@@ -119,6 +119,7 @@ class PersistentProcessInstancesIT extends TestHelper {
         FindIterable<Document> results = mock(FindIterable.class);
         when(results.first()).thenReturn(null);
         when(results.iterator()).thenReturn(cursor);
+        when(results.projection(any())).thenReturn(results);
         when(mongoCollection.find(eq(clientSession), any(Bson.class))).thenReturn(results);
         when(mongoCollection.find(eq(clientSession))).thenReturn(results);
         when(mongoCollection.find(any(Bson.class))).thenReturn(results);
@@ -139,6 +140,7 @@ class PersistentProcessInstancesIT extends TestHelper {
 
         mongodbInstance.exists(id);
         verify(mongoCollection, times(2)).find(eq(clientSession), eq(Filters.eq(PROCESS_INSTANCE_ID, id)));
+        verify(results).projection(any());
 
         mongodbInstance.remove(id);
         verify(mongoCollection, times(1)).deleteOne(eq(clientSession), eq(Filters.eq(PROCESS_INSTANCE_ID, id)));
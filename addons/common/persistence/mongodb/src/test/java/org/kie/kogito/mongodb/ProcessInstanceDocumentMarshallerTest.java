@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.mongodb;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.drools.io.ClassPathResource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PAYLOAD;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
+
+class ProcessInstanceDocumentMarshallerTest {
+
+    static BpmnProcess process;
+
+    @BeforeAll
+    static void setup() {
+        process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.configure();
+    }
+
+    @Test
+    void testBinaryDocument() {
+        ProcessInstance<BpmnVariables> processInstance = startInstance();
+        ProcessInstanceDocumentMarshaller marshaller = new ProcessInstanceDocumentMarshaller(true);
+
+        Document document = marshaller.marshall(processInstance);
+        assertThat(document).containsEntry(PROCESS_INSTANCE_ID, processInstance.id())
+                .containsEntry(PROCESS_ID, process.id())
+                .containsEntry(STATE, processInstance.status())
+                .doesNotContainKey("context");
+        assertThat(document.get(PAYLOAD)).isInstanceOf(Binary.class);
+
+        ProcessInstance<?> unmarshalled = marshaller.unmarshall(document, process, ProcessInstanceReadMode.MUTABLE);
+        assertThat(unmarshalled.id()).isEqualTo(processInstance.id());
+        assertThat(((BpmnVariables) unmarshalled.variables()).get("test")).isEqualTo("testValue");
+    }
+
+    @Test
+    void testJsonDocumentReadInBinaryMode() {
+        ProcessInstance<BpmnVariables> processInstance = startInstance();
+        Document document = new ProcessInstanceDocumentMarshaller(false).marshall(processInstance);
+        assertThat(document).doesNotContainKey(PAYLOAD).containsKey("context");
+
+        ProcessInstance<?> unmarshalled = new ProcessInstanceDocumentMarshaller(true).unmarshall(document, process, ProcessInstanceReadMode.READ_ONLY);
+        assertThat(unmarshalled.id()).isEqualTo(processInstance.id());
+        assertThat(((BpmnVariables) unmarshalled.variables()).get("test")).isEqualTo("testValue");
+    }
+
+    private static ProcessInstance<BpmnVariables> startInstance() {
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "testValue")));
+        processInstance.start();
+        return processInstance;
+    }
+}
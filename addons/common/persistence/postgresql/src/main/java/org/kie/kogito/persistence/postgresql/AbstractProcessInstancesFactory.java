@@ -28,6 +28,7 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
     private final Long queryTimeout;
     private final PgPool client;
     private final Boolean lock;
+    private final Boolean delta;
 
     // Constructor for DI
     protected AbstractProcessInstancesFactory() {
@@ -35,9 +36,14 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
     }
 
     public AbstractProcessInstancesFactory(PgPool client, Long queryTimeout, Boolean lock) {
+        this(client, queryTimeout, lock, false);
+    }
+
+    public AbstractProcessInstancesFactory(PgPool client, Long queryTimeout, Boolean lock, Boolean delta) {
         this.client = client;
         this.queryTimeout = queryTimeout;
         this.lock = lock;
+        this.delta = delta;
     }
 
     public PgPool client() {
@@ -50,6 +56,6 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
 
     @Override
     public PostgresqlProcessInstances createProcessInstances(Process<?> process) {
-        return new PostgresqlProcessInstances(process, client(), queryTimeout, lock());
+        return new PostgresqlProcessInstances(process, client(), queryTimeout, lock(), delta);
     }
 }
@@ -20,18 +20,24 @@ package org.kie.kogito.persistence.postgresql;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.jbpm.flow.serialization.ProcessInstanceMarshallerService;
+import org.jbpm.flow.serialization.ProcessInstancePayload;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 
@@ -48,14 +54,26 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
 
     private static final String VERSION = "version";
     private static final String PAYLOAD = "payload";
+    private static final String PAYLOAD_DELTA = "payload_delta";
 
     private static final String IS_NULL = "is null";
-    private static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version) VALUES ($1, $2, $3, $4, $5)";
-    private static final String UPDATE = "UPDATE process_instances SET payload = $1 WHERE process_id = $2 and id = $3 and process_version ";
+    private static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version, state) VALUES ($1, $2, $3, $4, $5, $6)";
+    // payload_delta is always read and cleared on full updates, so switching delta persistence off and on never loses or replays a delta
+    private static final String UPDATE = "UPDATE process_instances SET payload = $1, payload_delta = NULL, state = $2 WHERE process_id = $3 and id = $4 and process_version ";
     private static final String DELETE = "DELETE FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
-    private static final String FIND_BY_ID = "SELECT payload, version FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
-    private static final String FIND_ALL = "SELECT payload, version FROM process_instances WHERE process_id = $1 and process_version ";
-    private static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = $1, version = $2 WHERE process_id = $3 and id = $4 and version = $5 and process_version ";
+    private static final String FIND_BY_ID = "SELECT payload, payload_delta, version FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
+    private static final String EXISTS = "SELECT 1 FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
+    private static final String FIND_ALL = "SELECT payload, payload_delta, version FROM process_instances WHERE process_id = $1 and process_version ";
+    private static final String UPDATE_WITH_LOCK =
+            "UPDATE process_instances SET payload = $1, payload_delta = NULL, state = $2, version = $3 WHERE process_id = $4 and id = $5 and version = $6 and process_version ";
+    private static final String UPDATE_DELTA = "UPDATE process_instances SET payload_delta = $1, state = $2 WHERE process_id = $3 and id = $4 and process_version ";
+    private static final String UPDATE_DELTA_WITH_LOCK =
+            "UPDATE process_instances SET payload_delta = $1, state = $2, version = $3 WHERE process_id = $4 and id = $5 and version = $6 and process_version ";
+    private static final String FIND_PAGE = "SELECT payload, payload_delta, version FROM process_instances WHERE process_id = $1 and id > $2 ";
+    // instances stored before the state column was introduced have no state, they are checked once unmarshalled
+    private static final String STATE_IN = "and (state is null or state = ANY($4)) ";
+    private static final String AND_PROCESS_VERSION = "and process_version ";
+    private static final String ORDER_BY_ID_LIMIT = " ORDER BY id LIMIT $3";
     private static final String MIGRATE_BULK = "UPDATE process_instances SET process_id = $1, process_version = $2 WHERE process_id = $3 and process_version ";
     private static final String MIGRATE_INSTANCE = "UPDATE process_instances SET process_id = $1, process_version = $2 WHERE process_id = $3 and id = ANY ($4) and process_version ";
 
@@ -64,18 +82,32 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
     private final ProcessInstanceMarshallerService marshaller;
     private final Long queryTimeoutMillis;
     private final boolean lock;
+    private final boolean delta;
 
     public PostgresqlProcessInstances(Process<?> process, PgPool client, Long queryTimeoutMillis, boolean lock) {
+        this(process, client, queryTimeoutMillis, lock, false);
+    }
+
+    public PostgresqlProcessInstances(Process<?> process, PgPool client, Long queryTimeoutMillis, boolean lock, boolean delta) {
         this.process = process;
         this.client = client;
         this.queryTimeoutMillis = queryTimeoutMillis;
         this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withDefaultListeners().build();
         this.lock = lock;
+        this.delta = delta;
     }
 
     @Override
     public boolean exists(String id) {
-        return findById(id).isPresent();
+        try {
+            Future<RowSet<Row>> future = client.preparedQuery(EXISTS + (process.version() == null ? IS_NULL : "= $3")).execute(tuple(process.id(), id));
+            return getResultFromFuture(future).map(RowSet::iterator).filter(Iterator::hasNext).isPresent();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error checking existence of process instance %s", id);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error checking existence of process instance %s", id);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -85,7 +117,7 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
             disconnect(instance);
             return;
         }
-        insertInternal(id, marshaller.marshallProcessInstance(instance));
+        insertInternal(id, marshaller.marshallProcessInstance(instance), instance.status());
     }
 
     @SuppressWarnings("unchecked")
@@ -96,16 +128,33 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
             return;
         }
         try {
-            if (lock) {
-                updateWithLock(id, marshaller.marshallProcessInstance(instance), instance.version());
+            if (delta) {
+                updateDelta(id, instance);
+            } else if (lock) {
+                updateWithLock(UPDATE_WITH_LOCK, id, marshaller.marshallProcessInstance(instance), instance.status(), instance.version());
             } else {
-                updateInternal(id, marshaller.marshallProcessInstance(instance));
+                updateInternal(UPDATE, id, marshaller.marshallProcessInstance(instance), instance.status());
             }
         } finally {
             disconnect(instance);
         }
     }
 
+    private void updateDelta(String id, ProcessInstance<?> instance) {
+        ProcessInstancePayload payload = marshaller.marshallProcessInstanceDelta(instance);
+        if (lock) {
+            if (payload.hasDelta()) {
+                updateWithLock(UPDATE_DELTA_WITH_LOCK, id, payload.delta(), instance.status(), instance.version());
+            } else {
+                updateWithLock(UPDATE_WITH_LOCK, id, payload.snapshot(), instance.status(), instance.version());
+            }
+        } else if (payload.hasDelta()) {
+            updateInternal(UPDATE_DELTA, id, payload.delta(), instance.status());
+        } else {
+            updateInternal(UPDATE, id, payload.snapshot(), instance.status());
+        }
+    }
+
     @Override
     public void remove(String id) {
         deleteInternal(id);
@@ -130,8 +179,35 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
+    @Override
+    public ProcessInstancePage<ProcessInstance<?>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // keyset pagination and states are resolved by the database, the remaining criteria are checked once unmarshalled
+        int chunkSize = query.pageSize() + 1;
+        return ProcessInstancePage.of(query, chunkSize, afterId -> findPage(afterId, query.states(), chunkSize, mode));
+    }
+
+    private List<ProcessInstance<?>> findPage(String afterId, Set<Integer> states, int limit, ProcessInstanceReadMode mode) {
+        try {
+            String sql = FIND_PAGE + (states.isEmpty() ? "" : STATE_IN) + AND_PROCESS_VERSION
+                    + (process.version() == null ? IS_NULL : states.isEmpty() ? "= $4" : "= $5") + ORDER_BY_ID_LIMIT;
+            Tuple parameters = states.isEmpty() ? tuple(process.id(), afterId == null ? "" : afterId, limit)
+                    : tuple(process.id(), afterId == null ? "" : afterId, limit, states.toArray(Integer[]::new));
+            return getResultFromFuture(client.preparedQuery(sql).execute(parameters))
+                    .map(r -> StreamSupport.stream(r.spliterator(), false)).orElse(Stream.empty())
+                    .<ProcessInstance<?>> map(row -> unmarshall(row, mode))
+                    .collect(Collectors.toList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error finding page of process instances after %s, for processId %s", afterId, process.id());
+        } catch (ExecutionException | TimeoutException e) {
+            throw uncheckedException(e, "Error finding page of process instances after %s, for processId %s", afterId, process.id());
+        }
+    }
+
     private ProcessInstance<?> unmarshall(Row r, ProcessInstanceReadMode mode) {
-        AbstractProcessInstance instance = (AbstractProcessInstance) marshaller.unmarshallProcessInstance(r.getBuffer(PAYLOAD).getBytes(), process, mode);
+        // a delta stored while delta persistence was enabled is replayed even if it no longer is, the next full update clears it
+        AbstractProcessInstance instance = (AbstractProcessInstance) (delta || r.getBuffer(PAYLOAD_DELTA) != null ? marshaller.unmarshallProcessInstance(payload(r), process, mode)
+                : marshaller.unmarshallProcessInstance(r.getBuffer(PAYLOAD).getBytes(), process, mode));
         instance.setVersion(r.getLong(VERSION));
         return instance;
     }
@@ -141,17 +217,26 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         return this.lock;
     }
 
+    private static ProcessInstancePayload payload(Row r) {
+        Buffer payloadDelta = r.getBuffer(PAYLOAD_DELTA);
+        return ProcessInstancePayload.of(r.getBuffer(PAYLOAD).getBytes(), payloadDelta == null ? null : payloadDelta.getBytes());
+    }
+
     private void disconnect(ProcessInstance instance) {
-        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> findByIdInternal(instance.id()).map(r -> {
-            ((AbstractProcessInstance) instance).setVersion(r.getLong(VERSION));
-            return r.getBuffer(PAYLOAD).getBytes();
-        }).orElseThrow()));
+        // the stored delta, if any, is replayed whether delta persistence is enabled or not
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(processInstance -> {
+            Row r = findByIdInternal(instance.id()).orElseThrow();
+            processInstance.setVersion(r.getLong(VERSION));
+            ProcessInstancePayload payload = payload(r);
+            (delta || payload.hasDelta() ? marshaller.createdDeltaReloadFunction(() -> payload)
+                    : marshaller.createdReloadFunction(payload::snapshot)).accept(processInstance);
+        });
     }
 
-    private boolean insertInternal(String id, byte[] payload) {
+    private boolean insertInternal(String id, byte[] payload, int state) {
         try {
             Future<RowSet<Row>> future = client.preparedQuery(INSERT)
-                    .execute(Tuple.of(id, Buffer.buffer(payload), process.id(), process.version(), 0L));
+                    .execute(Tuple.of(id, Buffer.buffer(payload), process.id(), process.version(), 0L, state));
             return getExecutedResult(future);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -204,11 +289,11 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
-    private boolean updateInternal(String id, byte[] payload) {
+    private boolean updateInternal(String sql, String id, byte[] payload, int state) {
         try {
             Future<RowSet<Row>> future =
-                    client.preparedQuery(UPDATE + (process.version() == null ? IS_NULL : "= $4"))
-                            .execute(tuple(Buffer.buffer(payload), process.id(), id));
+                    client.preparedQuery(sql + (process.version() == null ? IS_NULL : "= $5"))
+                            .execute(tuple(Buffer.buffer(payload), state, process.id(), id));
             return getExecutedResult(future);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -271,10 +356,10 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         return tuple;
     }
 
-    private boolean updateWithLock(String id, byte[] payload, long version) {
+    private boolean updateWithLock(String sql, String id, byte[] payload, int state, long version) {
         try {
-            Future<RowSet<Row>> future = client.preparedQuery(UPDATE_WITH_LOCK + (process.version() == null ? IS_NULL : "= $6"))
-                    .execute(tuple(Buffer.buffer(payload), version + 1, process.id(), id, version));
+            Future<RowSet<Row>> future = client.preparedQuery(sql + (process.version() == null ? IS_NULL : "= $7"))
+                    .execute(tuple(Buffer.buffer(payload), state, version + 1, process.id(), id, version));
             boolean result = getExecutedResult(future);
             if (!result) {
                 throw new ProcessInstanceOptimisticLockingException(id);
@@ -18,7 +18,9 @@
  */
 package org.kie.persistence.postgresql;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.drools.io.ClassPathResource;
@@ -56,8 +58,10 @@ import static org.assertj.core.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ERROR;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.abort;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertEmpty;
+import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertFind;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.assertOne;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.getFirst;
 import static org.mockito.ArgumentMatchers.any;
@@ -152,6 +156,22 @@ class PostgresqlProcessInstancesIT {
         assertEmpty(process.instances());
     }
 
+    @Test
+    void testFind() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        List<ProcessInstance<BpmnVariables>> instances = new ArrayList<>();
+        for (String businessKey : List.of("order_1", "order_2", "orderX3", "invoice_1")) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(businessKey, BpmnVariables.create(singletonMap("test", "test")));
+            processInstance.start();
+            instances.add(processInstance);
+        }
+
+        assertFind(process.instances(), instances, "order_");
+
+        abort(process.instances());
+        assertEmpty(process.instances());
+    }
+
     @Test
     void testMultipleProcesses() {
         BpmnProcess utProcess = createProcess("BPMN2-UserTask.bpmn2");
@@ -257,6 +277,22 @@ class PostgresqlProcessInstancesIT {
         }
     }
 
+    @Test
+    public void testStateIsStored() throws Exception {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> active = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        active.start();
+        BpmnProcess scriptProcess = createProcess("BPMN2-UserTask-Script.bpmn2");
+        ProcessInstance<BpmnVariables> error = scriptProcess.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        error.start();
+        assertThat(error.status()).isEqualTo(STATE_ERROR);
+
+        RowSet<Row> rows = client.preparedQuery("SELECT state FROM process_instances WHERE id = $1").execute(Tuple.of(active.id())).toCompletionStage().toCompletableFuture().get();
+        assertThat(rows.iterator().next().getInteger(0)).isEqualTo(STATE_ACTIVE);
+        rows = client.preparedQuery("SELECT state FROM process_instances WHERE id = $1").execute(Tuple.of(error.id())).toCompletionStage().toCompletableFuture().get();
+        assertThat(rows.iterator().next().getInteger(0)).isEqualTo(STATE_ERROR);
+    }
+
     @Test
     public void testRemove() {
         BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.rocksdb;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.services.jobs.impl.JobDescriptionMarshaller;
+import org.kie.kogito.services.jobs.impl.JobStore;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * {@link JobStore} keeping jobs by id in one column family and an (expiration, id) ordered index in another,
+ * so due jobs are read with a single range scan.
+ */
+public class RocksDBJobStore implements JobStore {
+
+    private final RocksDB db;
+    private final ColumnFamilyHandle jobs;
+    private final ColumnFamilyHandle expirationIndex;
+    private final JobDescriptionMarshaller marshaller;
+
+    public RocksDBJobStore(RocksDB db, ColumnFamilyHandle jobs, ColumnFamilyHandle expirationIndex) {
+        this.db = db;
+        this.jobs = jobs;
+        this.expirationIndex = expirationIndex;
+        this.marshaller = new JobDescriptionMarshaller();
+    }
+
+    @Override
+    public synchronized void store(JobDescription jobDescription) {
+        byte[] id = jobDescription.id().getBytes(StandardCharsets.UTF_8);
+        long expiration = JobDescriptionMarshaller.expirationMillis(jobDescription);
+        byte[] payload = marshaller.marshall(jobDescription);
+        // value holds the expiration, so the previous index entry can be removed without unmarshalling
+        byte[] value = ByteBuffer.allocate(Long.BYTES + payload.length).putLong(expiration).put(payload).array();
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            byte[] previous = db.get(jobs, id);
+            if (previous != null) {
+                batch.delete(expirationIndex, indexEntry(ByteBuffer.wrap(previous).getLong(), id));
+            }
+            batch.put(jobs, id, value);
+            batch.put(expirationIndex, indexEntry(expiration, id), new byte[0]);
+            db.write(writeOptions, batch);
+        } catch (RocksDBException ex) {
+            throw new IllegalStateException("Error storing job " + jobDescription.id(), ex);
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(String jobId) {
+        byte[] id = jobId.getBytes(StandardCharsets.UTF_8);
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            byte[] previous = db.get(jobs, id);
+            if (previous == null) {
+                return false;
+            }
+            batch.delete(expirationIndex, indexEntry(ByteBuffer.wrap(previous).getLong(), id));
+            batch.delete(jobs, id);
+            db.write(writeOptions, batch);
+            return true;
+        } catch (RocksDBException ex) {
+            throw new IllegalStateException("Error removing job " + jobId, ex);
+        }
+    }
+
+    @Override
+    public List<JobDescription> loadJobs(long fromMillis, String fromId, long toMillis, int limit) {
+        List<JobDescription> result = new ArrayList<>();
+        byte[] from = indexEntry(fromMillis, fromId.getBytes(StandardCharsets.UTF_8));
+        try (RocksIterator iterator = db.newIterator(expirationIndex)) {
+            iterator.seek(from);
+            if (iterator.isValid() && Arrays.equals(iterator.key(), from)) {
+                iterator.next();
+            }
+            while (iterator.isValid() && result.size() < limit) {
+                ByteBuffer key = ByteBuffer.wrap(iterator.key());
+                if ((key.getLong() ^ Long.MIN_VALUE) > toMillis) {
+                    break;
+                }
+                byte[] id = new byte[key.remaining()];
+                key.get(id);
+                byte[] value = db.get(jobs, id);
+                if (value != null) {
+                    result.add(marshaller.unmarshall(Arrays.copyOfRange(value, Long.BYTES, value.length)));
+                }
+                iterator.next();
+            }
+        } catch (RocksDBException ex) {
+            throw new IllegalStateException("Error loading jobs expiring before " + toMillis, ex);
+        }
+        return result;
+    }
+
+    private static byte[] indexEntry(long expiration, byte[] id) {
+        // sign bit flipped so the bytewise comparator orders expirations as signed longs
+        return ByteBuffer.allocate(Long.BYTES + id.length).putLong(expiration ^ Long.MIN_VALUE).put(id).array();
+    }
+}
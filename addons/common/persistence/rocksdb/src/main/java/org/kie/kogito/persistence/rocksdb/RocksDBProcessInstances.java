@@ -19,6 +19,7 @@
 package org.kie.kogito.persistence.rocksdb;
 
 import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.Spliterators.AbstractSpliterator;
 import java.util.function.Consumer;
@@ -30,20 +31,35 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 
 public class RocksDBProcessInstances<T> implements MutableProcessInstances<T> {
 
     private final Process<T> process;
     private final ProcessInstanceMarshallerService marshaller;
     private final RocksDB db;
+    private final ColumnFamilyHandle businessKeyIndex;
+    private volatile boolean businessKeyIndexReady;
 
     public RocksDBProcessInstances(Process<T> process, RocksDB db) {
+        this(process, db, null);
+    }
+
+    /**
+     * @param process process
+     * @param db database storing the process instances in the default column family
+     * @param businessKeyIndex column family used to index process instances by business key, <code>null</code> to disable the index
+     */
+    public RocksDBProcessInstances(Process<T> process, RocksDB db, ColumnFamilyHandle businessKeyIndex) {
         this.process = process;
         marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withDefaultListeners().build();
         this.db = db;
+        this.businessKeyIndex = businessKeyIndex;
     }
 
     private class RockSplitIterator extends AbstractSpliterator<ProcessInstance<T>> implements Closeable {
@@ -83,6 +99,21 @@ public class RocksDBProcessInstances<T> implements MutableProcessInstances<T> {
         }
     }
 
+    @Override
+    public Optional<ProcessInstance<T>> findByBusinessKey(String businessKey, ProcessInstanceReadMode mode) {
+        if (businessKeyIndex == null) {
+            return MutableProcessInstances.super.findByBusinessKey(businessKey, mode);
+        }
+        try {
+            ensureBusinessKeyIndex();
+            byte[] id = db.get(businessKeyIndex, businessKeyEntry(businessKey));
+            // the index might point to an instance removed while the entry was being written
+            return id == null ? Optional.empty() : findById(new String(id, StandardCharsets.UTF_8), mode).filter(pi -> businessKey.equals(pi.businessKey()));
+        } catch (RocksDBException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     @Override
     public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
         RocksDBProcessInstances<T>.RockSplitIterator iterator = new RockSplitIterator(db.newIterator());
@@ -105,8 +136,13 @@ public class RocksDBProcessInstances<T> implements MutableProcessInstances<T> {
 
     @Override
     public void update(String id, ProcessInstance<T> instance) {
-        try {
-            db.put(id.getBytes(), marshaller.marshallProcessInstance(instance));
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            batch.put(id.getBytes(), marshaller.marshallProcessInstance(instance));
+            if (businessKeyIndex != null && instance.businessKey() != null) {
+                batch.put(businessKeyIndex, businessKeyEntry(instance.businessKey()), id.getBytes(StandardCharsets.UTF_8));
+                batch.put(businessKeyIndex, instanceEntry(id), instance.businessKey().getBytes(StandardCharsets.UTF_8));
+            }
+            db.write(writeOptions, batch);
         } catch (RocksDBException ex) {
             throw new IllegalStateException(ex);
         }
@@ -114,13 +150,69 @@ public class RocksDBProcessInstances<T> implements MutableProcessInstances<T> {
 
     @Override
     public void remove(String id) {
-        try {
-            db.delete(id.getBytes());
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            batch.delete(id.getBytes());
+            if (businessKeyIndex != null) {
+                byte[] businessKey = db.get(businessKeyIndex, instanceEntry(id));
+                if (businessKey != null) {
+                    byte[] businessKeyEntry = businessKeyEntry(new String(businessKey, StandardCharsets.UTF_8));
+                    byte[] indexedId = db.get(businessKeyIndex, businessKeyEntry);
+                    // another instance might have been started later on with the same business key
+                    if (indexedId != null && id.equals(new String(indexedId, StandardCharsets.UTF_8))) {
+                        batch.delete(businessKeyIndex, businessKeyEntry);
+                    }
+                    batch.delete(businessKeyIndex, instanceEntry(id));
+                }
+            }
+            db.write(writeOptions, batch);
         } catch (RocksDBException ex) {
             throw new IllegalStateException(ex);
         }
     }
 
+    /**
+     * Indexes the instances stored before the business key index was introduced. Executed once per process.
+     */
+    private void ensureBusinessKeyIndex() throws RocksDBException {
+        if (businessKeyIndexReady) {
+            return;
+        }
+        synchronized (this) {
+            if (businessKeyIndexReady) {
+                return;
+            }
+            byte[] marker = indexEntry('m', "");
+            if (db.get(businessKeyIndex, marker) == null) {
+                try (Stream<ProcessInstance<T>> instances = stream(ProcessInstanceReadMode.READ_ONLY);
+                        WriteBatch batch = new WriteBatch();
+                        WriteOptions writeOptions = new WriteOptions()) {
+                    for (ProcessInstance<T> instance : (Iterable<ProcessInstance<T>>) instances::iterator) {
+                        if (instance.businessKey() != null) {
+                            batch.put(businessKeyIndex, businessKeyEntry(instance.businessKey()), instance.id().getBytes(StandardCharsets.UTF_8));
+                            batch.put(businessKeyIndex, instanceEntry(instance.id()), instance.businessKey().getBytes(StandardCharsets.UTF_8));
+                        }
+                    }
+                    batch.put(businessKeyIndex, marker, new byte[0]);
+                    db.write(writeOptions, batch);
+                }
+            }
+            businessKeyIndexReady = true;
+        }
+    }
+
+    private byte[] businessKeyEntry(String businessKey) {
+        return indexEntry('k', businessKey);
+    }
+
+    private byte[] instanceEntry(String id) {
+        return indexEntry('i', id);
+    }
+
+    private byte[] indexEntry(char type, String key) {
+        // the database is shared by all processes, so index entries are scoped by process id
+        return (type + process.id() + '\0' + key).getBytes(StandardCharsets.UTF_8);
+    }
+
     @SuppressWarnings("unchecked")
     private ProcessInstance<T> unmarshall(byte[] data) {
         return (ProcessInstance<T>) marshaller.unmarshallProcessInstance(data, process);
@@ -18,27 +18,55 @@
  */
 package org.kie.kogito.persistence.rocksdb;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
 public class RocksDBProcessInstancesFactory implements ProcessInstancesFactory, AutoCloseable {
 
+    static final String BUSINESS_KEY_COLUMN_FAMILY = "business_key";
+    static final String JOBS_COLUMN_FAMILY = "jobs";
+    static final String JOBS_EXPIRATION_COLUMN_FAMILY = "jobs_expiration";
+
+    private final DBOptions dbOptions;
+    private final ColumnFamilyOptions columnFamilyOptions;
+    private final List<ColumnFamilyHandle> columnFamilies = new ArrayList<>();
     private final RocksDB db;
 
     public RocksDBProcessInstancesFactory(Options options, String dbLocation) throws RocksDBException {
-        this.db = RocksDB.open(options, dbLocation);
+        this.dbOptions = new DBOptions(options).setCreateMissingColumnFamilies(true);
+        this.columnFamilyOptions = new ColumnFamilyOptions(options);
+        List<ColumnFamilyDescriptor> descriptors = List.of(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions),
+                new ColumnFamilyDescriptor(BUSINESS_KEY_COLUMN_FAMILY.getBytes(StandardCharsets.UTF_8), columnFamilyOptions),
+                new ColumnFamilyDescriptor(JOBS_COLUMN_FAMILY.getBytes(StandardCharsets.UTF_8), columnFamilyOptions),
+                new ColumnFamilyDescriptor(JOBS_EXPIRATION_COLUMN_FAMILY.getBytes(StandardCharsets.UTF_8), columnFamilyOptions));
+        this.db = RocksDB.open(dbOptions, dbLocation, descriptors, columnFamilies);
     }
 
     @Override
     public RocksDBProcessInstances<?> createProcessInstances(Process<?> process) {
-        return new RocksDBProcessInstances<>(process, db);
+        return new RocksDBProcessInstances<>(process, db, columnFamilies.get(1));
+    }
+
+    public RocksDBJobStore createJobStore() {
+        return new RocksDBJobStore(db, columnFamilies.get(2), columnFamilies.get(3));
     }
 
     @Override
     public void close() {
+        columnFamilies.forEach(ColumnFamilyHandle::close);
         db.close();
+        columnFamilyOptions.close();
+        dbOptions.close();
     }
 }
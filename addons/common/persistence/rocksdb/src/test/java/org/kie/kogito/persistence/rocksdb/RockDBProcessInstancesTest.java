@@ -112,6 +112,21 @@ class RockDBProcessInstancesTest {
         }
     }
 
+    @Test
+    void testFindByBusinessKey() {
+        WorkflowProcessInstance instance = ((AbstractProcessInstance<?>) process.createInstance("businessKey", BpmnVariables.create(Collections.singletonMap("test", "test"))))
+                .internalGetProcessInstance();
+        AbstractProcessInstance<?> processInstance = mockProcessInstance(instance, process);
+        when(processInstance.businessKey()).thenReturn("businessKey");
+        pi.create(instance.getId(), processInstance);
+
+        assertThat(pi.findByBusinessKey("businessKey")).hasValueSatisfying(found -> assertThat(((ProcessInstance<?>) found).id()).isEqualTo(instance.getId()));
+        assertThat(pi.findByBusinessKey("anotherBusinessKey")).isEmpty();
+
+        removeProcessInstance(instance);
+        assertThat(pi.findByBusinessKey("businessKey")).isEmpty();
+    }
+
     @Test
     void testMultiThread() throws InterruptedException, ExecutionException {
         int numConcurrent = 10;
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.rocksdb;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.descriptors.ProcessInstanceJobDescription;
+import org.kie.kogito.services.jobs.impl.JobDescriptionMarshaller;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RocksDBJobStoreTest {
+
+    @TempDir
+    Path tempDir;
+    private Options options;
+    private RocksDBProcessInstancesFactory factory;
+    private RocksDBJobStore jobStore;
+
+    @BeforeEach
+    void setup() throws RocksDBException {
+        options = new Options().setCreateIfMissing(true);
+        factory = new RocksDBProcessInstancesFactory(options, tempDir.toString());
+        jobStore = factory.createJobStore();
+    }
+
+    @AfterEach
+    void close() {
+        factory.close();
+        options.close();
+    }
+
+    @Test
+    void loadJobsByExpiration() {
+        ZonedDateTime now = ZonedDateTime.now();
+        jobStore.store(job("job3", now.plusMinutes(3)));
+        jobStore.store(job("job1", now.minusMinutes(1)));
+        jobStore.store(job("job2", now.plusMinutes(1)));
+        jobStore.store(job("job4", now.plusHours(1)));
+
+        List<JobDescription> firstPage = jobStore.loadJobs(Long.MIN_VALUE, "", millis(now.plusMinutes(5)), 2);
+        assertThat(firstPage).extracting(JobDescription::id).containsExactly("job1", "job2");
+        JobDescription last = firstPage.get(1);
+        assertThat(jobStore.loadJobs(JobDescriptionMarshaller.expirationMillis(last), last.id(), millis(now.plusMinutes(5)), 2))
+                .extracting(JobDescription::id).containsExactly("job3");
+
+        jobStore.store(job("job4", now.plusMinutes(2)));
+        assertThat(jobStore.remove("job2")).isTrue();
+        assertThat(jobStore.remove("job2")).isFalse();
+        assertThat(jobStore.loadJobs(Long.MIN_VALUE, "", millis(now.plusMinutes(5)), 10))
+                .extracting(JobDescription::id).containsExactly("job1", "job4", "job3");
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    private static ProcessInstanceJobDescription job(String id, ZonedDateTime expiration) {
+        return ProcessInstanceJobDescription.newProcessInstanceJobDescriptionBuilder()
+                .id(id)
+                .timerId("timer-" + id)
+                .expirationTime(ExactExpirationTime.of(expiration))
+                .processInstanceId("pi-" + id)
+                .processId("process")
+                .build();
+    }
+}
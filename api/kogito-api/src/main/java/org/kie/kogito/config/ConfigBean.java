@@ -38,4 +38,55 @@ public interface ConfigBean extends KogitoConfig {
     default short processInstanceLimit() {
         return 1000;
     }
+
+    /**
+     * Whether BPMN async continuations are executed by a local thread pool instead of an immediate job
+     */
+    default boolean asyncContinuationLocal() {
+        return false;
+    }
+
+    default int asyncContinuationPoolSize() {
+        return 10;
+    }
+
+    default int asyncContinuationQueueSize() {
+        return 1000;
+    }
+
+    /**
+     * Delay, in milliseconds, of the job that triggers a continuation that was not executed locally. Non positive values,
+     * the default, disable it.
+     */
+    default long asyncContinuationRecoveryDelay() {
+        return 0L;
+    }
+
+    /**
+     * Binds a resource created for this configuration (e.g. a thread pool) to the application lifecycle, so it is closed
+     * when the application stops. Configurations without a lifecycle keep it until the JVM exits.
+     */
+    default void closeOnShutdown(AutoCloseable resource) {
+    }
+
+    /**
+     * Whether json process variables are persisted as Jackson Smile encoded bytes instead of json text
+     */
+    default boolean serializationJsonBinary() {
+        return false;
+    }
+
+    /**
+     * Algorithm used to compress process instance payloads: none, deflate or gzip
+     */
+    default String serializationCompression() {
+        return "none";
+    }
+
+    /**
+     * Size, in bytes, from which process instance payloads are compressed
+     */
+    default int serializationCompressionThreshold() {
+        return 4096;
+    }
 }
@@ -18,16 +18,30 @@
  */
 package org.kie.kogito.config;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.kie.kogito.KogitoGAV;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class StaticConfigBean implements ConfigBean {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticConfigBean.class);
+
     private String serviceUrl;
     private boolean useCloudEvents = true;
     private boolean failOnEmptyBean = false;
     private KogitoGAV gav;
+    private boolean asyncContinuationLocal = false;
+    private int asyncContinuationPoolSize = 10;
+    private int asyncContinuationQueueSize = 1000;
+    private long asyncContinuationRecoveryDelay = 0L;
+    private boolean serializationJsonBinary = false;
+    private String serializationCompression = "none";
+    private int serializationCompressionThreshold = 4096;
+    private final List<AutoCloseable> closeables = new CopyOnWriteArrayList<>();
 
     public StaticConfigBean() {
     }
@@ -54,6 +68,22 @@ public class StaticConfigBean implements ConfigBean {
         this.gav = gav;
     }
 
+    public void setAsyncContinuation(boolean local, int poolSize, int queueSize, long recoveryDelay) {
+        this.asyncContinuationLocal = local;
+        this.asyncContinuationPoolSize = poolSize;
+        this.asyncContinuationQueueSize = queueSize;
+        this.asyncContinuationRecoveryDelay = recoveryDelay;
+    }
+
+    public void setSerializationJsonBinary(boolean serializationJsonBinary) {
+        this.serializationJsonBinary = serializationJsonBinary;
+    }
+
+    public void setSerializationCompression(String compression, int threshold) {
+        this.serializationCompression = compression;
+        this.serializationCompressionThreshold = threshold;
+    }
+
     @Override
     public boolean useCloudEvents() {
         return useCloudEvents;
@@ -73,4 +103,58 @@ public class StaticConfigBean implements ConfigBean {
     public boolean failOnEmptyBean() {
         return failOnEmptyBean;
     }
+
+    @Override
+    public boolean asyncContinuationLocal() {
+        return asyncContinuationLocal;
+    }
+
+    @Override
+    public int asyncContinuationPoolSize() {
+        return asyncContinuationPoolSize;
+    }
+
+    @Override
+    public int asyncContinuationQueueSize() {
+        return asyncContinuationQueueSize;
+    }
+
+    @Override
+    public long asyncContinuationRecoveryDelay() {
+        return asyncContinuationRecoveryDelay;
+    }
+
+    @Override
+    public boolean serializationJsonBinary() {
+        return serializationJsonBinary;
+    }
+
+    @Override
+    public String serializationCompression() {
+        return serializationCompression;
+    }
+
+    @Override
+    public int serializationCompressionThreshold() {
+        return serializationCompressionThreshold;
+    }
+
+    @Override
+    public void closeOnShutdown(AutoCloseable resource) {
+        closeables.add(resource);
+    }
+
+    /**
+     * Closes the resources bound to this configuration, invoked by the container when the application stops.
+     */
+    public void close() {
+        for (AutoCloseable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LOGGER.warn("Error closing {} on shutdown", closeable, e);
+            }
+        }
+        closeables.clear();
+    }
 }
@@ -19,6 +19,8 @@
 package org.kie.kogito.event;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Responsible for publishing events for consumption to the "outside world"
@@ -49,4 +51,23 @@ public interface EventPublisher {
      * @param events events to be published
      */
     void publish(Collection<DataEvent<?>> events);
+
+    /**
+     * Publishes collection of events, completing once all of them have been acknowledged by their destination
+     * and exceptionally if any of them could not be published.
+     * <p>
+     * The default implementation completes as soon as {@link #publish(Collection)} returns, so publishers
+     * that hand events over asynchronously must override it.
+     * 
+     * @param events events to be published
+     * @return stage completed once the events have been published
+     */
+    default CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events) {
+        try {
+            publish(events);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
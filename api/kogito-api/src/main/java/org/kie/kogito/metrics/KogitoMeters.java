@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Registers statistics kept by the engine and the addons as Micrometer meters on {@link Metrics#globalRegistry},
+ * the registry the monitoring addons publish.
+ * <p>
+ * Micrometer is an optional dependency: when it is not on the classpath the registration is skipped.
+ * Meters only keep a weak reference to the object they read, so registering does not prevent it from being collected.
+ * <p>
+ * Micrometer identifies meters by name and tags, so the tags must identify the object being read (e.g. a relay or a model name)
+ * whenever several instances may be registered. Registering a meter with the same name and tags as an existing one replaces it,
+ * so an instance created again (e.g. after the application is reloaded) is the one being read.
+ */
+public final class KogitoMeters {
+
+    private static final boolean ENABLED = isMicrometerPresent();
+
+    private KogitoMeters() {
+    }
+
+    public static <T> void gauge(String name, String description, T obj, ToDoubleFunction<T> value, String... tags) {
+        if (ENABLED) {
+            Micrometer.gauge(name, description, obj, value, tags);
+        }
+    }
+
+    public static <T> void counter(String name, String description, T obj, ToDoubleFunction<T> count, String... tags) {
+        if (ENABLED) {
+            Micrometer.counter(name, description, obj, count, tags);
+        }
+    }
+
+    public static <T> void timer(String name, String description, T obj, ToLongFunction<T> count, ToDoubleFunction<T> totalNanos, String... tags) {
+        if (ENABLED) {
+            Micrometer.timer(name, description, obj, count, totalNanos, tags);
+        }
+    }
+
+    private static boolean isMicrometerPresent() {
+        try {
+            Class.forName("io.micrometer.core.instrument.Metrics", false, KogitoMeters.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    // the only class referencing micrometer types, so it is loaded only when micrometer is available
+    static final class Micrometer {
+
+        private Micrometer() {
+        }
+
+        static synchronized <T> void gauge(String name, String description, T obj, ToDoubleFunction<T> value, String... tags) {
+            removeExisting(name, tags);
+            Gauge.builder(name, obj, value).description(description).tags(tags).register(Metrics.globalRegistry);
+        }
+
+        static synchronized <T> void counter(String name, String description, T obj, ToDoubleFunction<T> count, String... tags) {
+            removeExisting(name, tags);
+            FunctionCounter.builder(name, obj, count).description(description).tags(tags).register(Metrics.globalRegistry);
+        }
+
+        static synchronized <T> void timer(String name, String description, T obj, ToLongFunction<T> count, ToDoubleFunction<T> totalNanos, String... tags) {
+            removeExisting(name, tags);
+            FunctionTimer.builder(name, obj, count, totalNanos, TimeUnit.NANOSECONDS).description(description).tags(tags).register(Metrics.globalRegistry);
+        }
+
+        // the registry would otherwise return the existing meter, still reading the previous object
+        private static void removeExisting(String name, String... tags) {
+            Tags id = Tags.of(tags);
+            for (Meter meter : Metrics.globalRegistry.find(name).meters()) {
+                if (id.equals(Tags.of(meter.getId().getTags()))) {
+                    Metrics.globalRegistry.remove(meter);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Page of results of a {@link ProcessInstanceQuery}.
+ *
+ * @param <E> page item type
+ */
+public final class ProcessInstancePage<E> {
+
+    /**
+     * Maximum number of chunks read to fill a page, see {@link #of(ProcessInstanceQuery, int, Function)}
+     */
+    public static final int DEFAULT_MAX_CHUNKS = 10;
+
+    private static final Comparator<ProcessInstance<?>> BY_ID = Comparator.comparing(ProcessInstance::id);
+
+    private final List<E> items;
+    private final String continuationToken;
+
+    public ProcessInstancePage(List<E> items, String continuationToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Builds the page out of instances matching the query, ordered by id.
+     * When there are more instances than the page size, the page is cut and a continuation token is set.
+     */
+    public static <P extends ProcessInstance<?>> ProcessInstancePage<P> of(List<P> matching, ProcessInstanceQuery query) {
+        int pageSize = query.pageSize();
+        if (matching.size() <= pageSize) {
+            return new ProcessInstancePage<>(matching, null);
+        }
+        List<P> page = new ArrayList<>(matching.subList(0, pageSize));
+        return new ProcessInstancePage<>(page, ProcessInstanceQuery.continuationToken(page.get(pageSize - 1).id()));
+    }
+
+    /**
+     * Evaluates the query over all the instances of the stream, keeping in memory just the ones that might belong to the page.
+     * Used by stores that cannot run the query themselves.
+     */
+    public static <P extends ProcessInstance<?>> ProcessInstancePage<P> of(Stream<P> instances, ProcessInstanceQuery query) {
+        int limit = query.pageSize() + 1;
+        PriorityQueue<P> smallest = new PriorityQueue<>(limit + 1, BY_ID.reversed());
+        instances.filter(query::matches).forEach(instance -> {
+            smallest.add(instance);
+            if (smallest.size() > limit) {
+                smallest.poll();
+            }
+        });
+        List<P> matching = new ArrayList<>(smallest);
+        matching.sort(BY_ID);
+        return of(matching, query);
+    }
+
+    /**
+     * Same as {@link #of(ProcessInstanceQuery, int, int, Function)} reading at most {@link #DEFAULT_MAX_CHUNKS} chunks
+     */
+    public static <P extends ProcessInstance<?>> ProcessInstancePage<P> of(ProcessInstanceQuery query, int chunkSize, Function<String, List<P>> chunkReader) {
+        return of(query, chunkSize, DEFAULT_MAX_CHUNKS, chunkReader);
+    }
+
+    /**
+     * Fills the page reading consecutive chunks of instances ordered by id, until the page is complete or there are no more
+     * instances. Used by stores able to paginate natively but not to evaluate every criteria of the query.
+     * <p>
+     * To bound the work done by a single request when few instances match, at most <code>maxChunks</code> chunks are read.
+     * If the page is still not complete by then, it is returned with the instances found so far (maybe none) and a
+     * continuation token resuming the listing right after the last instance read.
+     *
+     * @param query the query
+     * @param chunkSize maximum number of instances returned by the chunk reader
+     * @param maxChunks maximum number of chunks read
+     * @param chunkReader returns, ordered by id, the instances whose id is greater than the given one (null for the first chunk)
+     */
+    public static <P extends ProcessInstance<?>> ProcessInstancePage<P> of(ProcessInstanceQuery query, int chunkSize, int maxChunks, Function<String, List<P>> chunkReader) {
+        List<P> matching = new ArrayList<>();
+        String afterId = query.afterId();
+        for (int chunks = 1; matching.size() <= query.pageSize(); chunks++) {
+            List<P> chunk = chunkReader.apply(afterId);
+            for (P instance : chunk) {
+                if (query.matches(instance)) {
+                    matching.add(instance);
+                }
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+            if (chunks >= maxChunks && matching.size() <= query.pageSize()) {
+                return new ProcessInstancePage<>(matching, ProcessInstanceQuery.continuationToken(afterId));
+            }
+        }
+        return of(matching, query);
+    }
+
+    public List<E> items() {
+        return items;
+    }
+
+    /**
+     * @return token to retrieve the next page, <code>null</code> if this is the last one
+     */
+    public String continuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    public <R> ProcessInstancePage<R> map(Function<? super E, ? extends R> mapper) {
+        return new ProcessInstancePage<>(items.stream().map(mapper).collect(Collectors.toList()), continuationToken);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Selects a page of process instances.
+ * <p>
+ * Instances are returned ordered by id. Every page but the last carries a continuation token that, set on the next query,
+ * resumes the listing right after the last instance of the page (keyset pagination), so pages stay consistent while
+ * instances are created or removed. Stores bound the number of instances examined per page, so a page might hold fewer
+ * instances than the page size, or none, and still carry a continuation token.
+ * <p>
+ * Stores translate as much of the query as they can into their native query language and evaluate the remaining
+ * criteria through {@link #matches(ProcessInstance)}.
+ */
+public final class ProcessInstanceQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final ProcessInstanceQuery ALL = builder().build();
+
+    private final int pageSize;
+    private final String continuationToken;
+    private final String afterId;
+    private final Set<Integer> states;
+    private final String businessKeyPrefix;
+    private final Date createdFrom;
+    private final Date createdTo;
+
+    private ProcessInstanceQuery(Builder builder) {
+        this.pageSize = builder.pageSize;
+        this.continuationToken = builder.continuationToken;
+        this.afterId = decode(builder.continuationToken);
+        this.states = Collections.unmodifiableSet(new LinkedHashSet<>(builder.states));
+        this.businessKeyPrefix = builder.businessKeyPrefix;
+        this.createdFrom = builder.createdFrom;
+        this.createdTo = builder.createdTo;
+    }
+
+    /**
+     * @return query returning the first {@link #DEFAULT_PAGE_SIZE} instances, with no filter
+     */
+    public static ProcessInstanceQuery all() {
+        return ALL;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a query from REST listing parameters, any of them might be null.
+     * Dates are ISO-8601 instants, as in <code>2024-05-01T10:15:30Z</code>.
+     *
+     * @throws IllegalArgumentException if a parameter is not valid
+     */
+    public static ProcessInstanceQuery fromParameters(Integer pageSize, String continuationToken, Collection<Integer> states, String businessKeyPrefix, String createdFrom,
+            String createdTo) {
+        Builder builder = builder()
+                .withContinuationToken(continuationToken)
+                .withBusinessKeyPrefix(businessKeyPrefix)
+                .withCreatedFrom(parseDate("createdFrom", createdFrom))
+                .withCreatedTo(parseDate("createdTo", createdTo));
+        if (pageSize != null) {
+            builder.withPageSize(pageSize);
+        }
+        if (states != null) {
+            states.forEach(builder::withState);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param lastId id of the last instance of a page
+     * @return token to be set on the query retrieving the next page
+     */
+    public static String continuationToken(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public String continuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * @return id after which the page starts, <code>null</code> for the first page
+     */
+    public String afterId() {
+        return afterId;
+    }
+
+    /**
+     * @return accepted process instance states, empty when any state is accepted
+     */
+    public Set<Integer> states() {
+        return states;
+    }
+
+    public String businessKeyPrefix() {
+        return businessKeyPrefix;
+    }
+
+    /**
+     * @return inclusive lower bound of the instance start date
+     */
+    public Date createdFrom() {
+        return createdFrom;
+    }
+
+    /**
+     * @return exclusive upper bound of the instance start date
+     */
+    public Date createdTo() {
+        return createdTo;
+    }
+
+    /**
+     * @return a copy of this query with the given page size
+     */
+    public ProcessInstanceQuery withPageSize(int pageSize) {
+        return toBuilder().withPageSize(pageSize).build();
+    }
+
+    /**
+     * @return a copy of this query resuming the listing with the given token, as returned by {@link ProcessInstancePage#continuationToken()}
+     */
+    public ProcessInstanceQuery withContinuationToken(String continuationToken) {
+        return toBuilder().withContinuationToken(continuationToken).build();
+    }
+
+    /**
+     * Checks every criteria of this query against an instance, including the page start.
+     */
+    public boolean matches(ProcessInstance<?> instance) {
+        if (afterId != null && instance.id().compareTo(afterId) <= 0) {
+            return false;
+        }
+        if (!states.isEmpty() && !states.contains(instance.status())) {
+            return false;
+        }
+        if (businessKeyPrefix != null && (instance.businessKey() == null || !instance.businessKey().startsWith(businessKeyPrefix))) {
+            return false;
+        }
+        if (createdFrom != null || createdTo != null) {
+            Date startDate = instance.startDate();
+            return startDate != null && (createdFrom == null || !startDate.before(createdFrom)) && (createdTo == null || startDate.before(createdTo));
+        }
+        return true;
+    }
+
+    private Builder toBuilder() {
+        Builder builder = builder()
+                .withPageSize(pageSize)
+                .withContinuationToken(continuationToken)
+                .withBusinessKeyPrefix(businessKeyPrefix)
+                .withCreatedFrom(createdFrom)
+                .withCreatedTo(createdTo);
+        states.forEach(builder::withState);
+        return builder;
+    }
+
+    private static String decode(String continuationToken) {
+        if (continuationToken == null) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token " + continuationToken, e);
+        }
+    }
+
+    private static Date parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + " date " + value + ", expected an ISO-8601 instant", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessInstanceQuery [pageSize=" + pageSize + ", afterId=" + afterId + ", states=" + states + ", businessKeyPrefix=" + businessKeyPrefix + ", createdFrom="
+                + createdFrom + ", createdTo=" + createdTo + "]";
+    }
+
+    public static class Builder {
+
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private String continuationToken;
+        private final Set<Integer> states = new LinkedHashSet<>();
+        private String businessKeyPrefix;
+        private Date createdFrom;
+        private Date createdTo;
+
+        private Builder() {
+        }
+
+        public Builder withPageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Builder withContinuationToken(String continuationToken) {
+            this.continuationToken = continuationToken == null || continuationToken.isBlank() ? null : continuationToken;
+            return this;
+        }
+
+        /**
+         * Adds an accepted state, see the constants of {@link ProcessInstance}
+         */
+        public Builder withState(int state) {
+            this.states.add(state);
+            return this;
+        }
+
+        public Builder withBusinessKeyPrefix(String businessKeyPrefix) {
+            this.businessKeyPrefix = businessKeyPrefix == null || businessKeyPrefix.isEmpty() ? null : businessKeyPrefix;
+            return this;
+        }
+
+        public Builder withCreatedFrom(Date createdFrom) {
+            this.createdFrom = createdFrom;
+            return this;
+        }
+
+        public Builder withCreatedTo(Date createdTo) {
+            this.createdTo = createdTo;
+            return this;
+        }
+
+        public ProcessInstanceQuery build() {
+            return new ProcessInstanceQuery(this);
+        }
+    }
+}
@@ -51,4 +51,19 @@ public interface ProcessInstances<T> {
         return stream(ProcessInstanceReadMode.READ_ONLY);
     }
 
+    default ProcessInstancePage<ProcessInstance<T>> find(ProcessInstanceQuery query) {
+        return find(query, ProcessInstanceReadMode.READ_ONLY);
+    }
+
+    /**
+     * Returns a page of the instances matching the query, ordered by id.
+     * The default implementation goes through {@link #stream(ProcessInstanceReadMode)}, stores should override it to run
+     * the query natively.
+     */
+    default ProcessInstancePage<ProcessInstance<T>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        try (Stream<ProcessInstance<T>> instances = stream(mode)) {
+            return ProcessInstancePage.of(instances, query);
+        }
+    }
+
 }
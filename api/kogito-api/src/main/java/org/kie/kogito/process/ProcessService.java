@@ -59,6 +59,8 @@ public interface ProcessService {
 
     <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process);
 
+    <T extends MappableToModel<R>, R> ProcessInstancePage<R> getProcessInstanceOutput(Process<T> process, ProcessInstanceQuery query);
+
     <T extends MappableToModel<R>, R> Optional<R> findById(Process<T> process, String id);
 
     <T extends MappableToModel<R>, R> Optional<R> signalProcessInstance(Process<T> process, String id, Object data, String signalName);
@@ -29,13 +29,33 @@ public interface Processes extends KogitoEngine {
     default Optional<Process<? extends Model>> processByProcessInstanceId(String processInstanceId) {
         for (String processId : processIds()) {
             Process<? extends Model> process = processById(processId);
-            if (process.instances().findById(processInstanceId, ProcessInstanceReadMode.READ_ONLY).isPresent()) {
+            if (ownsProcessInstance(process, processInstanceId)) {
                 return Optional.of(process);
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Resolves the process owning the given instance, probing first the process the caller expects it to belong to
+     * (for example, the one encoded in a job callback). Other processes are only probed when the expected one does not own the instance.
+     */
+    default Optional<Process<? extends Model>> processByProcessInstanceId(String processId, String processInstanceId) {
+        if (processId != null && processIds().contains(processId)) {
+            Process<? extends Model> process = processById(processId);
+            if (ownsProcessInstance(process, processInstanceId)) {
+                return Optional.of(process);
+            }
+        }
+        return processByProcessInstanceId(processInstanceId);
+    }
+
+    private static boolean ownsProcessInstance(Process<? extends Model> process, String processInstanceId) {
+        // existence is checked by id so the instance is not unmarshalled just to find out its owner
+        return process.instances() instanceof MutableProcessInstances<?> instances ? instances.exists(processInstanceId)
+                : process.instances().findById(processInstanceId, ProcessInstanceReadMode.READ_ONLY).isPresent();
+    }
+
     Process<? extends Model> processById(String processId);
 
     Collection<String> processIds();
@@ -51,4 +51,18 @@ public interface UnitOfWork {
      * @param work actual work to be invoked as part of this unit of work.
      */
     void intercept(WorkUnit work);
+
+    /**
+     * Registers an action to be invoked once this unit of work has successfully ended,
+     * that is, after all its work has been performed. Actions are discarded when the unit is aborted.
+     * It is meant for work that must not start before the changes of this unit are stored,
+     * for instance work that might call back into the same process instance.
+     * 
+     * Units of work that perform their work as soon as it is intercepted invoke the action right away.
+     * 
+     * @param action action to be invoked after this unit of work ends
+     */
+    default void afterEnd(Runnable action) {
+        action.run();
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KogitoMetersTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void testMetersReadTheStatistics() {
+        AtomicLong value = new AtomicLong(3);
+
+        KogitoMeters.gauge("kogito_test_gauge", "Test gauge", value, AtomicLong::doubleValue, "name", "gauge");
+        KogitoMeters.counter("kogito_test_total", "Test counter", value, AtomicLong::doubleValue, "name", "counter");
+        KogitoMeters.timer("kogito_test_duration", "Test timer", value, AtomicLong::get, v -> v.get() * 1_000_000d, "name", "timer");
+        value.set(5);
+
+        assertThat(registry.get("kogito_test_gauge").tag("name", "gauge").gauge().value()).isEqualTo(5);
+        assertThat(registry.get("kogito_test_total").tag("name", "counter").functionCounter().count()).isEqualTo(5);
+        FunctionTimer timer = registry.get("kogito_test_duration").tag("name", "timer").functionTimer();
+        assertThat(timer.count()).isEqualTo(5);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+    }
+
+    @Test
+    void testInstancesAreIdentifiedByTags() {
+        AtomicLong first = new AtomicLong(1);
+        AtomicLong second = new AtomicLong(2);
+
+        KogitoMeters.gauge("kogito_test_instances", "Test gauge", first, AtomicLong::doubleValue, "instance", "first");
+        KogitoMeters.gauge("kogito_test_instances", "Test gauge", second, AtomicLong::doubleValue, "instance", "second");
+
+        assertThat(registry.get("kogito_test_instances").gauges()).hasSize(2);
+        assertThat(registry.get("kogito_test_instances").tag("instance", "first").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("kogito_test_instances").tag("instance", "second").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void testRegisteringAgainReadsTheNewInstance() {
+        AtomicLong previous = new AtomicLong(1);
+        AtomicLong current = new AtomicLong(2);
+
+        KogitoMeters.counter("kogito_test_replaced_total", "Test counter", previous, AtomicLong::doubleValue, "instance", "same");
+        KogitoMeters.counter("kogito_test_replaced_total", "Test counter", current, AtomicLong::doubleValue, "instance", "same");
+
+        assertThat(registry.get("kogito_test_replaced_total").functionCounters()).hasSize(1);
+        assertThat(registry.get("kogito_test_replaced_total").tag("instance", "same").functionCounter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ProcessInstancePageTest {
+
+    @Test
+    void testStreamPagination() {
+        List<ProcessInstance<?>> instances = instances(25);
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().withPageSize(10).build();
+        List<String> ids = new ArrayList<>();
+        int pages = 0;
+        ProcessInstancePage<ProcessInstance<?>> page;
+        do {
+            page = ProcessInstancePage.of(reversed(instances), query);
+            page.items().forEach(pi -> ids.add(pi.id()));
+            query = ProcessInstanceQuery.builder().withPageSize(10).withContinuationToken(page.continuationToken()).build();
+            pages++;
+        } while (page.hasNext());
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(ids).isEqualTo(instances.stream().map(ProcessInstance::id).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testExactPageHasNoContinuation() {
+        ProcessInstancePage<ProcessInstance<?>> page = ProcessInstancePage.of(instances(10).stream(), ProcessInstanceQuery.builder().withPageSize(10).build());
+
+        assertThat(page.items()).hasSize(10);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void testChunkedPaginationWithFilter() {
+        List<ProcessInstance<?>> instances = instances(50);
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().withPageSize(5).withState(ProcessInstance.STATE_ERROR).build();
+        List<String> requested = new ArrayList<>();
+
+        ProcessInstancePage<ProcessInstance<?>> page = ProcessInstancePage.of(query, 6, afterId -> {
+            requested.add(afterId);
+            return instances.stream().filter(pi -> afterId == null || pi.id().compareTo(afterId) > 0).limit(6).collect(Collectors.toList());
+        });
+
+        assertThat(page.items()).hasSize(5).allMatch(pi -> pi.status() == ProcessInstance.STATE_ERROR);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(requested).hasSizeGreaterThan(1).startsWith((String) null);
+        assertThat(ProcessInstanceQuery.builder().withContinuationToken(page.continuationToken()).build().afterId()).isEqualTo(page.items().get(4).id());
+    }
+
+    @Test
+    void testChunkedPaginationIsCapped() {
+        List<ProcessInstance<?>> instances = instances(50);
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().withPageSize(5).withBusinessKeyPrefix("key-4").build();
+        List<String> requested = new ArrayList<>();
+        Function<String, List<ProcessInstance<?>>> chunkReader = afterId -> {
+            requested.add(afterId);
+            return instances.stream().filter(pi -> afterId == null || pi.id().compareTo(afterId) > 0).limit(6).collect(Collectors.toList());
+        };
+
+        ProcessInstancePage<ProcessInstance<?>> page = ProcessInstancePage.of(query, 6, 3, chunkReader);
+
+        // only instance 4 matches among the 18 read, the listing resumes after the last one read
+        assertThat(requested).hasSize(3);
+        assertThat(page.items()).extracting(ProcessInstance::id).containsExactly("0004");
+        assertThat(page.hasNext()).isTrue();
+        assertThat(query.withContinuationToken(page.continuationToken()).afterId()).isEqualTo("0017");
+
+        List<String> ids = new ArrayList<>();
+        page.items().forEach(pi -> ids.add(pi.id()));
+        while (page.hasNext()) {
+            page = ProcessInstancePage.of(query.withContinuationToken(page.continuationToken()), 6, 3, chunkReader);
+            page.items().forEach(pi -> ids.add(pi.id()));
+        }
+        assertThat(ids).containsExactly("0004", "0040", "0041", "0042", "0043", "0044", "0045", "0046", "0047", "0048", "0049");
+    }
+
+    @Test
+    void testMatches() {
+        ProcessInstance<?> instance = instance("0005", ProcessInstance.STATE_ACTIVE, "order-5", new Date(5000));
+
+        assertThat(ProcessInstanceQuery.all().matches(instance)).isTrue();
+        assertThat(ProcessInstanceQuery.builder().withBusinessKeyPrefix("order").build().matches(instance)).isTrue();
+        assertThat(ProcessInstanceQuery.builder().withBusinessKeyPrefix("invoice").build().matches(instance)).isFalse();
+        assertThat(ProcessInstanceQuery.builder().withState(ProcessInstance.STATE_ERROR).build().matches(instance)).isFalse();
+        assertThat(ProcessInstanceQuery.builder().withCreatedFrom(new Date(5000)).withCreatedTo(new Date(6000)).build().matches(instance)).isTrue();
+        assertThat(ProcessInstanceQuery.builder().withCreatedTo(new Date(5000)).build().matches(instance)).isFalse();
+        assertThat(ProcessInstanceQuery.builder().withContinuationToken(ProcessInstanceQuery.continuationToken("0005")).build().matches(instance)).isFalse();
+    }
+
+    @Test
+    void testFromParameters() {
+        ProcessInstanceQuery query = ProcessInstanceQuery.fromParameters(20, null, List.of(1, 5), "order", "2024-05-01T10:15:30Z", null);
+
+        assertThat(query.pageSize()).isEqualTo(20);
+        assertThat(query.states()).containsExactly(1, 5);
+        assertThat(query.businessKeyPrefix()).isEqualTo("order");
+        assertThat(query.createdFrom()).isEqualTo(Date.from(Instant.parse("2024-05-01T10:15:30Z")));
+        assertThat(query.createdTo()).isNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> ProcessInstanceQuery.fromParameters(null, null, null, null, "yesterday", null));
+        assertThatIllegalArgumentException().isThrownBy(() -> ProcessInstanceQuery.fromParameters(0, null, null, null, null, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> ProcessInstanceQuery.fromParameters(null, "not a token!", null, null, null, null));
+    }
+
+    private static Stream<ProcessInstance<?>> reversed(List<ProcessInstance<?>> instances) {
+        List<ProcessInstance<?>> copy = new ArrayList<>(instances);
+        Collections.reverse(copy);
+        return copy.stream();
+    }
+
+    private static List<ProcessInstance<?>> instances(int count) {
+        return IntStream.range(0, count)
+                .<ProcessInstance<?>> mapToObj(i -> instance(String.format("%04d", i), i % 3 == 0 ? ProcessInstance.STATE_ERROR : ProcessInstance.STATE_ACTIVE, "key-" + i, new Date(i)))
+                .collect(Collectors.toList());
+    }
+
+    private static ProcessInstance<?> instance(String id, int status, String businessKey, Date startDate) {
+        return (ProcessInstance<?>) Proxy.newProxyInstance(ProcessInstance.class.getClassLoader(), new Class<?>[] { ProcessInstance.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "id":
+                    return id;
+                case "status":
+                    return status;
+                case "businessKey":
+                    return businessKey;
+                case "startDate":
+                    return startDate;
+                case "toString":
+                    return id;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessesTest {
+
+    private final Map<String, Process<? extends Model>> processById = new LinkedHashMap<>();
+
+    private final Processes processes = new Processes() {
+        @Override
+        public Process<? extends Model> processById(String processId) {
+            return processById.get(processId);
+        }
+
+        @Override
+        public Collection<String> processIds() {
+            return processById.keySet();
+        }
+    };
+
+    @Test
+    void testProcessFound() {
+        Process<? extends Model> first = process("first", false);
+        Process<? extends Model> second = process("second", true);
+
+        assertThat(processes.processByProcessInstanceId("pi")).containsSame(second);
+        verify((MutableProcessInstances<?>) first.instances()).exists("pi");
+    }
+
+    @Test
+    void testProcessNotFound() {
+        process("first", false);
+        process("second", false);
+
+        assertThat(processes.processByProcessInstanceId("pi")).isEmpty();
+    }
+
+    @Test
+    void testFirstOwnerAmongSeveralProcessesWins() {
+        Process<? extends Model> first = process("first", true);
+        Process<? extends Model> second = process("second", true);
+
+        assertThat(processes.processByProcessInstanceId("pi")).containsSame(first);
+        verify((MutableProcessInstances<?>) second.instances(), never()).exists(anyString());
+    }
+
+    @Test
+    void testExpectedProcessIsProbedFirst() {
+        Process<? extends Model> first = process("first", true);
+        Process<? extends Model> second = process("second", true);
+
+        assertThat(processes.processByProcessInstanceId("second", "pi")).containsSame(second);
+        verify((MutableProcessInstances<?>) first.instances(), never()).exists(anyString());
+    }
+
+    @Test
+    void testOtherProcessesAreProbedWhenExpectedOneDoesNotOwnInstance() {
+        process("first", false);
+        Process<? extends Model> second = process("second", true);
+
+        assertThat(processes.processByProcessInstanceId("first", "pi")).containsSame(second);
+        assertThat(processes.processByProcessInstanceId("unknown", "pi")).containsSame(second);
+        assertThat(processes.processByProcessInstanceId(null, "pi")).containsSame(second);
+    }
+
+    @Test
+    void testReadOnlyInstancesAreLookedUpById() {
+        Process<? extends Model> process = mock(Process.class);
+        ProcessInstances<?> instances = mock(ProcessInstances.class);
+        doReturn(instances).when(process).instances();
+        doReturn(Optional.of(mock(ProcessInstance.class))).when(instances).findById("pi", ProcessInstanceReadMode.READ_ONLY);
+        processById.put("readOnly", process);
+
+        assertThat(processes.processByProcessInstanceId("pi")).containsSame(process);
+        assertThat(processes.processByProcessInstanceId("other")).isEmpty();
+    }
+
+    private Process<? extends Model> process(String id, boolean ownsInstance) {
+        Process<? extends Model> process = mock(Process.class);
+        MutableProcessInstances<?> instances = mock(MutableProcessInstances.class);
+        doReturn(instances).when(process).instances();
+        when(instances.exists("pi")).thenReturn(ownsInstance);
+        processById.put(id, process);
+        return process;
+    }
+}
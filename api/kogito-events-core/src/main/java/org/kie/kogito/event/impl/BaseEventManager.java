@@ -18,15 +18,23 @@
  */
 package org.kie.kogito.event.impl;
 
+import java.lang.ref.SoftReference;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.kie.kogito.Addons;
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventBatch;
 import org.kie.kogito.event.EventManager;
 import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.event.impl.adapter.DataEventAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,10 +45,32 @@ public class BaseEventManager implements EventManager {
     private String service;
     private Addons addons;
     private Set<EventPublisher> publishers = new LinkedHashSet<>();
+    // adapters are discovered once per class loader rather than once per unit of work. Keys are weak so a discarded
+    // class loader can be collected; values are soft because adapters loaded by that class loader would keep it reachable
+    private final Map<ClassLoader, SoftReference<List<DataEventAdapter>>> dataEventAdapters = Collections.synchronizedMap(new WeakHashMap<>());
 
     @Override
     public EventBatch newBatch() {
-        return new DefaultInstanceEventBatch(service, addons);
+        if (publishers.isEmpty()) {
+            // events would be discarded on publish, so do not even adapt them
+            return new DefaultInstanceEventBatch(Collections.emptyList());
+        }
+        return new DefaultInstanceEventBatch(dataEventAdapters());
+    }
+
+    private List<DataEventAdapter> dataEventAdapters() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = DefaultInstanceEventBatch.class.getClassLoader();
+        }
+        SoftReference<List<DataEventAdapter>> cached = dataEventAdapters.get(cl);
+        List<DataEventAdapter> adapters = cached == null ? null : cached.get();
+        if (adapters == null) {
+            // loaded outside the map lock, concurrent first batches might load them twice
+            adapters = DefaultInstanceEventBatch.loadAdapters(cl, service, addons);
+            dataEventAdapters.put(cl, new SoftReference<>(adapters));
+        }
+        return adapters;
     }
 
     @Override
@@ -49,8 +79,15 @@ public class BaseEventManager implements EventManager {
             // don't even process the batch if there are no publishers
             return;
         }
-        Collection<DataEvent<?>> events = batch.events();
+        publish(batch.events());
+    }
 
+    /**
+     * Hands the given events to every registered publisher.
+     * 
+     * @param events events to be published
+     */
+    protected void publish(Collection<DataEvent<?>> events) {
         for (DataEvent<?> event : events) {
             logger.debug("publishing {}", event);
         }
@@ -58,6 +95,23 @@ public class BaseEventManager implements EventManager {
         publishers.forEach(p -> p.publish(events));
     }
 
+    /**
+     * Hands the given events to every registered publisher, completing once all of them acknowledged the events.
+     * 
+     * @param events events to be published
+     * @return stage completed once every publisher has published the events
+     */
+    protected CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events) {
+        for (DataEvent<?> event : events) {
+            logger.debug("publishing {}", event);
+        }
+        return CompletableFuture.allOf(publishers.stream().map(p -> p.publishAsync(events).toCompletableFuture()).toArray(CompletableFuture[]::new));
+    }
+
+    protected boolean hasPublishers() {
+        return !publishers.isEmpty();
+    }
+
     @Override
     public void addPublisher(EventPublisher publisher) {
         this.publishers.add(publisher);
@@ -66,11 +120,13 @@ public class BaseEventManager implements EventManager {
     @Override
     public void setService(String service) {
         this.service = service;
+        this.dataEventAdapters.clear();
     }
 
     @Override
     public void setAddons(Addons addons) {
         this.addons = addons;
+        this.dataEventAdapters.clear();
     }
 
 }
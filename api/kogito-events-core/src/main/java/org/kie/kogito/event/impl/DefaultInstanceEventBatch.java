@@ -20,6 +20,7 @@ package org.kie.kogito.event.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -39,37 +40,59 @@ public class DefaultInstanceEventBatch implements EventBatch {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultInstanceEventBatch.class);
 
-    private String service;
-    private Addons addons;
+    private static final Comparator<DataEvent<?>> EVENT_ORDER = new Comparator<DataEvent<?>>() {
+        @Override
+        public int compare(DataEvent<?> event1, DataEvent<?> event2) {
+            return event2 instanceof ProcessInstanceStateDataEvent &&
+                    ((ProcessInstanceStateDataEvent) event2).getData().getEventType() == ProcessInstanceStateEventBody.EVENT_TYPE_ENDED
+                    || event1 instanceof ProcessInstanceStateDataEvent &&
+                            ((ProcessInstanceStateDataEvent) event1).getData().getEventType() == ProcessInstanceStateEventBody.EVENT_TYPE_STARTED ? -1 : 1;
+        }
+    };
+
     private Collection<DataEvent<?>> processedEvents;
     private List<DataEventAdapter> dataEventAdapters;
 
     public DefaultInstanceEventBatch(String service, Addons addons) {
-        this.service = service;
-        this.addons = addons != null ? addons : Addons.EMTPY;
-        this.processedEvents = new TreeSet<>(new Comparator<DataEvent<?>>() {
-            @Override
-            public int compare(DataEvent<?> event1, DataEvent<?> event2) {
-                return event2 instanceof ProcessInstanceStateDataEvent &&
-                        ((ProcessInstanceStateDataEvent) event2).getData().getEventType() == ProcessInstanceStateEventBody.EVENT_TYPE_ENDED
-                        || event1 instanceof ProcessInstanceStateDataEvent &&
-                                ((ProcessInstanceStateDataEvent) event1).getData().getEventType() == ProcessInstanceStateEventBody.EVENT_TYPE_STARTED ? -1 : 1;
-            }
-        });
+        this(loadAdapters(service, addons));
+    }
+
+    /**
+     * Creates a batch using adapters already set up, see {@link #loadAdapters(String, Addons)}.
+     * Adapters are stateless once set up, so the same list might be shared by any number of batches.
+     */
+    public DefaultInstanceEventBatch(List<DataEventAdapter> dataEventAdapters) {
+        this.processedEvents = new TreeSet<>(EVENT_ORDER);
+        this.dataEventAdapters = dataEventAdapters;
+    }
 
+    /**
+     * Discovers the adapters available for the context class loader and sets them up for the given service.
+     */
+    public static List<DataEventAdapter> loadAdapters(String service, Addons addons) {
         ClassLoader cl = Thread.currentThread().getContextClassLoader();
         if (cl == null) {
-            cl = this.getClass().getClassLoader();
+            cl = DefaultInstanceEventBatch.class.getClassLoader();
         }
-        this.dataEventAdapters = new ArrayList<>();
-        ServiceLoader.load(DataEventAdapter.class, cl).forEach(this.dataEventAdapters::add);
-        this.dataEventAdapters.stream().forEach(a -> a.setup(new DataEventAdapterConfig(this.service, this.addons)));
+        return loadAdapters(cl, service, addons);
+    }
+
+    static List<DataEventAdapter> loadAdapters(ClassLoader cl, String service, Addons addons) {
+        DataEventAdapterConfig config = new DataEventAdapterConfig(service, addons != null ? addons : Addons.EMTPY);
+        List<DataEventAdapter> dataEventAdapters = new ArrayList<>();
+        ServiceLoader.load(DataEventAdapter.class, cl).forEach(dataEventAdapters::add);
+        dataEventAdapters.forEach(a -> a.setup(config));
+        return Collections.unmodifiableList(dataEventAdapters);
     }
 
     @Override
     public void append(Object event) {
         LOG.trace("event generated {}", event);
-        this.dataEventAdapters.stream().filter(a -> a.accept(event)).map(a -> a.adapt(event)).forEach(this.processedEvents::add);
+        for (DataEventAdapter adapter : dataEventAdapters) {
+            if (adapter.accept(event)) {
+                processedEvents.add(adapter.adapt(event));
+            }
+        }
     }
 
     @Override
@@ -77,4 +100,8 @@ public class DefaultInstanceEventBatch implements EventBatch {
         return processedEvents;
     }
 
+    List<DataEventAdapter> getDataEventAdapters() {
+        return dataEventAdapters;
+    }
+
 }
@@ -28,6 +28,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -37,32 +39,64 @@ import org.kie.kogito.correlation.CorrelationInstance;
 import org.kie.kogito.correlation.SimpleCorrelation;
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventDispatcher;
+import org.kie.kogito.metrics.KogitoMeters;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Dispatches the messages received for a process, keeping the order of the ones targeting the same instance.
+ * <p>
+ * The signals sent and the lock conflicts found are exported as <code>kogito_event_dispatcher_*</code> meters, tagged with
+ * the {@link #getName() name} of the dispatcher and the process id.
+ */
 public class ProcessEventDispatcher<M extends Model, D> implements EventDispatcher<M, D> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessEventDispatcher.class);
 
+    private static final AtomicInteger DISPATCHERS = new AtomicInteger();
+
     private final Set<String> correlationKeys;
 
     private final ProcessService processService;
     private final Optional<Function<D, M>> modelConverter;
     private final Process<M> process;
-    private final ExecutorService executor;
+    private final StripedExecutor executor;
+    private final StripedExecutor resolutionExecutor;
     private final Function<DataEvent<D>, D> dataResolver;
+    private final AtomicLong signals = new AtomicLong();
+    private final AtomicLong lockConflicts = new AtomicLong();
+    private final String name = "event-dispatcher-" + DISPATCHERS.incrementAndGet();
 
     public ProcessEventDispatcher(Process<M> process, Optional<Function<D, M>> modelConverter, ProcessService processService, ExecutorService executor, Set<String> correlationKeys,
             Function<DataEvent<D>, D> dataResolver) {
+        this(process, modelConverter, processService, StripedExecutor.shared(executor), new StripedExecutor(executor), correlationKeys, dataResolver);
+    }
+
+    /**
+     * @param executor executor keyed by process instance id, shared by every dispatcher that might target the same instances
+     * @param resolutionExecutor executor keyed by correlation or business key, where the process instance id of those messages is resolved
+     */
+    public ProcessEventDispatcher(Process<M> process, Optional<Function<D, M>> modelConverter, ProcessService processService, StripedExecutor executor,
+            StripedExecutor resolutionExecutor, Set<String> correlationKeys, Function<DataEvent<D>, D> dataResolver) {
         this.process = process;
         this.modelConverter = modelConverter;
         this.processService = processService;
         this.executor = executor;
+        this.resolutionExecutor = resolutionExecutor;
         this.correlationKeys = correlationKeys;
         this.dataResolver = dataResolver;
+        registerMeters();
+    }
+
+    private void registerMeters() {
+        String[] tags = { "dispatcher", name, "process", String.valueOf(process.id()) };
+        KogitoMeters.counter("kogito_event_dispatcher_signals_total", "Signals sent to existing process instances", this, ProcessEventDispatcher::getSignals, tags);
+        KogitoMeters.counter("kogito_event_dispatcher_lock_conflicts_total", "Signals that failed because the process instance was concurrently updated", this,
+                ProcessEventDispatcher::getLockConflicts, tags);
     }
 
     @Override
@@ -73,33 +107,83 @@ public class ProcessEventDispatcher<M extends Model, D> implements EventDispatch
             }
             return CompletableFuture.completedFuture(null);
         }
-        return resolveCorrelationId(event)
-                .map(kogitoReferenceId -> asCompletable(trigger, event, findById(kogitoReferenceId)))
-                .orElseGet(() -> {
-                    // check processInstanceId
-                    String processInstanceId = event.getKogitoReferenceId();
-                    if (processInstanceId != null) {
-                        return asCompletable(trigger, event, findById(processInstanceId));
-                    }
-                    // check businessKey
-                    String businessKey = event.getKogitoBusinessKey();
-                    if (businessKey != null) {
-                        return asCompletable(trigger, event, findByBusinessKey(businessKey));
-                    }
-                    // try to start a new instance if possible
-                    return CompletableFuture.supplyAsync(() -> startNewInstance(trigger, event), executor);
-                });
-    }
-
-    private CompletableFuture<ProcessInstance<M>> asCompletable(String trigger, DataEvent<D> event, Optional<ProcessInstance<M>> processInstance) {
-
-        return CompletableFuture.supplyAsync(() -> processInstance.map(pi -> {
+        // messages targeting the same instance are executed in arrival order, keyed by the process instance id, so they do not compete
+        // for the instance lock. The instance is looked up once the previous message has been processed, so it is never stale
+        Optional<CompositeCorrelation> correlation = compositeCorrelation(event);
+        String processInstanceId = event.getKogitoReferenceId();
+        if (correlation.isEmpty() && processInstanceId != null) {
+            return executor.submit(processInstanceId, () -> dispatch(trigger, event, correlation));
+        }
+        Object resolutionKey = correlation.isPresent() ? correlation.get() : event.getKogitoBusinessKey();
+        if (resolutionKey == null) {
+            // a new instance, nothing to order
+            return executor.submit(null, () -> startNewInstance(trigger, event));
+        }
+        // the process instance id is resolved in arrival order for the same correlation or business key, then the message is
+        // handed over keyed by that id. Messages that do not match any instance yet are kept in order by their own key,
+        // and resolved again when executed, so the instance started by a previous one is found.
+        return resolutionExecutor.submit(resolutionKey, () -> {
+            Optional<String> resolvedId = resolveProcessInstanceId(event, correlation);
+            return resolvedId.isPresent()
+                    ? executor.submit(resolvedId.get(), () -> signalOrStart(trigger, event, findById(resolvedId.get())))
+                    : executor.submit(resolutionKey, () -> dispatch(trigger, event, correlation));
+        }).thenCompose(Function.identity());
+    }
+
+    private ProcessInstance<M> dispatch(String trigger, DataEvent<D> event, Optional<CompositeCorrelation> correlation) {
+        return resolveProcessInstanceId(event, correlation).map(id -> signalOrStart(trigger, event, findById(id))).orElseGet(() -> startNewInstance(trigger, event));
+    }
+
+    /**
+     * Looks for the process instance id using, in this order, the composite correlation, the reference id or the business key of the message.
+     */
+    private Optional<String> resolveProcessInstanceId(DataEvent<D> event, Optional<CompositeCorrelation> correlation) {
+        Optional<String> id = correlation.flatMap(this::resolveCorrelationId);
+        if (id.isEmpty()) {
+            id = Optional.ofNullable(event.getKogitoReferenceId());
+        }
+        if (id.isEmpty() && event.getKogitoBusinessKey() != null) {
+            id = findByBusinessKey(event.getKogitoBusinessKey()).map(ProcessInstance::id);
+        }
+        return id;
+    }
+
+    private ProcessInstance<M> signalOrStart(String trigger, DataEvent<D> event, Optional<ProcessInstance<M>> processInstance) {
+        return processInstance.map(pi -> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Sending signal {} to process instance id '{}'", trigger, pi.id());
             }
             signalProcessInstance(trigger, pi.id(), event);
             return pi;
-        }).orElseGet(() -> startNewInstance(trigger, event)), executor);
+        }).orElseGet(() -> startNewInstance(trigger, event));
+    }
+
+    /**
+     * @return number of messages accepted but not processed yet because an earlier message for the same instance is still being processed
+     */
+    public int getQueueDepth() {
+        return executor.getQueueDepth();
+    }
+
+    /**
+     * @return number of signals sent to existing instances
+     */
+    public long getSignals() {
+        return signals.get();
+    }
+
+    /**
+     * @return number of signals that failed because the instance was concurrently updated by somebody else
+     */
+    public long getLockConflicts() {
+        return lockConflicts.get();
+    }
+
+    /**
+     * @return name identifying this dispatcher among the ones created by the application, used to tag its meters
+     */
+    public String getName() {
+        return name;
     }
 
     private Optional<ProcessInstance<M>> findById(String id) {
@@ -126,10 +210,8 @@ public class ProcessEventDispatcher<M extends Model, D> implements EventDispatch
                 correlationKeys.stream().map(k -> new SimpleCorrelation<>(k, resolve(event, k))).collect(Collectors.toSet()))) : Optional.empty();
     }
 
-    private Optional<String> resolveCorrelationId(DataEvent<?> event) {
-        return compositeCorrelation(event).flatMap(process.correlations()::find)
-                .map(CorrelationInstance::getCorrelatedId);
-
+    private Optional<String> resolveCorrelationId(CompositeCorrelation correlation) {
+        return process.correlations().find(correlation).map(CorrelationInstance::getCorrelatedId);
     }
 
     private Object resolve(DataEvent<?> event, String key) {
@@ -145,7 +227,13 @@ public class ProcessEventDispatcher<M extends Model, D> implements EventDispatch
     }
 
     private Optional<M> signalProcessInstance(String trigger, String id, DataEvent<D> event) {
-        return processService.signalProcessInstance((Process) process, id, dataResolver.apply(event), "Message-" + trigger);
+        signals.incrementAndGet();
+        try {
+            return processService.signalProcessInstance((Process) process, id, dataResolver.apply(event), "Message-" + trigger);
+        } catch (ProcessInstanceOptimisticLockingException e) {
+            lockConflicts.incrementAndGet();
+            throw e;
+        }
     }
 
     private ProcessInstance<M> startNewInstance(String trigger, DataEvent<D> event) {
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.event.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.kie.kogito.event.EventBackpressure;
+import org.kie.kogito.metrics.KogitoMeters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes tasks sharing the same key sequentially, in submission order, while tasks with different keys run in parallel on the delegate executor.
+ * <p>
+ * Keys are hashed into a fixed number of stripes, every stripe chaining its tasks so only one of them is handed to the delegate at a time.
+ * When the number of tasks waiting in a stripe goes beyond the configured depth, the delegate is asked to stop receiving events
+ * (if it implements {@link EventBackpressure}) until every stripe is back under that depth.
+ * <p>
+ * The queue depth and the number of saturated stripes are exported as <code>kogito_striped_executor_*</code> meters,
+ * tagged with the {@link #getName() name} of the executor.
+ */
+public class StripedExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedExecutor.class);
+
+    public static final int DEFAULT_STRIPES = 256;
+    public static final int DEFAULT_MAX_STRIPE_DEPTH = 16;
+
+    private static final AtomicInteger EXECUTORS = new AtomicInteger();
+
+    // the striped executor is only weakly referenced, otherwise it would keep its delegate, the map key, alive
+    private static final Map<Executor, WeakReference<StripedExecutor>> sharedExecutors = new WeakHashMap<>();
+
+    private static class Stripe {
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+        private int depth;
+    }
+
+    private final Executor executor;
+    private final EventBackpressure backpressure;
+    private final Stripe[] stripes;
+    private final int maxStripeDepth;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final String name = "striped-executor-" + EXECUTORS.incrementAndGet();
+    private int saturatedStripes;
+
+    public StripedExecutor(Executor executor) {
+        this(executor, DEFAULT_STRIPES, DEFAULT_MAX_STRIPE_DEPTH);
+    }
+
+    public StripedExecutor(Executor executor, int stripes, int maxStripeDepth) {
+        if (stripes <= 0 || maxStripeDepth <= 0) {
+            throw new IllegalArgumentException("Number of stripes and stripe depth must be positive");
+        }
+        this.executor = executor;
+        this.backpressure = executor instanceof EventBackpressure eventBackpressure ? eventBackpressure : null;
+        this.maxStripeDepth = maxStripeDepth;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        registerMeters();
+    }
+
+    /**
+     * Returns the striped executor shared by every caller of the given delegate, so tasks with the same key are ordered
+     * no matter who submits them.
+     */
+    public static StripedExecutor shared(Executor executor) {
+        synchronized (sharedExecutors) {
+            WeakReference<StripedExecutor> reference = sharedExecutors.get(executor);
+            StripedExecutor stripedExecutor = reference == null ? null : reference.get();
+            if (stripedExecutor == null) {
+                stripedExecutor = new StripedExecutor(executor);
+                sharedExecutors.put(executor, new WeakReference<>(stripedExecutor));
+            }
+            return stripedExecutor;
+        }
+    }
+
+    /**
+     * Runs the task after every task previously submitted with the same key has completed, successfully or not.
+     * Tasks without key are not ordered at all.
+     */
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        if (key == null) {
+            return CompletableFuture.supplyAsync(task, executor);
+        }
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        CompletableFuture<T> result;
+        boolean saturated;
+        synchronized (stripe) {
+            result = stripe.tail.handleAsync((v, e) -> task.get(), executor);
+            stripe.tail = result;
+            saturated = ++stripe.depth == maxStripeDepth + 1;
+        }
+        queued.incrementAndGet();
+        if (saturated) {
+            onSaturated();
+        }
+        // callers are notified once the stripe has been released
+        return result.whenComplete((v, e) -> release(stripe));
+    }
+
+    private void release(Stripe stripe) {
+        boolean relieved;
+        synchronized (stripe) {
+            relieved = stripe.depth-- == maxStripeDepth + 1;
+        }
+        queued.decrementAndGet();
+        if (relieved) {
+            onRelieved();
+        }
+    }
+
+    // stop and resume are invoked while holding the lock, so the delegate always receives them in the right order
+    private synchronized void onSaturated() {
+        if (saturatedStripes++ == 0 && backpressure != null) {
+            LOGGER.debug("Stripe depth over {}, stopping event reception", maxStripeDepth);
+            backpressure.stop();
+        }
+    }
+
+    private synchronized void onRelieved() {
+        if (--saturatedStripes == 0 && backpressure != null) {
+            LOGGER.debug("Stripes drained under depth {}, resuming event reception", maxStripeDepth);
+            backpressure.resume();
+        }
+    }
+
+    /**
+     * @return number of tasks submitted with a key that have not completed yet, either running or waiting for their predecessors
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of stripes currently holding more tasks than the configured depth
+     */
+    public synchronized int getSaturatedStripes() {
+        return saturatedStripes;
+    }
+
+    /**
+     * @return name identifying this executor among the ones created by the application, used to tag its meters
+     */
+    public String getName() {
+        return name;
+    }
+
+    private void registerMeters() {
+        KogitoMeters.gauge("kogito_striped_executor_queue_depth", "Tasks submitted with a key that have not completed yet", this, StripedExecutor::getQueueDepth, "executor", name);
+        KogitoMeters.gauge("kogito_striped_executor_saturated_stripes", "Stripes holding more tasks than the configured depth", this, StripedExecutor::getSaturatedStripes,
+                "executor", name);
+    }
+}
@@ -24,8 +24,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -252,4 +256,38 @@ class ProcessEventDispatcherTest {
         assertThat(processInstanceId.getValue()).isEqualTo("1");
         assertThat(processInstance).isEqualTo(instance);
     }
+
+    @Test
+    void testMessagesForTheSameInstanceAreOrderedByProcessInstanceId() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            when(processInstances.findByBusinessKey("businessKey")).thenReturn(Optional.of(processInstance));
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            when(processService.signalProcessInstance(eq(process), any(), any(), any())).thenAnswer(invocation -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                firstStarted.countDown();
+                Thread.sleep(100);
+                running.decrementAndGet();
+                return Optional.of(mock(DummyModel.class));
+            });
+            // different triggers of the same process, addressing the instance by reference id and by business key
+            EventDispatcher<DummyModel, TestEvent> byReference = new ProcessEventDispatcher<>(process, Optional.empty(), processService, pool, null, o -> o.getData());
+            EventDispatcher<DummyModel, TestEvent> byBusinessKey = new ProcessEventDispatcher<>(process, Optional.empty(), processService, pool, null, o -> o.getData());
+            TestCloudEvent<TestEvent> businessKeyEvent = new TestCloudEvent<>(new TestEvent("pepe"), DUMMY_TOPIC, "source");
+            businessKeyEvent.setKogitoBusinessKey("businessKey");
+
+            CompletableFuture<ProcessInstance<DummyModel>> first = byReference.dispatch(DUMMY_TOPIC, new TestCloudEvent<>(new TestEvent("pepe"), DUMMY_TOPIC, "source", "1")).toCompletableFuture();
+            assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<ProcessInstance<DummyModel>> second = byBusinessKey.dispatch(DUMMY_TOPIC, businessKeyEvent).toCompletableFuture();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(processInstance);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(processInstance);
+            verify(processService, times(2)).signalProcessInstance(eq(process), eq("1"), any(), any());
+            assertThat(maxRunning).hasValue(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
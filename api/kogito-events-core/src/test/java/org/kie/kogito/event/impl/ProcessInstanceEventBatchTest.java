@@ -29,6 +29,8 @@ import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.event.process.ProcessVariableChangedEvent;
 import org.kie.api.runtime.process.NodeInstance;
 import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.event.EventPublisher;
 import org.kie.kogito.event.impl.adapter.AdapterHelper;
 import org.kie.kogito.event.process.ProcessInstanceErrorDataEvent;
 import org.kie.kogito.event.process.ProcessInstanceNodeDataEvent;
@@ -89,6 +91,27 @@ public class ProcessInstanceEventBatchTest {
                 ProcessInstanceStateDataEvent.class);
     }
 
+    // there is no JMH setup in this repository to benchmark unit of work start and end, so this checks the overhead
+    // is gone instead: adapters are discovered once and reused by every batch
+    @Test
+    public void testAdaptersSharedBetweenBatches() {
+        BaseEventManager eventManager = new BaseEventManager();
+        eventManager.addPublisher(Mockito.mock(EventPublisher.class));
+        DefaultInstanceEventBatch batch = (DefaultInstanceEventBatch) eventManager.newBatch();
+        assertThat(batch.getDataEventAdapters()).isNotEmpty().isSameAs(((DefaultInstanceEventBatch) eventManager.newBatch()).getDataEventAdapters());
+
+        eventManager.setService("http://localhost:8080");
+        assertThat(((DefaultInstanceEventBatch) eventManager.newBatch()).getDataEventAdapters()).isNotSameAs(batch.getDataEventAdapters());
+    }
+
+    @Test
+    public void testNoPublishers() {
+        KogitoWorkflowProcessInstance processInstance = Mockito.mock(KogitoWorkflowProcessInstance.class);
+        EventBatch batch = new BaseEventManager().newBatch();
+        batch.append(mockEvent(ProcessStartedEvent.class, processInstance));
+        assertThat(batch.events()).isEmpty();
+    }
+
     private <T extends ProcessEvent> T mockEvent(Class<T> clazz, ProcessInstance processInstance) {
         T event = Mockito.mock(clazz);
         Mockito.when(event.getProcessInstance()).thenReturn(processInstance);
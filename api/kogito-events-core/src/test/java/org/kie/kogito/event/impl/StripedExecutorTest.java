@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.event.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.EventBackpressure;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedExecutorTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void close() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSameKeyIsExecutedInOrder() throws Exception {
+        StripedExecutor stripedExecutor = new StripedExecutor(executor);
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CompletableFuture<?>[] futures = IntStream.range(0, 100).mapToObj(i -> stripedExecutor.submit("1", () -> executed.add(i))).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+        assertThat(executed).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(stripedExecutor.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void testFailureDoesNotBreakOrder() throws Exception {
+        StripedExecutor stripedExecutor = new StripedExecutor(executor);
+        CompletableFuture<Object> failed = stripedExecutor.submit("1", () -> {
+            throw new IllegalStateException();
+        });
+        CompletableFuture<String> next = stripedExecutor.submit("1", () -> "done");
+        assertThat(next.get(10, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(failed).isCompletedExceptionally();
+    }
+
+    @Test
+    void testDifferentKeysRunInParallel() throws Exception {
+        StripedExecutor stripedExecutor = new StripedExecutor(executor);
+        CountDownLatch latch = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = stripedExecutor.submit("1", () -> await(latch));
+        CompletableFuture<Boolean> second = stripedExecutor.submit("2", () -> await(latch));
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testSharedExecutor() {
+        StripedExecutor stripedExecutor = StripedExecutor.shared(executor);
+        assertThat(StripedExecutor.shared(executor)).isSameAs(stripedExecutor);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(StripedExecutor.shared(other)).isNotSameAs(stripedExecutor);
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void testBackpressure() throws Exception {
+        BackpressureExecutor backpressureExecutor = new BackpressureExecutor(executor);
+        StripedExecutor stripedExecutor = new StripedExecutor(backpressureExecutor, 1, 2);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CompletableFuture<?>[] futures = IntStream.range(0, 4).mapToObj(i -> stripedExecutor.submit(i, () -> waitFor(blocker))).toArray(CompletableFuture[]::new);
+        assertThat(backpressureExecutor.stopped).hasValue(1);
+        assertThat(stripedExecutor.getSaturatedStripes()).isOne();
+        blocker.countDown();
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+        assertThat(backpressureExecutor.resumed).hasValue(1);
+        assertThat(stripedExecutor.getSaturatedStripes()).isZero();
+    }
+
+    @Test
+    void testQueueDepthIsExported() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            StripedExecutor stripedExecutor = new StripedExecutor(executor);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CompletableFuture<?>[] futures = IntStream.range(0, 3).mapToObj(i -> stripedExecutor.submit("1", () -> waitFor(blocker))).toArray(CompletableFuture[]::new);
+
+            assertThat(registry.get("kogito_striped_executor_queue_depth").tag("executor", stripedExecutor.getName()).gauge().value()).isEqualTo(3);
+            blocker.countDown();
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+            assertThat(registry.get("kogito_striped_executor_queue_depth").tag("executor", stripedExecutor.getName()).gauge().value()).isZero();
+        } finally {
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        return waitFor(latch);
+    }
+
+    private static boolean waitFor(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class BackpressureExecutor implements Executor, EventBackpressure {
+
+        private final ExecutorService delegate;
+        private final AtomicInteger stopped = new AtomicInteger();
+        private final AtomicInteger resumed = new AtomicInteger();
+
+        BackpressureExecutor(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(command);
+        }
+
+        @Override
+        public void stop() {
+            stopped.incrementAndGet();
+        }
+
+        @Override
+        public void resume() {
+            resumed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link InMemoryJobService} that survives restarts by keeping job descriptions in a {@link JobStore}.
+ * <p>
+ * Only jobs expiring within the load window are kept in memory, in a {@link TimingWheel} driven by a single
+ * tick task. A loader task periodically reads the next window from the store in batches ordered by expiration,
+ * so jobs missed while the application was down are fired as soon as it starts.
+ * Job descriptions that cannot be stored (e.g. process start timers, which are registered again on startup)
+ * are scheduled in memory as before.
+ * <p>
+ * When a {@link UnitOfWorkManager} is given, storing and cancelling jobs are work units of the current unit of work,
+ * so they only take effect once it ends and are discarded if it is aborted. Loaded jobs whose executor factory is
+ * not registered yet (e.g. user task deadlines, whose factory is registered after the job service is created) are
+ * kept aside and scheduled as soon as a matching factory is registered.
+ */
+public class EmbeddedJobService extends InMemoryJobService {
+
+    public static final long DEFAULT_TICK_MILLIS = 100L;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    public static final long DEFAULT_LOAD_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedJobService.class);
+
+    private final JobStore jobStore;
+    private final JobDescriptionMarshaller marshaller;
+    private final long tickMillis;
+    private final long loadWindowMillis;
+    private final int batchSize;
+
+    private final TimingWheel<ScheduledJob> wheel;
+    private final Map<String, ScheduledJob> activeJobs = new HashMap<>();
+    private final Map<String, JobDescription> unresolvedJobs = new HashMap<>();
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long loadedUntil = Long.MIN_VALUE;
+
+    public EmbeddedJobService(JobStore jobStore) {
+        this(new ScheduledThreadPoolExecutor(Integer.parseInt(System.getProperty(IN_MEMORY_JOB_SERVICE_POOL_SIZE_PROPERTY, "10"))), jobStore);
+    }
+
+    public EmbeddedJobService(JobStore jobStore, UnitOfWorkManager unitOfWorkManager) {
+        this(new ScheduledThreadPoolExecutor(Integer.parseInt(System.getProperty(IN_MEMORY_JOB_SERVICE_POOL_SIZE_PROPERTY, "10"))), jobStore, unitOfWorkManager);
+    }
+
+    public EmbeddedJobService(ScheduledExecutorService scheduler, JobStore jobStore) {
+        this(scheduler, jobStore, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, DEFAULT_LOAD_WINDOW_MILLIS, DEFAULT_BATCH_SIZE);
+    }
+
+    public EmbeddedJobService(ScheduledExecutorService scheduler, JobStore jobStore, UnitOfWorkManager unitOfWorkManager) {
+        this(scheduler, jobStore, unitOfWorkManager, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, DEFAULT_LOAD_WINDOW_MILLIS, DEFAULT_BATCH_SIZE);
+    }
+
+    public EmbeddedJobService(ScheduledExecutorService scheduler, JobStore jobStore, long tickMillis, int wheelSize, long loadWindowMillis, int batchSize) {
+        this(scheduler, jobStore, null, tickMillis, wheelSize, loadWindowMillis, batchSize);
+    }
+
+    public EmbeddedJobService(ScheduledExecutorService scheduler, JobStore jobStore, UnitOfWorkManager unitOfWorkManager, long tickMillis, int wheelSize, long loadWindowMillis,
+            int batchSize) {
+        super(scheduler);
+        this.jobStore = jobStore;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.marshaller = new JobDescriptionMarshaller();
+        this.tickMillis = tickMillis;
+        this.loadWindowMillis = loadWindowMillis;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Starts the tick and loader tasks. Stored jobs whose expiration already passed are fired by the first load.
+     */
+    public EmbeddedJobService start() {
+        if (started.compareAndSet(false, true)) {
+            scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+            scheduler.scheduleWithFixedDelay(this::loadJobs, 0, Math.max(tickMillis, loadWindowMillis / 2), TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    @Override
+    public EmbeddedJobService registerJobExecutorFactory(JobExecutorFactory jobExecutorFactory) {
+        super.registerJobExecutorFactory(jobExecutorFactory);
+        List<JobDescription> resolved = new ArrayList<>();
+        synchronized (wheel) {
+            Iterator<JobDescription> iterator = unresolvedJobs.values().iterator();
+            while (iterator.hasNext()) {
+                JobDescription jobDescription = iterator.next();
+                if (jobExecutorFactory.accept(jobDescription)) {
+                    iterator.remove();
+                    resolved.add(jobDescription);
+                }
+            }
+        }
+        resolved.forEach(jobDescription -> schedule(jobDescription, false));
+        return this;
+    }
+
+    @Override
+    public String scheduleJob(JobDescription jobDescription) {
+        if (!JobDescriptionMarshaller.isSupported(jobDescription)) {
+            return super.scheduleJob(jobDescription);
+        }
+        LOGGER.debug("ScheduleProcessJob: {}", jobDescription);
+        if (findJobExecutorFactory(jobDescription).isEmpty()) {
+            throw new IllegalArgumentException("Could not schedule " + jobDescription + ". No job executor factory provided");
+        }
+        withinUnitOfWork(jobDescription, this::store);
+        return jobDescription.id();
+    }
+
+    private void store(JobDescription jobDescription) {
+        jobStore.store(jobDescription);
+        // loader might be reading the store concurrently, the job is kept once thanks to the active jobs map
+        if (JobDescriptionMarshaller.expirationMillis(jobDescription) <= loadedUntil) {
+            schedule(jobDescription, true);
+        }
+    }
+
+    /**
+     * Cancels the job. When a unit of work manager is given, the job is cancelled once the current unit of work ends
+     * and <code>true</code> is returned right away.
+     */
+    @Override
+    public boolean cancelJob(String id, boolean force) {
+        LOGGER.debug("Cancel Job: {}", id);
+        if (unitOfWorkManager == null) {
+            return cancel(id, force);
+        }
+        // deferred as well, so a job stored by the same unit of work is cancelled after being stored
+        withinUnitOfWork(id, jobId -> cancel(jobId, force));
+        return true;
+    }
+
+    private boolean cancel(String id, boolean force) {
+        boolean cancelled;
+        synchronized (wheel) {
+            ScheduledJob job = activeJobs.remove(id);
+            cancelled = job != null && job.timeout.cancel();
+            cancelled |= unresolvedJobs.remove(id) != null;
+        }
+        cancelled |= jobStore.remove(id);
+        return super.cancelJob(id, force) || cancelled;
+    }
+
+    private <T> void withinUnitOfWork(T data, Consumer<T> action) {
+        if (unitOfWorkManager == null) {
+            action.accept(data);
+        } else {
+            unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(data, action));
+        }
+    }
+
+    private void schedule(JobDescription jobDescription, boolean replace) {
+        synchronized (wheel) {
+            // looked up while holding the lock, so a factory registered concurrently either is found or finds the job unresolved
+            JobExecutorFactory factory = findJobExecutorFactory(jobDescription).orElse(null);
+            if (factory == null) {
+                // the loader already moved past it, so it is kept until a matching factory is registered
+                LOGGER.debug("No job executor factory provided yet for stored job {}, it will be scheduled once registered", jobDescription);
+                unresolvedJobs.put(jobDescription.id(), jobDescription);
+                return;
+            }
+            ScheduledJob existing = activeJobs.get(jobDescription.id());
+            if (existing != null) {
+                if (!replace) {
+                    return;
+                }
+                existing.timeout.cancel();
+            }
+            Runnable runnable = jobDescription.expirationTime().repeatInterval() != null ? factory.createNewRepeteableRunnable(this, jobDescription)
+                    : factory.createNewRunnable(this, jobDescription);
+            addToWheel(new ScheduledJob(jobDescription, runnable));
+        }
+    }
+
+    private void addToWheel(ScheduledJob job) {
+        activeJobs.put(job.description.id(), job);
+        if (!wheel.add(job.timeout)) {
+            fire(job);
+        }
+    }
+
+    private void tick() {
+        synchronized (wheel) {
+            for (TimingWheel.Timeout<ScheduledJob> timeout : wheel.advance(System.currentTimeMillis())) {
+                fire(timeout.getValue());
+            }
+        }
+    }
+
+    private void fire(ScheduledJob job) {
+        long delay = job.timeout.getExpiration() - System.currentTimeMillis();
+        // the wheel expires timeouts with tick granularity, never run a job before its expiration
+        if (delay > 0) {
+            scheduler.schedule(() -> run(job), delay, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(() -> run(job));
+        }
+    }
+
+    private void run(ScheduledJob job) {
+        synchronized (wheel) {
+            if (activeJobs.get(job.description.id()) != job) {
+                // cancelled or replaced while waiting for its delay or for a free thread
+                return;
+            }
+        }
+        try {
+            job.runnable.run();
+        } catch (RuntimeException e) {
+            LOGGER.error("Error executing job {}", job.description.id(), e);
+        }
+        Long interval = job.description.expirationTime().repeatInterval();
+        if (interval != null) {
+            reschedule(job, interval);
+        } else {
+            complete(job);
+        }
+    }
+
+    private void complete(ScheduledJob job) {
+        // executors usually cancel the job themselves, make sure a fired job is never loaded again
+        boolean active;
+        synchronized (wheel) {
+            active = activeJobs.remove(job.description.id(), job);
+        }
+        if (active) {
+            jobStore.remove(job.description.id());
+        }
+    }
+
+    private void reschedule(ScheduledJob job, long interval) {
+        synchronized (wheel) {
+            if (activeJobs.get(job.description.id()) != job) {
+                // cancelled while running, either by the job itself once its limit is reached or externally
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long nextExpiration = job.timeout.getExpiration() + interval;
+            if (nextExpiration <= now) {
+                // do not replay every missed repetition, resume from now instead
+                nextExpiration = now + interval;
+            }
+            Integer repeatLimit = job.description.expirationTime().repeatLimit();
+            JobDescription next = marshaller.reschedule(job.description,
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(nextExpiration), job.description.expirationTime().get().getZone()),
+                    repeatLimit == null || repeatLimit < 0 ? repeatLimit : Integer.valueOf(Math.max(repeatLimit - 1, 0)));
+            // stored while holding the lock, otherwise a concurrent cancel might be overridden or the loader might read the previous expiration
+            jobStore.store(next);
+            if (nextExpiration <= loadedUntil) {
+                addToWheel(new ScheduledJob(next, job.runnable));
+            } else {
+                activeJobs.remove(job.description.id());
+            }
+        }
+    }
+
+    private void loadJobs() {
+        long previousLoadedUntil = loadedUntil;
+        try {
+            long until = System.currentTimeMillis() + loadWindowMillis;
+            long fromMillis = previousLoadedUntil;
+            String fromId = "";
+            // published before reading the store, so jobs stored from now on within the window are added to the wheel by scheduleJob
+            loadedUntil = until;
+            List<JobDescription> jobs;
+            do {
+                jobs = jobStore.loadJobs(fromMillis, fromId, until, batchSize);
+                for (JobDescription jobDescription : jobs) {
+                    schedule(jobDescription, false);
+                }
+                if (!jobs.isEmpty()) {
+                    JobDescription last = jobs.get(jobs.size() - 1);
+                    fromMillis = JobDescriptionMarshaller.expirationMillis(last);
+                    fromId = last.id();
+                }
+            } while (jobs.size() == batchSize);
+            LOGGER.debug("Loaded stored jobs expiring until {}", until);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error loading stored jobs, window will be read again on next load", e);
+            loadedUntil = previousLoadedUntil;
+        }
+    }
+
+    public int getActiveJobs() {
+        synchronized (wheel) {
+            return activeJobs.size();
+        }
+    }
+
+    private static class ScheduledJob {
+
+        private final JobDescription description;
+        private final Runnable runnable;
+        private final TimingWheel.Timeout<ScheduledJob> timeout;
+
+        ScheduledJob(JobDescription description, Runnable runnable) {
+            this.description = description;
+            this.runnable = runnable;
+            this.timeout = new TimingWheel.Timeout<>(this, JobDescriptionMarshaller.expirationMillis(description));
+        }
+    }
+}
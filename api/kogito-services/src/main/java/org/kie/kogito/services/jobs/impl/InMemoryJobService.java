@@ -20,11 +20,10 @@ package org.kie.kogito.services.jobs.impl;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -51,18 +50,13 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
 
     public InMemoryJobService(ScheduledExecutorService scheduler) {
         this.scheduledJobs = new ConcurrentHashMap<>();
-        this.jobExecutorFactories = new ArrayList<>();
+        this.jobExecutorFactories = new CopyOnWriteArrayList<>();
         this.scheduler = scheduler;
     }
 
     public InMemoryJobService registerJobExecutorFactory(JobExecutorFactory jobExecutorFactory) {
-        Iterator<JobExecutorFactory> iterator = this.jobExecutorFactories.iterator();
-        while (iterator.hasNext()) {
-            JobExecutorFactory factory = iterator.next();
-            if (factory.types().containsAll(jobExecutorFactory.types())) {
-                iterator.remove();
-            }
-        }
+        // factories might be registered while jobs are already being scheduled
+        this.jobExecutorFactories.removeIf(factory -> factory.types().containsAll(jobExecutorFactory.types()));
         this.jobExecutorFactories.add(jobExecutorFactory);
         return this;
     }
@@ -90,7 +84,7 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
         return jobDescription.id();
     }
 
-    private Optional<JobExecutorFactory> findJobExecutorFactory(JobDescription jobDescription) {
+    protected Optional<JobExecutorFactory> findJobExecutorFactory(JobDescription jobDescription) {
         return jobExecutorFactories.stream().filter(factory -> factory.accept(jobDescription)).findFirst();
     }
 
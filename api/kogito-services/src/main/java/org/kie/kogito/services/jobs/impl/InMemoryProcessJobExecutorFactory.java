@@ -71,6 +71,7 @@ public class InMemoryProcessJobExecutorFactory implements JobExecutorFactory {
                 jobsConfiguration,
                 description.id(),
                 description.timerId(),
+                description.processId(),
                 description.processInstanceId(),
                 remove,
                 limit);
@@ -93,16 +94,18 @@ class SignalProcessInstanceOnExpiredTimer implements Runnable {
     private final String id;
     private final String timerId;
     private boolean removeAtExecution;
+    private String processId;
     private String processInstanceId;
     private Integer limit;
     private JobsService jobService;
 
     private InMemoryJobContext jobsConfiguration;
 
-    public SignalProcessInstanceOnExpiredTimer(JobsService jobService, InMemoryJobContext jobsConfiguration, String id, String timerId, String processInstanceId, boolean removeAtExecution,
-            Integer limit) {
+    public SignalProcessInstanceOnExpiredTimer(JobsService jobService, InMemoryJobContext jobsConfiguration, String id, String timerId, String processId,
+            String processInstanceId, boolean removeAtExecution, Integer limit) {
         this.id = id;
         this.timerId = timerId;
+        this.processId = processId;
         this.processInstanceId = processInstanceId;
         this.removeAtExecution = removeAtExecution;
         this.limit = limit;
@@ -113,7 +116,7 @@ class SignalProcessInstanceOnExpiredTimer implements Runnable {
     @Override
     public void run() {
         try {
-            Optional<Process<? extends Model>> process = jobsConfiguration.processes().processByProcessInstanceId(processInstanceId);
+            Optional<Process<? extends Model>> process = jobsConfiguration.processes().processByProcessInstanceId(processId, processInstanceId);
             if (process.isEmpty()) {
                 LOGGER.info("Skipping Job {}. There is no process for pid {} ", id, processInstanceId);
                 return;
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.kie.kogito.jobs.ExpirationTime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.descriptors.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.descriptors.UserTaskInstanceJobDescription;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Converts the job descriptions that can outlive the application ({@link ProcessInstanceJobDescription} and
+ * {@link UserTaskInstanceJobDescription}) to and from a compact JSON payload, so {@link JobStore} implementations
+ * only need to handle id, expiration and an opaque byte array.
+ */
+public class JobDescriptionMarshaller {
+
+    private static final String PROCESS_INSTANCE_TYPE = "process-instance";
+    private static final String USER_TASK_INSTANCE_TYPE = "user-task-instance";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static boolean isSupported(JobDescription jobDescription) {
+        return jobDescription instanceof ProcessInstanceJobDescription || jobDescription instanceof UserTaskInstanceJobDescription;
+    }
+
+    public static long expirationMillis(JobDescription jobDescription) {
+        return jobDescription.expirationTime().get().toInstant().toEpochMilli();
+    }
+
+    public byte[] marshall(JobDescription jobDescription) {
+        try {
+            return objectMapper.writeValueAsBytes(toJson(jobDescription));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public JobDescription unmarshall(byte[] data) {
+        try {
+            return fromJson(objectMapper.readTree(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a copy of the given job description that expires at <code>expiration</code> with the given repeat limit.
+     */
+    public JobDescription reschedule(JobDescription jobDescription, ZonedDateTime expiration, Integer repeatLimit) {
+        ObjectNode node = toJson(jobDescription);
+        node.put("expiration", expiration.toInstant().toEpochMilli());
+        node.put("zone", expiration.getZone().getId());
+        if (repeatLimit != null) {
+            node.put("repeatLimit", repeatLimit);
+        }
+        return fromJson(node);
+    }
+
+    private ObjectNode toJson(JobDescription jobDescription) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", jobDescription.id());
+        node.put("priority", jobDescription.priority());
+        ExpirationTime expirationTime = jobDescription.expirationTime();
+        node.put("expiration", expirationTime.get().toInstant().toEpochMilli());
+        node.put("zone", expirationTime.get().getZone().getId());
+        if (expirationTime.repeatInterval() != null) {
+            node.put("repeatInterval", expirationTime.repeatInterval());
+        }
+        if (expirationTime.repeatLimit() != null) {
+            node.put("repeatLimit", expirationTime.repeatLimit());
+        }
+        if (jobDescription instanceof ProcessInstanceJobDescription description) {
+            node.put("type", PROCESS_INSTANCE_TYPE);
+            node.put("timerId", description.timerId());
+            node.put("processInstanceId", description.processInstanceId());
+            node.put("rootProcessInstanceId", description.rootProcessInstanceId());
+            node.put("processId", description.processId());
+            node.put("rootProcessId", description.rootProcessId());
+            node.put("nodeInstanceId", description.nodeInstanceId());
+        } else if (jobDescription instanceof UserTaskInstanceJobDescription description) {
+            node.put("type", USER_TASK_INSTANCE_TYPE);
+            node.put("userTaskInstanceId", description.userTaskInstanceId());
+            node.put("processInstanceId", description.processInstanceId());
+            node.put("rootProcessInstanceId", description.rootProcessInstanceId());
+            node.put("processId", description.processId());
+            node.put("rootProcessId", description.rootProcessId());
+            node.put("nodeInstanceId", description.nodeInstanceId());
+        } else {
+            throw new IllegalArgumentException("Job description " + jobDescription + " cannot be stored");
+        }
+        return node;
+    }
+
+    private JobDescription fromJson(JsonNode node) {
+        ExpirationTime expirationTime = new StoredExpirationTime(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(node.get("expiration").asLong()), ZoneId.of(node.get("zone").asText())),
+                node.hasNonNull("repeatInterval") ? node.get("repeatInterval").asLong() : null,
+                node.hasNonNull("repeatLimit") ? node.get("repeatLimit").asInt() : null);
+        String type = node.get("type").asText();
+        switch (type) {
+            case PROCESS_INSTANCE_TYPE:
+                return new ProcessInstanceJobDescription(
+                        text(node, "id"),
+                        text(node, "timerId"),
+                        expirationTime,
+                        node.get("priority").asInt(),
+                        text(node, "processInstanceId"),
+                        text(node, "rootProcessInstanceId"),
+                        text(node, "processId"),
+                        text(node, "rootProcessId"),
+                        text(node, "nodeInstanceId"));
+            case USER_TASK_INSTANCE_TYPE:
+                return new UserTaskInstanceJobDescription(
+                        text(node, "id"),
+                        expirationTime,
+                        node.get("priority").asInt(),
+                        text(node, "userTaskInstanceId"),
+                        text(node, "processId"),
+                        text(node, "processInstanceId"),
+                        text(node, "nodeInstanceId"),
+                        text(node, "rootProcessInstanceId"),
+                        text(node, "rootProcessId"));
+            default:
+                throw new IllegalArgumentException("Unknown stored job type " + type);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static class StoredExpirationTime implements ExpirationTime {
+
+        private final ZonedDateTime expirationTime;
+        private final Long repeatInterval;
+        private final Integer repeatLimit;
+
+        StoredExpirationTime(ZonedDateTime expirationTime, Long repeatInterval, Integer repeatLimit) {
+            this.expirationTime = expirationTime;
+            this.repeatInterval = repeatInterval;
+            this.repeatLimit = repeatLimit;
+        }
+
+        @Override
+        public ZonedDateTime get() {
+            return expirationTime;
+        }
+
+        @Override
+        public Long repeatInterval() {
+            return repeatInterval;
+        }
+
+        @Override
+        public Integer repeatLimit() {
+            return repeatLimit;
+        }
+
+        @Override
+        public String toString() {
+            return "StoredExpirationTime{" +
+                    "expirationTime=" + expirationTime +
+                    ", repeatInterval=" + repeatInterval +
+                    ", repeatLimit=" + repeatLimit +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.List;
+
+import org.kie.kogito.jobs.JobDescription;
+
+/**
+ * Durable storage of job descriptions used by {@link EmbeddedJobService}.
+ * Implementations must be able to return stored jobs ordered by expiration time and id.
+ */
+public interface JobStore {
+
+    /**
+     * Inserts the job or replaces the stored one with the same id.
+     */
+    void store(JobDescription jobDescription);
+
+    /**
+     * Removes the job with the given id, returning whether it was stored.
+     */
+    boolean remove(String jobId);
+
+    /**
+     * Loads at most <code>limit</code> jobs expiring no later than <code>toMillis</code> and positioned,
+     * by (expiration, id), strictly after the given cursor. Jobs must be returned ordered by expiration and id.
+     */
+    List<JobDescription> loadJobs(long fromMillis, String fromId, long toMillis, int limit);
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel. Timeouts expiring within the wheel interval are kept in
+ * <code>tickMillis</code> wide buckets, the rest are delegated to an overflow wheel whose tick is
+ * this wheel interval. Only non empty buckets are queued, so advancing the clock costs
+ * O(log buckets) regardless of the number of timeouts.
+ * <p>
+ * This class is not thread safe, callers are expected to synchronize access.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final List<Bucket<T>> buckets;
+    private final PriorityQueue<Bucket<T>> queue;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this(tickMillis, wheelSize, startMillis, new PriorityQueue<>(Comparator.comparingLong(Bucket::getExpiration)));
+    }
+
+    private TimingWheel(long tickMillis, int wheelSize, long startMillis, PriorityQueue<Bucket<T>> queue) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new Bucket<>());
+        }
+    }
+
+    /**
+     * Adds the timeout to the wheel. Returns false if it is already expired and should be run by the caller.
+     */
+    public boolean add(Timeout<T> timeout) {
+        long expiration = timeout.getExpiration();
+        if (expiration < currentTime + tickMillis) {
+            return false;
+        } else if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMillis;
+            Bucket<T> bucket = buckets.get((int) (virtualId % wheelSize));
+            bucket.add(timeout);
+            if (bucket.setExpiration(virtualId * tickMillis)) {
+                queue.add(bucket);
+            }
+            return true;
+        } else {
+            return overflowWheel().add(timeout);
+        }
+    }
+
+    /**
+     * Moves the wheel clock up to <code>nowMillis</code>, returning the timeouts that expired.
+     */
+    public List<Timeout<T>> advance(long nowMillis) {
+        List<Timeout<T>> expired = new ArrayList<>();
+        Bucket<T> bucket = queue.peek();
+        while (bucket != null && bucket.getExpiration() <= nowMillis) {
+            queue.poll();
+            advanceClock(bucket.getExpiration());
+            for (Timeout<T> timeout : bucket.flush()) {
+                if (!add(timeout)) {
+                    expired.add(timeout);
+                }
+            }
+            bucket = queue.peek();
+        }
+        return expired;
+    }
+
+    private void advanceClock(long timeMillis) {
+        if (timeMillis >= currentTime + tickMillis) {
+            currentTime = timeMillis - (timeMillis % tickMillis);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+
+    private TimingWheel<T> overflowWheel() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime, queue);
+        }
+        return overflowWheel;
+    }
+
+    public static class Timeout<T> {
+
+        private final T value;
+        private final long expiration;
+        private Bucket<T> bucket;
+
+        public Timeout(T value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getExpiration() {
+            return expiration;
+        }
+
+        public boolean cancel() {
+            if (bucket != null) {
+                return bucket.remove(this);
+            }
+            return false;
+        }
+    }
+
+    private static class Bucket<T> {
+
+        private final Set<Timeout<T>> timeouts = new LinkedHashSet<>();
+        private long expiration = -1L;
+
+        long getExpiration() {
+            return expiration;
+        }
+
+        boolean setExpiration(long expiration) {
+            boolean changed = this.expiration != expiration;
+            this.expiration = expiration;
+            return changed;
+        }
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeouts.add(timeout);
+        }
+
+        boolean remove(Timeout<T> timeout) {
+            timeout.bucket = null;
+            return timeouts.remove(timeout);
+        }
+
+        List<Timeout<T>> flush() {
+            List<Timeout<T>> result = new ArrayList<>(timeouts);
+            result.forEach(timeout -> timeout.bucket = null);
+            timeouts.clear();
+            expiration = -1L;
+            return result;
+        }
+    }
+}
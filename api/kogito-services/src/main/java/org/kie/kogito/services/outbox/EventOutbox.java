@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.kie.kogito.event.DataEvent;
+
+/**
+ * Storage for the events produced by a unit of work, so they can be published once the unit of work has been committed.
+ * <p>
+ * Implementations should store the events in the same transaction used to persist the instances that produced them,
+ * so events are neither lost when publishing fails nor published for changes that were never committed.
+ */
+public interface EventOutbox {
+
+    /**
+     * Stores the given events, keeping their order.
+     * 
+     * @param events events produced by the current unit of work
+     */
+    void append(Collection<DataEvent<?>> events);
+
+    /**
+     * Returns the oldest stored events, ordered by sequence.
+     * <p>
+     * Implementations shared by several relays (e.g. one per replica) must claim the returned entries, so they are not
+     * returned to any other caller until they are released or their claim expires.
+     * 
+     * @param limit maximum number of entries to return
+     * @return stored entries, empty if there is nothing pending
+     */
+    List<OutboxEntry> fetch(int limit);
+
+    /**
+     * Gives back entries returned by {@link #fetch(int)} that could not be published, so they are fetched again.
+     * 
+     * @param entries entries to be released
+     */
+    default void release(List<OutboxEntry> entries) {
+        // nothing is claimed by default
+    }
+
+    /**
+     * Removes the given entries once they have been published.
+     * 
+     * @param entries entries to be removed
+     */
+    void remove(List<OutboxEntry> entries);
+}
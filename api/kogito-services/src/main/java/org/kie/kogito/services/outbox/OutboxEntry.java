@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import org.kie.kogito.event.DataEvent;
+
+/**
+ * Event stored in an {@link EventOutbox}, together with the sequence assigned by the storage.
+ */
+public class OutboxEntry {
+
+    private final long sequence;
+    private final DataEvent<?> event;
+
+    public OutboxEntry(long sequence, DataEvent<?> event) {
+        this.sequence = sequence;
+        this.event = event;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public DataEvent<?> getEvent() {
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEntry [sequence=" + sequence + ", event=" + event + "]";
+    }
+}
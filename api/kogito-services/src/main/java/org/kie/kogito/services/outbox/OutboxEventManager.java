@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.event.impl.BaseEventManager;
+
+/**
+ * Event manager that, instead of publishing the events of a unit of work on the calling thread, stores them in an
+ * {@link EventOutbox}. Stored events are handed to the registered publishers by an {@link OutboxRelay}.
+ */
+public class OutboxEventManager extends BaseEventManager {
+
+    private final EventOutbox outbox;
+
+    public OutboxEventManager(EventOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    @Override
+    public void publish(EventBatch batch) {
+        if (!hasPublishers()) {
+            // events would be discarded anyway, do not store them
+            return;
+        }
+        store(batch.events());
+    }
+
+    /**
+     * Stores the given events in the outbox, unless they would be discarded because there are no publishers.
+     * 
+     * @param events events to be stored
+     */
+    public void store(Collection<DataEvent<?>> events) {
+        if (hasPublishers() && !events.isEmpty()) {
+            outbox.append(events);
+        }
+    }
+
+    /**
+     * Publishes events previously read from the outbox to all registered publishers.
+     * 
+     * @param events events to be published
+     * @return stage completed once every publisher acknowledged the events
+     */
+    public CompletionStage<Void> relay(Collection<DataEvent<?>> events) {
+        return publishAsync(events);
+    }
+
+    public EventOutbox outbox() {
+        return outbox;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.jackson.utils.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Converts data events to and from the JSON payload stored by {@link EventOutbox} implementations.
+ * <p>
+ * The event class is stored along with the event, so it can be read back as the same type that was published.
+ */
+public class OutboxEventMarshaller {
+
+    private static final String TYPE = "type";
+    private static final String EVENT = "event";
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxEventMarshaller() {
+        this(ObjectMapperFactory.get());
+    }
+
+    public OutboxEventMarshaller(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] marshall(DataEvent<?> event) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put(TYPE, event.getClass().getName());
+        node.set(EVENT, objectMapper.valueToTree(event));
+        try {
+            return objectMapper.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error marshalling event " + event.getId(), e);
+        }
+    }
+
+    public DataEvent<?> unmarshall(byte[] payload) {
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            String typeName = node.get(TYPE).asText();
+            // the type is read from storage, never instantiate anything but data events
+            Class<?> type = Class.forName(typeName, false, Thread.currentThread().getContextClassLoader());
+            if (!DataEvent.class.isAssignableFrom(type)) {
+                throw new IllegalStateException("Outbox event type " + typeName + " is not a data event");
+            }
+            return (DataEvent<?>) objectMapper.treeToValue(node.get(EVENT), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error unmarshalling outbox event", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unknown outbox event type", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.metrics.KogitoMeters;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background task that reads the events stored in an {@link EventOutbox} and publishes them in batches, removing them
+ * once every publisher acknowledged them.
+ * <p>
+ * The outbox is polled periodically and, being registered as unit of work listener, whenever a unit of work ends.
+ * When publishing fails or is not acknowledged in time the batch is kept in the outbox and retried with an exponential
+ * backoff, so events are delivered at least once, provided publishers complete
+ * {@link org.kie.kogito.event.EventPublisher#publishAsync(Collection)} only once the events were acknowledged.
+ * <p>
+ * Each relay publishes the entries it fetches in sequence order, but no global order is guaranteed: sequences are
+ * assigned when events are stored, not when their transaction commits, so an event might become visible after one
+ * with a later sequence has been published, and outboxes shared by several replicas hand different batches to each
+ * relay. Consumers needing order must rely on the event data (e.g. process instance version or event time).
+ * <p>
+ * Once started, the high water mark and the relayed and failed counts are exported as <code>kogito_outbox_*</code> meters,
+ * tagged with the {@link #getName() name} of the relay.
+ */
+public class OutboxRelay implements UnitOfWorkEventListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 200L;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 30000L;
+    public static final long DEFAULT_ACK_TIMEOUT_MILLIS = 30000L;
+
+    private static final AtomicInteger RELAYS = new AtomicInteger();
+
+    private final EventOutbox outbox;
+    private final Function<Collection<DataEvent<?>>, CompletionStage<Void>> publisher;
+    private final ScheduledExecutorService scheduler;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final long maxBackoffMillis;
+    private final long ackTimeoutMillis;
+    private final boolean ownsScheduler;
+    private final String name = "outbox-relay-" + RELAYS.incrementAndGet();
+
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicLong highWaterMark = new AtomicLong(-1L);
+    private final AtomicLong relayedEvents = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+
+    private ScheduledFuture<?> pollTask;
+    private long backoffMillis;
+    private long retryAt;
+
+    public OutboxRelay(OutboxEventManager eventManager) {
+        this(eventManager.outbox(), eventManager::relay, new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "kogito-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        }), DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_BATCH_SIZE, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_ACK_TIMEOUT_MILLIS, true);
+    }
+
+    public OutboxRelay(EventOutbox outbox, Function<Collection<DataEvent<?>>, CompletionStage<Void>> publisher, ScheduledExecutorService scheduler) {
+        this(outbox, publisher, scheduler, DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_BATCH_SIZE, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_ACK_TIMEOUT_MILLIS, false);
+    }
+
+    public OutboxRelay(EventOutbox outbox, Function<Collection<DataEvent<?>>, CompletionStage<Void>> publisher, ScheduledExecutorService scheduler, long pollIntervalMillis, int batchSize,
+            long maxBackoffMillis) {
+        this(outbox, publisher, scheduler, pollIntervalMillis, batchSize, maxBackoffMillis, DEFAULT_ACK_TIMEOUT_MILLIS, false);
+    }
+
+    public OutboxRelay(EventOutbox outbox, Function<Collection<DataEvent<?>>, CompletionStage<Void>> publisher, ScheduledExecutorService scheduler, long pollIntervalMillis, int batchSize,
+            long maxBackoffMillis, long ackTimeoutMillis) {
+        this(outbox, publisher, scheduler, pollIntervalMillis, batchSize, maxBackoffMillis, ackTimeoutMillis, false);
+    }
+
+    private OutboxRelay(EventOutbox outbox, Function<Collection<DataEvent<?>>, CompletionStage<Void>> publisher, ScheduledExecutorService scheduler, long pollIntervalMillis, int batchSize,
+            long maxBackoffMillis, long ackTimeoutMillis, boolean ownsScheduler) {
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.scheduler = scheduler;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batchSize = batchSize;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    public synchronized OutboxRelay start() {
+        if (pollTask == null) {
+            registerMeters();
+            pollTask = scheduler.scheduleWithFixedDelay(this::relay, 0L, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+            pollTask = null;
+        }
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        // nothing to relay yet
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        if (pollTask != null && wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                relay();
+            });
+        }
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        // aborted units of work do not store events
+    }
+
+    /**
+     * Publishes pending events until the outbox is drained or publishing fails. Does nothing if another thread is
+     * already relaying or the relay is backing off after a failure.
+     * 
+     * @return number of events published
+     */
+    public int relay() {
+        if (!relayLock.tryLock()) {
+            return 0;
+        }
+        int relayed = 0;
+        List<OutboxEntry> entries = null;
+        try {
+            if (System.currentTimeMillis() < retryAt) {
+                return 0;
+            }
+            boolean more;
+            do {
+                entries = outbox.fetch(batchSize);
+                if (entries.isEmpty()) {
+                    break;
+                }
+                List<DataEvent<?>> events = new ArrayList<>(entries.size());
+                for (OutboxEntry entry : entries) {
+                    events.add(entry.getEvent());
+                }
+                awaitAck(publisher.apply(events));
+                outbox.remove(entries);
+                highWaterMark.accumulateAndGet(entries.get(entries.size() - 1).getSequence(), Math::max);
+                relayedEvents.addAndGet(entries.size());
+                relayed += entries.size();
+                more = entries.size() >= batchSize;
+                entries = null;
+            } while (more);
+            backoffMillis = 0L;
+            retryAt = 0L;
+        } catch (RuntimeException e) {
+            failedAttempts.incrementAndGet();
+            if (entries != null && !entries.isEmpty()) {
+                release(entries);
+            }
+            backoffMillis = backoffMillis == 0L ? pollIntervalMillis : Math.min(backoffMillis * 2, maxBackoffMillis);
+            retryAt = System.currentTimeMillis() + backoffMillis;
+            logger.warn("Error relaying outbox events, retrying in {} ms", backoffMillis, e);
+        } finally {
+            relayLock.unlock();
+        }
+        return relayed;
+    }
+
+    // entries are removed only once acknowledged, the relay thread is dedicated so it can wait for it
+    private void awaitAck(CompletionStage<Void> ack) {
+        try {
+            ack.toCompletableFuture().get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for outbox events to be acknowledged", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Outbox events could not be published", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Outbox events were not acknowledged within " + ackTimeoutMillis + " ms", e);
+        }
+    }
+
+    private void release(List<OutboxEntry> entries) {
+        try {
+            outbox.release(entries);
+        } catch (RuntimeException e) {
+            // they will be fetched again once their claim expires
+            logger.warn("Error releasing {} outbox events", entries.size(), e);
+        }
+    }
+
+    private void registerMeters() {
+        KogitoMeters.gauge("kogito_outbox_high_water_mark", "Sequence of the latest event published from the outbox", this, OutboxRelay::getHighWaterMark, "relay", name);
+        KogitoMeters.counter("kogito_outbox_relayed_events_total", "Events published from the outbox", this, OutboxRelay::getRelayedEvents, "relay", name);
+        KogitoMeters.counter("kogito_outbox_failed_attempts_total", "Failed attempts to publish a batch of outbox events", this, OutboxRelay::getFailedAttempts, "relay", name);
+    }
+
+    /**
+     * @return name identifying this relay among the ones created by the application, used to tag its meters
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return sequence of the latest published event, -1 if none has been published yet
+     */
+    public long getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public long getRelayedEvents() {
+        return relayedEvents.get();
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts.get();
+    }
+}
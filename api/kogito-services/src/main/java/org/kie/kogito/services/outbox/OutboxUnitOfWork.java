@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.services.uow.CollectingUnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+
+/**
+ * Unit of work that stores its events in the outbox as part of its work, right after the process instance work
+ * units, instead of once all the work has been performed. That way the outbox stores them together with the process
+ * instances, e.g. in the same write batch.
+ */
+public class OutboxUnitOfWork extends CollectingUnitOfWork {
+
+    /**
+     * Priority of the work unit storing the events: right after process instance work units ({@link WorkUnit#HIGH_PRIORITY}).
+     */
+    public static final int STORE_PRIORITY = WorkUnit.HIGH_PRIORITY + 1;
+
+    private final OutboxEventManager eventManager;
+    private final Set<DataEvent<?>> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public OutboxUnitOfWork(OutboxEventManager eventManager) {
+        super(eventManager);
+        this.eventManager = eventManager;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        intercept(new BaseWorkUnit<>(batch(), this::store, null, STORE_PRIORITY));
+    }
+
+    @Override
+    protected void publish(EventBatch batch) {
+        // events produced by work performed after the store work unit, if any
+        store(batch);
+    }
+
+    private void store(EventBatch batch) {
+        List<DataEvent<?>> events = new ArrayList<>();
+        for (DataEvent<?> event : batch.events()) {
+            if (stored.add(event)) {
+                events.add(event);
+            }
+        }
+        eventManager.store(events);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkFactory;
+
+public class OutboxUnitOfWorkFactory implements UnitOfWorkFactory {
+
+    @Override
+    public UnitOfWork create(EventManager eventManager) {
+        if (!(eventManager instanceof OutboxEventManager)) {
+            throw new IllegalArgumentException("Outbox unit of work requires an outbox event manager, got " + eventManager);
+        }
+        return new OutboxUnitOfWork((OutboxEventManager) eventManager);
+    }
+
+}
@@ -20,7 +20,9 @@ package org.kie.kogito.services.uow;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,17 +31,25 @@ import org.kie.kogito.event.EventBatch;
 import org.kie.kogito.event.EventManager;
 import org.kie.kogito.uow.UnitOfWork;
 import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Simple unit of work that collects work elements
  * throughout the life of the unit and invokes all of them at the end
- * when end method is invoked. It does not invoke the work
+ * when end method is invoked. Work intercepted while the unit
+ * is ending is invoked as well, in priority order. Actions registered through
+ * {@link #afterEnd(Runnable)} are invoked once the events have been published. It does not invoke the work
  * when abort is invoked, only clears the collected items.
  *
  */
 public class CollectingUnitOfWork implements UnitOfWork {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectingUnitOfWork.class);
+
     private Set<WorkUnit<?>> collectedWork;
+    private List<Runnable> afterEndActions;
+    private int intercepted;
     private boolean done;
 
     private final EventManager eventManager;
@@ -54,6 +64,7 @@ public class CollectingUnitOfWork implements UnitOfWork {
         checkDone();
         if (collectedWork == null) {
             collectedWork = new LinkedHashSet<>();
+            afterEndActions = new ArrayList<>();
         }
         batch = eventManager.newBatch();
     }
@@ -62,12 +73,42 @@ public class CollectingUnitOfWork implements UnitOfWork {
     public void end() {
         checkStarted();
 
-        for (WorkUnit<?> work : sorted()) {
+        Set<WorkUnit<?>> performed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<WorkUnit<?>> pending = new ArrayList<>(sorted());
+        int index = 0;
+        while (index < pending.size()) {
+            int interceptedBefore = intercepted;
+            WorkUnit<?> work = pending.get(index++);
+            performed.add(work);
             work.perform();
+            if (intercepted != interceptedBefore) {
+                // work was intercepted while performing, it might have to run before the remaining one
+                pending = new ArrayList<>(sorted());
+                pending.removeIf(performed::contains);
+                index = 0;
+            }
         }
 
-        eventManager.publish(batch);
+        publish(batch);
+        List<Runnable> actions = afterEndActions;
         done();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // the unit of work has already ended, the failure must not be reported as if it did not
+                LOGGER.error("Error invoking action after the end of the unit of work", e);
+            }
+        }
+    }
+
+    /**
+     * Publishes the events of the unit of work, once all its work has been performed.
+     * 
+     * @param batch events collected by the unit of work
+     */
+    protected void publish(EventBatch batch) {
+        eventManager.publish(batch);
     }
 
     @Override
@@ -90,6 +131,20 @@ public class CollectingUnitOfWork implements UnitOfWork {
         batch.append(work.data());
         collectedWork.remove(work);
         collectedWork.add(work);
+        intercepted++;
+    }
+
+    @Override
+    public void afterEnd(Runnable action) {
+        checkStarted();
+        if (action == null) {
+            throw new NullPointerException("Action must be non null");
+        }
+        afterEndActions.add(action);
+    }
+
+    protected EventBatch batch() {
+        return batch;
     }
 
     protected Collection<WorkUnit<?>> sorted() {
@@ -113,5 +168,6 @@ public class CollectingUnitOfWork implements UnitOfWork {
     protected void done() {
         done = true;
         collectedWork = null;
+        afterEndActions = null;
     }
 }
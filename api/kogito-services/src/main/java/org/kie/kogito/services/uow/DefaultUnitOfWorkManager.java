@@ -44,19 +44,25 @@ public class DefaultUnitOfWorkManager implements UnitOfWorkManager {
     // factory used to create unit of work 
     private UnitOfWorkFactory factory;
 
-    private EventManager eventManager = new BaseEventManager();
+    private EventManager eventManager;
 
     private Set<UnitOfWorkEventListener> listeners = new LinkedHashSet<>();
 
     public DefaultUnitOfWorkManager(UnitOfWorkFactory factory) {
+        this(factory, new BaseEventManager());
+    }
+
+    public DefaultUnitOfWorkManager(UnitOfWorkFactory factory, EventManager eventManager) {
         super();
         this.factory = factory;
+        this.eventManager = eventManager;
     }
 
     public DefaultUnitOfWorkManager(UnitOfWork fallbackUnitOfWork, UnitOfWorkFactory factory) {
         super();
         this.fallbackUnitOfWork = fallbackUnitOfWork;
         this.factory = factory;
+        this.eventManager = new BaseEventManager();
     }
 
     @Override
@@ -66,6 +66,11 @@ public class ManagedUnitOfWork implements UnitOfWork {
         delegate.intercept(work);
     }
 
+    @Override
+    public void afterEnd(Runnable action) {
+        delegate.afterEnd(action);
+    }
+
     public UnitOfWork delegate() {
         return delegate;
     }
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.descriptors.ProcessInstanceJobDescription;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedJobServiceTest {
+
+    private MapJobStore jobStore;
+    private Set<String> fired;
+    private Map<String, String> cancelledOnRun;
+    private CountDownLatch latch;
+    private EmbeddedJobService jobService;
+
+    @BeforeEach
+    void setup() {
+        jobStore = new MapJobStore();
+        fired = ConcurrentHashMap.newKeySet();
+        cancelledOnRun = new ConcurrentHashMap<>();
+        jobService = new EmbeddedJobService(Executors.newScheduledThreadPool(2), jobStore, 10, 64, 1000, 2);
+        jobService.registerJobExecutorFactory(new TestJobExecutorFactory());
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        jobService.close();
+    }
+
+    @Test
+    void missedJobsAreFiredOnStart() throws InterruptedException {
+        latch = new CountDownLatch(3);
+        jobStore.store(job("missed1", ZonedDateTime.now().minusHours(1)));
+        jobStore.store(job("missed2", ZonedDateTime.now().minusMinutes(1)));
+        jobStore.store(job("missed3", ZonedDateTime.now().minusSeconds(1)));
+        jobStore.store(job("future", ZonedDateTime.now().plusHours(1)));
+
+        jobService.start();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactlyInAnyOrder("missed1", "missed2", "missed3");
+        assertThat(jobStore.jobs).containsOnlyKeys("future");
+    }
+
+    @Test
+    void onlyJobsWithinWindowAreKeptInMemory() throws InterruptedException {
+        latch = new CountDownLatch(1);
+        jobService.start();
+        jobService.scheduleJob(job("later", ZonedDateTime.now().plusHours(1)));
+        jobService.scheduleJob(job("cancelled", ZonedDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(500))));
+        jobService.scheduleJob(job("soon", ZonedDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(100))));
+
+        assertThat(jobService.cancelJob("cancelled")).isTrue();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly("soon");
+        assertThat(jobStore.jobs).containsOnlyKeys("later");
+        assertThat(jobService.getActiveJobs()).isZero();
+    }
+
+    @Test
+    void jobCancelledAfterFiringIsNotRun() throws InterruptedException {
+        jobService.close();
+        // single thread, so both jobs are queued before the first one runs
+        jobService = new EmbeddedJobService(Executors.newSingleThreadScheduledExecutor(), jobStore, 10, 64, 1000, 2);
+        jobService.registerJobExecutorFactory(new TestJobExecutorFactory());
+        latch = new CountDownLatch(2);
+        cancelledOnRun.put("first", "second");
+        cancelledOnRun.put("second", "first");
+        ZonedDateTime expiration = ZonedDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        jobService.start();
+        jobService.scheduleJob(job("first", expiration));
+        jobService.scheduleJob(job("second", expiration));
+        jobService.scheduleJob(job("last", expiration.plusNanos(TimeUnit.MILLISECONDS.toNanos(200))));
+
+        // whichever runs first cancels the other one, which was already handed to the scheduler
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).hasSize(2).contains("last").containsAnyOf("first", "second");
+        assertThat(jobStore.jobs).isEmpty();
+        assertThat(jobService.getActiveJobs()).isZero();
+    }
+
+    @Test
+    void storedJobsAreScheduledOnceTheirFactoryIsRegistered() throws InterruptedException {
+        jobService.close();
+        CountDownLatch loaded = new CountDownLatch(1);
+        jobStore = new MapJobStore() {
+            @Override
+            public List<JobDescription> loadJobs(long fromMillis, String fromId, long toMillis, int limit) {
+                List<JobDescription> jobs = super.loadJobs(fromMillis, fromId, toMillis, limit);
+                loaded.countDown();
+                return jobs;
+            }
+        };
+        jobService = new EmbeddedJobService(Executors.newScheduledThreadPool(2), jobStore, 10, 64, 1000, 2);
+        latch = new CountDownLatch(1);
+        jobStore.store(job("missed", ZonedDateTime.now().minusMinutes(1)));
+
+        jobService.start();
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).isEmpty();
+        jobService.registerJobExecutorFactory(new TestJobExecutorFactory());
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly("missed");
+        assertThat(jobStore.jobs).isEmpty();
+    }
+
+    @Test
+    void jobsAreStoredAndCancelledWithinUnitOfWork() throws Exception {
+        jobService.close();
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        jobService = new EmbeddedJobService(Executors.newScheduledThreadPool(2), jobStore, unitOfWorkManager, 10, 64, 1000, 2);
+        jobService.registerJobExecutorFactory(new TestJobExecutorFactory());
+
+        UnitOfWork aborted = unitOfWorkManager.newUnitOfWork();
+        aborted.start();
+        jobService.scheduleJob(job("aborted", ZonedDateTime.now().plusHours(1)));
+        aborted.abort();
+        assertThat(jobStore.jobs).isEmpty();
+
+        UnitOfWork committed = unitOfWorkManager.newUnitOfWork();
+        committed.start();
+        jobService.scheduleJob(job("committed", ZonedDateTime.now().plusHours(1)));
+        jobService.scheduleJob(job("cancelled", ZonedDateTime.now().plusHours(1)));
+        jobService.cancelJob("cancelled");
+        assertThat(jobStore.jobs).isEmpty();
+        committed.end();
+
+        assertThat(jobStore.jobs).containsOnlyKeys("committed");
+    }
+
+    private static ProcessInstanceJobDescription job(String id, ZonedDateTime expiration) {
+        return ProcessInstanceJobDescription.newProcessInstanceJobDescriptionBuilder()
+                .id(id)
+                .timerId("timer-" + id)
+                .expirationTime(ExactExpirationTime.of(expiration))
+                .processInstanceId("pi-" + id)
+                .processId("process")
+                .build();
+    }
+
+    private class TestJobExecutorFactory implements JobExecutorFactory {
+
+        @Override
+        public Set<Class<? extends JobDescription>> types() {
+            return Set.of(ProcessInstanceJobDescription.class);
+        }
+
+        @Override
+        public Runnable createNewRunnable(JobsService jobService, JobDescription jobDescription) {
+            return () -> {
+                fired.add(jobDescription.id());
+                jobService.cancelJob(jobDescription.id());
+                String other = cancelledOnRun.get(jobDescription.id());
+                if (other != null) {
+                    jobService.cancelJob(other);
+                }
+                latch.countDown();
+            };
+        }
+
+        @Override
+        public Runnable createNewRepeteableRunnable(JobsService jobService, JobDescription jobDescription) {
+            return createNewRunnable(jobService, jobDescription);
+        }
+    }
+
+    private static class MapJobStore implements JobStore {
+
+        private final JobDescriptionMarshaller marshaller = new JobDescriptionMarshaller();
+        private final Map<String, byte[]> jobs = new ConcurrentHashMap<>();
+
+        @Override
+        public void store(JobDescription jobDescription) {
+            jobs.put(jobDescription.id(), marshaller.marshall(jobDescription));
+        }
+
+        @Override
+        public boolean remove(String jobId) {
+            return jobs.remove(jobId) != null;
+        }
+
+        @Override
+        public List<JobDescription> loadJobs(long fromMillis, String fromId, long toMillis, int limit) {
+            return jobs.values().stream()
+                    .map(marshaller::unmarshall)
+                    .filter(job -> {
+                        long expiration = JobDescriptionMarshaller.expirationMillis(job);
+                        return expiration <= toMillis && (expiration > fromMillis || expiration == fromMillis && job.id().compareTo(fromId) > 0);
+                    })
+                    .sorted(Comparator.comparingLong(JobDescriptionMarshaller::expirationMillis).thenComparing(JobDescription::id))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void expiredTimeoutIsNotAdded() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        assertThat(wheel.add(new TimingWheel.Timeout<>("expired", START - 1))).isFalse();
+        assertThat(wheel.add(new TimingWheel.Timeout<>("current tick", START + 5))).isFalse();
+        assertThat(wheel.add(new TimingWheel.Timeout<>("next tick", START + 10))).isTrue();
+    }
+
+    @Test
+    void timeoutsExpireInOrderAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        wheel.add(new TimingWheel.Timeout<>("overflow", START + 1_000));
+        wheel.add(new TimingWheel.Timeout<>("near", START + 20));
+        wheel.add(new TimingWheel.Timeout<>("second level", START + 200));
+
+        assertThat(values(wheel.advance(START + 19))).isEmpty();
+        assertThat(values(wheel.advance(START + 20))).containsExactly("near");
+        assertThat(values(wheel.advance(START + 199))).isEmpty();
+        assertThat(values(wheel.advance(START + 210))).containsExactly("second level");
+        assertThat(values(wheel.advance(START + 990))).isEmpty();
+        assertThat(values(wheel.advance(START + 1_010))).containsExactly("overflow");
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotExpire() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        TimingWheel.Timeout<String> cancelled = new TimingWheel.Timeout<>("cancelled", START + 500);
+        wheel.add(cancelled);
+        wheel.add(new TimingWheel.Timeout<>("kept", START + 500));
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(values(wheel.advance(START + 1_000))).containsExactly("kept");
+    }
+
+    private static List<String> values(List<TimingWheel.Timeout<String>> timeouts) {
+        return timeouts.stream().map(TimingWheel.Timeout::getValue).toList();
+    }
+}
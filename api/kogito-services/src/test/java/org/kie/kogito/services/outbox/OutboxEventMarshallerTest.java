@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.AbstractDataEvent;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.process.ProcessInstanceStateDataEvent;
+import org.kie.kogito.event.process.ProcessInstanceStateEventBody;
+import org.kie.kogito.event.process.ProcessInstanceVariableDataEvent;
+import org.kie.kogito.event.process.ProcessInstanceVariableEventBody;
+import org.kie.kogito.event.usertask.UserTaskInstanceStateDataEvent;
+import org.kie.kogito.event.usertask.UserTaskInstanceStateEventBody;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxEventMarshallerTest {
+
+    private static final URI SOURCE = URI.create("http://outbox-test");
+    private static final OffsetDateTime TIME = OffsetDateTime.parse("2024-05-10T10:15:30.000Z");
+    private static final Date EVENT_DATE = Date.from(TIME.toInstant());
+
+    private final OutboxEventMarshaller marshaller = new OutboxEventMarshaller();
+
+    @Test
+    void processInstanceStateEventRoundTrip() {
+        ProcessInstanceStateDataEvent event = new ProcessInstanceStateDataEvent();
+        setBaseValues(event);
+        event.setData(ProcessInstanceStateEventBody.create().eventDate(EVENT_DATE).eventType(ProcessInstanceStateEventBody.EVENT_TYPE_STARTED).eventUser("john")
+                .processId("travels").processInstanceId("pi-1").businessKey("bk-1").state(1).build());
+
+        ProcessInstanceStateDataEvent read = roundTrip(event, ProcessInstanceStateDataEvent.class);
+
+        assertBaseValues(read);
+        assertThat(read.getData().getEventType()).isEqualTo(ProcessInstanceStateEventBody.EVENT_TYPE_STARTED);
+        assertThat(read.getData().getEventDate()).isEqualTo(EVENT_DATE);
+        assertThat(read.getData().getProcessInstanceId()).isEqualTo("pi-1");
+        assertThat(read.getData().getBusinessKey()).isEqualTo("bk-1");
+        assertThat(read.getData().getState()).isEqualTo(1);
+    }
+
+    @Test
+    void processInstanceVariableEventRoundTrip() {
+        ProcessInstanceVariableDataEvent event = new ProcessInstanceVariableDataEvent();
+        setBaseValues(event);
+        event.setData(ProcessInstanceVariableEventBody.create().eventDate(EVENT_DATE).eventUser("john").processId("travels").processInstanceId("pi-1")
+                .variableId("traveller").variableName("traveller").variableValue("Mary").build());
+
+        ProcessInstanceVariableDataEvent read = roundTrip(event, ProcessInstanceVariableDataEvent.class);
+
+        assertBaseValues(read);
+        assertThat(read.getData().getVariableName()).isEqualTo("traveller");
+        assertThat(read.getData().getVariableValue()).isEqualTo("Mary");
+        assertThat(read.getData().getEventDate()).isEqualTo(EVENT_DATE);
+    }
+
+    @Test
+    void userTaskInstanceStateEventRoundTrip() {
+        UserTaskInstanceStateDataEvent event = new UserTaskInstanceStateDataEvent();
+        setBaseValues(event);
+        event.setData(UserTaskInstanceStateEventBody.create().eventDate(EVENT_DATE).eventUser("john").userTaskDefinitionId("approve").userTaskInstanceId("ut-1")
+                .userTaskName("Approve").state("Reserved").actualOwner("john").processInstanceId("pi-1").eventType("Modify").build());
+
+        UserTaskInstanceStateDataEvent read = roundTrip(event, UserTaskInstanceStateDataEvent.class);
+
+        assertBaseValues(read);
+        assertThat(read.getData().getUserTaskInstanceId()).isEqualTo("ut-1");
+        assertThat(read.getData().getState()).isEqualTo("Reserved");
+        assertThat(read.getData().getActualOwner()).isEqualTo("john");
+        assertThat(read.getData().getEventDate()).isEqualTo(EVENT_DATE);
+    }
+
+    @Test
+    void nonDataEventTypeIsRejected() {
+        byte[] payload = "{\"type\":\"java.util.ArrayList\",\"event\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> marshaller.unmarshall(payload)).isInstanceOf(IllegalStateException.class).hasMessageContaining("java.util.ArrayList");
+    }
+
+    private <T extends DataEvent<?>> T roundTrip(DataEvent<?> event, Class<T> type) {
+        DataEvent<?> read = marshaller.unmarshall(marshaller.marshall(event));
+        assertThat(read).isInstanceOf(type);
+        return type.cast(read);
+    }
+
+    private static void setBaseValues(AbstractDataEvent<?> event) {
+        event.setId("event-1");
+        event.setSource(SOURCE);
+        event.setTime(TIME);
+        event.setKogitoProcessInstanceId("pi-1");
+        event.setKogitoProcessId("travels");
+        event.setKogitoBusinessKey("bk-1");
+        event.addExtensionAttribute("custom", "value");
+    }
+
+    private static void assertBaseValues(AbstractDataEvent<?> event) {
+        assertThat(event.getId()).isEqualTo("event-1");
+        assertThat(event.getSource()).isEqualTo(SOURCE);
+        assertThat(event.getTime()).isEqualTo(TIME);
+        assertThat(event.getKogitoProcessInstanceId()).isEqualTo("pi-1");
+        assertThat(event.getKogitoProcessId()).isEqualTo("travels");
+        assertThat(event.getKogitoBusinessKey()).isEqualTo("bk-1");
+        assertThat(event.getExtension("custom")).isEqualTo("value");
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.services.outbox;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.uow.UnitOfWork;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private ListEventOutbox outbox;
+    private List<List<DataEvent<?>>> published;
+
+    @BeforeEach
+    void setup() {
+        outbox = new ListEventOutbox();
+        published = new ArrayList<>();
+    }
+
+    @Test
+    void relayPublishesInOrderAndRemovesEntries() {
+        DataEvent<?> first = mock(DataEvent.class);
+        DataEvent<?> second = mock(DataEvent.class);
+        DataEvent<?> third = mock(DataEvent.class);
+        outbox.append(List.of(first, second, third));
+
+        OutboxRelay relay = new OutboxRelay(outbox, this::publish, mock(ScheduledExecutorService.class), 10L, 2, 100L);
+
+        assertThat(relay.relay()).isEqualTo(3);
+        assertThat(published).containsExactly(List.of(first, second), List.of(third));
+        assertThat(outbox.entries).isEmpty();
+        assertThat(relay.getHighWaterMark()).isEqualTo(3L);
+        assertThat(relay.getRelayedEvents()).isEqualTo(3L);
+    }
+
+    @Test
+    void failedPublishKeepsEntriesAndBacksOff() throws InterruptedException {
+        DataEvent<?> event = mock(DataEvent.class);
+        outbox.append(List.of(event));
+        boolean[] fail = { true };
+        OutboxRelay relay = new OutboxRelay(outbox, events -> {
+            if (fail[0]) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            return publish(events);
+        }, mock(ScheduledExecutorService.class), 50L, 10, 100L);
+
+        assertThat(relay.relay()).isZero();
+        assertThat(relay.getFailedAttempts()).isEqualTo(1L);
+        assertThat(relay.getHighWaterMark()).isEqualTo(-1L);
+        assertThat(outbox.entries).hasSize(1);
+        assertThat(outbox.released).hasSize(1);
+
+        fail[0] = false;
+        assertThat(relay.relay()).isZero();
+        Thread.sleep(60L);
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(published).containsExactly(List.of(event));
+        assertThat(outbox.entries).isEmpty();
+    }
+
+    @Test
+    void unacknowledgedPublishKeepsEntries() {
+        DataEvent<?> event = mock(DataEvent.class);
+        outbox.append(List.of(event));
+        CompletableFuture<Void> nacked = CompletableFuture.failedFuture(new IllegalStateException("nacked"));
+
+        OutboxRelay relay = new OutboxRelay(outbox, events -> nacked, mock(ScheduledExecutorService.class), 0L, 10, 0L, 10L);
+        assertThat(relay.relay()).isZero();
+        relay = new OutboxRelay(outbox, events -> new CompletableFuture<>(), mock(ScheduledExecutorService.class), 0L, 10, 0L, 10L);
+        assertThat(relay.relay()).isZero();
+
+        assertThat(relay.getFailedAttempts()).isEqualTo(1L);
+        assertThat(outbox.entries).hasSize(1);
+        assertThat(outbox.released).hasSize(2);
+    }
+
+    @Test
+    void eventManagerStoresEventsInOutbox() {
+        OutboxEventManager eventManager = new OutboxEventManager(outbox);
+        EventBatch batch = mock(EventBatch.class);
+        DataEvent<?> event = mock(DataEvent.class);
+        when(batch.events()).thenReturn(List.of(event));
+
+        eventManager.publish(batch);
+        assertThat(outbox.entries).isEmpty();
+
+        EventPublisher publisher = mock(EventPublisher.class, CALLS_REAL_METHODS);
+        eventManager.addPublisher(publisher);
+        eventManager.publish(batch);
+        verify(publisher, never()).publish(any(Collection.class));
+        assertThat(outbox.entries).hasSize(1);
+
+        new OutboxRelay(outbox, eventManager::relay, mock(ScheduledExecutorService.class)).relay();
+        verify(publisher).publish(List.of(event));
+    }
+
+    @Test
+    void unitOfWorkStoresEventsAsPartOfItsWork() {
+        OutboxEventManager eventManager = new OutboxEventManager(outbox) {
+            @Override
+            public EventBatch newBatch() {
+                return new ListEventBatch();
+            }
+        };
+        eventManager.addPublisher(mock(EventPublisher.class));
+        DataEvent<?> event = mock(DataEvent.class);
+        List<Integer> storedBeforeWork = new ArrayList<>();
+
+        UnitOfWork unitOfWork = new OutboxUnitOfWorkFactory().create(eventManager);
+        unitOfWork.start();
+        unitOfWork.intercept(new BaseWorkUnit<>(event, e -> storedBeforeWork.add(outbox.entries.size())));
+        unitOfWork.end();
+
+        assertThat(storedBeforeWork).containsExactly(1);
+        assertThat(outbox.entries).extracting(OutboxEntry::getEvent).containsExactly(event);
+    }
+
+    @Test
+    void abortedUnitOfWorkDoesNotStoreEvents() {
+        OutboxEventManager eventManager = new OutboxEventManager(outbox) {
+            @Override
+            public EventBatch newBatch() {
+                return new ListEventBatch();
+            }
+        };
+        eventManager.addPublisher(mock(EventPublisher.class));
+
+        UnitOfWork unitOfWork = new OutboxUnitOfWorkFactory().create(eventManager);
+        unitOfWork.start();
+        unitOfWork.intercept(new BaseWorkUnit<>(mock(DataEvent.class), e -> {
+        }));
+        unitOfWork.abort();
+
+        assertThat(outbox.entries).isEmpty();
+    }
+
+    private CompletionStage<Void> publish(Collection<DataEvent<?>> events) {
+        published.add(new ArrayList<>(events));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static class ListEventBatch implements EventBatch {
+
+        private final List<DataEvent<?>> events = new ArrayList<>();
+
+        @Override
+        public void append(Object event) {
+            if (event instanceof DataEvent) {
+                events.add((DataEvent<?>) event);
+            }
+        }
+
+        @Override
+        public Collection<DataEvent<?>> events() {
+            return events;
+        }
+    }
+
+    private static class ListEventOutbox implements EventOutbox {
+
+        private final List<OutboxEntry> entries = new ArrayList<>();
+        private final List<OutboxEntry> released = new ArrayList<>();
+        private long sequence;
+
+        @Override
+        public void append(Collection<DataEvent<?>> events) {
+            events.forEach(event -> entries.add(new OutboxEntry(++sequence, event)));
+        }
+
+        @Override
+        public List<OutboxEntry> fetch(int limit) {
+            return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+        }
+
+        @Override
+        public void remove(List<OutboxEntry> removed) {
+            entries.removeAll(removed);
+        }
+
+        @Override
+        public void release(List<OutboxEntry> claimed) {
+            released.addAll(claimed);
+        }
+    }
+}
@@ -149,4 +149,56 @@ public class DefaultUnitOfWorkManagerTest {
         assertThat(counter).hasValue(1);
         assertThat(picounter).hasValue(0);
     }
+
+    @Test
+    public void testUnitOfWorkInterceptWhileEnding() {
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+
+        final StringBuilder order = new StringBuilder();
+
+        BaseWorkUnit<StringBuilder> lowWork = new BaseWorkUnit<>(order, d -> d.append("low,"), null, WorkUnit.LOW_PRIORITY);
+        BaseWorkUnit<StringBuilder> lateWork = new BaseWorkUnit<>(order, d -> d.append("late,"), null, WorkUnit.HIGH_PRIORITY + 1);
+        BaseWorkUnit<StringBuilder> highWork = new BaseWorkUnit<>(order, d -> {
+            d.append("high,");
+            unit.intercept(lateWork);
+        }, null, WorkUnit.HIGH_PRIORITY);
+        unit.start();
+        unit.intercept(lowWork);
+        unit.intercept(highWork);
+        unit.end();
+
+        // work intercepted while ending is performed according to its priority
+        assertThat(order).hasToString("high,late,low,");
+    }
+
+    @Test
+    public void testUnitOfWorkAfterEnd() {
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+
+        final StringBuilder order = new StringBuilder();
+
+        unit.start();
+        unit.afterEnd(() -> order.append("after,"));
+        unit.intercept(new BaseWorkUnit<>(order, d -> d.append("work,"), null, WorkUnit.LOW_PRIORITY));
+        assertThat(order).isEmpty();
+        unit.end();
+
+        assertThat(order).hasToString("work,after,");
+    }
+
+    @Test
+    public void testUnitOfWorkAfterEndOnAbort() {
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+
+        final AtomicInteger counter = new AtomicInteger(0);
+
+        unit.start();
+        unit.afterEnd(counter::incrementAndGet);
+        unit.abort();
+
+        assertThat(counter).hasValue(0);
+    }
 }
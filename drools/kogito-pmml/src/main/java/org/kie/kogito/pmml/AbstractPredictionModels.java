@@ -18,9 +18,13 @@
  */
 package org.kie.kogito.pmml;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import org.kie.kogito.prediction.PredictionModel;
 import org.kie.kogito.prediction.PredictionModelNotFoundException;
 import org.kie.kogito.prediction.PredictionModels;
 import org.kie.pmml.api.runtime.PMMLRuntime;
@@ -48,8 +52,12 @@ public abstract class AbstractPredictionModels implements PredictionModels {
         functionReference.set(function);
     }
 
+    // prediction models are stateless, caching them lets every request share the same compiled model classloader
+    private final Map<List<String>, PredictionModel> predictionModels = new ConcurrentHashMap<>();
+
     public org.kie.kogito.prediction.PredictionModel getPredictionModel(String fileName, java.lang.String modelName) {
-        return new org.kie.kogito.pmml.PmmlPredictionModel(getPMMLRuntime(fileName), fileName, modelName);
+        return predictionModels.computeIfAbsent(List.of(fileName, modelName),
+                k -> new org.kie.kogito.pmml.PmmlPredictionModel(getPMMLRuntime(fileName), fileName, modelName));
     }
 
     private org.kie.pmml.api.runtime.PMMLRuntime getPMMLRuntime(String fileName) {
@@ -18,7 +18,10 @@
  */
 package org.kie.kogito.pmml;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.kie.api.pmml.PMML4Result;
 import org.kie.api.pmml.PMMLRequestData;
@@ -36,6 +39,8 @@ public class PmmlPredictionModel implements PredictionModel {
 
     private final PMMLRuntime pmmlRuntime;
     private final PMMLModel pmmlModel;
+    // compiled model classes are loaded once per parent classloader and reused by every evaluation
+    private final Map<ClassLoader, KieMemoryCompiler.MemoryCompilerClassLoader> memoryCompilerClassLoaders = new ConcurrentHashMap<>();
 
     public PmmlPredictionModel(PMMLRuntime pmmlRuntime, String fileName, String modelName) {
         this.pmmlRuntime = pmmlRuntime;
@@ -49,10 +54,7 @@ public class PmmlPredictionModel implements PredictionModel {
 
     @Override
     public PMMLRuntimeContext newContext(Map<String, Object> variables) {
-        final PMMLRequestData pmmlRequestData = getPMMLRequestData(pmmlModel.getName(), variables);
-        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
-                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
-        return new PMMLRuntimeContextImpl(pmmlRequestData, pmmlModel.getFileName(), memoryCompilerClassLoader);
+        return newContext(variables, getMemoryCompilerClassLoader());
     }
 
     @Override
@@ -60,9 +62,32 @@ public class PmmlPredictionModel implements PredictionModel {
         return pmmlRuntime.evaluate(pmmlModel.getName(), context);
     }
 
+    @Override
+    public List<PMML4Result> evaluateAll(List<Map<String, Object>> inputSets) {
+        final KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader = getMemoryCompilerClassLoader();
+        final List<PMML4Result> toReturn = new ArrayList<>(inputSets.size());
+        for (Map<String, Object> inputSet : inputSets) {
+            toReturn.add(evaluateAll(newContext(inputSet, memoryCompilerClassLoader)));
+        }
+        return toReturn;
+    }
+
     @Override
     public PMMLModel getPMMLModel() {
         return pmmlModel;
     }
 
+    private PMMLRuntimeContext newContext(Map<String, Object> variables, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        final PMMLRequestData pmmlRequestData = getPMMLRequestData(pmmlModel.getName(), variables);
+        return new PMMLRuntimeContextImpl(pmmlRequestData, pmmlModel.getFileName(), memoryCompilerClassLoader);
+    }
+
+    private KieMemoryCompiler.MemoryCompilerClassLoader getMemoryCompilerClassLoader() {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (parent == null) {
+            parent = PmmlPredictionModel.class.getClassLoader();
+        }
+        return memoryCompilerClassLoaders.computeIfAbsent(parent, KieMemoryCompiler.MemoryCompilerClassLoader::new);
+    }
+
 }
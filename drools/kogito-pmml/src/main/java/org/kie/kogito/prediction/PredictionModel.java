@@ -18,7 +18,9 @@
  */
 package org.kie.kogito.prediction;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.kie.api.pmml.PMML4Result;
 import org.kie.pmml.api.models.PMMLModel;
@@ -30,6 +32,16 @@ public interface PredictionModel {
 
     PMML4Result evaluateAll(PMMLRuntimeContext context);
 
+    /**
+     * Evaluates the model once for every input set
+     *
+     * @param inputSets input sets to be evaluated
+     * @return results in the same order as the given input sets
+     */
+    default List<PMML4Result> evaluateAll(List<Map<String, Object>> inputSets) {
+        return inputSets.stream().map(inputSet -> evaluateAll(newContext(inputSet))).collect(Collectors.toList());
+    }
+
     PMMLModel getPMMLModel();
 
 }
@@ -84,6 +84,20 @@ class PmmlPredictionModelTest {
         assertThat(pmmlPredictionModel.evaluateAll(context)).isEqualTo(PMML_4_RESULT);
     }
 
+    @Test
+    void newContextSharesClassLoader() {
+        PMMLRuntimeContext first = pmmlPredictionModel.newContext(getParameters());
+        PMMLRuntimeContext second = pmmlPredictionModel.newContext(getParameters());
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getMemoryClassLoader()).isNotNull().isSameAs(second.getMemoryClassLoader());
+    }
+
+    @Test
+    void evaluateAllInputSets() {
+        List<PMML4Result> results = pmmlPredictionModel.evaluateAll(List.of(getParameters(), getParameters()));
+        assertThat(results).containsExactly(PMML_4_RESULT, PMML_4_RESULT);
+    }
+
     @Test
     void getKiePMMLModel() {
         assertThat(pmmlPredictionModel.getPMMLModel()).isEqualTo(PMML_MODEL);
@@ -22,16 +22,17 @@ import io.vertx.mutiny.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.mutiny.core.Vertx;
 import org.kogito.workitem.rest.RestWorkItemHandler;
+import org.kogito.workitem.rest.RestWorkItemHandlerConfig;
 import static org.kogito.workitem.rest.RestWorkItemHandlerUtils.sslWebClientOptions;
 
 public class xxxRestWorkItemHandler extends RestWorkItemHandler {
 
     public xxxRestWorkItemHandler() {
-        this(Vertx.vertx(), sslWebClientOptions());
+        this(Vertx.vertx(), sslWebClientOptions(), new RestWorkItemHandlerConfig());
     }
 
-    public xxxRestWorkItemHandler(Vertx vertx, WebClientOptions sslOptions) {
-    	super(WebClient.create(vertx), WebClient.create(vertx, sslOptions));
+    public xxxRestWorkItemHandler(Vertx vertx, WebClientOptions sslOptions, RestWorkItemHandlerConfig config) {
+    	super(vertx, WebClient.create(vertx), WebClient.create(vertx, sslOptions), config);
     }
     
     @Override
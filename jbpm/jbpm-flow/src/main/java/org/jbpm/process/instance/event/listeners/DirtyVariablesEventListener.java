@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.process.instance.event.listeners;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.jbpm.process.instance.ProcessInstance;
+import org.jbpm.process.instance.context.variable.VariableScopeInstance;
+import org.kie.api.event.process.ProcessVariableChangedEvent;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+import org.kie.kogito.internal.process.event.KogitoProcessEventSupport;
+
+/**
+ * Keeps track of the top level variables of a process instance that changed since they were last stored, so
+ * persistence can write only those. Changes are recorded from variable change events, hence a variable is only
+ * considered changed when it is set through the process instance or, for listener aware values, when one of its
+ * properties is modified. Since values modified in place (POJOs, <code>JsonNode</code>, collections...) do not fire
+ * any event, {@link #changedVariables(ProcessInstance)} also returns every variable whose value is not immutable.
+ * Variables of composite node scopes are ignored, they belong to node instances, which are always stored in full.
+ * <p>
+ * The listener is only needed by delta persistence, which registers it through {@link #register(KogitoProcessEventSupport)}.
+ */
+public class DirtyVariablesEventListener extends DefaultKogitoProcessEventListener {
+
+    public static final DirtyVariablesEventListener INSTANCE = new DirtyVariablesEventListener();
+
+    private static final String DIRTY_VARIABLES = DirtyVariablesEventListener.class.getName() + ".dirtyVariables";
+
+    private DirtyVariablesEventListener() {
+    }
+
+    /**
+     * Registers the listener, unless already registered, on the given event support
+     */
+    public static void register(KogitoProcessEventSupport eventSupport) {
+        // event support ignores listeners already registered
+        eventSupport.addEventListener(INSTANCE);
+    }
+
+    @Override
+    public void afterVariableChanged(ProcessVariableChangedEvent event) {
+        String variableId = event.getVariableId();
+        if (variableId.indexOf(':') >= 0) {
+            return;
+        }
+        ProcessInstance processInstance = (ProcessInstance) event.getProcessInstance();
+        markDirty(processInstance, variableName(processInstance, variableId));
+    }
+
+    /**
+     * Returns the top level variables changed since the last call to {@link #clear(ProcessInstance)}
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<String> dirtyVariables(ProcessInstance processInstance) {
+        Set<String> dirtyVariables = (Set<String>) processInstance.getMetaData().get(DIRTY_VARIABLES);
+        return dirtyVariables == null ? Collections.emptySet() : Collections.unmodifiableSet(dirtyVariables);
+    }
+
+    /**
+     * Returns the top level variables that must be written to store the current state of the process instance:
+     * the {@link #dirtyVariables(ProcessInstance) dirty ones} plus those whose value might have been modified in place.
+     */
+    public static Set<String> changedVariables(ProcessInstance processInstance) {
+        Set<String> changedVariables = new HashSet<>(dirtyVariables(processInstance));
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) processInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
+        if (variableScopeInstance != null) {
+            for (Map.Entry<String, Object> variable : variableScopeInstance.getVariables().entrySet()) {
+                if (!isImmutable(variable.getValue())) {
+                    changedVariables.add(variable.getKey());
+                }
+            }
+        }
+        return changedVariables;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void markDirty(ProcessInstance processInstance, String name) {
+        Set<String> dirtyVariables = (Set<String>) processInstance.getMetaData().get(DIRTY_VARIABLES);
+        if (dirtyVariables == null) {
+            dirtyVariables = new HashSet<>();
+            processInstance.setMetaData(DIRTY_VARIABLES, dirtyVariables);
+        }
+        dirtyVariables.add(name);
+    }
+
+    public static void clear(ProcessInstance processInstance) {
+        processInstance.getMetaData().remove(DIRTY_VARIABLES);
+    }
+
+    // only values that cannot change without being set again are proven unchanged when no event was fired
+    private static boolean isImmutable(Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof Enum || value instanceof UUID
+                || (value instanceof TemporalAccessor && value.getClass().getName().startsWith("java.time."));
+    }
+
+    // changes of a property of a listener aware value are notified as variable.property
+    private static String variableName(ProcessInstance processInstance, String variableId) {
+        int index = variableId.indexOf('.');
+        if (index < 0) {
+            return variableId;
+        }
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) processInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
+        return variableScopeInstance != null && variableScopeInstance.getVariables().containsKey(variableId) ? variableId : variableId.substring(0, index);
+    }
+}
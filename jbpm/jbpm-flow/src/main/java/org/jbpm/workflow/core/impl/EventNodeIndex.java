@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.workflow.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.core.event.ExpressionEventTypeFilter;
+import org.jbpm.process.core.event.NonAcceptingEventTypeFilter;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventNodeInterface;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.kie.api.definition.process.Node;
+
+/**
+ * Immutable index of the top level nodes of a process that might accept a signal, by event type.
+ * Nodes whose accepted event types can only be known at runtime (expressions, custom filters) are candidates for every type.
+ */
+public class EventNodeIndex {
+
+    private static final Node[] EMPTY = new Node[0];
+
+    private final Map<String, Node[]> nodesByType;
+    private final Node[] dynamicNodes;
+    private final Map<EventSubProcessNode, Set<String>> staticEvents = new IdentityHashMap<>();
+    private final Map<EventSubProcessNode, List<String>> dynamicEvents = new IdentityHashMap<>();
+
+    public EventNodeIndex(WorkflowProcessImpl process) {
+        Node[] nodes = process.getNodes();
+        List<Node> eventNodes = new ArrayList<>();
+        List<Set<String>> eventNodeTypes = new ArrayList<>();
+        Set<String> types = new HashSet<>();
+        for (Node node : nodes) {
+            if (node instanceof EventNodeInterface) {
+                Set<String> nodeTypes = acceptedTypes(node);
+                eventNodes.add(node);
+                eventNodeTypes.add(nodeTypes);
+                if (nodeTypes != null) {
+                    types.addAll(nodeTypes);
+                }
+            }
+            if (node instanceof EventSubProcessNode) {
+                indexEvents(process, (EventSubProcessNode) node);
+            }
+        }
+        Map<String, Node[]> byType = new HashMap<>();
+        for (String type : types) {
+            byType.put(type, select(eventNodes, eventNodeTypes, type));
+        }
+        this.nodesByType = Collections.unmodifiableMap(byType);
+        this.dynamicNodes = select(eventNodes, eventNodeTypes, null);
+    }
+
+    /**
+     * Returns the nodes, in definition order, that might accept the given event type
+     */
+    public Node[] getNodes(String type) {
+        return nodesByType.getOrDefault(type, dynamicNodes);
+    }
+
+    /**
+     * Returns the events of the event subprocess that do not need to be resolved against the process instance
+     */
+    public Set<String> getStaticEvents(EventSubProcessNode node) {
+        return staticEvents.getOrDefault(node, Collections.emptySet());
+    }
+
+    /**
+     * Returns the events of the event subprocess that need to be resolved against the process instance
+     */
+    public List<String> getDynamicEvents(EventSubProcessNode node) {
+        return dynamicEvents.getOrDefault(node, Collections.emptyList());
+    }
+
+    private void indexEvents(WorkflowProcessImpl process, EventSubProcessNode node) {
+        Set<String> nodeStaticEvents = new HashSet<>();
+        List<String> nodeDynamicEvents = new ArrayList<>();
+        for (String event : node.getEvents()) {
+            if (isStatic(event) && process.resolveContext(VariableScope.VARIABLE_SCOPE, event) == null) {
+                nodeStaticEvents.add(event);
+            } else {
+                nodeDynamicEvents.add(event);
+            }
+        }
+        staticEvents.put(node, nodeStaticEvents);
+        dynamicEvents.put(node, nodeDynamicEvents);
+    }
+
+    private static Node[] select(List<Node> nodes, List<Set<String>> nodeTypes, String type) {
+        List<Node> selected = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Set<String> types = nodeTypes.get(i);
+            if (types == null || type != null && types.contains(type)) {
+                selected.add(nodes.get(i));
+            }
+        }
+        return selected.isEmpty() ? EMPTY : selected.toArray(EMPTY);
+    }
+
+    /**
+     * Returns the event types the node might accept or null if they cannot be known before the event is received.
+     * It mirrors the acceptsEvent implementations of the known node classes, any other implementation is considered dynamic.
+     */
+    private static Set<String> acceptedTypes(Node node) {
+        Class<?> declaringClass = acceptsEventDeclaringClass(node);
+        if (declaringClass == EventNode.class) {
+            // every filter must accept the event
+            List<EventFilter> filters = ((EventNode) node).getEventFilters();
+            for (EventFilter filter : filters) {
+                if (filter.getClass() == NonAcceptingEventTypeFilter.class) {
+                    return Collections.emptySet();
+                }
+                Set<String> types = acceptedTypes(filter);
+                if (types != null) {
+                    return types;
+                }
+            }
+            return null;
+        } else if (declaringClass == BoundaryEventNode.class) {
+            // any filter might accept the event
+            List<EventFilter> filters = ((BoundaryEventNode) node).getEventFilters();
+            return filters.isEmpty() ? null : union(filters);
+        } else if (declaringClass == EventSubProcessNode.class) {
+            Set<String> types = union(((EventSubProcessNode) node).getEventTypeFilters());
+            Set<String> nestedTypes = types == null ? null : acceptedTypes((CompositeNode) node);
+            if (nestedTypes == null) {
+                return null;
+            }
+            types.addAll(nestedTypes);
+            return types;
+        } else if (declaringClass == CompositeNode.class) {
+            return acceptedTypes((CompositeNode) node);
+        }
+        return null;
+    }
+
+    private static Set<String> acceptedTypes(CompositeNode node) {
+        Set<String> types = new LinkedHashSet<>();
+        for (Node nested : node.internalGetNodes()) {
+            if (nested instanceof EventNodeInterface) {
+                Set<String> nestedTypes = acceptedTypes(nested);
+                if (nestedTypes == null) {
+                    return null;
+                }
+                types.addAll(nestedTypes);
+            }
+        }
+        return types;
+    }
+
+    private static Set<String> union(List<? extends EventFilter> filters) {
+        Set<String> types = new LinkedHashSet<>();
+        for (EventFilter filter : filters) {
+            Set<String> filterTypes = acceptedTypes(filter);
+            if (filterTypes == null) {
+                return null;
+            }
+            types.addAll(filterTypes);
+        }
+        return types;
+    }
+
+    private static Set<String> acceptedTypes(EventFilter filter) {
+        if (filter.getClass() == NonAcceptingEventTypeFilter.class) {
+            return Collections.emptySet();
+        }
+        if (filter.getClass() == EventTypeFilter.class) {
+            String type = ((EventTypeFilter) filter).getType();
+            if (type == null) {
+                return Collections.emptySet();
+            }
+            return isStatic(type) ? new LinkedHashSet<>(List.of(type)) : null;
+        }
+        if (filter.getClass() == ExpressionEventTypeFilter.class) {
+            String type = ((EventTypeFilter) filter).getType();
+            return type == null ? null : new LinkedHashSet<>(List.of(type));
+        }
+        return null;
+    }
+
+    private static boolean isStatic(String type) {
+        return !type.contains("#{");
+    }
+
+    private static Class<?> acceptsEventDeclaringClass(Node node) {
+        try {
+            return node.getClass().getMethod("acceptsEvent", String.class, Object.class, Function.class).getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
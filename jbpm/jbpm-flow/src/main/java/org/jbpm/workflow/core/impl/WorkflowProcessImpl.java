@@ -85,6 +85,8 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
 
     private CorrelationManager correlationManager = new CorrelationManager();
 
+    private transient volatile EventNodeIndex eventNodeIndex;
+
     public CorrelationManager getCorrelationManager() {
         return correlationManager;
     }
@@ -129,12 +131,26 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     public void removeNode(final org.kie.api.definition.process.Node node) {
         nodeContainer.removeNode(node);
         ((Node) node).setParentContainer(null);
+        eventNodeIndex = null;
     }
 
     @Override
     public void addNode(final org.kie.api.definition.process.Node node) {
         nodeContainer.addNode(node);
         ((Node) node).setParentContainer(this);
+        eventNodeIndex = null;
+    }
+
+    /**
+     * Returns the index of the top level nodes by the event types they accept, built the first time it is requested
+     */
+    public EventNodeIndex getEventNodeIndex() {
+        EventNodeIndex index = eventNodeIndex;
+        if (index == null) {
+            index = new EventNodeIndex(this);
+            eventNodeIndex = index;
+        }
+        return index;
     }
 
     @Override
@@ -35,8 +35,12 @@ import org.kie.kogito.jobs.ExpirationTime;
 import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.jobs.descriptors.ProcessInstanceJobDescription;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.impl.AsyncContinuationExecutor;
+import org.kie.kogito.process.impl.AsyncContinuations;
 import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
 import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWork;
 import org.kie.kogito.uow.WorkUnit;
 
 import static org.jbpm.ruleflow.core.Metadata.ASYNC_WAITING;
@@ -64,6 +68,9 @@ public class AsyncEventNodeInstance extends EventNodeInstance {
             if (event instanceof TimerInstance) {
                 TimerInstance timerInstance = (TimerInstance) event;
                 if (Objects.equals(getJobId(), timerInstance.getId())) {
+                    if (AsyncContinuations.LOCAL_CONTINUATION_TIMER_ID.equals(timerInstance.getTimerId())) {
+                        cancelRecoveryJob();
+                    }
                     triggerCompleted();
                 }
             }
@@ -94,26 +101,80 @@ public class AsyncEventNodeInstance extends EventNodeInstance {
 
         final InternalProcessRuntime processRuntime = (InternalProcessRuntime) getProcessInstance().getKnowledgeRuntime().getProcessRuntime();
         setJobId(getStringId());
-        //Deffer the timer scheduling to the end of current UnitOfWork execution chain
-        processRuntime.getUnitOfWorkManager().currentUnitOfWork().intercept(
-                new BaseWorkUnit<>(this, instance -> {
-                    ExpirationTime expirationTime = ExactExpirationTime.of(ZonedDateTime.now().plus(1, ChronoUnit.MILLIS));
-                    ProcessInstanceJobDescription jobDescription =
-                            ProcessInstanceJobDescription.newProcessInstanceJobDescriptionBuilder()
-                                    .id(getJobId())
-                                    .timerId("-1")
-                                    .expirationTime(expirationTime)
-                                    .processInstanceId(instance.getProcessInstance().getStringId())
-                                    .rootProcessInstanceId(instance.getProcessInstance().getRootProcessInstanceId())
-                                    .processId(instance.getProcessInstance().getProcessId())
-                                    .rootProcessId(instance.getProcessInstance().getRootProcessId())
-                                    .nodeInstanceId(Optional.ofNullable(from).map(KogitoNodeInstance::getStringId).orElse(null))
-                                    .build();
-                    JobsService jobService = processRuntime.getJobsService();
-                    String jobId = jobService.scheduleJob(jobDescription);
-                    setJobId(jobId);
-                }, i -> {
-                }, WorkUnit.LOW_PRIORITY));
+        UnitOfWork unitOfWork = processRuntime.getUnitOfWorkManager().currentUnitOfWork();
+        Optional<AsyncContinuationExecutor> executor = asyncContinuationExecutor();
+        if (executor.isPresent() && processRuntime.getApplication() != null) {
+            executeLocally(processRuntime, unitOfWork, executor.get(), from);
+        } else {
+            //Deffer the timer scheduling to the end of current UnitOfWork execution chain
+            unitOfWork.intercept(new BaseWorkUnit<>(this, instance -> scheduleJob(processRuntime, 1, from), i -> {
+            }, WorkUnit.LOW_PRIORITY));
+        }
+    }
+
+    /**
+     * Runs the continuation on the local executor once the current unit of work has ended, so the node instance
+     * waiting for it is already stored. Only when a recovery delay is configured (it is opt-in), a delayed recovery job
+     * triggers the continuation if it is never executed locally.
+     */
+    private void executeLocally(InternalProcessRuntime processRuntime, UnitOfWork unitOfWork, AsyncContinuationExecutor executor, KogitoNodeInstance from) {
+        long recoveryDelay = executor.recoveryDelayMillis();
+        boolean recoveryEnabled = recoveryDelay > 0;
+        if (recoveryEnabled) {
+            unitOfWork.intercept(new BaseWorkUnit<>(this, instance -> scheduleJob(processRuntime, recoveryDelay, from), i -> {
+            }, WorkUnit.LOW_PRIORITY));
+        }
+        String processId = getProcessInstance().getProcessId();
+        String processInstanceId = getProcessInstance().getStringId();
+        String continuationId = getJobId();
+        // built now, the node instance must not be changed once its unit of work has ended
+        ProcessInstanceJobDescription immediateJob = jobDescription(1, from);
+        unitOfWork.afterEnd(() -> {
+            if (!executor.submit(() -> AsyncContinuations.trigger(processRuntime.getApplication(), processId, processInstanceId, continuationId))) {
+                // saturated, the recovery job (if any) is replaced by an immediate one with the same id, so the stored job id is still valid
+                UnitOfWorkExecutor.executeInUnitOfWork(processRuntime.getUnitOfWorkManager(), () -> {
+                    if (recoveryEnabled) {
+                        processRuntime.getJobsService().cancelJob(continuationId);
+                    }
+                    return processRuntime.getJobsService().scheduleJob(immediateJob);
+                });
+            }
+        });
+    }
+
+    protected Optional<AsyncContinuationExecutor> asyncContinuationExecutor() {
+        return AsyncContinuations.executor(((InternalProcessRuntime) getProcessInstance().getKnowledgeRuntime().getProcessRuntime()).getApplication());
+    }
+
+    private void cancelRecoveryJob() {
+        Optional<AsyncContinuationExecutor> executor = asyncContinuationExecutor();
+        if (executor.isPresent() && executor.get().recoveryDelayMillis() > 0) {
+            InternalProcessRuntime processRuntime = (InternalProcessRuntime) getProcessInstance().getKnowledgeRuntime().getProcessRuntime();
+            String recoveryJobId = getJobId();
+            processRuntime.getUnitOfWorkManager().currentUnitOfWork().intercept(
+                    new BaseWorkUnit<>(this, instance -> processRuntime.getJobsService().cancelJob(recoveryJobId), i -> {
+                    }, WorkUnit.LOW_PRIORITY));
+        }
+    }
+
+    private void scheduleJob(InternalProcessRuntime processRuntime, long delayMillis, KogitoNodeInstance from) {
+        JobsService jobService = processRuntime.getJobsService();
+        String jobId = jobService.scheduleJob(jobDescription(delayMillis, from));
+        setJobId(jobId);
+    }
+
+    private ProcessInstanceJobDescription jobDescription(long delayMillis, KogitoNodeInstance from) {
+        ExpirationTime expirationTime = ExactExpirationTime.of(ZonedDateTime.now().plus(delayMillis, ChronoUnit.MILLIS));
+        return ProcessInstanceJobDescription.newProcessInstanceJobDescriptionBuilder()
+                .id(getJobId())
+                .timerId("-1")
+                .expirationTime(expirationTime)
+                .processInstanceId(getProcessInstance().getStringId())
+                .rootProcessInstanceId(getProcessInstance().getRootProcessInstanceId())
+                .processId(getProcessInstance().getProcessId())
+                .rootProcessId(getProcessInstance().getRootProcessId())
+                .nodeInstanceId(Optional.ofNullable(from).map(KogitoNodeInstance::getStringId).orElse(null))
+                .build();
     }
 
     private void addAsyncStatus() {
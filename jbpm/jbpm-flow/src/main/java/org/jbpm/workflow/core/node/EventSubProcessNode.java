@@ -45,6 +45,10 @@ public class EventSubProcessNode extends CompositeContextNode {
         return events;
     }
 
+    public List<EventTypeFilter> getEventTypeFilters() {
+        return eventTypeFilters;
+    }
+
     public boolean isKeepActive() {
         return keepActive;
     }
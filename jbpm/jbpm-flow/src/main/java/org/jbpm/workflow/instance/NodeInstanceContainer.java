@@ -63,6 +63,22 @@ public interface NodeInstanceContainer extends KogitoNodeInstanceContainer {
 
     NodeInstance getNodeInstance(String nodeInstanceId, boolean recursive);
 
+    default NodeInstance getNodeInstanceByNodeId(WorkflowElementIdentifier nodeId, boolean recursive) {
+        for (NodeInstance nodeInstance : getNodeInstances(recursive)) {
+            if (nodeInstance.getNodeId().equals(nodeId)) {
+                return nodeInstance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Invoked when the id or node id of a node instance already added to this container changes
+     * (e.g. on migration), so that any lookup structure keyed by them can be kept up to date.
+     */
+    default void nodeInstanceIdentifiersChanged(NodeInstance nodeInstance, String oldId, WorkflowElementIdentifier oldNodeId) {
+    }
+
     default NodeInstance getNodeByPredicate(NodeContainer nodeContainer, Predicate<KogitoNode> nodeTest) {
         for (Node node : nodeContainer.getNodes()) {
             if (nodeTest.test((KogitoNode) node)) {
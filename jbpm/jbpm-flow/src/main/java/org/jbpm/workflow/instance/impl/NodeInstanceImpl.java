@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 
@@ -100,7 +101,11 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
     protected transient Map<String, Object> dynamicParameters;
 
     public void setId(final String id) {
+        String oldId = this.id;
         this.id = id;
+        if (nodeInstanceContainer != null && !Objects.equals(oldId, id)) {
+            nodeInstanceContainer.nodeInstanceIdentifiersChanged(this, oldId, nodeId);
+        }
     }
 
     @Override
@@ -119,7 +124,11 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
     }
 
     public void setNodeId(WorkflowElementIdentifier nodeId) {
+        WorkflowElementIdentifier oldNodeId = this.nodeId;
         this.nodeId = nodeId;
+        if (nodeInstanceContainer != null && !Objects.equals(oldNodeId, nodeId)) {
+            nodeInstanceContainer.nodeInstanceIdentifiersChanged(this, id, oldNodeId);
+        }
     }
 
     @Override
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.workflow.instance.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jbpm.workflow.instance.NodeInstance;
+import org.jbpm.workflow.instance.NodeInstanceContainer;
+import org.kie.api.definition.process.WorkflowElementIdentifier;
+
+/**
+ * Hash index over the direct node instances of a {@link NodeInstanceContainer}, by node instance id and by node id.
+ * Nested containers are tracked separately so recursive lookups can descend into them without
+ * materializing the whole node instance tree.
+ */
+public class NodeInstanceIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, NodeInstance> byId = new HashMap<>();
+    private final Map<WorkflowElementIdentifier, Set<NodeInstance>> byNodeId = new HashMap<>();
+    private final Set<NodeInstanceContainer> containers = new LinkedHashSet<>();
+
+    public void add(NodeInstance nodeInstance) {
+        index(nodeInstance, nodeInstance.getStringId(), nodeInstance.getNodeId());
+        if (nodeInstance instanceof NodeInstanceContainer) {
+            containers.add((NodeInstanceContainer) nodeInstance);
+        }
+    }
+
+    public void remove(NodeInstance nodeInstance) {
+        unindex(nodeInstance, nodeInstance.getStringId(), nodeInstance.getNodeId());
+        if (nodeInstance instanceof NodeInstanceContainer) {
+            containers.remove(nodeInstance);
+        }
+    }
+
+    public void update(NodeInstance nodeInstance, String oldId, WorkflowElementIdentifier oldNodeId) {
+        if (oldId == null || byId.get(oldId) != nodeInstance) {
+            // not indexed yet, it will be on add
+            return;
+        }
+        unindex(nodeInstance, oldId, oldNodeId);
+        index(nodeInstance, nodeInstance.getStringId(), nodeInstance.getNodeId());
+    }
+
+    public NodeInstance get(String nodeInstanceId, boolean recursive) {
+        NodeInstance nodeInstance = byId.get(nodeInstanceId);
+        if (nodeInstance == null && recursive) {
+            for (NodeInstanceContainer container : containers) {
+                nodeInstance = container.getNodeInstance(nodeInstanceId, true);
+                if (nodeInstance != null) {
+                    break;
+                }
+            }
+        }
+        return nodeInstance;
+    }
+
+    public List<NodeInstance> getByNodeId(WorkflowElementIdentifier nodeId) {
+        Set<NodeInstance> nodeInstances = byNodeId.get(nodeId);
+        return nodeInstances == null ? Collections.emptyList() : new ArrayList<>(nodeInstances);
+    }
+
+    public NodeInstance getFirstByNodeId(WorkflowElementIdentifier nodeId, boolean recursive) {
+        Set<NodeInstance> nodeInstances = byNodeId.get(nodeId);
+        if (nodeInstances != null && !nodeInstances.isEmpty()) {
+            return nodeInstances.iterator().next();
+        }
+        if (recursive) {
+            for (NodeInstanceContainer container : containers) {
+                NodeInstance nodeInstance = container.getNodeInstanceByNodeId(nodeId, true);
+                if (nodeInstance != null) {
+                    return nodeInstance;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void index(NodeInstance nodeInstance, String id, WorkflowElementIdentifier nodeId) {
+        if (id != null) {
+            byId.put(id, nodeInstance);
+        }
+        if (nodeId != null) {
+            byNodeId.computeIfAbsent(nodeId, k -> new LinkedHashSet<>()).add(nodeInstance);
+        }
+    }
+
+    private void unindex(NodeInstance nodeInstance, String id, WorkflowElementIdentifier nodeId) {
+        if (id != null) {
+            byId.remove(id, nodeInstance);
+        }
+        if (nodeId != null) {
+            Set<NodeInstance> nodeInstances = byNodeId.get(nodeId);
+            if (nodeInstances != null) {
+                nodeInstances.remove(nodeInstance);
+                if (nodeInstances.isEmpty()) {
+                    byNodeId.remove(nodeId);
+                }
+            }
+        }
+    }
+}
@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -57,7 +56,9 @@ import org.jbpm.ruleflow.core.WorkflowElementIdentifierFactory;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.DroolsAction;
 import org.jbpm.workflow.core.Node;
+import org.jbpm.workflow.core.impl.EventNodeIndex;
 import org.jbpm.workflow.core.impl.NodeImpl;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 import org.jbpm.workflow.core.node.BoundaryEventNode;
 import org.jbpm.workflow.core.node.CompositeContextNode;
 import org.jbpm.workflow.core.node.CompositeNode;
@@ -133,6 +134,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     private static final Logger logger = LoggerFactory.getLogger(WorkflowProcessInstanceImpl.class);
 
     private final List<NodeInstance> nodeInstances = new ArrayList<>();
+    private final NodeInstanceIndex nodeInstanceIndex = new NodeInstanceIndex();
 
     private Map<String, List<KogitoEventListener>> eventListeners = new HashMap<>();
     private Map<String, List<KogitoEventListener>> externalEventListeners = new HashMap<>();
@@ -181,6 +183,12 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
             ((NodeInstanceImpl) nodeInstance).setId(UUID.randomUUID().toString());
         }
         this.nodeInstances.add(nodeInstance);
+        this.nodeInstanceIndex.add(nodeInstance);
+    }
+
+    @Override
+    public void nodeInstanceIdentifiersChanged(NodeInstance nodeInstance, String oldId, WorkflowElementIdentifier oldNodeId) {
+        this.nodeInstanceIndex.update(nodeInstance, oldId, oldNodeId);
     }
 
     @Override
@@ -209,6 +217,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                     getKnowledgeRuntime().getFactHandle(nodeInstance));
         }
         this.nodeInstances.remove(nodeInstance);
+        this.nodeInstanceIndex.remove(nodeInstance);
     }
 
     @Override
@@ -258,10 +267,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     @Override
     public NodeInstance getNodeInstance(String nodeInstanceId, boolean recursive) {
-        return getNodeInstances(recursive).stream()
-                .filter(nodeInstance -> Objects.equals(nodeInstance.getStringId(), nodeInstanceId))
-                .findFirst()
-                .orElse(null);
+        return nodeInstanceId == null ? null : nodeInstanceIndex.get(nodeInstanceId, recursive);
     }
 
     public List<String> getActiveNodeIds() {
@@ -281,8 +287,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     @Override
     public NodeInstance getFirstNodeInstance(WorkflowElementIdentifier nodeId) {
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId().equals(nodeId) && nodeInstance.getLevel() == getCurrentLevel()) {
+        for (final NodeInstance nodeInstance : nodeInstanceIndex.getByNodeId(nodeId)) {
+            if (nodeInstance.getLevel() == getCurrentLevel()) {
                 return nodeInstance;
             }
         }
@@ -290,13 +296,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     }
 
     public List<NodeInstance> getNodeInstances(WorkflowElementIdentifier nodeId) {
-        List<NodeInstance> result = new ArrayList<>();
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId().equals(nodeId)) {
-                result.add(nodeInstance);
-            }
-        }
-        return result;
+        return nodeInstanceIndex.getByNodeId(nodeId);
     }
 
     public List<org.kie.api.runtime.process.NodeInstance> getNodeInstances(WorkflowElementIdentifier nodeId, final List<org.kie.api.runtime.process.NodeInstance> currentView) {
@@ -711,7 +711,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                     }
                 }
 
-                signal(this, (node) -> this.getNodeInstance(node), () -> this.getWorkflowProcess().getNodes(), type, event);
+                signal(this, (node) -> this.getNodeInstance(node), () -> getSignalCandidates(type), type, event);
 
                 if (((org.jbpm.workflow.core.WorkflowProcess) getWorkflowProcess()).isDynamic()) {
                     for (org.kie.api.definition.process.Node node : getWorkflowProcess().getNodes()) {
@@ -728,7 +728,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                             }
                             nodeInstance.trigger(null, Node.CONNECTION_DEFAULT_TYPE);
                         } else if (node instanceof CompositeNode) {
-                            Optional<NodeInstance> instance = this.nodeInstances.stream().filter(ni -> Objects.equals(ni.getNodeId(), node.getId())).findFirst();
+                            Optional<NodeInstance> instance = Optional.ofNullable(nodeInstanceIndex.getFirstByNodeId(node.getId(), false));
                             instance.ifPresent(n -> ((CompositeNodeInstance) n).signalEvent(type, event));
                         }
                     }
@@ -745,8 +745,12 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     private void signal(org.kie.api.runtime.process.NodeInstanceContainer container, Function<org.kie.api.definition.process.Node, org.kie.api.runtime.process.NodeInstance> nodeInstanceSupplier,
             Supplier<org.kie.api.definition.process.Node[]> resolveNodes, String type, Object event) {
 
+        org.kie.api.definition.process.Node[] nodes = resolveNodes.get();
+        if (nodes.length == 0) {
+            return;
+        }
         List<org.kie.api.runtime.process.NodeInstance> currentView = container.getNodeInstances().stream().map(NodeInstance.class::cast).collect(Collectors.toList());
-        for (org.kie.api.definition.process.Node node : resolveNodes.get()) {
+        for (org.kie.api.definition.process.Node node : nodes) {
             if (node instanceof EventNodeInterface && ((EventNodeInterface) node).acceptsEvent(type, event, getEventFilterResolver(container, node, currentView))) {
                 if (node instanceof BoundaryEventNode boundaryEventNode) {
                     WorkflowElementIdentifier id = WorkflowElementIdentifierFactory.fromExternalFormat(boundaryEventNode.getAttachedToNodeId());
@@ -758,7 +762,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                         eventNodeInstance.signalEvent(type, event, getEventFilterResolver(container, node, currentView));
                     }
                 } else {
-                    if (node instanceof EventSubProcessNode && (resolveVariables(((EventSubProcessNode) node).getEvents()).contains(type))) {
+                    if (node instanceof EventSubProcessNode && eventSubProcessAccepts((EventSubProcessNode) node, type)) {
                         EventSubProcessNodeInstance eventNodeInstance = (EventSubProcessNodeInstance) getNodeInstance(node);
                         eventNodeInstance.signalEvent(type, event);
                     } else {
@@ -774,6 +778,24 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
+    private org.kie.api.definition.process.Node[] getSignalCandidates(String type) {
+        EventNodeIndex index = getEventNodeIndex();
+        return index == null ? getWorkflowProcess().getNodes() : index.getNodes(type);
+    }
+
+    private boolean eventSubProcessAccepts(EventSubProcessNode node, String type) {
+        EventNodeIndex index = getEventNodeIndex();
+        if (index == null) {
+            return resolveVariables(node.getEvents()).contains(type);
+        }
+        return index.getStaticEvents(node).contains(type) || index.getDynamicEvents(node).stream().map(this::resolveVariable).map(Object::toString).anyMatch(type::equals);
+    }
+
+    private EventNodeIndex getEventNodeIndex() {
+        // dynamic processes might get nodes added while running, so they are always fully scanned
+        return getProcess() instanceof WorkflowProcessImpl && !((WorkflowProcessImpl) getProcess()).isDynamic() ? ((WorkflowProcessImpl) getProcess()).getEventNodeIndex() : null;
+    }
+
     public Function<String, Object> getEventFilterResolver(org.kie.api.runtime.process.NodeInstanceContainer container, org.kie.api.definition.process.Node node,
             List<org.kie.api.runtime.process.NodeInstance> currentView) {
         if (node instanceof DynamicNode) {
@@ -895,13 +917,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
+    @Override
     public NodeInstance getNodeInstanceByNodeId(WorkflowElementIdentifier nodeId, boolean recursive) {
-        for (NodeInstance nodeInstance : getNodeInstances(recursive)) {
-            if (nodeInstance.getNodeId().equals(nodeId)) {
-                return nodeInstance;
-            }
-        }
-        return null;
+        return nodeInstanceIndex.getFirstByNodeId(nodeId, recursive);
     }
 
     protected List<String> resolveVariables(List<String> events) {
@@ -196,6 +196,16 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
         }
     }
 
+    /**
+     * Handles the failure reported by a handler that completes its work item asynchronously,
+     * the same way an exception thrown by the handler on activation is handled.
+     */
+    public void workItemFailed(RuntimeException e) {
+        processWorkItemHandler(() -> {
+            throw e;
+        });
+    }
+
     protected void handleException(String exceptionName, Exception e) {
         getExceptionScopeInstance(exceptionName, e).handleException(exceptionName, getProcessContext(e));
     }
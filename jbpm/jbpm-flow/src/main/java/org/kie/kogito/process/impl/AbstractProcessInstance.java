@@ -561,7 +561,8 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
     public <R> R updateWorkItem(String id, Function<KogitoWorkItem, R> updater, Policy... policies) {
         syncWorkItems();
         R result = getProcessRuntime().getKogitoProcessRuntime().getKogitoWorkItemManager().updateWorkItem(id, updater, policies);
-        addToUnitOfWork(pi -> ((MutableProcessInstances<T>) process.instances()).update(pi.id(), pi));
+        // the updater might have moved the process instance on, for example into error
+        removeOnFinish();
         return result;
     }
 
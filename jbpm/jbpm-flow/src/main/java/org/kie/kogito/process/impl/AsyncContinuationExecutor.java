@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+/**
+ * Executes BPMN async continuations within the application, instead of scheduling an immediate job
+ * and waiting for the jobs service to call back.
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader}, see {@link AsyncContinuations#executor()}.
+ */
+public interface AsyncContinuationExecutor {
+
+    /**
+     * Submits the continuation, returning false if it cannot be accepted (e.g. the executor is saturated), in which case
+     * the continuation is scheduled through the jobs service as usual.
+     */
+    boolean submit(Runnable continuation);
+
+    /**
+     * Delay after which the jobs service triggers a continuation that was not executed locally, e.g. because the application
+     * stopped before running it. Non positive values disable the recovery job.
+     */
+    long recoveryDelayMillis();
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+import org.kie.kogito.Application;
+import org.kie.kogito.config.ConfigBean;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.jobs.impl.TriggerJobCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolution of the {@link AsyncContinuationExecutor} and execution of async continuations.
+ * <p>
+ * An executor registered through {@link ServiceLoader} takes precedence. Otherwise, when
+ * <code>kogito.async-continuation.local</code> is true, a {@link LocalAsyncContinuationExecutor} is built from
+ * <code>kogito.async-continuation.pool-size</code>, <code>kogito.async-continuation.queue-size</code> and
+ * <code>kogito.async-continuation.recovery-delay</code> (milliseconds), read through the application {@link ConfigBean}.
+ * <p>
+ * With a positive recovery delay, a recovery job is scheduled that long after every local continuation and cancelled once
+ * it runs, so continuations pending when the application stops are eventually executed by the jobs service. It is disabled
+ * by default, as it costs a job per continuation.
+ * <p>
+ * Local executors are closed along with their configuration, when the application stops.
+ */
+public final class AsyncContinuations {
+
+    /**
+     * Timer id of the timer instance signaled by continuations executed locally, so they can be told apart from the recovery job
+     */
+    public static final String LOCAL_CONTINUATION_TIMER_ID = "local-continuation";
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncContinuations.class);
+
+    // one local executor per application configuration
+    private static final Map<ConfigBean, AsyncContinuationExecutor> localExecutors = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private AsyncContinuations() {
+    }
+
+    public static Optional<AsyncContinuationExecutor> executor(Application application) {
+        if (Holder.EXECUTOR.isPresent()) {
+            return Holder.EXECUTOR;
+        }
+        ConfigBean config = application == null || application.config() == null ? null : application.config().get(ConfigBean.class);
+        if (config == null || !config.asyncContinuationLocal()) {
+            return Optional.empty();
+        }
+        return Optional.of(localExecutors.computeIfAbsent(config, AsyncContinuations::newLocalExecutor));
+    }
+
+    private static AsyncContinuationExecutor newLocalExecutor(ConfigBean config) {
+        LocalAsyncContinuationExecutor executor =
+                new LocalAsyncContinuationExecutor(config.asyncContinuationPoolSize(), config.asyncContinuationQueueSize(), config.asyncContinuationRecoveryDelay());
+        config.closeOnShutdown(() -> {
+            localExecutors.remove(config);
+            executor.close();
+        });
+        return executor;
+    }
+
+    /**
+     * Signals the async continuation timer of the process instance in a new unit of work, retrying a bounded number of
+     * times when the process instance is concurrently updated.
+     */
+    public static void trigger(Application application, String processId, String processInstanceId, String jobId) {
+        AsyncWorkItems.executeWithRetries("async continuation " + jobId + " of process instance " + processInstanceId, () -> {
+            Process<?> process = application.get(Processes.class).processById(processId);
+            if (!new TriggerJobCommand(processInstanceId, jobId, LOCAL_CONTINUATION_TIMER_ID, 0, process, application.unitOfWorkManager()).execute()) {
+                logger.warn("Process instance {} of process {} not found, cannot execute async continuation {}", processInstanceId, processId, jobId);
+            }
+        });
+    }
+
+    private static class Holder {
+
+        private static final Optional<AsyncContinuationExecutor> EXECUTOR = ServiceLoader.load(AsyncContinuationExecutor.class).findFirst();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.jbpm.workflow.core.node.WorkItemNode;
+import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
+import org.kie.kogito.Application;
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
+import org.kie.kogito.internal.process.workitem.WorkItemNotFoundException;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper methods for work item handlers that complete their work items once an asynchronous invocation finishes,
+ * without blocking the thread that activated them.
+ */
+public final class AsyncWorkItems {
+
+    /**
+     * Number of times an action is attempted when the process instance keeps being concurrently updated
+     */
+    static final int MAX_ATTEMPTS = 10;
+
+    /**
+     * Upper bound of the delay before the first retry, doubled on every further retry up to {@link #MAX_BACKOFF_MILLIS}
+     */
+    static final long BASE_BACKOFF_MILLIS = 5L;
+    static final long MAX_BACKOFF_MILLIS = 200L;
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncWorkItems.class);
+
+    private AsyncWorkItems() {
+    }
+
+    /**
+     * Tells whether the node holding the work item waits for it to be completed. A node that does not moves on right away,
+     * so the work item must not be completed asynchronously afterwards.
+     *
+     * @param workItem work item being activated
+     * @return true if the work item is held by a work item node waiting for its completion
+     */
+    public static boolean waitsForCompletion(KogitoWorkItem workItem) {
+        return workItem.getNodeInstance() instanceof WorkItemNodeInstance nodeInstance && nodeInstance.getNode() instanceof WorkItemNode node && node.isWaitForCompletion();
+    }
+
+    /**
+     * Executes the action once the current unit of work has ended, so the process instance holding the active work item
+     * is already persisted when the invocation result arrives.
+     *
+     * @param application application owning the unit of work manager
+     * @param workItemId id of the work item being activated
+     * @param action action starting the invocation
+     * @param compensation executed instead of the action if the unit of work is aborted
+     */
+    public static void executeAfterUnitOfWork(Application application, String workItemId, Runnable action, Runnable compensation) {
+        UnitOfWork unitOfWork = application.unitOfWorkManager().currentUnitOfWork();
+        unitOfWork.intercept(new BaseWorkUnit<>(workItemId, id -> {
+        }, id -> compensation.run(), WorkUnit.LOW_PRIORITY));
+        unitOfWork.afterEnd(action);
+    }
+
+    /**
+     * Completes the work item in a new unit of work, retrying a bounded number of times when the process instance is
+     * concurrently updated.
+     * If the results supplier throws an exception, the work item is failed as if that exception had been thrown when the
+     * work item was activated. When no error handler catches that failure, the work item is aborted and the process
+     * instance is set into error.
+     * Results arriving for a work item that is no longer active are ignored.
+     *
+     * @param application application owning the process
+     * @param processId id of the process definition
+     * @param processInstanceId id of the process instance holding the work item
+     * @param workItemId id of the work item to complete
+     * @param results supplier of the work item results
+     */
+    public static void complete(Application application, String processId, String processInstanceId, String workItemId, Supplier<Map<String, Object>> results) {
+        executeWithRetries("completion of work item " + workItemId + " of process instance " + processInstanceId,
+                () -> UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> {
+                    Process<?> process = application.get(Processes.class).processById(processId);
+                    process.instances().findById(processInstanceId)
+                            .ifPresentOrElse(pi -> complete(pi, workItemId, results),
+                                    () -> logger.warn("Process instance {} of process {} not found, cannot complete work item {}", processInstanceId, processId, workItemId));
+                    return null;
+                }));
+    }
+
+    private static void complete(ProcessInstance<?> pi, String workItemId, Supplier<Map<String, Object>> results) {
+        Map<String, Object> values;
+        try {
+            values = results.get();
+        } catch (RuntimeException e) {
+            try {
+                pi.updateWorkItem(workItemId, w -> {
+                    fail((WorkItemNodeInstance) w.getNodeInstance(), e);
+                    return null;
+                });
+            } catch (WorkItemNotFoundException notFound) {
+                logger.warn("Work item {} of process instance {} is no longer active, ignoring its failure", workItemId, pi.id(), e);
+            }
+            return;
+        }
+        try {
+            pi.completeWorkItem(workItemId, values);
+        } catch (WorkItemNotFoundException notFound) {
+            logger.warn("Work item {} of process instance {} is no longer active, ignoring its results", workItemId, pi.id());
+        }
+    }
+
+    private static void fail(WorkItemNodeInstance nodeInstance, RuntimeException e) {
+        try {
+            nodeInstance.workItemFailed(e);
+        } catch (RuntimeException unhandled) {
+            // same outcome as a handler failing on activation without an error handler
+            nodeInstance.getWorkItem().setState(KogitoWorkItem.ABORTED);
+            nodeInstance.internalRemoveWorkItem();
+            nodeInstance.getProcessInstance().setErrorState(nodeInstance, unhandled);
+        }
+    }
+
+    /**
+     * Executes the action, retrying up to {@link #MAX_ATTEMPTS} times when it fails because the process instance was
+     * concurrently updated. Any other failure, or running out of attempts, is logged.
+     * <p>
+     * Retries wait for a random delay bounded by an exponential backoff, so actions conflicting on the same process instance
+     * do not keep retrying in lockstep. The action is already blocking (it persists the process instance), so the delay
+     * is spent on the calling thread.
+     *
+     * @param description description of the action used in log messages
+     * @param action action to execute, usually within its own unit of work
+     */
+    static void executeWithRetries(String description, Runnable action) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                action.run();
+                return;
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    logger.error("Giving up {} after {} attempts", description, attempt, e);
+                    return;
+                }
+                long delay = backoffMillis(attempt);
+                logger.info("Retrying {} in {} ms due to: {}", description, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    logger.error("Giving up {} after {} attempts, interrupted while waiting to retry", description, attempt, e);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error during {}", description, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delay before retrying after the given failed attempt: a random value between half and the whole of the backoff,
+     * which doubles on every attempt up to {@link #MAX_BACKOFF_MILLIS}.
+     */
+    static long backoffMillis(int attempt) {
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+    }
+}
@@ -42,6 +42,8 @@ import org.kie.kogito.internal.process.workitem.WorkItemNotFoundException;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceNotFoundException;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.WorkItem;
@@ -95,6 +97,7 @@ public class ProcessServiceImpl implements ProcessService {
 
     @Override
     public <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process) {
+        // neither filtered nor ordered, so stores without a native find do not need to read and sort every instance
         try (Stream<ProcessInstance<T>> stream = process.instances().stream().limit(processInstanceLimit)) {
             return stream.map(ProcessInstance::variables)
                     .map(MappableToModel::toModel)
@@ -102,6 +105,14 @@ public class ProcessServiceImpl implements ProcessService {
         }
     }
 
+    @Override
+    public <T extends MappableToModel<R>, R> ProcessInstancePage<R> getProcessInstanceOutput(Process<T> process, ProcessInstanceQuery query) {
+        if (query.pageSize() > processInstanceLimit) {
+            query = query.withPageSize(processInstanceLimit);
+        }
+        return process.instances().find(query).map(pi -> pi.variables().toModel());
+    }
+
     @Override
     public <T extends MappableToModel<R>, R> Optional<R> findById(Process<T> process, String id) {
         Optional<ProcessInstance<T>> instance = process.instances()
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.process.instance.event.listeners;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.jbpm.process.instance.context.variable.VariableScopeInstance;
+import org.jbpm.process.instance.event.KogitoProcessEventSupportImpl;
+import org.jbpm.ruleflow.instance.RuleFlowProcessInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.event.process.ProcessVariableChangedEvent;
+import org.kie.kogito.services.identity.NoOpIdentityProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DirtyVariablesEventListenerTest {
+
+    private final DirtyVariablesEventListener listener = DirtyVariablesEventListener.INSTANCE;
+
+    private RuleFlowProcessInstance processInstance;
+
+    @BeforeEach
+    void setup() {
+        processInstance = new RuleFlowProcessInstance();
+        VariableScopeInstance variableScopeInstance = new VariableScopeInstance();
+        variableScopeInstance.internalSetVariable("person", "John");
+        variableScopeInstance.internalSetVariable("dotted.name", "value");
+        processInstance.setContextInstance(VariableScope.VARIABLE_SCOPE, variableScopeInstance);
+    }
+
+    @Test
+    void testNoChanges() {
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).isEmpty();
+    }
+
+    @Test
+    void testChangedVariables() {
+        listener.afterVariableChanged(event("person"));
+        listener.afterVariableChanged(event("added"));
+        listener.afterVariableChanged(event("person"));
+
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).containsExactlyInAnyOrder("person", "added");
+    }
+
+    @Test
+    void testChangedProperty() {
+        listener.afterVariableChanged(event("person.address.street"));
+        listener.afterVariableChanged(event("dotted.name"));
+
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).containsExactlyInAnyOrder("person", "dotted.name");
+    }
+
+    @Test
+    void testCompositeNodeVariablesAreIgnored() {
+        listener.afterVariableChanged(event("_1:person"));
+
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).isEmpty();
+    }
+
+    @Test
+    void testClear() {
+        listener.afterVariableChanged(event("person"));
+        DirtyVariablesEventListener.clear(processInstance);
+
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).isEmpty();
+    }
+
+    @Test
+    void testMutableValuesAreAlwaysChanged() {
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) processInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
+        variableScopeInstance.internalSetVariable("list", new ArrayList<>(List.of("a")));
+        variableScopeInstance.internalSetVariable("date", LocalDate.of(2024, 1, 1));
+        variableScopeInstance.internalSetVariable("amount", 10L);
+        listener.afterVariableChanged(event("person"));
+
+        assertThat(DirtyVariablesEventListener.dirtyVariables(processInstance)).containsExactly("person");
+        assertThat(DirtyVariablesEventListener.changedVariables(processInstance)).containsExactlyInAnyOrder("person", "list");
+    }
+
+    @Test
+    void testRegisterOnce() {
+        KogitoProcessEventSupportImpl eventSupport = new KogitoProcessEventSupportImpl(new NoOpIdentityProvider());
+        DirtyVariablesEventListener.register(eventSupport);
+        DirtyVariablesEventListener.register(eventSupport);
+
+        assertThat(eventSupport.getEventListeners()).containsExactly(listener);
+    }
+
+    private ProcessVariableChangedEvent event(String variableId) {
+        ProcessVariableChangedEvent event = mock(ProcessVariableChangedEvent.class);
+        when(event.getVariableId()).thenReturn(variableId);
+        when(event.getProcessInstance()).thenReturn(processInstance);
+        return event;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.workflow.core.impl;
+
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.ruleflow.core.WorkflowElementIdentifierFactory;
+import org.jbpm.workflow.core.node.ActionNode;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventNodeIndexTest {
+
+    @Test
+    public void testNodesByEventType() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        process.setId("org.jbpm.event.index");
+
+        EventNode staticNode = eventNode("staticNode", "signalA");
+        EventNode expressionNode = eventNode("expressionNode", "signal-#{var}");
+        BoundaryEventNode boundaryNode = new BoundaryEventNode();
+        boundaryNode.setId(WorkflowElementIdentifierFactory.fromExternalFormat("boundaryNode"));
+        boundaryNode.addEventFilter(filter("Error-code"));
+        boundaryNode.addEventFilter(filter("Compensation-code"));
+        EventSubProcessNode eventSubProcess = new EventSubProcessNode();
+        eventSubProcess.setId(WorkflowElementIdentifierFactory.fromExternalFormat("eventSubProcess"));
+        eventSubProcess.addEvent(filter("signalB"));
+        eventSubProcess.addEvent(filter("signal-#{var}"));
+        ActionNode actionNode = new ActionNode();
+        actionNode.setId(WorkflowElementIdentifierFactory.fromExternalFormat("actionNode"));
+
+        process.addNode(staticNode);
+        process.addNode(expressionNode);
+        process.addNode(boundaryNode);
+        process.addNode(eventSubProcess);
+        process.addNode(actionNode);
+
+        EventNodeIndex index = process.getEventNodeIndex();
+        assertThat(index.getNodes("signalA")).containsExactly(staticNode, expressionNode, eventSubProcess);
+        assertThat(index.getNodes("Compensation-code")).containsExactly(expressionNode, boundaryNode, eventSubProcess);
+        assertThat(index.getNodes("unknown")).containsExactly(expressionNode, eventSubProcess);
+        assertThat(index.getStaticEvents(eventSubProcess)).containsExactly("signalB");
+        assertThat(index.getDynamicEvents(eventSubProcess)).containsExactly("signal-#{var}");
+
+        EventNode addedNode = eventNode("addedNode", "unknown");
+        process.addNode(addedNode);
+        assertThat(process.getEventNodeIndex().getNodes("unknown")).containsExactly(expressionNode, eventSubProcess, addedNode);
+    }
+
+    private static EventNode eventNode(String id, String type) {
+        EventNode node = new EventNode();
+        node.setId(WorkflowElementIdentifierFactory.fromExternalFormat(id));
+        node.addEventFilter(filter(type));
+        return node;
+    }
+
+    private static EventTypeFilter filter(String type) {
+        EventTypeFilter filter = new EventTypeFilter();
+        filter.setType(type);
+        return filter;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.workflow.core.node;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.drools.core.common.InternalKnowledgeRuntime;
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.process.impl.AsyncContinuationExecutor;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncEventNodeInstanceTest {
+
+    private static final String NODE_INSTANCE_ID = "node-instance";
+    private static final long RECOVERY_DELAY = 60000L;
+
+    private JobsService jobsService;
+    private UnitOfWorkManager unitOfWorkManager;
+    private WorkflowProcessInstance processInstance;
+
+    @BeforeEach
+    void setup() {
+        jobsService = mock(JobsService.class);
+        when(jobsService.scheduleJob(any())).thenAnswer(invocation -> invocation.<JobDescription> getArgument(0).id());
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+
+        InternalProcessRuntime processRuntime = mock(InternalProcessRuntime.class);
+        when(processRuntime.getJobsService()).thenReturn(jobsService);
+        when(processRuntime.getUnitOfWorkManager()).thenReturn(unitOfWorkManager);
+        when(processRuntime.getApplication()).thenReturn(mock(Application.class));
+        InternalKnowledgeRuntime knowledgeRuntime = mock(InternalKnowledgeRuntime.class);
+        when(knowledgeRuntime.getProcessRuntime()).thenReturn(processRuntime);
+
+        processInstance = mock(WorkflowProcessInstance.class);
+        when(processInstance.getKnowledgeRuntime()).thenReturn(knowledgeRuntime);
+        when(processInstance.getMetaData()).thenReturn(new HashMap<>());
+        when(processInstance.getStringId()).thenReturn("process-instance");
+        when(processInstance.getProcessId()).thenReturn("process");
+    }
+
+    @Test
+    void continuationIsSubmittedOnceUnitOfWorkEnds() {
+        TestExecutor executor = new TestExecutor(true, 0L);
+        UnitOfWork unitOfWork = triggerInUnitOfWork(executor);
+
+        assertThat(executor.submitted).isEmpty();
+        unitOfWork.end();
+
+        assertThat(executor.submitted).hasSize(1);
+        verify(jobsService, never()).scheduleJob(any());
+        verify(jobsService, never()).cancelJob(anyString());
+    }
+
+    @Test
+    void continuationIsNotSubmittedWhenUnitOfWorkAborts() {
+        TestExecutor executor = new TestExecutor(true, RECOVERY_DELAY);
+        UnitOfWork unitOfWork = triggerInUnitOfWork(executor);
+
+        unitOfWork.abort();
+
+        assertThat(executor.submitted).isEmpty();
+        verify(jobsService, never()).scheduleJob(any());
+    }
+
+    @Test
+    void recoveryJobIsScheduledWhenEnabled() {
+        TestExecutor executor = new TestExecutor(true, RECOVERY_DELAY);
+        UnitOfWork unitOfWork = triggerInUnitOfWork(executor);
+
+        unitOfWork.end();
+
+        assertThat(executor.submitted).hasSize(1);
+        assertThat(scheduledJobs(1).get(0).expirationTime().get()).isAfter(ZonedDateTime.now().plusSeconds(30));
+        verify(jobsService, never()).cancelJob(anyString());
+    }
+
+    @Test
+    void saturatedExecutorFallsBackToJobsService() {
+        TestExecutor executor = new TestExecutor(false, 0L);
+        UnitOfWork unitOfWork = triggerInUnitOfWork(executor);
+
+        verify(jobsService, never()).scheduleJob(any());
+        unitOfWork.end();
+
+        assertThat(scheduledJobs(1).get(0).expirationTime().get()).isBefore(ZonedDateTime.now().plusSeconds(30));
+        verify(jobsService, never()).cancelJob(anyString());
+    }
+
+    @Test
+    void saturatedExecutorReplacesRecoveryJob() {
+        TestExecutor executor = new TestExecutor(false, RECOVERY_DELAY);
+        UnitOfWork unitOfWork = triggerInUnitOfWork(executor);
+
+        unitOfWork.end();
+
+        List<JobDescription> jobs = scheduledJobs(2);
+        assertThat(jobs.get(0).expirationTime().get()).isAfter(jobs.get(1).expirationTime().get());
+        InOrder order = inOrder(jobsService);
+        order.verify(jobsService).scheduleJob(any());
+        order.verify(jobsService).cancelJob(NODE_INSTANCE_ID);
+        order.verify(jobsService).scheduleJob(any());
+    }
+
+    @Test
+    void jobIsScheduledWithinUnitOfWorkWithoutExecutor() {
+        UnitOfWork unitOfWork = triggerInUnitOfWork(null);
+
+        verify(jobsService, never()).scheduleJob(any());
+        unitOfWork.end();
+
+        assertThat(scheduledJobs(1).get(0).id()).isEqualTo(NODE_INSTANCE_ID);
+    }
+
+    private UnitOfWork triggerInUnitOfWork(AsyncContinuationExecutor executor) {
+        AsyncEventNodeInstance nodeInstance = new AsyncEventNodeInstance() {
+            @Override
+            protected Optional<AsyncContinuationExecutor> asyncContinuationExecutor() {
+                return Optional.ofNullable(executor);
+            }
+        };
+        nodeInstance.setId(NODE_INSTANCE_ID);
+        nodeInstance.setProcessInstance(processInstance);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        nodeInstance.internalTrigger(null, null);
+        return unitOfWork;
+    }
+
+    private List<JobDescription> scheduledJobs(int count) {
+        ArgumentCaptor<JobDescription> captor = ArgumentCaptor.forClass(JobDescription.class);
+        verify(jobsService, times(count)).scheduleJob(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static class TestExecutor implements AsyncContinuationExecutor {
+
+        private final boolean accept;
+        private final long recoveryDelayMillis;
+        private final List<Runnable> submitted = new ArrayList<>();
+
+        TestExecutor(boolean accept, long recoveryDelayMillis) {
+            this.accept = accept;
+            this.recoveryDelayMillis = recoveryDelayMillis;
+        }
+
+        @Override
+        public boolean submit(Runnable continuation) {
+            if (accept) {
+                submitted.add(continuation);
+            }
+            return accept;
+        }
+
+        @Override
+        public long recoveryDelayMillis() {
+            return recoveryDelayMillis;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.workflow.instance.node;
+
+import org.jbpm.ruleflow.core.WorkflowElementIdentifierFactory;
+import org.jbpm.workflow.instance.impl.NodeInstanceImpl;
+import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.WorkflowElementIdentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompositeNodeInstanceTest {
+
+    private static final WorkflowElementIdentifier ACTION_NODE = WorkflowElementIdentifierFactory.fromExternalFormat("action");
+    private static final WorkflowElementIdentifier MIGRATED_NODE = WorkflowElementIdentifierFactory.fromExternalFormat("migrated");
+    private static final WorkflowElementIdentifier SUBPROCESS_NODE = WorkflowElementIdentifierFactory.fromExternalFormat("subprocess");
+
+    @Test
+    void getNodeInstanceById() {
+        CompositeNodeInstance toTest = new CompositeNodeInstance();
+        CompositeNodeInstance subProcess = nodeInstance(new CompositeNodeInstance(), SUBPROCESS_NODE, toTest);
+        ActionNodeInstance action = nodeInstance(new ActionNodeInstance(), ACTION_NODE, toTest);
+        ActionNodeInstance nestedAction = nodeInstance(new ActionNodeInstance(), ACTION_NODE, subProcess);
+
+        assertThat(action.getStringId()).isNotNull();
+        assertThat(toTest.getNodeInstance(action.getStringId())).isSameAs(action);
+        assertThat(toTest.getNodeInstance(nestedAction.getStringId())).isNull();
+        assertThat(toTest.getNodeInstance(nestedAction.getStringId(), true)).isSameAs(nestedAction);
+        assertThat(toTest.getNodeInstance("unknown", true)).isNull();
+
+        toTest.removeNodeInstance(action);
+        assertThat(toTest.getNodeInstance(action.getStringId())).isNull();
+        toTest.removeNodeInstance(subProcess);
+        assertThat(toTest.getNodeInstance(nestedAction.getStringId(), true)).isNull();
+    }
+
+    @Test
+    void getNodeInstanceByNodeId() {
+        CompositeNodeInstance toTest = new CompositeNodeInstance();
+        CompositeNodeInstance subProcess = nodeInstance(new CompositeNodeInstance(), SUBPROCESS_NODE, toTest);
+        ActionNodeInstance nestedAction = nodeInstance(new ActionNodeInstance(), ACTION_NODE, subProcess);
+
+        assertThat(toTest.getNodeInstanceByNodeId(ACTION_NODE, false)).isNull();
+        assertThat(toTest.getNodeInstanceByNodeId(ACTION_NODE, true)).isSameAs(nestedAction);
+
+        ActionNodeInstance action = nodeInstance(new ActionNodeInstance(), ACTION_NODE, toTest);
+        assertThat(toTest.getNodeInstanceByNodeId(ACTION_NODE, true)).isSameAs(action);
+
+        action.setNodeId(MIGRATED_NODE);
+        assertThat(toTest.getNodeInstanceByNodeId(MIGRATED_NODE, false)).isSameAs(action);
+        assertThat(toTest.getNodeInstanceByNodeId(ACTION_NODE, true)).isSameAs(nestedAction);
+
+        String oldId = action.getStringId();
+        action.setId("migratedId");
+        assertThat(toTest.getNodeInstance(oldId)).isNull();
+        assertThat(toTest.getNodeInstance("migratedId")).isSameAs(action);
+    }
+
+    private static <T extends NodeInstanceImpl> T nodeInstance(T nodeInstance, WorkflowElementIdentifier nodeId, CompositeNodeInstance container) {
+        nodeInstance.setNodeId(nodeId);
+        nodeInstance.setNodeInstanceContainer(container);
+        return nodeInstance;
+    }
+}
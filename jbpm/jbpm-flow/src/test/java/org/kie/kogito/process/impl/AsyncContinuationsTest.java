@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.Config;
+import org.kie.kogito.config.ConfigBean;
+import org.kie.kogito.config.StaticConfigBean;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncContinuationsTest {
+
+    private Application application;
+    private ProcessInstances<?> instances;
+
+    @BeforeEach
+    void setup() {
+        application = mock(Application.class);
+        Processes processes = mock(Processes.class);
+        Process<?> process = mock(Process.class);
+        instances = mock(ProcessInstances.class);
+        when(application.get(Processes.class)).thenReturn(processes);
+        when(application.unitOfWorkManager()).thenReturn(new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()));
+        doReturn(process).when(processes).processById("process");
+        doReturn(instances).when(process).instances();
+    }
+
+    @Test
+    void triggerRetriesOnOptimisticLocking() {
+        when(instances.findById("process-instance")).thenThrow(new ProcessInstanceOptimisticLockingException("process-instance")).thenReturn(Optional.empty());
+
+        AsyncContinuations.trigger(application, "process", "process-instance", "continuation");
+
+        verify(instances, times(2)).findById("process-instance");
+    }
+
+    @Test
+    void triggerGivesUpAfterMaxAttempts() {
+        when(instances.findById("process-instance")).thenThrow(new ProcessInstanceOptimisticLockingException("process-instance"));
+
+        AsyncContinuations.trigger(application, "process", "process-instance", "continuation");
+
+        verify(instances, times(AsyncWorkItems.MAX_ATTEMPTS)).findById("process-instance");
+    }
+
+    @Test
+    void localExecutorIsDisabledByDefault() {
+        mockConfig(new StaticConfigBean());
+
+        assertThat(AsyncContinuations.executor(application)).isEmpty();
+    }
+
+    @Test
+    void localExecutorIsReadFromConfig() {
+        StaticConfigBean configBean = new StaticConfigBean();
+        configBean.setAsyncContinuation(true, 1, 1, 0L);
+        mockConfig(configBean);
+
+        Optional<AsyncContinuationExecutor> executor = AsyncContinuations.executor(application);
+
+        assertThat(executor).containsInstanceOf(LocalAsyncContinuationExecutor.class);
+        assertThat(executor.get().recoveryDelayMillis()).isZero();
+        assertThat(AsyncContinuations.executor(application)).containsSame(executor.get());
+    }
+
+    @Test
+    void recoveryIsDisabledByDefault() {
+        StaticConfigBean configBean = new StaticConfigBean();
+        configBean.setAsyncContinuation(true, 1, 1, configBean.asyncContinuationRecoveryDelay());
+        mockConfig(configBean);
+
+        assertThat(AsyncContinuations.executor(application).orElseThrow().recoveryDelayMillis()).isZero();
+    }
+
+    @Test
+    void localExecutorIsClosedOnShutdown() {
+        StaticConfigBean configBean = new StaticConfigBean();
+        configBean.setAsyncContinuation(true, 1, 1, 0L);
+        mockConfig(configBean);
+        AsyncContinuationExecutor executor = AsyncContinuations.executor(application).orElseThrow();
+
+        configBean.close();
+
+        assertThat(executor.submit(() -> {
+        })).isFalse();
+        assertThat(AsyncContinuations.executor(application)).isNotEmpty().doesNotContainSame(executor);
+        configBean.close();
+    }
+
+    @Test
+    void triggerDoesNotRetryOnOtherErrors() {
+        when(instances.findById("process-instance")).thenThrow(new IllegalStateException("failure"));
+
+        AsyncContinuations.trigger(application, "process", "process-instance", "continuation");
+
+        verify(instances, times(1)).findById("process-instance");
+    }
+
+    private void mockConfig(StaticConfigBean configBean) {
+        Config config = mock(Config.class);
+        when(config.get(ConfigBean.class)).thenReturn(configBean);
+        when(application.config()).thenReturn(config);
+    }
+}
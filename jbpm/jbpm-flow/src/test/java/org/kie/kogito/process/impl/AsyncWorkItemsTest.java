@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
+import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
+import org.kie.kogito.internal.process.workitem.WorkItemNotFoundException;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.workitems.InternalKogitoWorkItem;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncWorkItemsTest {
+
+    private Application application;
+    private UnitOfWorkManager unitOfWorkManager;
+    private ProcessInstances<?> instances;
+    private ProcessInstance<?> processInstance;
+
+    @BeforeEach
+    void setup() {
+        application = mock(Application.class);
+        Processes processes = mock(Processes.class);
+        Process<?> process = mock(Process.class);
+        instances = mock(ProcessInstances.class);
+        processInstance = mock(ProcessInstance.class);
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        when(application.get(Processes.class)).thenReturn(processes);
+        when(application.unitOfWorkManager()).thenReturn(unitOfWorkManager);
+        doReturn(process).when(processes).processById("process");
+        doReturn(instances).when(process).instances();
+        doReturn(Optional.of(processInstance)).when(instances).findById("process-instance");
+    }
+
+    @Test
+    void executeAfterUnitOfWorkEnds() {
+        AtomicInteger executed = new AtomicInteger();
+        AtomicInteger compensated = new AtomicInteger();
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        AsyncWorkItems.executeAfterUnitOfWork(application, "work-item", executed::incrementAndGet, compensated::incrementAndGet);
+        assertThat(executed).hasValue(0);
+        unitOfWork.end();
+
+        assertThat(executed).hasValue(1);
+        assertThat(compensated).hasValue(0);
+    }
+
+    @Test
+    void compensateWhenUnitOfWorkAborts() {
+        AtomicInteger executed = new AtomicInteger();
+        AtomicInteger compensated = new AtomicInteger();
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        AsyncWorkItems.executeAfterUnitOfWork(application, "work-item", executed::incrementAndGet, compensated::incrementAndGet);
+        unitOfWork.abort();
+
+        assertThat(executed).hasValue(0);
+        assertThat(compensated).hasValue(1);
+    }
+
+    @Test
+    void completeWorkItem() {
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", () -> Map.of("Result", "value"));
+
+        verify(processInstance).completeWorkItem("work-item", Map.of("Result", "value"));
+    }
+
+    @Test
+    void failWorkItemWhenResultsCannotBeObtained() {
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", () -> {
+            throw new IllegalStateException("failure");
+        });
+
+        verify(processInstance).updateWorkItem(anyString(), any());
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setErrorStateWhenFailureIsNotHandled() {
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class);
+        InternalKogitoWorkItem internalWorkItem = mock(InternalKogitoWorkItem.class);
+        WorkItemNodeInstance nodeInstance = mock(WorkItemNodeInstance.class);
+        WorkflowProcessInstance workflowProcessInstance = mock(WorkflowProcessInstance.class);
+        IllegalStateException unhandled = new IllegalStateException("no error handler");
+        when(workItem.getNodeInstance()).thenReturn(nodeInstance);
+        when(nodeInstance.getWorkItem()).thenReturn(internalWorkItem);
+        when(nodeInstance.getProcessInstance()).thenReturn(workflowProcessInstance);
+        doThrow(unhandled).when(nodeInstance).workItemFailed(any());
+        doAnswer(invocation -> invocation.getArgument(1, Function.class).apply(workItem)).when(processInstance).updateWorkItem(eq("work-item"), any());
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", () -> {
+            throw new IllegalStateException("failure");
+        });
+
+        verify(internalWorkItem).setState(KogitoWorkItem.ABORTED);
+        verify(nodeInstance).internalRemoveWorkItem();
+        verify(workflowProcessInstance).setErrorState(nodeInstance, unhandled);
+    }
+
+    @Test
+    void completeIgnoresInactiveWorkItem() {
+        doThrow(new WorkItemNotFoundException("work-item")).when(processInstance).completeWorkItem("work-item", Map.of());
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", Map::of);
+
+        verify(processInstance, times(1)).completeWorkItem("work-item", Map.of());
+    }
+
+    @Test
+    void completeGivesUpAfterMaxAttempts() {
+        doThrow(new ProcessInstanceOptimisticLockingException("process-instance")).when(processInstance).completeWorkItem("work-item", Map.of());
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", Map::of);
+
+        verify(processInstance, times(AsyncWorkItems.MAX_ATTEMPTS)).completeWorkItem("work-item", Map.of());
+    }
+
+    @Test
+    void completeRetriesOnOptimisticLocking() {
+        doThrow(new ProcessInstanceOptimisticLockingException("process-instance")).doNothing().when(processInstance).completeWorkItem("work-item", Map.of());
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", Map::of);
+
+        verify(processInstance, times(2)).completeWorkItem("work-item", Map.of());
+    }
+
+    @Test
+    void backoffIsJitteredAndBounded() {
+        for (int attempt = 1; attempt < AsyncWorkItems.MAX_ATTEMPTS; attempt++) {
+            long backoff = Math.min(AsyncWorkItems.MAX_BACKOFF_MILLIS, AsyncWorkItems.BASE_BACKOFF_MILLIS << (attempt - 1));
+            assertThat(AsyncWorkItems.backoffMillis(attempt)).isBetween(backoff / 2, backoff);
+        }
+        assertThat(AsyncWorkItems.backoffMillis(Integer.MAX_VALUE)).isBetween(AsyncWorkItems.MAX_BACKOFF_MILLIS / 2, AsyncWorkItems.MAX_BACKOFF_MILLIS);
+    }
+
+    @Test
+    void completeDoesNotRetryOnOtherErrors() {
+        doThrow(new IllegalStateException("failure")).when(processInstance).completeWorkItem("work-item", Map.of());
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", Map::of);
+
+        verify(processInstance, times(1)).completeWorkItem("work-item", Map.of());
+    }
+
+    @Test
+    void completeIgnoresMissingProcessInstance() {
+        doReturn(Optional.empty()).when(instances).findById("process-instance");
+
+        AsyncWorkItems.complete(application, "process", "process-instance", "work-item", Map::of);
+
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalAsyncContinuationExecutorTest {
+
+    @Test
+    void submitRunsContinuation() throws InterruptedException {
+        try (LocalAsyncContinuationExecutor executor = new LocalAsyncContinuationExecutor(2, 10, 1000L)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            assertThat(executor.submit(latch::countDown)).isTrue();
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.recoveryDelayMillis()).isEqualTo(1000L);
+        }
+    }
+
+    @Test
+    void submitReturnsFalseWhenSaturated() throws InterruptedException {
+        try (LocalAsyncContinuationExecutor executor = new LocalAsyncContinuationExecutor(1, 1, 0L)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            assertThat(executor.submit(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })).isTrue();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.submit(() -> {
+            })).isTrue();
+            assertThat(executor.submit(() -> {
+            })).isFalse();
+            release.countDown();
+        }
+    }
+}
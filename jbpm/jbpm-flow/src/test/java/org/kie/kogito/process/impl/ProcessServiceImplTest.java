@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.Config;
+import org.kie.kogito.MappableToModel;
+import org.kie.kogito.config.ConfigBean;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.ProcessInstances;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessServiceImplTest {
+
+    private static final short PROCESS_INSTANCE_LIMIT = 5;
+
+    private interface TestModel extends MappableToModel<String> {
+    }
+
+    private Process<TestModel> process;
+    private ProcessInstances<TestModel> instances;
+    private ProcessServiceImpl processService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        Application application = mock(Application.class);
+        Config config = mock(Config.class);
+        ConfigBean configBean = mock(ConfigBean.class);
+        when(application.config()).thenReturn(config);
+        when(config.get(ConfigBean.class)).thenReturn(configBean);
+        when(configBean.processInstanceLimit()).thenReturn(PROCESS_INSTANCE_LIMIT);
+
+        TestModel model = mock(TestModel.class);
+        when(model.toModel()).thenReturn("output");
+        ProcessInstance<TestModel> processInstance = mock(ProcessInstance.class);
+        when(processInstance.variables()).thenReturn(model);
+
+        process = mock(Process.class);
+        instances = mock(ProcessInstances.class);
+        when(process.instances()).thenReturn(instances);
+        when(instances.find(any(ProcessInstanceQuery.class))).thenReturn(new ProcessInstancePage<>(List.of(processInstance), "token"));
+        when(instances.stream()).thenAnswer(invocation -> Stream.generate(() -> processInstance));
+        processService = new ProcessServiceImpl(application);
+    }
+
+    @Test
+    void testOutputIsLimitedToProcessInstanceLimit() {
+        List<String> output = processService.getProcessInstanceOutput(process);
+
+        assertThat(output).hasSize(PROCESS_INSTANCE_LIMIT).containsOnly("output");
+        verify(instances, never()).find(any(ProcessInstanceQuery.class));
+    }
+
+    @Test
+    void testPageSizeIsCappedByProcessInstanceLimit() {
+        ProcessInstancePage<String> page = processService.getProcessInstanceOutput(process, ProcessInstanceQuery.builder().withPageSize(100).build());
+
+        assertThat(page.items()).containsExactly("output");
+        assertThat(page.continuationToken()).isEqualTo("token");
+        assertThat(executedQuery().pageSize()).isEqualTo(PROCESS_INSTANCE_LIMIT);
+    }
+
+    @Test
+    void testSmallerPageSizeIsKept() {
+        processService.getProcessInstanceOutput(process, ProcessInstanceQuery.builder().withPageSize(2).build());
+
+        assertThat(executedQuery().pageSize()).isEqualTo(2);
+    }
+
+    private ProcessInstanceQuery executedQuery() {
+        ArgumentCaptor<ProcessInstanceQuery> query = ArgumentCaptor.forClass(ProcessInstanceQuery.class);
+        verify(instances).find(query.capture());
+        return query.getValue();
+    }
+}
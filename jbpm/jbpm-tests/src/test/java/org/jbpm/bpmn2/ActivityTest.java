@@ -207,6 +207,7 @@ import org.kie.kogito.internal.process.runtime.KogitoWorkflowProcessInstance;
 import org.kie.kogito.internal.process.workitem.InvalidTransitionException;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.impl.AsyncWorkItems;
 import org.kie.kogito.process.workitems.InternalKogitoWorkItem;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -510,6 +511,26 @@ public class ActivityTest extends JbpmBpmn2TestCase {
         assertThat(instance).extracting(ProcessInstance::status).isEqualTo(ProcessInstance.STATE_COMPLETED);
     }
 
+    @Test
+    public void testAsyncWorkItemFailureSetsErrorState() {
+        Application app = ProcessTestHelper.newApplication();
+        TestUserTaskWorkItemHandler workItemHandler = new TestUserTaskWorkItemHandler();
+        ProcessTestHelper.registerHandler(app, "Human Task", workItemHandler);
+        org.kie.kogito.process.Process<UserTaskModel> processDefinition = UserTaskProcess.newProcess(app);
+        org.kie.kogito.process.ProcessInstance<UserTaskModel> instance = processDefinition.createInstance(processDefinition.createModel());
+        instance.start();
+        KogitoWorkItem workItem = workItemHandler.getWorkItem();
+
+        AsyncWorkItems.complete(app, processDefinition.id(), instance.id(), workItem.getStringId(), () -> {
+            throw new IllegalStateException("async failure");
+        });
+
+        assertThat(instance.status()).isEqualTo(ProcessInstance.STATE_ERROR);
+        assertThat(instance.error()).hasValueSatisfying(error -> assertThat(error.errorMessage()).contains("async failure"));
+        assertThat(workItem.getState()).isEqualTo(KogitoWorkItem.ABORTED);
+        assertThat(instance.workItems()).isEmpty();
+    }
+
     @Test
     public void testUserTaskActorAssignment() {
         Application app = ProcessTestHelper.newApplication();
@@ -21,12 +21,13 @@ package org.kie.kogito.usertask.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.kie.kogito.auth.IdentityProvider;
@@ -35,21 +36,34 @@ import org.kie.kogito.usertask.UserTaskInstances;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+/**
+ * Thread safe in memory storage of user task instances.
+ * <p>
+ * Every instance is kept as a serialized snapshot, so callers always get a detached copy, together with
+ * inverted indexes from user and group to the ids of the tasks they can see. The indexes are refreshed on every
+ * create, update and remove (assignment changes are persisted through {@link #update(UserTaskInstance)}), so
+ * {@link #findByIdentity(IdentityProvider)} only deserializes the candidate tasks of the given identity.
+ */
 public class InMemoryUserTaskInstances implements UserTaskInstances {
 
     private static Logger LOG = LoggerFactory.getLogger(InMemoryUserTaskInstances.class);
 
-    private Map<String, byte[]> userTaskInstances;
+    private Map<String, UserTaskInstanceEntry> userTaskInstances;
+    private Map<String, Set<String>> userIndex;
+    private Map<String, Set<String>> groupIndex;
     private Function<UserTaskInstance, UserTaskInstance> reconnectUserTaskInstance;
     private Function<UserTaskInstance, UserTaskInstance> disconnectUserTaskInstance;
     private ObjectMapper mapper;
 
     public InMemoryUserTaskInstances() {
         LOG.info("Initializing InMemoryUsertaskInstances");
-        this.userTaskInstances = new HashMap<>();
+        this.userTaskInstances = new ConcurrentHashMap<>();
+        this.userIndex = new ConcurrentHashMap<>();
+        this.groupIndex = new ConcurrentHashMap<>();
         this.reconnectUserTaskInstance = null;
         this.disconnectUserTaskInstance = null;
         this.mapper = new ObjectMapper();
@@ -69,10 +83,11 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
     @Override
     public Optional<UserTaskInstance> findById(String userTaskInstanceId) {
         try {
-            if (!userTaskInstances.containsKey(userTaskInstanceId)) {
+            UserTaskInstanceEntry entry = userTaskInstances.get(userTaskInstanceId);
+            if (entry == null) {
                 return Optional.empty();
             }
-            UserTaskInstance userTaskInstance = mapper.readValue(userTaskInstances.get(userTaskInstanceId), DefaultUserTaskInstance.class);
+            UserTaskInstance userTaskInstance = mapper.readValue(entry.data, DefaultUserTaskInstance.class);
             return Optional.ofNullable(reconnectUserTaskInstance.apply(userTaskInstance));
         } catch (Exception e) {
             LOG.error("during find by Id {}", userTaskInstanceId, e);
@@ -85,9 +100,22 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
         try {
             String user = identity.getName();
             Collection<String> roles = identity.getRoles();
-            List<UserTaskInstance> users = new ArrayList<>();
-            for (String id : userTaskInstances.keySet()) {
-                UserTaskInstance userTaskInstance = mapper.readValue(userTaskInstances.get(id), DefaultUserTaskInstance.class);
+            Set<String> candidates = new LinkedHashSet<>();
+            addCandidates(candidates, userIndex, user);
+            if (roles != null) {
+                for (String role : roles) {
+                    addCandidates(candidates, groupIndex, role);
+                }
+            }
+            List<UserTaskInstance> users = new ArrayList<>(candidates.size());
+            for (String id : candidates) {
+                UserTaskInstanceEntry entry = userTaskInstances.get(id);
+                if (entry == null) {
+                    // removed after the index lookup
+                    continue;
+                }
+                UserTaskInstance userTaskInstance = mapper.readValue(entry.data, DefaultUserTaskInstance.class);
+                // indexes might be briefly ahead of a concurrent update, the snapshot is the source of truth
                 if (checkVisibility(userTaskInstance, user, roles)) {
                     users.add(reconnectUserTaskInstance.apply(userTaskInstance));
                 }
@@ -99,6 +127,15 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
         }
     }
 
+    private static void addCandidates(Set<String> candidates, Map<String, Set<String>> index, String key) {
+        if (key != null) {
+            Set<String> ids = index.get(key);
+            if (ids != null) {
+                candidates.addAll(ids);
+            }
+        }
+    }
+
     private boolean checkVisibility(UserTaskInstance userTaskInstance, String user, Collection<String> roles) {
         Set<String> adminUsers = userTaskInstance.getAdminUsers();
         if (adminUsers.contains(user)) {
@@ -140,8 +177,7 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
     public UserTaskInstance create(UserTaskInstance userTaskInstance) {
         try {
             LOG.trace("create {}", userTaskInstance);
-            byte[] data = mapper.writeValueAsBytes(userTaskInstance);
-            userTaskInstances.put(userTaskInstance.getId(), data);
+            store(userTaskInstance);
             return reconnectUserTaskInstance.apply(userTaskInstance);
         } catch (Exception e) {
             LOG.error("during create {}", userTaskInstance.getId(), e);
@@ -153,8 +189,7 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
     public UserTaskInstance update(UserTaskInstance userTaskInstance) {
         try {
             LOG.trace("update {}", userTaskInstance);
-            byte[] data = mapper.writeValueAsBytes(userTaskInstance);
-            userTaskInstances.put(userTaskInstance.getId(), data);
+            store(userTaskInstance);
             return userTaskInstance;
         } catch (Exception e) {
             LOG.error("during udpate {}", userTaskInstance.getId(), e);
@@ -165,11 +200,17 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
     @Override
     public UserTaskInstance remove(UserTaskInstance userTaskInstance) {
         try {
-            if (!userTaskInstances.containsKey(userTaskInstance.getId())) {
+            String id = userTaskInstance.getId();
+            boolean[] removed = new boolean[1];
+            userTaskInstances.computeIfPresent(id, (key, current) -> {
+                unindex(id, current);
+                removed[0] = true;
+                return null;
+            });
+            if (!removed[0]) {
                 return null;
             }
             LOG.trace("remove {}", userTaskInstance);
-            userTaskInstances.remove(userTaskInstance.getId());
             return disconnectUserTaskInstance.apply(userTaskInstance);
         } catch (Exception e) {
             LOG.error("during remove {}", userTaskInstance, e);
@@ -177,4 +218,75 @@ public class InMemoryUserTaskInstances implements UserTaskInstances {
         }
     }
 
+    private void store(UserTaskInstance userTaskInstance) throws JsonProcessingException {
+        String id = userTaskInstance.getId();
+        UserTaskInstanceEntry entry = new UserTaskInstanceEntry(mapper.writeValueAsBytes(userTaskInstance), visibleUsers(userTaskInstance), visibleGroups(userTaskInstance));
+        // map and index changes of a given task are serialized by the per key lock of compute
+        userTaskInstances.compute(id, (key, current) -> {
+            reindex(id, userIndex, current == null ? Collections.emptySet() : current.users, entry.users);
+            reindex(id, groupIndex, current == null ? Collections.emptySet() : current.groups, entry.groups);
+            return entry;
+        });
+    }
+
+    private void unindex(String id, UserTaskInstanceEntry entry) {
+        reindex(id, userIndex, entry.users, Collections.emptySet());
+        reindex(id, groupIndex, entry.groups, Collections.emptySet());
+    }
+
+    private static void reindex(String id, Map<String, Set<String>> index, Set<String> oldKeys, Set<String> newKeys) {
+        for (String key : newKeys) {
+            if (!oldKeys.contains(key)) {
+                index.compute(key, (k, ids) -> {
+                    if (ids == null) {
+                        ids = ConcurrentHashMap.newKeySet();
+                    }
+                    ids.add(id);
+                    return ids;
+                });
+            }
+        }
+        for (String key : oldKeys) {
+            if (!newKeys.contains(key)) {
+                index.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private static Set<String> visibleUsers(UserTaskInstance userTaskInstance) {
+        Set<String> users = new HashSet<>(nonNull(userTaskInstance.getPotentialUsers()));
+        users.removeAll(nonNull(userTaskInstance.getExcludedUsers()));
+        users.addAll(nonNull(userTaskInstance.getAdminUsers()));
+        if (userTaskInstance.getActualOwner() != null) {
+            users.add(userTaskInstance.getActualOwner());
+        }
+        return users;
+    }
+
+    private static Set<String> visibleGroups(UserTaskInstance userTaskInstance) {
+        Set<String> groups = new HashSet<>(nonNull(userTaskInstance.getPotentialGroups()));
+        groups.addAll(nonNull(userTaskInstance.getAdminGroups()));
+        return groups;
+    }
+
+    private static Set<String> nonNull(Set<String> values) {
+        return values == null ? Collections.emptySet() : values;
+    }
+
+    private static final class UserTaskInstanceEntry {
+
+        private final byte[] data;
+        private final Set<String> users;
+        private final Set<String> groups;
+
+        private UserTaskInstanceEntry(byte[] data, Set<String> users, Set<String> groups) {
+            this.data = data;
+            this.users = users;
+            this.groups = groups;
+        }
+    }
+
 }
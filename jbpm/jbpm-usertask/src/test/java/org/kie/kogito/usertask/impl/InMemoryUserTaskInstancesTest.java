@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.usertask.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.auth.IdentityProviders;
+import org.kie.kogito.usertask.UserTaskInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryUserTaskInstancesTest {
+
+    private InMemoryUserTaskInstances instances;
+
+    @BeforeEach
+    void setup() {
+        instances = new InMemoryUserTaskInstances();
+        instances.setReconnectUserTaskInstance(userTaskInstance -> userTaskInstance);
+        instances.setDisconnectUserTaskInstance(userTaskInstance -> userTaskInstance);
+    }
+
+    @Test
+    void testFindByIdentity() {
+        DefaultUserTaskInstance potentialUser = newUserTaskInstance("1");
+        potentialUser.setPotentialUsers(Set.of("john", "mary"));
+        potentialUser.setExcludedUsers(Set.of("mary"));
+        DefaultUserTaskInstance potentialGroup = newUserTaskInstance("2");
+        potentialGroup.setPotentialGroups(Set.of("managers"));
+        DefaultUserTaskInstance admin = newUserTaskInstance("3");
+        admin.setAdminUsers(Set.of("mary"));
+        admin.setAdminGroups(Set.of("admins"));
+        instances.create(potentialUser);
+        instances.create(potentialGroup);
+        instances.create(admin);
+
+        assertThat(ids(instances.findByIdentity(IdentityProviders.of("john")))).containsExactly("1");
+        assertThat(ids(instances.findByIdentity(IdentityProviders.of("mary")))).containsExactly("3");
+        assertThat(ids(instances.findByIdentity(IdentityProviders.of("peter", "managers", "admins")))).containsExactlyInAnyOrder("2", "3");
+        assertThat(instances.findByIdentity(IdentityProviders.of("peter", "users"))).isEmpty();
+    }
+
+    @Test
+    void testIndexFollowsAssignmentChanges() {
+        DefaultUserTaskInstance userTaskInstance = newUserTaskInstance("1");
+        userTaskInstance.setPotentialUsers(Set.of("john"));
+        instances.create(userTaskInstance);
+        assertThat(instances.findByIdentity(IdentityProviders.of("john"))).hasSize(1);
+
+        userTaskInstance.setPotentialUsers(Set.of("mary"));
+        instances.update(userTaskInstance);
+        assertThat(instances.findByIdentity(IdentityProviders.of("john"))).isEmpty();
+        assertThat(instances.findByIdentity(IdentityProviders.of("mary"))).hasSize(1);
+
+        userTaskInstance.setActualOwner("john");
+        instances.update(userTaskInstance);
+        assertThat(instances.findByIdentity(IdentityProviders.of("john"))).hasSize(1);
+
+        assertThat(instances.remove(userTaskInstance)).isNotNull();
+        assertThat(instances.remove(userTaskInstance)).isNull();
+        assertThat(instances.exists("1")).isFalse();
+        assertThat(instances.findByIdentity(IdentityProviders.of("john"))).isEmpty();
+        assertThat(instances.findByIdentity(IdentityProviders.of("mary"))).isEmpty();
+    }
+
+    @Test
+    void testFindByIdReturnsSnapshot() {
+        DefaultUserTaskInstance userTaskInstance = newUserTaskInstance("1");
+        userTaskInstance.setPotentialUsers(Set.of("john"));
+        instances.create(userTaskInstance);
+
+        userTaskInstance.setPotentialUsers(Set.of("mary"));
+        assertThat(instances.findById("1")).hasValueSatisfying(found -> assertThat(found.getPotentialUsers()).containsExactly("john"));
+        assertThat(instances.findById("2")).isEmpty();
+    }
+
+    @Test
+    void testConcurrentCreateAndRemove() throws Exception {
+        int numTasks = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numTasks; i++) {
+                String id = Integer.toString(i);
+                futures.add(executor.submit(() -> {
+                    DefaultUserTaskInstance userTaskInstance = newUserTaskInstance(id);
+                    userTaskInstance.setPotentialGroups(Set.of("users"));
+                    instances.create(userTaskInstance);
+                    if (Integer.parseInt(id) % 2 == 0) {
+                        instances.remove(userTaskInstance);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(instances.findByIdentity(IdentityProviders.of("john", "users"))).hasSize(numTasks / 2);
+    }
+
+    private static DefaultUserTaskInstance newUserTaskInstance(String id) {
+        DefaultUserTaskInstance userTaskInstance = new DefaultUserTaskInstance();
+        userTaskInstance.setId(id);
+        return userTaskInstance;
+    }
+
+    private static List<String> ids(List<UserTaskInstance> userTaskInstances) {
+        return userTaskInstances.stream().map(UserTaskInstance::getId).toList();
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.jbpm.flow.serialization;
 
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.jbpm.ruleflow.instance.RuleFlowProcessInstance;
@@ -35,6 +36,10 @@ public final class MarshallerContextName<T> {
             new MarshallerContextName<>("MARSHALLER_INSTANCE_LISTENERS", () -> new ProcessInstanceMarshallerListener[0]);
     public static final MarshallerContextName<NodeInstanceReader[]> MARSHALLER_NODE_INSTANCE_READER = new MarshallerContextName<>("MARSHALLER_NODE_INSTANCE_READER", () -> new NodeInstanceReader[0]);
     public static final MarshallerContextName<NodeInstanceWriter[]> MARSHALLER_NODE_INSTANCE_WRITER = new MarshallerContextName<>("MARSHALLER_NODE_INSTANCE_WRITER", () -> new NodeInstanceWriter[0]);
+    // when set, only these top level variables are written and those of them no longer present are written without value
+    public static final MarshallerContextName<Set<String>> MARSHALLER_DIRTY_VARIABLES = new MarshallerContextName<>("MARSHALLER_DIRTY_VARIABLES");
+    // whether json variables are written as Smile encoded bytes instead of json text
+    public static final MarshallerContextName<Boolean> MARSHALLER_JSON_BINARY = new MarshallerContextName<>("MARSHALLER_JSON_BINARY", () -> Boolean.FALSE);
 
     public static final String MARSHALLER_FORMAT_JSON = "json";
 
@@ -33,10 +33,27 @@ public interface ObjectMarshallerStrategy extends Comparable<ObjectMarshallerStr
         return that.order().compareTo(this.order());
     }
 
+    /**
+     * Tells whether acceptance only depends on the class of the value to marshall and on the type url of the value to unmarshall,
+     * so the resolved strategy can be reused for every value of the same type.
+     * Strategies that inspect the value content must return false.
+     */
+    default boolean isTypeBased() {
+        return true;
+    }
+
     boolean acceptForMarshalling(Object value);
 
     Any marshall(Object unmarshalled);
 
+    /**
+     * Marshalls the value while writing a process instance. Strategies whose output depends on the marshaller
+     * context settings override it; the default ignores the context.
+     */
+    default Any marshall(MarshallerWriterContext context, Object unmarshalled) {
+        return marshall(unmarshalled);
+    }
+
     boolean acceptForUnmarshalling(Any value);
 
     Object unmarshall(Any marshalled);
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.kie.kogito.metrics.KogitoMeters;
+
+/**
+ * Cumulative statistics of a {@link ProcessInstancePayloadCodec}: compression ratio and time spent compressing
+ * and decompressing payloads. The statistics shared by default are exported as <code>kogito_process_instance_payload_*</code> meters.
+ */
+public class PayloadCodecStatistics {
+
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder decoded = new LongAdder();
+    private final LongAdder decompressed = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    /**
+     * Registers the statistics as meters, tagged with the given tags identifying them when several are registered, see {@link KogitoMeters}
+     */
+    public PayloadCodecStatistics registerMeters(String... tags) {
+        KogitoMeters.counter("kogito_process_instance_payload_encoded_total", "Process instance payloads written", this, PayloadCodecStatistics::getEncodedCount, tags);
+        KogitoMeters.counter("kogito_process_instance_payload_decoded_total", "Process instance payloads read", this, PayloadCodecStatistics::getDecodedCount, tags);
+        KogitoMeters.counter("kogito_process_instance_payload_raw_bytes_total", "Size of the process instance payloads before compression", this, PayloadCodecStatistics::getRawBytes, tags);
+        KogitoMeters.counter("kogito_process_instance_payload_compressed_bytes_total", "Size of the compressed process instance payloads", this, PayloadCodecStatistics::getCompressedBytes,
+                tags);
+        KogitoMeters.gauge("kogito_process_instance_payload_compression_ratio", "Compressed size divided by the original size of the compressed payloads", this,
+                PayloadCodecStatistics::getCompressionRatio, tags);
+        KogitoMeters.timer("kogito_process_instance_payload_compression", "Time spent compressing process instance payloads", this, PayloadCodecStatistics::getCompressedCount,
+                PayloadCodecStatistics::getCompressionNanos, tags);
+        KogitoMeters.timer("kogito_process_instance_payload_decompression", "Time spent decompressing process instance payloads", this, PayloadCodecStatistics::getDecompressedCount,
+                PayloadCodecStatistics::getDecompressionNanos, tags);
+        return this;
+    }
+
+    void recordEncode() {
+        encoded.increment();
+    }
+
+    void recordCompression(int rawSize, int compressedSize, long nanos) {
+        compressed.increment();
+        rawBytes.add(rawSize);
+        compressedBytes.add(compressedSize);
+        compressionNanos.add(nanos);
+    }
+
+    void recordDecode() {
+        decoded.increment();
+    }
+
+    void recordDecompression(long nanos) {
+        decompressed.increment();
+        decompressionNanos.add(nanos);
+    }
+
+    /**
+     * @return number of payloads handed to the codec for writing
+     */
+    public long getEncodedCount() {
+        return encoded.sum();
+    }
+
+    /**
+     * @return number of payloads that were actually stored compressed
+     */
+    public long getCompressedCount() {
+        return compressed.sum();
+    }
+
+    /**
+     * @return number of payloads handed to the codec for reading
+     */
+    public long getDecodedCount() {
+        return decoded.sum();
+    }
+
+    /**
+     * @return number of payloads that were read from a compressed envelope
+     */
+    public long getDecompressedCount() {
+        return decompressed.sum();
+    }
+
+    public long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * @return compressed size divided by the original size of the compressed payloads, 1 when nothing has been compressed yet
+     */
+    public double getCompressionRatio() {
+        long raw = getRawBytes();
+        return raw == 0 ? 1.0 : (double) getCompressedBytes() / raw;
+    }
+
+    public long getCompressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    public long getDecompressionNanos() {
+        return decompressionNanos.sum();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression algorithms that can be applied to a marshalled process instance payload.
+ * The id of each algorithm is persisted in the payload envelope header, so it must never change.
+ */
+public enum PayloadCompression {
+
+    NONE((byte) 0) {
+        @Override
+        OutputStream compressor(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        InputStream decompressor(InputStream in) {
+            return in;
+        }
+    },
+    DEFLATE((byte) 1) {
+        @Override
+        OutputStream compressor(OutputStream out) {
+            return new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED));
+        }
+
+        @Override
+        InputStream decompressor(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    },
+    GZIP((byte) 2) {
+        @Override
+        OutputStream compressor(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+
+        @Override
+        InputStream decompressor(InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    };
+
+    private final byte id;
+
+    PayloadCompression(byte id) {
+        this.id = id;
+    }
+
+    public byte id() {
+        return id;
+    }
+
+    abstract OutputStream compressor(OutputStream out) throws IOException;
+
+    abstract InputStream decompressor(InputStream in) throws IOException;
+
+    void compress(byte[] data, ByteArrayOutputStream target) throws IOException {
+        try (OutputStream out = compressor(target)) {
+            out.write(data);
+        }
+    }
+
+    byte[] decompress(byte[] data, int offset, int expectedLength) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(expectedLength, 32));
+        try (InputStream in = decompressor(new ByteArrayInputStream(data, offset, data.length - offset))) {
+            in.transferTo(out);
+        }
+        return out.toByteArray();
+    }
+
+    public static PayloadCompression fromId(byte id) {
+        for (PayloadCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payload compression id " + id);
+    }
+
+    public static PayloadCompression fromName(String name) {
+        return name == null || name.isBlank() ? NONE : valueOf(name.trim().toUpperCase());
+    }
+}
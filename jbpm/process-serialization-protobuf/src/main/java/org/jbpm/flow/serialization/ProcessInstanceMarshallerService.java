@@ -26,15 +26,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.jbpm.flow.serialization.impl.ProtobufProcessInstanceDelta;
 import org.jbpm.flow.serialization.impl.ProtobufProcessInstanceMarshallerFactory;
+import org.jbpm.process.instance.event.listeners.DirtyVariablesEventListener;
 import org.jbpm.util.JbpmClassLoaderUtil;
+import org.kie.kogito.Application;
+import org.kie.kogito.config.ConfigBean;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcess;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +49,10 @@ import org.slf4j.LoggerFactory;
 public class ProcessInstanceMarshallerService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessInstanceMarshallerService.class);
 
+    public static final double DEFAULT_DELTA_COMPACTION_RATIO = 0.5;
+
+    private static final String DELTA_SNAPSHOT_SIZE = ProcessInstanceMarshallerService.class.getName() + ".deltaSnapshotSize";
+
     private List<ObjectMarshallerStrategy> strats;
 
     private List<ProcessInstanceMarshallerListener> listeners;
@@ -53,6 +64,12 @@ public class ProcessInstanceMarshallerService {
     private List<NodeInstanceReader> readers;
     private List<NodeInstanceWriter> writers;
 
+    // set explicitly through the builder, otherwise payloads are encoded as configured by the application of the process
+    private ProcessInstancePayloadCodec payloadCodec;
+    private volatile ProcessInstancePayloadCodec configuredPayloadCodec;
+
+    private double deltaCompactionRatio;
+
     public class Builder {
 
         public Builder() {
@@ -106,6 +123,16 @@ public class ProcessInstanceMarshallerService {
             return this;
         }
 
+        public Builder withPayloadCodec(ProcessInstancePayloadCodec payloadCodec) {
+            ProcessInstanceMarshallerService.this.payloadCodec = payloadCodec;
+            return this;
+        }
+
+        public Builder withDeltaCompactionRatio(double deltaCompactionRatio) {
+            ProcessInstanceMarshallerService.this.deltaCompactionRatio = deltaCompactionRatio;
+            return this;
+        }
+
         public Builder withObjectMarshallerStrategies(ObjectMarshallerStrategy... strategies) {
             for (ObjectMarshallerStrategy strategy : strategies) {
                 ProcessInstanceMarshallerService.this.strats.add(strategy);
@@ -132,6 +159,7 @@ public class ProcessInstanceMarshallerService {
         this.readers = new ArrayList<>();
         this.writers = new ArrayList<>();
         this.contextEntries = new HashMap<>();
+        this.deltaCompactionRatio = DEFAULT_DELTA_COMPACTION_RATIO;
     }
 
     protected void setupEnvironment(MarshallerContext env) {
@@ -142,10 +170,67 @@ public class ProcessInstanceMarshallerService {
         }
     }
 
+    private boolean isJsonFormat() {
+        return MarshallerContextName.MARSHALLER_FORMAT_JSON.equals(contextEntries.get(MarshallerContextName.MARSHALLER_FORMAT));
+    }
+
     public byte[] marshallProcessInstance(ProcessInstance<?> processInstance) {
+        byte[] data = writeProcessInstance(processInstance);
+        // text formats are stored as documents by some backends, so they are never compressed
+        return isJsonFormat() ? data : payloadCodec(processInstance).encode(data);
+    }
+
+    /**
+     * Marshalls a process instance for delta persistence.
+     * <p>
+     * Only the variables that changed since the last stored snapshot, as tracked by {@link DirtyVariablesEventListener},
+     * and those whose value might have been modified in place are written, together with the rest of the instance state
+     * (node instances included), unless the process instance was not loaded from a snapshot or the delta grows beyond the configured
+     * compaction ratio of the snapshot size, in which case a new full snapshot is returned. Text formats do not support
+     * deltas and always return a snapshot.
+     * 
+     * @param processInstance process instance to be marshalled
+     * @return either a full snapshot or a delta relative to the last stored snapshot
+     */
+    public ProcessInstancePayload marshallProcessInstanceDelta(ProcessInstance<?> processInstance) {
+        if (isJsonFormat()) {
+            return ProcessInstancePayload.snapshot(writeProcessInstance(processInstance));
+        }
+        org.jbpm.process.instance.ProcessInstance internal = internalProcessInstance(processInstance);
+        Integer snapshotSize = (Integer) internal.getMetaData().get(DELTA_SNAPSHOT_SIZE);
+        if (snapshotSize != null) {
+            byte[] delta = writeProcessInstance(processInstance, DirtyVariablesEventListener.changedVariables(internal));
+            if (delta.length <= snapshotSize * deltaCompactionRatio) {
+                return ProcessInstancePayload.delta(payloadCodec(processInstance).encode(delta));
+            }
+        }
+        byte[] data = writeProcessInstance(processInstance);
+        trackChanges(processInstance);
+        internal.setMetaData(DELTA_SNAPSHOT_SIZE, data.length);
+        DirtyVariablesEventListener.clear(internal);
+        return ProcessInstancePayload.snapshot(payloadCodec(processInstance).encode(data));
+    }
+
+    // changes only need to be tracked once a snapshot exists, so the listener is registered only when deltas are in use
+    private static void trackChanges(ProcessInstance<?> processInstance) {
+        KogitoProcessRuntime runtime = ((AbstractProcess<?>) processInstance.process()).getProcessRuntime();
+        if (runtime != null) {
+            DirtyVariablesEventListener.register(runtime.getProcessEventSupport());
+        }
+    }
+
+    private byte[] writeProcessInstance(ProcessInstance<?> processInstance) {
+        return writeProcessInstance(processInstance, null);
+    }
+
+    private byte[] writeProcessInstance(ProcessInstance<?> processInstance, Set<String> dirtyVariables) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             MarshallerWriterContext context = processInstanceMarshallerFactory.newWriterContext(baos);
             context.set(MarshallerContextName.MARSHALLER_PROCESS, processInstance.process());
+            context.set(MarshallerContextName.MARSHALLER_JSON_BINARY, jsonBinary(processInstance));
+            if (dirtyVariables != null) {
+                context.set(MarshallerContextName.MARSHALLER_DIRTY_VARIABLES, dirtyVariables);
+            }
             context.set(MarshallerContextName.MARSHALLER_INSTANCE_LISTENER, listeners.toArray(ProcessInstanceMarshallerListener[]::new));
             context.set(MarshallerContextName.MARSHALLER_NODE_INSTANCE_WRITER, this.writers.toArray(NodeInstanceWriter[]::new));
             setupEnvironment(context);
@@ -157,8 +242,48 @@ public class ProcessInstanceMarshallerService {
         }
     }
 
+    private static boolean jsonBinary(ProcessInstance<?> processInstance) {
+        ConfigBean config = configBean(processInstance);
+        return config != null && config.serializationJsonBinary();
+    }
+
+    private ProcessInstancePayloadCodec payloadCodec(ProcessInstance<?> processInstance) {
+        if (payloadCodec != null) {
+            return payloadCodec;
+        }
+        ProcessInstancePayloadCodec codec = configuredPayloadCodec;
+        if (codec == null) {
+            ConfigBean config = configBean(processInstance);
+            if (config == null) {
+                return ProcessInstancePayloadCodec.DISABLED;
+            }
+            codec = new ProcessInstancePayloadCodec(PayloadCompression.fromName(config.serializationCompression()), config.serializationCompressionThreshold());
+            configuredPayloadCodec = codec;
+        }
+        return codec;
+    }
+
+    // the envelope tells how a payload was compressed, so any codec decodes it
+    private ProcessInstancePayloadCodec payloadDecoder() {
+        return payloadCodec != null ? payloadCodec : ProcessInstancePayloadCodec.DISABLED;
+    }
+
+    private static ConfigBean configBean(ProcessInstance<?> processInstance) {
+        KogitoProcessRuntime runtime = ((AbstractProcess<?>) processInstance.process()).getProcessRuntime();
+        Application application = runtime != null ? runtime.getApplication() : null;
+        return application != null && application.config() != null ? application.config().get(ConfigBean.class) : null;
+    }
+
+    private static org.jbpm.process.instance.ProcessInstance internalProcessInstance(ProcessInstance<?> processInstance) {
+        return (org.jbpm.process.instance.ProcessInstance) ((AbstractProcessInstance<?>) processInstance).internalGetProcessInstance();
+    }
+
     public ProcessInstance<?> unmarshallProcessInstance(byte[] data, Process<?> process, boolean readOnly) {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
+        return readProcessInstance(() -> payloadDecoder().decode(data), process, readOnly);
+    }
+
+    private ProcessInstance<?> readProcessInstance(Supplier<byte[]> dataSupplier, Process<?> process, boolean readOnly) {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(dataSupplier.get())) {
             MarshallerReaderContext context = processInstanceMarshallerFactory.newReaderContext(bais);
             context.set(MarshallerContextName.MARSHALLER_PROCESS, process);
             context.set(MarshallerContextName.MARSHALLER_INSTANCE_READ_ONLY, readOnly);
@@ -186,21 +311,59 @@ public class ProcessInstanceMarshallerService {
             if (data == null) {
                 LOGGER.warn("Process Instance {} cannot be found", processInstance.id());
             }
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
-                MarshallerReaderContext context = processInstanceMarshallerFactory.newReaderContext(bais);
-                context.set(MarshallerContextName.MARSHALLER_PROCESS, processInstance.process());
-                context.set(MarshallerContextName.MARSHALLER_INSTANCE_LISTENER, listeners.toArray(ProcessInstanceMarshallerListener[]::new));
-                context.set(MarshallerContextName.MARSHALLER_NODE_INSTANCE_READER, this.readers.toArray(NodeInstanceReader[]::new));
-                setupEnvironment(context);
-                org.jbpm.flow.serialization.ProcessInstanceMarshaller marshaller =
-                        processInstanceMarshallerFactory.newKogitoProcessInstanceMarshaller();
-                marshaller.reloadProcessInstance(context, processInstance);
-            } catch (Exception e) {
+            reloadProcessInstance(() -> payloadDecoder().decode(data), processInstance);
+        };
+    }
+
+    /**
+     * Same as {@link #createdReloadFunction(Supplier)} for process instances stored using delta persistence.
+     */
+    public Consumer<AbstractProcessInstance<?>> createdDeltaReloadFunction(Supplier<ProcessInstancePayload> payloadSupplier) {
+        return (processInstance) -> {
+            ProcessInstancePayload payload = payloadSupplier.get();
+            if (payload == null) {
+                LOGGER.warn("Process Instance {} cannot be found", processInstance.id());
+                return;
+            }
+            if (isJsonFormat()) {
+                reloadProcessInstance(payload::snapshot, processInstance);
+                return;
+            }
+            ProtobufProcessInstanceDelta.Replay replay;
+            try {
+                replay = replay(payload);
+            } catch (RuntimeException e) {
                 LOGGER.warn("Process Instance {} cannot be reloaded", processInstance.id(), e);
+                return;
+            }
+            if (reloadProcessInstance(replay::processInstance, processInstance)) {
+                restoreDeltaState(processInstance, replay);
             }
         };
     }
 
+    private boolean reloadProcessInstance(Supplier<byte[]> dataSupplier, AbstractProcessInstance<?> processInstance) {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(dataSupplier.get())) {
+            MarshallerReaderContext context = processInstanceMarshallerFactory.newReaderContext(bais);
+            context.set(MarshallerContextName.MARSHALLER_PROCESS, processInstance.process());
+            context.set(MarshallerContextName.MARSHALLER_INSTANCE_LISTENER, listeners.toArray(ProcessInstanceMarshallerListener[]::new));
+            context.set(MarshallerContextName.MARSHALLER_NODE_INSTANCE_READER, this.readers.toArray(NodeInstanceReader[]::new));
+            setupEnvironment(context);
+            org.jbpm.flow.serialization.ProcessInstanceMarshaller marshaller =
+                    processInstanceMarshallerFactory.newKogitoProcessInstanceMarshaller();
+            marshaller.reloadProcessInstance(context, processInstance);
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("Process Instance {} cannot be reloaded", processInstance.id(), e);
+            return false;
+        }
+    }
+
+    private ProtobufProcessInstanceDelta.Replay replay(ProcessInstancePayload payload) {
+        ProcessInstancePayloadCodec decoder = payloadDecoder();
+        return ProtobufProcessInstanceDelta.replay(decoder.decode(payload.snapshot()), payload.hasDelta() ? decoder.decode(payload.delta()) : null);
+    }
+
     public Function<byte[], ProcessInstance<?>> createUnmarshallFunction(Process<?> process, ProcessInstanceReadMode readMode) {
         return data -> unmarshallProcessInstance(data, process, readMode);
     }
@@ -208,4 +371,26 @@ public class ProcessInstanceMarshallerService {
     public ProcessInstance<?> unmarshallProcessInstance(byte[] data, Process<?> process, ProcessInstanceReadMode mode) {
         return unmarshallProcessInstance(data, process, mode.isReadOnly());
     }
+
+    /**
+     * Unmarshalls a process instance stored using delta persistence, replaying the delta (if any) on top of the snapshot.
+     */
+    public ProcessInstance<?> unmarshallProcessInstance(ProcessInstancePayload payload, Process<?> process, ProcessInstanceReadMode mode) {
+        if (isJsonFormat()) {
+            return unmarshallProcessInstance(payload.snapshot(), process, mode);
+        }
+        ProtobufProcessInstanceDelta.Replay replay = replay(payload);
+        ProcessInstance<?> processInstance = readProcessInstance(replay::processInstance, process, mode.isReadOnly());
+        restoreDeltaState(processInstance, replay);
+        return processInstance;
+    }
+
+    // the next delta replaces the stored one, so it must write again the variables the stored one contains
+    private static void restoreDeltaState(ProcessInstance<?> processInstance, ProtobufProcessInstanceDelta.Replay replay) {
+        trackChanges(processInstance);
+        org.jbpm.process.instance.ProcessInstance internal = internalProcessInstance(processInstance);
+        internal.setMetaData(DELTA_SNAPSHOT_SIZE, replay.snapshotSize());
+        DirtyVariablesEventListener.clear(internal);
+        replay.deltaVariables().forEach(name -> DirtyVariablesEventListener.markDirty(internal, name));
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization;
+
+/**
+ * Marshalled process instance as handled by delta persistence.
+ * <p>
+ * When writing, it either carries a full snapshot (which replaces the stored one and discards any stored delta)
+ * or only a delta relative to the last stored snapshot. When reading, it carries the stored snapshot and,
+ * optionally, the stored delta to be replayed on top of it.
+ */
+public final class ProcessInstancePayload {
+
+    private final byte[] snapshot;
+    private final byte[] delta;
+
+    private ProcessInstancePayload(byte[] snapshot, byte[] delta) {
+        this.snapshot = snapshot;
+        this.delta = delta;
+    }
+
+    public static ProcessInstancePayload of(byte[] snapshot, byte[] delta) {
+        return new ProcessInstancePayload(snapshot, delta);
+    }
+
+    public static ProcessInstancePayload snapshot(byte[] snapshot) {
+        return new ProcessInstancePayload(snapshot, null);
+    }
+
+    public static ProcessInstancePayload delta(byte[] delta) {
+        return new ProcessInstancePayload(null, delta);
+    }
+
+    public byte[] snapshot() {
+        return snapshot;
+    }
+
+    public byte[] delta() {
+        return delta;
+    }
+
+    public boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    public boolean hasDelta() {
+        return delta != null;
+    }
+}
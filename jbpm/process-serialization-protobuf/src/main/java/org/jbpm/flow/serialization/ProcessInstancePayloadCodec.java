@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Wraps marshalled process instances into a versioned envelope that optionally compresses them.
+ * <p>
+ * Envelope layout: a <code>0x00</code> marker byte (never the first byte of a protobuf message nor of a JSON document),
+ * the envelope version, the {@link PayloadCompression} id and the original payload length as a 4 bytes big endian integer,
+ * followed by the compressed payload.
+ * Payloads below the configured threshold, or that do not shrink once compressed, are stored as they are,
+ * so data written before compression was enabled (or with it disabled) can always be read back.
+ */
+public class ProcessInstancePayloadCodec {
+
+    static final int DEFAULT_THRESHOLD = 4096;
+
+    static final byte MARKER = 0x00;
+    static final byte VERSION = 1;
+    static final int HEADER_LENGTH = 7;
+
+    private static final PayloadCodecStatistics GLOBAL_STATISTICS = new PayloadCodecStatistics().registerMeters();
+
+    /**
+     * Codec that does not compress, but still decodes payloads compressed by any other codec
+     */
+    public static final ProcessInstancePayloadCodec DISABLED = new ProcessInstancePayloadCodec(PayloadCompression.NONE, DEFAULT_THRESHOLD);
+
+    private final PayloadCompression compression;
+    private final int threshold;
+    private final PayloadCodecStatistics statistics;
+
+    public ProcessInstancePayloadCodec(PayloadCompression compression, int threshold) {
+        this(compression, threshold, GLOBAL_STATISTICS);
+    }
+
+    public ProcessInstancePayloadCodec(PayloadCompression compression, int threshold, PayloadCodecStatistics statistics) {
+        this.compression = compression;
+        this.threshold = threshold;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return statistics shared by every codec not created with its own statistics instance
+     */
+    public static PayloadCodecStatistics globalStatistics() {
+        return GLOBAL_STATISTICS;
+    }
+
+    public PayloadCompression compression() {
+        return compression;
+    }
+
+    public int threshold() {
+        return threshold;
+    }
+
+    public PayloadCodecStatistics statistics() {
+        return statistics;
+    }
+
+    public byte[] encode(byte[] payload) {
+        statistics.recordEncode();
+        if (compression == PayloadCompression.NONE || payload == null || payload.length < threshold) {
+            return payload;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + HEADER_LENGTH);
+        try {
+            out.write(MARKER);
+            out.write(VERSION);
+            out.write(compression.id());
+            out.write(payload.length >>> 24);
+            out.write(payload.length >>> 16);
+            out.write(payload.length >>> 8);
+            out.write(payload.length);
+            compression.compress(payload, out);
+        } catch (IOException e) {
+            throw new ProcessInstanceMarshallerException("Error compressing process instance payload", e);
+        }
+        if (out.size() >= payload.length) {
+            return payload;
+        }
+        byte[] result = out.toByteArray();
+        statistics.recordCompression(payload.length, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    public byte[] decode(byte[] data) {
+        statistics.recordDecode();
+        if (!isEnvelope(data)) {
+            return data;
+        }
+        if (data[1] != VERSION) {
+            throw new ProcessInstanceMarshallerException("Unsupported process instance payload envelope version " + data[1]);
+        }
+        long start = System.nanoTime();
+        int length = ((data[3] & 0xFF) << 24) | ((data[4] & 0xFF) << 16) | ((data[5] & 0xFF) << 8) | (data[6] & 0xFF);
+        try {
+            byte[] result = PayloadCompression.fromId(data[2]).decompress(data, HEADER_LENGTH, length);
+            statistics.recordDecompression(System.nanoTime() - start);
+            return result;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ProcessInstanceMarshallerException("Error decompressing process instance payload", e);
+        }
+    }
+
+    public static boolean isEnvelope(byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MARKER;
+    }
+}
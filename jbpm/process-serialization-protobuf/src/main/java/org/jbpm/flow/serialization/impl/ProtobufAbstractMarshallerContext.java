@@ -32,9 +32,13 @@ import com.google.protobuf.Any;
 public abstract class ProtobufAbstractMarshallerContext implements MarshallerContext {
 
     private Map<MarshallerContextName<?>, Object> env;
+    private Map<Class<?>, ObjectMarshallerStrategy> marshallers;
+    private Map<String, ObjectMarshallerStrategy> unmarshallers;
 
     public ProtobufAbstractMarshallerContext() {
         this.env = new HashMap<>();
+        this.marshallers = new HashMap<>();
+        this.unmarshallers = new HashMap<>();
     }
 
     @SuppressWarnings("unchecked")
@@ -47,23 +51,37 @@ public abstract class ProtobufAbstractMarshallerContext implements MarshallerCon
     @Override
     public <T> void set(MarshallerContextName<T> key, T value) {
         env.put(key, value);
+        if (key == MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES) {
+            marshallers.clear();
+            unmarshallers.clear();
+        }
     }
 
     @Override
     public ObjectMarshallerStrategy findObjectMarshallerStrategyFor(Object value) {
-        return findMarshaller(value, (s, v) -> s.acceptForMarshalling(v));
+        return findMarshaller(value, value != null ? value.getClass() : null, marshallers, (s, v) -> s.acceptForMarshalling(v));
     }
 
     @Override
     public ObjectMarshallerStrategy findObjectUnmarshallerStrategyFor(Any value) {
-        return findMarshaller(value, (s, v) -> s.acceptForUnmarshalling((Any) v));
+        return findMarshaller(value, value.getTypeUrl(), unmarshallers, (s, v) -> s.acceptForUnmarshalling((Any) v));
     }
 
-    private ObjectMarshallerStrategy findMarshaller(Object value, BiPredicate<ObjectMarshallerStrategy, Object> type) {
-        ObjectMarshallerStrategy[] objectMarshallerStrategies = get(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES);
+    private <K> ObjectMarshallerStrategy findMarshaller(Object value, K key, Map<K, ObjectMarshallerStrategy> cache, BiPredicate<ObjectMarshallerStrategy, Object> type) {
+        ObjectMarshallerStrategy cached = key != null ? cache.get(key) : null;
+        if (cached != null) {
+            return cached;
+        }
 
+        ObjectMarshallerStrategy[] objectMarshallerStrategies = get(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES);
+        // once a content based strategy has been asked, another value with the same key might be resolved differently
+        boolean cacheable = key != null;
         for (ObjectMarshallerStrategy current : objectMarshallerStrategies) {
+            cacheable &= current.isTypeBased();
             if (type.test(current, value)) {
+                if (cacheable) {
+                    cache.put(key, current);
+                }
                 return current;
             }
         }
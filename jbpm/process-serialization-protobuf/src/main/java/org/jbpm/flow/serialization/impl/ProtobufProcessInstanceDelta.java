@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.jbpm.flow.serialization.ProcessInstanceMarshallerException;
+import org.jbpm.flow.serialization.protobuf.KogitoProcessInstanceProtobuf;
+import org.jbpm.flow.serialization.protobuf.KogitoTypesProtobuf;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Replays process instance deltas.
+ * <p>
+ * A delta is a regular process instance message whose top level context only contains the variables that changed
+ * since the last full snapshot was stored. Variables removed since then are recorded as tombstones (a variable
+ * without value). Everything else (node instances, swimlanes, timers...) is small compared to variables and
+ * is always written in full. Deltas are cumulative, so replaying only needs the snapshot and the latest delta.
+ */
+public final class ProtobufProcessInstanceDelta {
+
+    /**
+     * Result of replaying a delta on top of a snapshot.
+     */
+    public static final class Replay {
+
+        private final byte[] processInstance;
+        private final int snapshotSize;
+        private final Set<String> deltaVariables;
+
+        private Replay(byte[] processInstance, int snapshotSize, Set<String> deltaVariables) {
+            this.processInstance = processInstance;
+            this.snapshotSize = snapshotSize;
+            this.deltaVariables = deltaVariables;
+        }
+
+        public byte[] processInstance() {
+            return processInstance;
+        }
+
+        public int snapshotSize() {
+            return snapshotSize;
+        }
+
+        /**
+         * Variables written by the delta, which must be written again by the next delta since it replaces this one
+         */
+        public Set<String> deltaVariables() {
+            return deltaVariables;
+        }
+    }
+
+    private ProtobufProcessInstanceDelta() {
+    }
+
+    /**
+     * Replays a delta on top of a snapshot.
+     * 
+     * @param snapshot binary (not enveloped) snapshot
+     * @param delta binary (not enveloped) delta, might be <code>null</code>
+     * @return the resulting full process instance together with the size of the snapshot
+     */
+    public static Replay replay(byte[] snapshot, byte[] delta) {
+        if (delta == null) {
+            return new Replay(snapshot, snapshot.length, Collections.emptySet());
+        }
+        KogitoProcessInstanceProtobuf.ProcessInstance deltaProtobuf = parse(delta);
+        Map<String, KogitoTypesProtobuf.Variable> variables = new TreeMap<>();
+        for (KogitoTypesProtobuf.Variable variable : parse(snapshot).getContext().getVariableList()) {
+            variables.put(variable.getName(), variable);
+        }
+        Set<String> deltaVariables = new LinkedHashSet<>();
+        for (KogitoTypesProtobuf.Variable variable : deltaProtobuf.getContext().getVariableList()) {
+            deltaVariables.add(variable.getName());
+            if (variable.hasValue()) {
+                variables.put(variable.getName(), variable);
+            } else {
+                variables.remove(variable.getName());
+            }
+        }
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder builder = deltaProtobuf.toBuilder();
+        builder.getContextBuilder().clearVariable().addAllVariable(variables.values());
+        return new Replay(builder.build().toByteArray(), snapshot.length, deltaVariables);
+    }
+
+    private static KogitoProcessInstanceProtobuf.ProcessInstance parse(byte[] data) {
+        try {
+            return KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(data);
+        } catch (InvalidProtocolBufferException e) {
+            throw new ProcessInstanceMarshallerException("Error while parsing process instance", e);
+        }
+    }
+}
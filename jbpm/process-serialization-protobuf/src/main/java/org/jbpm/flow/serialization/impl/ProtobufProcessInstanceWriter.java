@@ -20,6 +20,7 @@ package org.jbpm.flow.serialization.impl;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,6 +30,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.jbpm.flow.serialization.MarshallerContextName;
 import org.jbpm.flow.serialization.MarshallerWriterContext;
@@ -137,7 +139,8 @@ public class ProtobufProcessInstanceWriter {
 
         instance.addAllSwimlaneContext(buildSwimlaneContexts((SwimlaneContextInstance) workFlow.getContextInstance(SwimlaneContext.SWIMLANE_SCOPE)));
 
-        instance.setContext(buildWorkflowContext(workFlow));
+        Set<String> dirtyVariables = context.get(MarshallerContextName.MARSHALLER_DIRTY_VARIABLES);
+        instance.setContext(dirtyVariables == null ? buildWorkflowContext(workFlow) : buildWorkflowContext(workFlow, dirtyVariables));
 
         KogitoProcessInstanceProtobuf.ProcessInstance piProtobuf = instance.build();
 
@@ -253,10 +256,29 @@ public class ProtobufProcessInstanceWriter {
     }
 
     protected <T extends NodeInstanceContainer & ContextInstanceContainer & ContextableInstance> WorkflowContext buildWorkflowContext(T nodeInstance) {
-        List<NodeInstance> nodeInstances = new ArrayList<>(nodeInstance.getSerializableNodeInstances());
-        List<ContextInstance> exclusiveGroupInstances = nodeInstance.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
         List<Map.Entry<String, Object>> variables = (variableScopeInstance != null) ? new ArrayList<>(variableScopeInstance.getVariables().entrySet()) : Collections.emptyList();
+        return buildWorkflowContext(nodeInstance, variables);
+    }
+
+    private WorkflowContext buildWorkflowContext(WorkflowProcessInstanceImpl workFlow, Set<String> dirtyVariables) {
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) workFlow.getContextInstance(VariableScope.VARIABLE_SCOPE);
+        Map<String, Object> currentVariables = variableScopeInstance != null ? variableScopeInstance.getVariables() : Collections.emptyMap();
+        List<Map.Entry<String, Object>> variables = new ArrayList<>();
+        List<KogitoTypesProtobuf.Variable> removedVariables = new ArrayList<>();
+        for (String name : dirtyVariables) {
+            if (currentVariables.containsKey(name)) {
+                variables.add(new AbstractMap.SimpleEntry<>(name, currentVariables.get(name)));
+            } else {
+                removedVariables.add(KogitoTypesProtobuf.Variable.newBuilder().setName(name).build());
+            }
+        }
+        return buildWorkflowContext(workFlow, variables).toBuilder().addAllVariable(removedVariables).build();
+    }
+
+    private <T extends NodeInstanceContainer & ContextInstanceContainer & ContextableInstance> WorkflowContext buildWorkflowContext(T nodeInstance, List<Map.Entry<String, Object>> variables) {
+        List<NodeInstance> nodeInstances = new ArrayList<>(nodeInstance.getSerializableNodeInstances());
+        List<ContextInstance> exclusiveGroupInstances = nodeInstance.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         List<Map.Entry<String, Integer>> iterationlevels = new ArrayList<>(nodeInstance.getIterationLevels().entrySet());
         return buildWorkflowContext(nodeInstances, exclusiveGroupInstances, variables, iterationlevels);
     }
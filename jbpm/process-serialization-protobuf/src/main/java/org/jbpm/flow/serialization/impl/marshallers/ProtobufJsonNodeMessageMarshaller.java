@@ -18,18 +18,51 @@
  */
 package org.jbpm.flow.serialization.impl.marshallers;
 
+import java.io.IOException;
+
+import org.jbpm.flow.serialization.MarshallerContextName;
+import org.jbpm.flow.serialization.MarshallerWriterContext;
 import org.jbpm.flow.serialization.ObjectMarshallerStrategy;
 import org.jbpm.flow.serialization.ProcessInstanceMarshallerException;
 import org.jbpm.flow.serialization.protobuf.KogitoTypesProtobuf;
 import org.kie.kogito.jackson.utils.ObjectMapperFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.protobuf.Any;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
 
+/**
+ * Marshals {@link JsonNode} variables either as compact JSON text ({@link KogitoTypesProtobuf.JsonNode}) or,
+ * when the <code>kogito.serialization.json.binary</code> property of the application is set to true,
+ * as Jackson Smile encoded bytes.
+ * <p>
+ * Binary values are stored as a {@link BytesValue} whose type url carries the encoding and its version,
+ * so they are still printable with the JSON marshaller format. Both representations are always readable,
+ * whatever the configuration, so switching the property does not affect existing process instances.
+ */
 public class ProtobufJsonNodeMessageMarshaller implements ObjectMarshallerStrategy {
 
+    static final String SMILE_TYPE_URL_PREFIX = "type.kie.org/json/smile/v1";
+    static final String SMILE_TYPE_URL = SMILE_TYPE_URL_PREFIX + "/" + BytesValue.getDescriptor().getFullName();
+
+    private static class SmileMapper {
+        private static final ObjectMapper instance = ObjectMapperFactory.listenerAware().copyWith(new SmileFactory());
+    }
+
+    // null when the encoding is taken from the marshaller context
+    private final Boolean binary;
+
+    public ProtobufJsonNodeMessageMarshaller() {
+        this.binary = null;
+    }
+
+    public ProtobufJsonNodeMessageMarshaller(boolean binary) {
+        this.binary = binary;
+    }
+
     @Override
     public boolean acceptForMarshalling(Object value) {
         return value instanceof JsonNode;
@@ -37,24 +70,47 @@ public class ProtobufJsonNodeMessageMarshaller implements ObjectMarshallerStrate
 
     @Override
     public boolean acceptForUnmarshalling(Any value) {
-        return value.is(KogitoTypesProtobuf.JsonNode.class);
+        return value.is(KogitoTypesProtobuf.JsonNode.class) || isSmile(value);
     }
 
     @Override
     public Any marshall(Object unmarshalled) {
-        KogitoTypesProtobuf.JsonNode.Builder builder = KogitoTypesProtobuf.JsonNode.newBuilder();
+        return marshall(unmarshalled, Boolean.TRUE.equals(binary));
+    }
+
+    @Override
+    public Any marshall(MarshallerWriterContext context, Object unmarshalled) {
+        return marshall(unmarshalled, binary != null ? binary : context.get(MarshallerContextName.MARSHALLER_JSON_BINARY));
+    }
+
+    private Any marshall(Object unmarshalled, boolean binary) {
         JsonNode node = (JsonNode) unmarshalled;
-        builder.setContent(node.toPrettyString());
+        if (binary) {
+            try {
+                return Any.pack(BytesValue.of(ByteString.copyFrom(SmileMapper.instance.writeValueAsBytes(node))), SMILE_TYPE_URL_PREFIX);
+            } catch (IOException e) {
+                throw new ProcessInstanceMarshallerException("Error trying to marshalling a Json Node value", e);
+            }
+        }
+        KogitoTypesProtobuf.JsonNode.Builder builder = KogitoTypesProtobuf.JsonNode.newBuilder();
+        builder.setContent(node.toString());
         return Any.pack(builder.build());
     }
 
     @Override
     public Object unmarshall(Any data) {
         try {
+            if (isSmile(data)) {
+                return SmileMapper.instance.readTree(data.unpack(BytesValue.class).getValue().newInput());
+            }
             KogitoTypesProtobuf.JsonNode storedValue = data.unpack(KogitoTypesProtobuf.JsonNode.class);
             return ObjectMapperFactory.listenerAware().readTree(storedValue.getContent());
-        } catch (InvalidProtocolBufferException | JsonProcessingException e1) {
+        } catch (IOException e1) {
             throw new ProcessInstanceMarshallerException("Error trying to unmarshalling a Json Node value", e1);
         }
     }
-}
\ No newline at end of file
+
+    private static boolean isSmile(Any value) {
+        return SMILE_TYPE_URL.equals(value.getTypeUrl());
+    }
+}
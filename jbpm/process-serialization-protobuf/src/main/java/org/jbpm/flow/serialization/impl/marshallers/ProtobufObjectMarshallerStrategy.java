@@ -36,6 +36,9 @@ import com.google.protobuf.InvalidProtocolBufferException;
 
 public class ProtobufObjectMarshallerStrategy implements ObjectMarshallerStrategy {
 
+    // Any.is only checks the type name, so bytes packed under another prefix (e.g. Smile encoded json) would match too
+    private static final String TYPE_URL = Any.pack(BytesValue.getDefaultInstance()).getTypeUrl();
+
     @Override
     public Integer order() {
         return 1;
@@ -48,7 +51,7 @@ public class ProtobufObjectMarshallerStrategy implements ObjectMarshallerStrateg
 
     @Override
     public boolean acceptForUnmarshalling(Any value) {
-        return value.is(BytesValue.class);
+        return TYPE_URL.equals(value.getTypeUrl());
     }
 
     @Override
@@ -33,6 +33,9 @@ import java.time.ZonedDateTime;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,6 +52,7 @@ import org.jbpm.flow.serialization.impl.ProtobufProcessInstanceWriter;
 import org.jbpm.flow.serialization.impl.ProtobufProcessMarshallerWriteContext;
 import org.jbpm.flow.serialization.impl.ProtobufVariableReader;
 import org.jbpm.flow.serialization.impl.ProtobufVariableWriter;
+import org.jbpm.flow.serialization.protobuf.KogitoProcessInstanceProtobuf;
 import org.jbpm.flow.serialization.protobuf.KogitoTypesProtobuf;
 import org.jbpm.process.core.context.variable.Variable;
 import org.jbpm.process.core.context.variable.VariableScope;
@@ -62,6 +66,7 @@ import org.jbpm.workflow.core.node.EndNode;
 import org.jbpm.workflow.core.node.HumanTaskNode;
 import org.jbpm.workflow.core.node.StartNode;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -265,6 +270,30 @@ public class ProcessInstanceMarshallTest {
                 .isEqualTo(toMarshall);
     }
 
+    @Test
+    public void testDirtyVariablesMarshalling() throws Exception {
+        RuleFlowProcessInstance toMarshall = buildInstance(true);
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) toMarshall.getContextInstance(VariableScope.VARIABLE_SCOPE);
+        variableScopeInstance.internalSetVariable("unchanged", "1");
+        variableScopeInstance.internalSetVariable("changed", "2");
+        variableScopeInstance.internalSetVariable("nulled", null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProtobufProcessMarshallerWriteContext ctxOut = new ProtobufProcessMarshallerWriteContext(out);
+        ctxOut.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, ObjectMarshallerStrategyHelper.defaultStrategies());
+        ctxOut.set(MarshallerContextName.MARSHALLER_PROCESS, process);
+        ctxOut.set(MarshallerContextName.MARSHALLER_DIRTY_VARIABLES, Set.of("changed", "nulled", "removed"));
+
+        new ProtobufProcessInstanceWriter(ctxOut).writeProcessInstance(toMarshall, out);
+
+        Map<String, KogitoTypesProtobuf.Variable> variables = new TreeMap<>();
+        KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(out.toByteArray()).getContext().getVariableList().forEach(v -> variables.put(v.getName(), v));
+        assertThat(variables).containsOnlyKeys("changed", "nulled", "removed");
+        assertThat(variables.get("changed").hasValue()).isTrue();
+        assertThat(variables.get("nulled").hasValue()).isTrue();
+        assertThat(variables.get("removed").hasValue()).isFalse();
+    }
+
     public class DocumentComparator implements Comparator<Document> {
 
         @Override
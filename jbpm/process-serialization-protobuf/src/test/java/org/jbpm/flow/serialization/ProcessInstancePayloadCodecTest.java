@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ProcessInstancePayloadCodecTest {
+
+    private static final byte[] LARGE_PAYLOAD = "{\"name\":\"kogito\",\"value\":\"persistence\"}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @ParameterizedTest
+    @EnumSource(value = PayloadCompression.class, names = { "DEFLATE", "GZIP" })
+    void testRoundTrip(PayloadCompression compression) {
+        PayloadCodecStatistics statistics = new PayloadCodecStatistics();
+        ProcessInstancePayloadCodec codec = new ProcessInstancePayloadCodec(compression, 1024, statistics);
+
+        byte[] encoded = codec.encode(LARGE_PAYLOAD);
+
+        assertThat(ProcessInstancePayloadCodec.isEnvelope(encoded)).isTrue();
+        assertThat(encoded.length).isLessThan(LARGE_PAYLOAD.length);
+        assertThat(codec.decode(encoded)).isEqualTo(LARGE_PAYLOAD);
+        assertThat(statistics.getCompressedCount()).isEqualTo(1);
+        assertThat(statistics.getDecompressedCount()).isEqualTo(1);
+        assertThat(statistics.getCompressionRatio()).isLessThan(1.0);
+    }
+
+    @Test
+    void testSmallPayloadIsNotCompressed() {
+        ProcessInstancePayloadCodec codec = new ProcessInstancePayloadCodec(PayloadCompression.DEFLATE, 1024, new PayloadCodecStatistics());
+        byte[] payload = new byte[] { 10, 3, 'a', 'b', 'c' };
+
+        assertThat(codec.encode(payload)).isSameAs(payload);
+    }
+
+    @Test
+    void testUncompressedPayloadIsReadable() {
+        ProcessInstancePayloadCodec codec = new ProcessInstancePayloadCodec(PayloadCompression.DEFLATE, 0, new PayloadCodecStatistics());
+
+        assertThat(codec.decode(LARGE_PAYLOAD)).isSameAs(LARGE_PAYLOAD);
+    }
+
+    @Test
+    void testCompressedPayloadIsReadableWithCompressionDisabled() {
+        byte[] encoded = new ProcessInstancePayloadCodec(PayloadCompression.GZIP, 0, new PayloadCodecStatistics()).encode(LARGE_PAYLOAD);
+        ProcessInstancePayloadCodec codec = new ProcessInstancePayloadCodec(PayloadCompression.NONE, 0, new PayloadCodecStatistics());
+
+        assertThat(codec.decode(encoded)).isEqualTo(LARGE_PAYLOAD);
+    }
+
+    @Test
+    void testUnknownEnvelopeVersion() {
+        byte[] encoded = new ProcessInstancePayloadCodec(PayloadCompression.DEFLATE, 0, new PayloadCodecStatistics()).encode(LARGE_PAYLOAD);
+        encoded[1] = 99;
+        ProcessInstancePayloadCodec codec = new ProcessInstancePayloadCodec(PayloadCompression.DEFLATE, 0, new PayloadCodecStatistics());
+
+        assertThatExceptionOfType(ProcessInstanceMarshallerException.class).isThrownBy(() -> codec.decode(encoded));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization.impl;
+
+import java.io.ByteArrayOutputStream;
+
+import org.jbpm.flow.serialization.MarshallerContextName;
+import org.jbpm.flow.serialization.ObjectMarshallerStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.StringValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProtobufAbstractMarshallerContextTest {
+
+    private ObjectMarshallerStrategy first;
+    private ObjectMarshallerStrategy second;
+    private ProtobufProcessMarshallerWriteContext context;
+
+    @BeforeEach
+    void init() {
+        first = mock(ObjectMarshallerStrategy.class);
+        second = mock(ObjectMarshallerStrategy.class);
+        when(first.isTypeBased()).thenReturn(true);
+        when(second.isTypeBased()).thenReturn(true);
+        when(second.acceptForMarshalling(any())).thenReturn(true);
+        when(second.acceptForUnmarshalling(any())).thenReturn(true);
+        context = new ProtobufProcessMarshallerWriteContext(new ByteArrayOutputStream());
+        context.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallerStrategy[] { first, second });
+    }
+
+    @Test
+    void testMarshallerResolvedOncePerClass() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(context.findObjectMarshallerStrategyFor("value" + i)).isSameAs(second);
+        }
+        assertThat(context.findObjectMarshallerStrategyFor(1)).isSameAs(second);
+
+        verify(first).acceptForMarshalling("value0");
+        verify(first).acceptForMarshalling(1);
+        verify(second, times(2)).acceptForMarshalling(any());
+    }
+
+    @Test
+    void testUnmarshallerResolvedOncePerTypeUrl() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(context.findObjectUnmarshallerStrategyFor(Any.pack(StringValue.of("value" + i)))).isSameAs(second);
+        }
+
+        verify(first, times(1)).acceptForUnmarshalling(any());
+        verify(second, times(1)).acceptForUnmarshalling(any());
+    }
+
+    @Test
+    void testContentBasedStrategyIsAlwaysAsked() {
+        when(first.isTypeBased()).thenReturn(false);
+        when(first.acceptForMarshalling("accepted")).thenReturn(true);
+
+        assertThat(context.findObjectMarshallerStrategyFor("rejected")).isSameAs(second);
+        assertThat(context.findObjectMarshallerStrategyFor("accepted")).isSameAs(first);
+        assertThat(context.findObjectMarshallerStrategyFor("rejected")).isSameAs(second);
+
+        verify(first, times(3)).acceptForMarshalling(any());
+    }
+
+    @Test
+    void testCacheResetWhenStrategiesChange() {
+        assertThat(context.findObjectMarshallerStrategyFor("value")).isSameAs(second);
+
+        context.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallerStrategy[] { first });
+        when(first.acceptForMarshalling(any())).thenReturn(true);
+
+        assertThat(context.findObjectMarshallerStrategyFor("value")).isSameAs(first);
+    }
+}
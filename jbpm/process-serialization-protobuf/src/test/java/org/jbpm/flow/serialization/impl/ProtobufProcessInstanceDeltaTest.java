@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization.impl;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jbpm.flow.serialization.protobuf.KogitoProcessInstanceProtobuf;
+import org.jbpm.flow.serialization.protobuf.KogitoTypesProtobuf;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.StringValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufProcessInstanceDeltaTest {
+
+    @Test
+    void testReplay() throws InvalidProtocolBufferException {
+        byte[] snapshot = processInstance(Map.of("unchanged", "1", "small", "1", "removed", "2"));
+        byte[] delta = processInstance(Map.of("small", "3", "added", "4"), "removed");
+
+        ProtobufProcessInstanceDelta.Replay replay = ProtobufProcessInstanceDelta.replay(snapshot, delta);
+
+        assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(replay.processInstance()))
+                .isEqualTo(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(processInstance(Map.of("unchanged", "1", "small", "3", "added", "4"))));
+        assertThat(replay.deltaVariables()).containsExactlyInAnyOrder("small", "added", "removed");
+        assertThat(replay.snapshotSize()).isEqualTo(snapshot.length);
+    }
+
+    @Test
+    void testReplayWithoutDelta() {
+        byte[] snapshot = processInstance(Map.of("small", "1"));
+
+        ProtobufProcessInstanceDelta.Replay replay = ProtobufProcessInstanceDelta.replay(snapshot, null);
+
+        assertThat(replay.processInstance()).isSameAs(snapshot);
+        assertThat(replay.deltaVariables()).isEmpty();
+        assertThat(replay.snapshotSize()).isEqualTo(snapshot.length);
+    }
+
+    @Test
+    void testReplayTakesStateFromDelta() throws InvalidProtocolBufferException {
+        byte[] snapshot = processInstance(Map.of("small", "1"));
+        byte[] delta = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(processInstance(Map.of())).toBuilder().setState(2).build().toByteArray();
+
+        ProtobufProcessInstanceDelta.Replay replay = ProtobufProcessInstanceDelta.replay(snapshot, delta);
+
+        KogitoProcessInstanceProtobuf.ProcessInstance replayed = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(replay.processInstance());
+        assertThat(replayed.getState()).isEqualTo(2);
+        assertThat(variables(replay.processInstance())).containsOnlyKeys("small");
+    }
+
+    @Test
+    void testReplayTakesNodeInstancesFromDelta() throws InvalidProtocolBufferException {
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder snapshot = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(processInstance(Map.of("small", "1"))).toBuilder();
+        snapshot.getContextBuilder().addNodeInstance(KogitoTypesProtobuf.NodeInstance.newBuilder().setId("1").setNodeId("1"));
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder delta = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(processInstance(Map.of())).toBuilder();
+        delta.getContextBuilder().addNodeInstance(KogitoTypesProtobuf.NodeInstance.newBuilder().setId("2").setNodeId("2"));
+
+        ProtobufProcessInstanceDelta.Replay replay = ProtobufProcessInstanceDelta.replay(snapshot.build().toByteArray(), delta.build().toByteArray());
+
+        KogitoProcessInstanceProtobuf.ProcessInstance replayed = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(replay.processInstance());
+        assertThat(replayed.getContext().getNodeInstanceList()).extracting(KogitoTypesProtobuf.NodeInstance::getId).containsExactly("2");
+        assertThat(variables(replay.processInstance())).containsOnlyKeys("small");
+    }
+
+    private static byte[] processInstance(Map<String, String> values, String... removed) {
+        KogitoTypesProtobuf.WorkflowContext.Builder context = KogitoTypesProtobuf.WorkflowContext.newBuilder();
+        new TreeMap<>(values).forEach((name, value) -> context.addVariable(KogitoTypesProtobuf.Variable.newBuilder()
+                .setName(name)
+                .setDataType(String.class.getName())
+                .setValue(Any.pack(StringValue.of(value)))));
+        for (String name : removed) {
+            context.addVariable(KogitoTypesProtobuf.Variable.newBuilder().setName(name));
+        }
+        return KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder()
+                .setId("1")
+                .setProcessId("delta")
+                .setContext(context)
+                .build()
+                .toByteArray();
+    }
+
+    private static Map<String, KogitoTypesProtobuf.Variable> variables(byte[] data) throws InvalidProtocolBufferException {
+        Map<String, KogitoTypesProtobuf.Variable> variables = new TreeMap<>();
+        KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(data).getContext().getVariableList().forEach(v -> variables.put(v.getName(), v));
+        return variables;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jbpm.flow.serialization.impl.marshallers;
+
+import java.io.ByteArrayOutputStream;
+
+import org.jbpm.flow.serialization.MarshallerContextName;
+import org.jbpm.flow.serialization.MarshallerWriterContext;
+import org.jbpm.flow.serialization.impl.ProtobufProcessMarshallerWriteContext;
+import org.jbpm.flow.serialization.protobuf.KogitoTypesProtobuf;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jackson.utils.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.Any;
+import com.google.protobuf.TypeRegistry;
+import com.google.protobuf.util.JsonFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jbpm.flow.serialization.protobuf.ProtobufTypeRegistryFactory.protobufTypeRegistryFactoryInstance;
+
+class ProtobufJsonNodeMessageMarshallerTest {
+
+    private final ProtobufJsonNodeMessageMarshaller textMarshaller = new ProtobufJsonNodeMessageMarshaller(false);
+    private final ProtobufJsonNodeMessageMarshaller binaryMarshaller = new ProtobufJsonNodeMessageMarshaller(true);
+
+    @Test
+    void testTextRoundTrip() {
+        JsonNode node = workflowData();
+        Any marshalled = textMarshaller.marshall(node);
+
+        assertThat(marshalled.is(KogitoTypesProtobuf.JsonNode.class)).isTrue();
+        assertThat(textMarshaller.acceptForUnmarshalling(marshalled)).isTrue();
+        assertThat(textMarshaller.unmarshall(marshalled)).isEqualTo(node);
+    }
+
+    @Test
+    void testBinaryRoundTrip() {
+        JsonNode node = workflowData();
+        Any marshalled = binaryMarshaller.marshall(node);
+
+        assertThat(marshalled.getTypeUrl()).isEqualTo(ProtobufJsonNodeMessageMarshaller.SMILE_TYPE_URL);
+        assertThat(binaryMarshaller.acceptForUnmarshalling(marshalled)).isTrue();
+        assertThat(binaryMarshaller.unmarshall(marshalled)).isEqualTo(node);
+    }
+
+    @Test
+    void testEncodingIsTakenFromContext() {
+        JsonNode node = workflowData();
+        ProtobufJsonNodeMessageMarshaller marshaller = new ProtobufJsonNodeMessageMarshaller();
+        MarshallerWriterContext context = new ProtobufProcessMarshallerWriteContext(new ByteArrayOutputStream());
+
+        assertThat(marshaller.marshall(context, node).is(KogitoTypesProtobuf.JsonNode.class)).isTrue();
+        context.set(MarshallerContextName.MARSHALLER_JSON_BINARY, true);
+        assertThat(marshaller.marshall(context, node).getTypeUrl()).isEqualTo(ProtobufJsonNodeMessageMarshaller.SMILE_TYPE_URL);
+    }
+
+    @Test
+    void testBinaryIsNotAcceptedByObjectStrategy() {
+        ProtobufObjectMarshallerStrategy objectStrategy = new ProtobufObjectMarshallerStrategy();
+
+        assertThat(objectStrategy.acceptForUnmarshalling(binaryMarshaller.marshall(workflowData()))).isFalse();
+        assertThat(objectStrategy.acceptForUnmarshalling(objectStrategy.marshall("value"))).isTrue();
+    }
+
+    @Test
+    void testBothFormatsAreReadable() {
+        JsonNode node = workflowData();
+
+        assertThat(binaryMarshaller.unmarshall(textMarshaller.marshall(node))).isEqualTo(node);
+        assertThat(textMarshaller.unmarshall(binaryMarshaller.marshall(node))).isEqualTo(node);
+    }
+
+    @Test
+    void testPrettyPrintedContentIsReadable() {
+        JsonNode node = workflowData();
+        Any legacy = Any.pack(KogitoTypesProtobuf.JsonNode.newBuilder().setContent(node.toPrettyString()).build());
+
+        assertThat(binaryMarshaller.unmarshall(legacy)).isEqualTo(node);
+    }
+
+    @Test
+    void testPayloadSize() {
+        JsonNode node = workflowData();
+        int prettySize = Any.pack(KogitoTypesProtobuf.JsonNode.newBuilder().setContent(node.toPrettyString()).build()).getSerializedSize();
+        int textSize = textMarshaller.marshall(node).getSerializedSize();
+        int binarySize = binaryMarshaller.marshall(node).getSerializedSize();
+
+        assertThat(textSize).isLessThan(prettySize);
+        assertThat(binarySize).isLessThan(textSize);
+    }
+
+    @Test
+    void testBinaryIsPrintableAsJson() throws Exception {
+        Any marshalled = binaryMarshaller.marshall(workflowData());
+        Any.Builder parsed = Any.newBuilder();
+        TypeRegistry registry = protobufTypeRegistryFactoryInstance().create();
+        JsonFormat.parser().usingTypeRegistry(registry).merge(JsonFormat.printer().usingTypeRegistry(registry).print(marshalled), parsed);
+
+        assertThat(parsed.build()).isEqualTo(marshalled);
+    }
+
+    private static JsonNode workflowData() {
+        ObjectNode data = ObjectMapperFactory.get().createObjectNode();
+        data.put("workflowId", "applicantworkflow");
+        data.put("approved", true);
+        ArrayNode applicants = data.putArray("applicants");
+        for (int i = 0; i < 50; i++) {
+            ObjectNode applicant = applicants.addObject();
+            applicant.put("name", "applicant" + i);
+            applicant.put("email", "applicant" + i + "@example.com");
+            applicant.put("salary", 3000 + i * 100);
+            applicant.put("score", i / 3.0);
+            applicant.putObject("address").put("city", "Brno").put("country", "CZ");
+        }
+        return data;
+    }
+}
@@ -30,11 +30,41 @@ public class ConfigBean extends org.kie.kogito.config.StaticConfigBean {
     @org.springframework.beans.factory.annotation.Value("${kogito.jackson.fail-on-empty-bean:#{false}}")
     boolean failOnEmptyBean;
 
+    @org.springframework.beans.factory.annotation.Value("${kogito.async-continuation.local:#{false}}")
+    boolean asyncContinuationLocal;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.async-continuation.pool-size:#{10}}")
+    int asyncContinuationPoolSize;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.async-continuation.queue-size:#{1000}}")
+    int asyncContinuationQueueSize;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.async-continuation.recovery-delay:#{0}}")
+    long asyncContinuationRecoveryDelay;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.serialization.json.binary:#{false}}")
+    boolean serializationJsonBinary;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.serialization.compression:none}")
+    String serializationCompression;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.serialization.compression-threshold:#{4096}}")
+    int serializationCompressionThreshold;
+
     @jakarta.annotation.PostConstruct
     protected void init() {
         setServiceUrl(kogitoService.orElse(""));
         setCloudEvents(useCloudEvents);
         setFailOnEmptyBean(failOnEmptyBean);
+        setAsyncContinuation(asyncContinuationLocal, asyncContinuationPoolSize, asyncContinuationQueueSize, asyncContinuationRecoveryDelay);
+        setSerializationJsonBinary(serializationJsonBinary);
+        setSerializationCompression(serializationCompression, serializationCompressionThreshold);
         setGav($gav$);
     }
+
+    @Override
+    @jakarta.annotation.PreDestroy
+    public void close() {
+        super.close();
+    }
 }
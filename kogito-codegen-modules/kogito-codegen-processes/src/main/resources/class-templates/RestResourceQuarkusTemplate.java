@@ -45,10 +45,16 @@ import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.core.Response.Status;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jbpm.util.JsonSchemaUtil;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.workitem.TaskModel;
 import org.kie.kogito.auth.IdentityProviderFactory;
@@ -89,8 +95,20 @@ public class $Type$Resource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(summary = "$documentation$", description = "$processInstanceDescription$")
-    public List<$Type$Output> getResources_$name$() {
-        return processService.getProcessInstanceOutput(process);
+    @APIResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.ARRAY, implementation = $Type$Output.class)))
+    public Response getResources_$name$(@QueryParam("pageSize") Integer pageSize,
+                                        @QueryParam("continuationToken") String continuationToken,
+                                        @QueryParam("status") List<Integer> status,
+                                        @QueryParam("businessKeyPrefix") String businessKeyPrefix,
+                                        @QueryParam("createdFrom") String createdFrom,
+                                        @QueryParam("createdTo") String createdTo) {
+        ProcessInstancePage<$Type$Output> page = processService.getProcessInstanceOutput(process,
+                                                                                        ProcessInstanceQuery.fromParameters(pageSize, continuationToken, status, businessKeyPrefix, createdFrom, createdTo));
+        Response.ResponseBuilder response = Response.ok(page.items());
+        if (page.hasNext()) {
+            response.header("X-KOGITO-ContinuationToken", page.continuationToken());
+        }
+        return response.build();
     }
 
     @GET
@@ -26,6 +26,8 @@ import java.util.stream.Collectors;
 import org.jbpm.util.JsonSchemaUtil;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.workitem.TaskModel;
 import org.kie.kogito.auth.IdentityProviderFactory;
@@ -85,8 +87,19 @@ public class $Type$Resource {
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "$documentation$", description = "$processInstanceDescription$")
-    public List<$Type$Output> getResources_$name$() {
-        return processService.getProcessInstanceOutput(process);
+    public ResponseEntity<List<$Type$Output>> getResources_$name$(@RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                                                  @RequestParam(value = "continuationToken", required = false) String continuationToken,
+                                                                  @RequestParam(value = "status", required = false) List<Integer> status,
+                                                                  @RequestParam(value = "businessKeyPrefix", required = false) String businessKeyPrefix,
+                                                                  @RequestParam(value = "createdFrom", required = false) String createdFrom,
+                                                                  @RequestParam(value = "createdTo", required = false) String createdTo) {
+        ProcessInstancePage<$Type$Output> page = processService.getProcessInstanceOutput(process,
+                                                                                        ProcessInstanceQuery.fromParameters(pageSize, continuationToken, status, businessKeyPrefix, createdFrom, createdTo));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header("X-KOGITO-ContinuationToken", page.continuationToken());
+        }
+        return response.body(page.items());
     }
 
     @GetMapping(value = "/schema", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -55,11 +55,14 @@ public class JqExpression implements Expression {
     static final String LANG = "jq";
 
     private static final Logger logger = LoggerFactory.getLogger(JqExpression.class);
-    private final Map<Class<? extends net.thisptr.jackson.jq.Expression>, Collection<Field>> declaredFieldsMap = new ConcurrentHashMap<>();
-    private final Map<Class<? extends net.thisptr.jackson.jq.Expression>, Collection<Field>> allFieldsMap = new ConcurrentHashMap<>();
+    // expression fields only depend on the expression class, so they are shared by all expressions
+    private static final Map<Class<? extends net.thisptr.jackson.jq.Expression>, Collection<Field>> declaredFieldsMap = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends net.thisptr.jackson.jq.Expression>, Collection<Field>> allFieldsMap = new ConcurrentHashMap<>();
+    private static final JsonNode SECRET_NODE = new PrefixJsonNode<>(ExpressionHandlerUtils::getOptionalSecret);
 
     private final Supplier<Scope> scope;
     private final String expr;
+    private volatile EvaluationScope evaluationScope;
 
     private net.thisptr.jackson.jq.Expression internalExpr;
     private JsonQueryException validationError;
@@ -79,7 +82,6 @@ public class JqExpression implements Expression {
         this.scope = scope;
         try {
             this.internalExpr = compile(version);
-            checkFunctionCall(internalExpr);
         } catch (JsonQueryException ex) {
             validationError = ex;
         }
@@ -202,9 +204,32 @@ public class JqExpression implements Expression {
         ExpressionHandlerUtils.assign(targetNode, eval(targetNode, JsonNode.class, context), JsonObjectUtils.fromValue(value), expr);
     }
 
+    /**
+     * Scope holding the bindings that do not depend on the evaluation, built once per base scope and never modified afterwards
+     */
+    private static class EvaluationScope {
+        private final Scope base;
+        private final Scope scope;
+
+        private EvaluationScope(Scope base) {
+            this.base = base;
+            this.scope = Scope.newChildScope(base);
+            this.scope.setValue(ExpressionHandlerUtils.SECRET_MAGIC, SECRET_NODE);
+        }
+    }
+
+    private Scope evaluationScope() {
+        Scope base = scope.get();
+        EvaluationScope current = evaluationScope;
+        if (current == null || current.base != base) {
+            current = new EvaluationScope(base);
+            evaluationScope = current;
+        }
+        return current.scope;
+    }
+
     private Scope getScope(KogitoProcessContext processInfo) {
-        Scope childScope = Scope.newChildScope(scope.get());
-        childScope.setValue(ExpressionHandlerUtils.SECRET_MAGIC, new PrefixJsonNode<>(ExpressionHandlerUtils::getOptionalSecret));
+        Scope childScope = Scope.newChildScope(evaluationScope());
         childScope.setValue(ExpressionHandlerUtils.CONTEXT_MAGIC, new FunctionJsonNode(ExpressionHandlerUtils.getContextFunction(processInfo)));
         childScope.setValue(ExpressionHandlerUtils.CONST_MAGIC, ExpressionHandlerUtils.getConstants(processInfo));
         VariablesHelper.getAdditionalVariables(processInfo).forEach(childScope::setValue);
@@ -52,13 +52,12 @@ public class JqExpressionHandler extends CachedExpressionHandler {
         }
     }
 
-    @Override
-    public Expression buildExpression(String expr) {
-        return new JqExpression(scopeSupplier, expr, Versions.JQ_1_6);
+    public JqExpressionHandler() {
+        super(JqExpression.LANG);
     }
 
     @Override
-    public String lang() {
-        return JqExpression.LANG;
+    public Expression buildExpression(String expr) {
+        return new JqExpression(scopeSupplier, expr, Versions.JQ_1_6);
     }
 }
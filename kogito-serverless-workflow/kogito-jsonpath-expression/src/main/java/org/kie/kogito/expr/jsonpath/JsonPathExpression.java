@@ -42,6 +42,9 @@ public class JsonPathExpression implements Expression {
     private final String expr;
     private Boolean isValid;
     private Exception validationError;
+    // compiled lazily, so invalid expressions keep failing on evaluation rather than on creation
+    private volatile JsonPath compiledPath;
+    private volatile JsonPath[] compiledParts;
 
     public JsonPathExpression(String expr) {
         expr = replaceMagic(expr, ExpressionHandlerUtils.CONST_MAGIC);
@@ -63,6 +66,29 @@ public class JsonPathExpression implements Expression {
                 .build();
     }
 
+    private JsonPath compiledPath() {
+        JsonPath path = compiledPath;
+        if (path == null) {
+            path = JsonPath.compile(expr);
+            compiledPath = path;
+        }
+        return path;
+    }
+
+    private JsonPath[] compiledParts() {
+        JsonPath[] parts = compiledParts;
+        if (parts == null) {
+            // valid json path is $. or $[
+            String[] split = expr.split("((?=\\$\\.|\\$\\[))");
+            parts = new JsonPath[split.length];
+            for (int i = 0; i < split.length; i++) {
+                parts[i] = JsonPath.compile(split[i]);
+            }
+            compiledParts = parts;
+        }
+        return parts;
+    }
+
     private static boolean isContextAware(JsonNode context, Map<String, JsonNode> additionalVars) {
         return !additionalVars.isEmpty() && context instanceof ObjectNode;
     }
@@ -73,14 +99,13 @@ public class JsonPathExpression implements Expression {
         DocumentContext parsedContext = JsonPath.using(jsonPathConfig).parse(context);
         if (String.class.isAssignableFrom(returnClass)) {
             StringBuilder sb = new StringBuilder();
-            // valid json path is $. or $[
-            for (String part : expr.split("((?=\\$\\.|\\$\\[))")) {
+            for (JsonPath part : compiledParts()) {
                 JsonNode partResult = parsedContext.read(part, JsonNode.class);
                 sb.append(partResult.isTextual() ? partResult.asText() : partResult.toPrettyString());
             }
             return (T) sb.toString();
         } else {
-            Object result = parsedContext.read(expr);
+            Object result = parsedContext.read(compiledPath());
             return Boolean.class.isAssignableFrom(returnClass) && result instanceof ArrayNode ? (T) Boolean.valueOf(!((ArrayNode) result).isEmpty())
                     : JsonObjectUtils.convertValue(jsonPathConfig.mappingProvider().map(result, returnClass, jsonPathConfig), returnClass);
         }
@@ -23,13 +23,12 @@ import org.kie.kogito.serverless.workflow.utils.CachedExpressionHandler;
 
 public class JsonPathExpressionHandler extends CachedExpressionHandler {
 
-    @Override
-    public Expression buildExpression(String expr) {
-        return new JsonPathExpression(expr);
+    public JsonPathExpressionHandler() {
+        super(JsonPathExpression.LANG);
     }
 
     @Override
-    public String lang() {
-        return JsonPathExpression.LANG;
+    public Expression buildExpression(String expr) {
+        return new JsonPathExpression(expr);
     }
 }
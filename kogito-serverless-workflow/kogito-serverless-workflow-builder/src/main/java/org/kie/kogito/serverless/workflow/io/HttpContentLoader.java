@@ -109,6 +109,7 @@ class HttpContentLoader extends CachedContentLoader {
             logger.warn("Need to add property tokenURL in metadata for oauth auth");
             return;
         }
+        // the token retrievers share a single Vertx instance, instead of creating one per loaded resource
         switch (oauth.getGrantType()) {
             case CLIENT_CREDENTIALS:
                 tokenRetriever = new ClientOAuth2AuthToken(tokenUrl, refreshUrl);
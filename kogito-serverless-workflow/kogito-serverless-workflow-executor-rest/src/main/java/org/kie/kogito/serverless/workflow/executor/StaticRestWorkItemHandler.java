@@ -19,6 +19,7 @@
 package org.kie.kogito.serverless.workflow.executor;
 
 import org.kogito.workitem.rest.RestWorkItemHandler;
+import org.kogito.workitem.rest.RestWorkItemHandlerConfig;
 import org.kogito.workitem.rest.RestWorkItemHandlerUtils;
 
 import io.vertx.ext.web.client.WebClientOptions;
@@ -32,7 +33,7 @@ class StaticRestWorkItemHandler extends RestWorkItemHandler implements AutoClose
     }
 
     public StaticRestWorkItemHandler(Vertx vertx, WebClientOptions httpOptions, WebClientOptions httpsOptions) {
-        super(WebClient.create(vertx, httpOptions), WebClient.create(vertx, httpsOptions));
+        super(vertx, WebClient.create(vertx, httpOptions), WebClient.create(vertx, httpsOptions), new RestWorkItemHandlerConfig());
     }
 
     @Override
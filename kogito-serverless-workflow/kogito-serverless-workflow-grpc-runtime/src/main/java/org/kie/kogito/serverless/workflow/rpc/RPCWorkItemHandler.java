@@ -23,22 +23,24 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
-import org.kie.kogito.jackson.utils.JsonObjectUtils;
+import org.kie.kogito.jackson.utils.ObjectMapperFactory;
 import org.kie.kogito.serverless.workflow.SWFConstants;
 import org.kie.kogito.serverless.workflow.WorkflowWorkItemHandler;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
@@ -67,20 +69,32 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
 
     public static final String GRPC_ENUM_DEFAULT_PROPERTY = "kogito.grpc.enum.includeDefault";
     public static final String GRPC_STREAM_TIMEOUT_PROPERTY = "kogito.grpc.stream.timeout";
+    public static final String GRPC_ASYNC_PROPERTY = "kogito.grpc.async";
     public static final boolean GRPC_ENUM_DEFAULT_VALUE = false;
     public static final int GRPC_STREAM_TIMEOUT_VALUE = 20;
+    public static final boolean GRPC_ASYNC_VALUE = false;
+
+    private static final Function<ArrayNode, JsonNode> FIRST_RESPONSE = nodes -> nodes.isEmpty() ? NullNode.instance : nodes.get(0);
+    private static final Function<ArrayNode, JsonNode> ALL_RESPONSES = nodes -> nodes;
 
     private final Collection<RPCDecorator> decorators = new ArrayList<>();
     private final int streamTimeout;
+    private final boolean async;
 
     private Map<String, FileDescriptor> fileDescriptors = new ConcurrentHashMap<>();
+    private Map<List<String>, CallDescriptor> callDescriptors = new ConcurrentHashMap<>();
 
     public RPCWorkItemHandler() {
         this(GRPC_ENUM_DEFAULT_VALUE, GRPC_STREAM_TIMEOUT_VALUE);
     }
 
     public RPCWorkItemHandler(boolean enumDefault, int streamTimeout) {
+        this(enumDefault, streamTimeout, GRPC_ASYNC_VALUE);
+    }
+
+    public RPCWorkItemHandler(boolean enumDefault, int streamTimeout, boolean async) {
         this.streamTimeout = streamTimeout;
+        this.async = async;
         if (enumDefault) {
             decorators.add(new DefaultEnumRpcDecorator());
         }
@@ -92,42 +106,103 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
         String file = (String) metadata.get(FILE_PROP);
         String service = (String) metadata.get(SERVICE_PROP);
         String method = (String) metadata.get(METHOD_PROP);
-        return doCall(FileDescriptorHolder.get().descriptor().orElseThrow(() -> new IllegalStateException("Descriptor " + FileDescriptorHolder.DESCRIPTOR_PATH + " is not present")),
-                parameters, getChannel(file, service), file, service, method);
+        return doCall(getCallDescriptor(file, service, method), parameters, getChannel(file, service));
+    }
+
+    @Override
+    protected boolean isAsync(KogitoWorkItem workItem) {
+        return async;
+    }
+
+    @Override
+    protected CompletionStage<?> internalExecuteAsync(KogitoWorkItem workItem, Map<String, Object> parameters) {
+        Map<String, Object> metadata = workItem.getNodeInstance().getNode().getMetaData();
+        String file = (String) metadata.get(FILE_PROP);
+        String service = (String) metadata.get(SERVICE_PROP);
+        String method = (String) metadata.get(METHOD_PROP);
+        return doAsyncCall(getCallDescriptor(file, service, method), parameters, getChannel(file, service));
     }
 
     protected abstract Channel getChannel(String file, String service);
 
-    private JsonNode doCall(FileDescriptorSet fdSet, Map<String, Object> parameters, Channel channel, String fileName, String serviceName, String methodName) {
-        FileDescriptor descriptor = buildFileDescriptor(fdSet, fileName);
-        ServiceDescriptor serviceDesc = Objects.requireNonNull(descriptor.findServiceByName(serviceName), "Cannot find service name " + serviceName);
-        MethodDescriptor methodDesc = Objects.requireNonNull(serviceDesc.findMethodByName(methodName), "Cannot find method name " + methodName);
-        MethodType methodType = getMethodType(methodDesc);
-        ClientCall<Message, Message> call = channel.newCall(io.grpc.MethodDescriptor.<Message, Message> newBuilder()
-                .setType(methodType)
-                .setFullMethodName(io.grpc.MethodDescriptor.generateFullMethodName(
-                        serviceDesc.getFullName(), methodDesc.getName()))
-                .setRequestMarshaller(ProtoUtils.marshaller(
-                        DynamicMessage.newBuilder(methodDesc.getInputType()).buildPartial()))
-                .setResponseMarshaller(ProtoUtils.marshaller(
-                        DynamicMessage.newBuilder(methodDesc.getOutputType()).buildPartial()))
-                .build(), CallOptions.DEFAULT.withWaitForReady());
+    protected Optional<FileDescriptorSet> fileDescriptorSet() {
+        return FileDescriptorHolder.get().descriptor();
+    }
+
+    private CallDescriptor getCallDescriptor(String fileName, String serviceName, String methodName) {
+        return callDescriptors.computeIfAbsent(List.of(fileName, serviceName, methodName), k -> {
+            FileDescriptor descriptor = buildFileDescriptor(fileDescriptorSet()
+                    .orElseThrow(() -> new IllegalStateException("Descriptor " + FileDescriptorHolder.DESCRIPTOR_PATH + " is not present")), fileName);
+            ServiceDescriptor serviceDesc = Objects.requireNonNull(descriptor.findServiceByName(serviceName), "Cannot find service name " + serviceName);
+            MethodDescriptor methodDesc = Objects.requireNonNull(serviceDesc.findMethodByName(methodName), "Cannot find method name " + methodName);
+            MethodType methodType = getMethodType(methodDesc);
+            return new CallDescriptor(methodDesc, io.grpc.MethodDescriptor.<Message, Message> newBuilder()
+                    .setType(methodType)
+                    .setFullMethodName(io.grpc.MethodDescriptor.generateFullMethodName(
+                            serviceDesc.getFullName(), methodDesc.getName()))
+                    .setRequestMarshaller(ProtoUtils.marshaller(
+                            DynamicMessage.newBuilder(methodDesc.getInputType()).buildPartial()))
+                    .setResponseMarshaller(ProtoUtils.marshaller(
+                            DynamicMessage.newBuilder(methodDesc.getOutputType()).buildPartial()))
+                    .build());
+        });
+    }
+
+    private JsonNode doCall(CallDescriptor callDesc, Map<String, Object> parameters, Channel channel) {
+        MethodDescriptor methodDesc = callDesc.methodDesc;
+        MethodType methodType = callDesc.grpcMethodDesc.getType();
+        ClientCall<Message, Message> call = channel.newCall(callDesc.grpcMethodDesc, CallOptions.DEFAULT.withWaitForReady());
 
         if (methodType == MethodType.CLIENT_STREAMING) {
-            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncClientStreamingCall(call, responseObserver),
-                    nodes -> nodes.isEmpty() ? NullNode.instance : nodes.get(0));
+            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncClientStreamingCall(call, responseObserver), FIRST_RESPONSE).get();
         } else if (methodType == MethodType.BIDI_STREAMING) {
-            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncBidiStreamingCall(call, responseObserver), JsonObjectUtils::fromValue);
+            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncBidiStreamingCall(call, responseObserver), ALL_RESPONSES).get();
         } else if (methodType == MethodType.SERVER_STREAMING) {
-            List<JsonNode> nodes = new ArrayList<>();
-            ClientCalls.blockingServerStreamingCall(call, RPCConverterFactory.get().buildMessage(parameters, DynamicMessage.newBuilder(methodDesc.getInputType())).build())
-                    .forEachRemaining(m -> nodes.add(convert(m, methodDesc)));
-            return JsonObjectUtils.fromValue(nodes);
+            // responses are converted as they arrive, without keeping the protobuf messages around
+            ArrayNode nodes = ObjectMapperFactory.get().createArrayNode();
+            ClientCalls.blockingServerStreamingCall(call, buildMessage(parameters, methodDesc)).forEachRemaining(m -> nodes.add(convert(m, methodDesc)));
+            return nodes;
+        } else {
+            return convert(ClientCalls.blockingUnaryCall(call, buildMessage(parameters, methodDesc)), methodDesc);
+        }
+    }
+
+    private CompletionStage<JsonNode> doAsyncCall(CallDescriptor callDesc, Map<String, Object> parameters, Channel channel) {
+        ClientCall<Message, Message> call = channel.newCall(callDesc.grpcMethodDesc, CallOptions.DEFAULT.withWaitForReady());
+        CompletableFuture<JsonNode> future = startAsyncCall(callDesc, parameters, call).toCompletableFuture();
+        // cancelling the returned future (the work item has been aborted) releases the call on both ends
+        future.whenComplete((node, e) -> {
+            if (future.isCancelled()) {
+                call.cancel("Invocation has been cancelled", null);
+            }
+        });
+        return future;
+    }
+
+    private CompletionStage<JsonNode> startAsyncCall(CallDescriptor callDesc, Map<String, Object> parameters, ClientCall<Message, Message> call) {
+        MethodDescriptor methodDesc = callDesc.methodDesc;
+        MethodType methodType = callDesc.grpcMethodDesc.getType();
+
+        if (methodType == MethodType.CLIENT_STREAMING) {
+            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncClientStreamingCall(call, responseObserver), FIRST_RESPONSE).future();
+        } else if (methodType == MethodType.BIDI_STREAMING) {
+            return asyncStreamingCall(parameters, methodDesc, responseObserver -> ClientCalls.asyncBidiStreamingCall(call, responseObserver), ALL_RESPONSES).future();
         } else {
-            return convert(ClientCalls.blockingUnaryCall(call, RPCConverterFactory.get().buildMessage(parameters, DynamicMessage.newBuilder(methodDesc.getInputType())).build()), methodDesc);
+            JsonStreamObserver responseObserver = new JsonStreamObserver(methodDesc, methodType == MethodType.SERVER_STREAMING ? ALL_RESPONSES : FIRST_RESPONSE, false);
+            Message message = buildMessage(parameters, methodDesc);
+            if (methodType == MethodType.SERVER_STREAMING) {
+                ClientCalls.asyncServerStreamingCall(call, message, responseObserver);
+            } else {
+                ClientCalls.asyncUnaryCall(call, message, responseObserver);
+            }
+            return responseObserver.future();
         }
     }
 
+    private static Message buildMessage(Object parameters, MethodDescriptor methodDesc) {
+        return RPCConverterFactory.get().buildMessage(parameters, DynamicMessage.newBuilder(methodDesc.getInputType())).build();
+    }
+
     private FileDescriptor buildFileDescriptor(FileDescriptorSet fdSet, String fileName) {
         return fileDescriptors.computeIfAbsent(fileName, name -> {
             FileDescriptorProto fdProto =
@@ -148,15 +223,14 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
         return node;
     }
 
-    private JsonNode asyncStreamingCall(Map<String, Object> parameters, MethodDescriptor methodDesc, UnaryOperator<StreamObserver<Message>> streamObserverFunction,
-            Function<List<JsonNode>, JsonNode> nodesFunction) {
-        WaitingStreamObserver responseObserver = new WaitingStreamObserver(streamTimeout);
+    private JsonStreamObserver asyncStreamingCall(Map<String, Object> parameters, MethodDescriptor methodDesc, UnaryOperator<StreamObserver<Message>> streamObserverFunction,
+            Function<ArrayNode, JsonNode> nodesFunction) {
+        JsonStreamObserver responseObserver = new JsonStreamObserver(methodDesc, nodesFunction, true);
         StreamObserver<Message> requestObserver = streamObserverFunction.apply(responseObserver);
 
         for (Object messageParam : Objects.requireNonNull((List<Object>) parameters.get(SWFConstants.CONTENT_DATA), "Missing streaming call parameter")) {
             try {
-                Message message = RPCConverterFactory.get().buildMessage(messageParam, DynamicMessage.newBuilder(methodDesc.getInputType())).build();
-                requestObserver.onNext(message);
+                requestObserver.onNext(buildMessage(messageParam, methodDesc));
             } catch (Exception e) {
                 requestObserver.onError(e);
                 throw e;
@@ -165,7 +239,7 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
         }
         requestObserver.onCompleted();
 
-        return nodesFunction.apply(responseObserver.get().stream().map(m -> convert(m, methodDesc)).collect(Collectors.toList()));
+        return responseObserver;
     }
 
     private static MethodType getMethodType(MethodDescriptor methodDesc) {
@@ -182,18 +256,34 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
         }
     }
 
-    private static class WaitingStreamObserver implements StreamObserver<Message> {
-        List<Message> responses = new ArrayList<>();
-        CompletableFuture<List<Message>> responsesFuture = new CompletableFuture<>();
-        private final int timeout;
+    private static class CallDescriptor {
+        private final MethodDescriptor methodDesc;
+        private final io.grpc.MethodDescriptor<Message, Message> grpcMethodDesc;
 
-        public WaitingStreamObserver(int timeout) {
-            this.timeout = timeout;
+        public CallDescriptor(MethodDescriptor methodDesc, io.grpc.MethodDescriptor<Message, Message> grpcMethodDesc) {
+            this.methodDesc = methodDesc;
+            this.grpcMethodDesc = grpcMethodDesc;
+        }
+    }
+
+    private class JsonStreamObserver implements StreamObserver<Message> {
+        // gRPC serializes the calls to onNext, responses are converted as soon as they are received
+        private final ArrayNode responses = ObjectMapperFactory.get().createArrayNode();
+        private final CompletableFuture<JsonNode> responsesFuture = new CompletableFuture<>();
+        private final MethodDescriptor methodDesc;
+        private final Function<ArrayNode, JsonNode> nodesFunction;
+        // client streaming calls are bounded by the stream timeout and report errors as server stream errors, like the blocking ones did
+        private final boolean clientStreaming;
+
+        public JsonStreamObserver(MethodDescriptor methodDesc, Function<ArrayNode, JsonNode> nodesFunction, boolean clientStreaming) {
+            this.methodDesc = methodDesc;
+            this.nodesFunction = nodesFunction;
+            this.clientStreaming = clientStreaming;
         }
 
         @Override
         public void onNext(Message messageReply) {
-            responses.add(messageReply);
+            responses.add(convert(messageReply, methodDesc));
         }
 
         @Override
@@ -203,22 +293,35 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
 
         @Override
         public void onCompleted() {
-            responsesFuture.complete(responses);
+            responsesFuture.complete(nodesFunction.apply(responses));
         }
 
-        public List<Message> get() {
+        public JsonNode get() {
             try {
-                return responsesFuture.get(timeout, TimeUnit.SECONDS);
+                return responsesFuture.get(streamTimeout, TimeUnit.SECONDS);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new IllegalStateException(e);
             } catch (TimeoutException e) {
-                throw new IllegalStateException(String.format("gRPC call timed out after %d seconds", timeout), e);
+                throw timeoutException(e);
             } catch (ExecutionException e) {
                 throw new IllegalStateException(getServerStreamErrorMessage(e.getCause()), e.getCause());
             }
         }
 
+        public CompletionStage<JsonNode> future() {
+            if (!clientStreaming) {
+                return responsesFuture;
+            }
+            return responsesFuture.orTimeout(streamTimeout, TimeUnit.SECONDS).handle((node, e) -> {
+                if (e == null) {
+                    return node;
+                }
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                throw cause instanceof TimeoutException ? timeoutException(cause) : new IllegalStateException(getServerStreamErrorMessage(cause), cause);
+            });
+        }
+
         public void checkForServerStreamErrors() {
             if (responsesFuture.isCompletedExceptionally()) {
                 try {
@@ -229,6 +332,10 @@ public abstract class RPCWorkItemHandler extends WorkflowWorkItemHandler {
             }
         }
 
+        private IllegalStateException timeoutException(Throwable cause) {
+            return new IllegalStateException(String.format("gRPC call timed out after %d seconds", streamTimeout), cause);
+        }
+
         private String getServerStreamErrorMessage(Throwable throwable) {
             return String.format("Received an error through gRPC server stream with status: %s", Status.fromThrowable(throwable));
         }
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.serverless.workflow.rpc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
+import org.kie.kogito.serverless.workflow.SWFConstants;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.DescriptorProtos.MethodDescriptorProto;
+import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RPCWorkItemHandlerTest {
+
+    private static final String FILE_NAME = "greeter.proto";
+    private static final String SERVICE_NAME = "Greeter";
+
+    private static final FileDescriptorProto GREETER_PROTO = FileDescriptorProto.newBuilder()
+            .setName(FILE_NAME)
+            .setPackage("test")
+            .setSyntax("proto3")
+            .addMessageType(message("HelloRequest", "name"))
+            .addMessageType(message("HelloReply", "message"))
+            .addService(ServiceDescriptorProto.newBuilder()
+                    .setName(SERVICE_NAME)
+                    .addMethod(method("SayHello", false, false))
+                    .addMethod(method("SayHelloServerStream", false, true))
+                    .addMethod(method("SayHelloClientStream", true, false))
+                    .addMethod(method("SayHelloBidiStream", true, true))
+                    .addMethod(method("SayHelloNever", false, false)))
+            .build();
+
+    private static Descriptor requestType;
+    private static Descriptor replyType;
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    private Server server;
+    private ManagedChannel channel;
+    private RPCWorkItemHandler handler;
+
+    @BeforeAll
+    static void buildDescriptors() throws DescriptorValidationException {
+        FileDescriptor fileDescriptor = FileDescriptor.buildFrom(GREETER_PROTO, new FileDescriptor[0]);
+        requestType = fileDescriptor.findMessageTypeByName("HelloRequest");
+        replyType = fileDescriptor.findMessageTypeByName("HelloReply");
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName).directExecutor().addService(greeterService()).build().start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+        handler = new TestRPCWorkItemHandler(channel);
+    }
+
+    @AfterEach
+    void cleanup() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testAsyncUnaryCall() {
+        assertThat(handler.isAsync(workItem("SayHello"))).isTrue();
+        JsonNode result = callAsync("SayHello", Map.of("name", "John"));
+        assertThat(result.get("message").asText()).isEqualTo("Hello John");
+    }
+
+    @Test
+    void testAsyncUnaryCallMatchesBlockingCall() {
+        assertThat(handler.internalExecute(workItem("SayHello"), Map.of("name", "John"))).isEqualTo(callAsync("SayHello", Map.of("name", "John")));
+    }
+
+    @Test
+    void testAsyncServerStreamingCall() {
+        JsonNode result = callAsync("SayHelloServerStream", Map.of("name", "John"));
+        assertThat(result.isArray()).isTrue();
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).get("message").asText()).isEqualTo("Hello John");
+        assertThat(result.get(1).get("message").asText()).isEqualTo("Bye John");
+    }
+
+    @Test
+    void testAsyncClientStreamingCall() {
+        JsonNode result = callAsync("SayHelloClientStream", Map.of(SWFConstants.CONTENT_DATA, List.of(Map.of("name", "John"), Map.of("name", "Mary"))));
+        assertThat(result.get("message").asText()).isEqualTo("Hello John, Mary");
+    }
+
+    @Test
+    void testAsyncBidiStreamingCall() {
+        JsonNode result = callAsync("SayHelloBidiStream", Map.of(SWFConstants.CONTENT_DATA, List.of(Map.of("name", "John"), Map.of("name", "Mary"))));
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).get("message").asText()).isEqualTo("Hello John");
+        assertThat(result.get(1).get("message").asText()).isEqualTo("Hello Mary");
+    }
+
+    @Test
+    void testAsyncUnaryCallError() {
+        CompletableFuture<?> future = handler.internalExecuteAsync(workItem("SayHello"), Map.of("name", "error")).toCompletableFuture();
+        assertThat(future).failsWithin(5, TimeUnit.SECONDS).withThrowableOfType(ExecutionException.class).withCauseInstanceOf(StatusRuntimeException.class);
+        assertThat(Status.fromThrowable(catchThrowable(future::join)).getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+    }
+
+    @Test
+    void testAsyncClientStreamingCallError() {
+        CompletableFuture<?> future = handler.internalExecuteAsync(workItem("SayHelloClientStream"), Map.of(SWFConstants.CONTENT_DATA, List.of(Map.of("name", "error"))))
+                .toCompletableFuture();
+        assertThat(future).failsWithin(5, TimeUnit.SECONDS).withThrowableOfType(ExecutionException.class).withCauseInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(future::join).getCause()).hasMessageContaining("Received an error through gRPC server stream");
+    }
+
+    @Test
+    void testCancelAsyncCall() throws InterruptedException {
+        CompletableFuture<?> future = handler.internalExecuteAsync(workItem("SayHelloNever"), Map.of("name", "John")).toCompletableFuture();
+        assertThat(future).isNotDone();
+
+        future.cancel(true);
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private JsonNode callAsync(String method, Map<String, Object> parameters) {
+        return (JsonNode) handler.internalExecuteAsync(workItem(method), parameters).toCompletableFuture().join();
+    }
+
+    private static KogitoWorkItem workItem(String method) {
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class, RETURNS_DEEP_STUBS);
+        when(workItem.getNodeInstance().getNode().getMetaData())
+                .thenReturn(Map.of(RPCWorkItemHandler.FILE_PROP, FILE_NAME, RPCWorkItemHandler.SERVICE_PROP, SERVICE_NAME, RPCWorkItemHandler.METHOD_PROP, method));
+        return workItem;
+    }
+
+    private ServerServiceDefinition greeterService() {
+        return ServerServiceDefinition.builder("test." + SERVICE_NAME)
+                .addMethod(grpcMethod("SayHello", MethodType.UNARY), ServerCalls.asyncUnaryCall((request, responseObserver) -> {
+                    if (name(request).equals("error")) {
+                        responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Invalid name").asRuntimeException());
+                    } else {
+                        responseObserver.onNext(reply("Hello " + name(request)));
+                        responseObserver.onCompleted();
+                    }
+                }))
+                .addMethod(grpcMethod("SayHelloServerStream", MethodType.SERVER_STREAMING), ServerCalls.asyncServerStreamingCall((request, responseObserver) -> {
+                    responseObserver.onNext(reply("Hello " + name(request)));
+                    responseObserver.onNext(reply("Bye " + name(request)));
+                    responseObserver.onCompleted();
+                }))
+                .addMethod(grpcMethod("SayHelloClientStream", MethodType.CLIENT_STREAMING), ServerCalls.asyncClientStreamingCall(responseObserver -> new StreamObserver<>() {
+                    private final List<String> names = new ArrayList<>();
+
+                    @Override
+                    public void onNext(DynamicMessage request) {
+                        names.add(name(request));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        if (names.contains("error")) {
+                            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Invalid name").asRuntimeException());
+                        } else {
+                            responseObserver.onNext(reply("Hello " + String.join(", ", names)));
+                            responseObserver.onCompleted();
+                        }
+                    }
+                }))
+                .addMethod(grpcMethod("SayHelloBidiStream", MethodType.BIDI_STREAMING), ServerCalls.asyncBidiStreamingCall(responseObserver -> new StreamObserver<>() {
+                    @Override
+                    public void onNext(DynamicMessage request) {
+                        responseObserver.onNext(reply("Hello " + name(request)));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onCompleted();
+                    }
+                }))
+                .addMethod(grpcMethod("SayHelloNever", MethodType.UNARY), ServerCalls.asyncUnaryCall(
+                        (request, responseObserver) -> ((ServerCallStreamObserver<DynamicMessage>) responseObserver).setOnCancelHandler(cancelled::countDown)))
+                .build();
+    }
+
+    private static MethodDescriptor<DynamicMessage, DynamicMessage> grpcMethod(String name, MethodType type) {
+        return MethodDescriptor.<DynamicMessage, DynamicMessage> newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName("test." + SERVICE_NAME, name))
+                .setRequestMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(requestType)))
+                .setResponseMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(replyType)))
+                .build();
+    }
+
+    private static String name(DynamicMessage request) {
+        return (String) request.getField(requestType.findFieldByName("name"));
+    }
+
+    private static DynamicMessage reply(String message) {
+        FieldDescriptor field = replyType.findFieldByName("message");
+        return DynamicMessage.newBuilder(replyType).setField(field, message).build();
+    }
+
+    private static DescriptorProto message(String name, String field) {
+        return DescriptorProto.newBuilder()
+                .setName(name)
+                .addField(FieldDescriptorProto.newBuilder()
+                        .setName(field)
+                        .setNumber(1)
+                        .setType(FieldDescriptorProto.Type.TYPE_STRING)
+                        .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL))
+                .build();
+    }
+
+    private static MethodDescriptorProto method(String name, boolean clientStreaming, boolean serverStreaming) {
+        return MethodDescriptorProto.newBuilder()
+                .setName(name)
+                .setInputType(".test.HelloRequest")
+                .setOutputType(".test.HelloReply")
+                .setClientStreaming(clientStreaming)
+                .setServerStreaming(serverStreaming)
+                .build();
+    }
+
+    private static class TestRPCWorkItemHandler extends RPCWorkItemHandler {
+
+        private final Channel channel;
+
+        TestRPCWorkItemHandler(Channel channel) {
+            super(false, 5, true);
+            this.channel = channel;
+        }
+
+        @Override
+        protected Channel getChannel(String file, String service) {
+            return channel;
+        }
+
+        @Override
+        protected Optional<FileDescriptorSet> fileDescriptorSet() {
+            return Optional.of(FileDescriptorSet.newBuilder().addFile(GREETER_PROTO).build());
+        }
+    }
+}
@@ -22,12 +22,18 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItemHandler;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItemManager;
 import org.kie.kogito.internal.process.workitem.WorkItemTransition;
 import org.kie.kogito.jackson.utils.JsonObjectUtils;
+import org.kie.kogito.process.impl.AsyncWorkItems;
 import org.kie.kogito.process.workitems.impl.DefaultKogitoWorkItemHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,18 +42,94 @@ public abstract class WorkflowWorkItemHandler extends DefaultKogitoWorkItemHandl
 
     private static final Logger logger = LoggerFactory.getLogger(WorkflowWorkItemHandler.class);
 
+    // asynchronous invocations waiting for their result, cancelled if the work item is aborted meanwhile
+    private final Map<String, CompletableFuture<?>> pendingInvocations = new ConcurrentHashMap<>();
+
     @Override
     public Optional<WorkItemTransition> activateWorkItemHandler(KogitoWorkItemManager manager, KogitoWorkItemHandler handler, KogitoWorkItem workItem, WorkItemTransition transition) {
         Map<String, Object> parameters = new LinkedHashMap<>(workItem.getParameters());
         parameters.remove(SWFConstants.MODEL_WORKFLOW_VAR);
         logger.debug("Workflow workitem {} will be invoked with parameters {}", workItem.getName(), parameters);
 
+        // a node that does not wait for completion moves on right away, so the result must not complete the work item again
+        if (application != null && isAsync(workItem) && AsyncWorkItems.waitsForCompletion(workItem)) {
+            String processId = workItem.getProcessInstance().getProcessId();
+            String processInstanceId = workItem.getProcessInstanceStringId();
+            String workItemId = workItem.getStringId();
+            AsyncWorkItems.executeAfterUnitOfWork(application, workItemId,
+                    () -> startAsync(workItemId, workItem, parameters).whenComplete((result, error) -> {
+                        if (isCancellation(error)) {
+                            logger.debug("Asynchronous invocation of work item {} was cancelled", workItemId);
+                            return;
+                        }
+                        AsyncWorkItems.complete(application, processId, processInstanceId, workItemId,
+                                () -> Collections.singletonMap("Result", JsonObjectUtils.fromValue(checkResult(result, error))));
+                    }),
+                    () -> cancelAsync(workItemId));
+            return Optional.empty();
+        }
+
         Map<String, Object> params = Collections.singletonMap("Result", JsonObjectUtils.fromValue(internalExecute(workItem, parameters)));
         return Optional.of(this.workItemLifeCycle.newTransition("complete", workItem.getPhaseStatus(), params));
     }
 
+    @Override
+    public Optional<WorkItemTransition> abortWorkItemHandler(KogitoWorkItemManager manager, KogitoWorkItemHandler handler, KogitoWorkItem workItem, WorkItemTransition transition) {
+        cancelAsync(workItem.getStringId());
+        return super.abortWorkItemHandler(manager, handler, workItem, transition);
+    }
+
+    private CompletionStage<?> startAsync(String workItemId, KogitoWorkItem workItem, Map<String, Object> parameters) {
+        CompletableFuture<?> invocation;
+        try {
+            invocation = internalExecuteAsync(workItem, parameters).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedStage(e);
+        }
+        pendingInvocations.put(workItemId, invocation);
+        return invocation.whenComplete((result, error) -> pendingInvocations.remove(workItemId, invocation));
+    }
+
+    private void cancelAsync(String workItemId) {
+        CompletableFuture<?> invocation = pendingInvocations.remove(workItemId);
+        if (invocation != null) {
+            logger.debug("Cancelling asynchronous invocation of work item {}", workItemId);
+            invocation.cancel(true);
+        }
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        return error instanceof CancellationException || error instanceof CompletionException && error.getCause() instanceof CancellationException;
+    }
+
+    private static Object checkResult(Object result, Throwable error) {
+        if (error == null) {
+            return result;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
     protected abstract Object internalExecute(KogitoWorkItem workItem, Map<String, Object> parameters);
 
+    /**
+     * Returns true if the work item should be completed once the invocation started by {@link #internalExecuteAsync(KogitoWorkItem, Map)}
+     * finishes, instead of blocking the activating thread on {@link #internalExecute(KogitoWorkItem, Map)}.
+     * It is ignored when the node holding the work item does not wait for its completion.
+     */
+    protected boolean isAsync(KogitoWorkItem workItem) {
+        return false;
+    }
+
+    /**
+     * Starts the invocation without waiting for its result. It is called once the unit of work that activated the work item has ended
+     * and the work item is completed, in a new unit of work, with the value the returned stage is completed with.
+     * The returned stage is cancelled if the work item is aborted before the invocation finishes.
+     */
+    protected CompletionStage<?> internalExecuteAsync(KogitoWorkItem workItem, Map<String, Object> parameters) {
+        return CompletableFuture.completedStage(internalExecute(workItem, parameters));
+    }
+
     protected static <C> C safeCast(Object obj, Class<C> clazz) {
         return obj == null || clazz.isAssignableFrom(obj.getClass()) ? clazz.cast(obj) : tryConvert(obj, clazz);
     }
@@ -18,13 +18,80 @@
  */
 package org.kie.kogito.serverless.workflow;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.jbpm.workflow.core.node.WorkItemNode;
+import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.workitems.impl.KogitoWorkItemImpl;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.mockito.ArgumentCaptor;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.kogito.serverless.workflow.WorkflowWorkItemHandler.safeCast;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class WorkflowWorkItemHandlerTest {
 
+    private UnitOfWorkManager unitOfWorkManager;
+    private ProcessInstance<?> processInstance;
+    private KogitoWorkItemImpl workItem;
+    private WorkItemNode node;
+    private AsyncHandler handler;
+
+    @BeforeEach
+    void setup() {
+        Application application = mock(Application.class);
+        Processes processes = mock(Processes.class);
+        Process<?> process = mock(Process.class);
+        ProcessInstances<?> instances = mock(ProcessInstances.class);
+        processInstance = mock(ProcessInstance.class);
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        when(application.unitOfWorkManager()).thenReturn(unitOfWorkManager);
+        when(application.get(Processes.class)).thenReturn(processes);
+        doReturn(process).when(processes).processById("process");
+        doReturn(instances).when(process).instances();
+        doReturn(Optional.of(processInstance)).when(instances).findById("pi");
+
+        KogitoProcessInstance kogitoProcessInstance = mock(KogitoProcessInstance.class);
+        when(kogitoProcessInstance.getProcessId()).thenReturn("process");
+        workItem = new KogitoWorkItemImpl();
+        workItem.setId("1");
+        workItem.setProcessInstanceId("pi");
+        workItem.setProcessInstance(kogitoProcessInstance);
+        node = new WorkItemNode();
+        WorkItemNodeInstance nodeInstance = mock(WorkItemNodeInstance.class);
+        when(nodeInstance.getNode()).thenReturn(node);
+        workItem.setNodeInstance(nodeInstance);
+
+        handler = new AsyncHandler();
+        handler.setApplication(application);
+    }
+
     @Test
     void testSafeCast() {
         assertThat(safeCast(4, Long.class)).isInstanceOf(Long.class).isEqualTo(4);
@@ -36,4 +103,104 @@ public class WorkflowWorkItemHandlerTest {
         assertThat(safeCast(1.5, Float.class)).isInstanceOf(Float.class).isEqualTo(1.5f);
         assertThat(safeCast(1.5f, Double.class)).isInstanceOf(Double.class).isEqualTo(1.5);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAsyncCompletion() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(handler.activateWorkItemHandler(null, handler, workItem, null)).isEmpty();
+        assertThat(handler.invocation).isNull();
+        unitOfWork.end();
+
+        assertThat(handler.invocation).isNotNull();
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+        handler.invocation.complete("result");
+
+        ArgumentCaptor<Map<String, Object>> resultsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(processInstance).completeWorkItem(eq("1"), resultsCaptor.capture());
+        assertThat(((JsonNode) resultsCaptor.getValue().get("Result")).asText()).isEqualTo("result");
+    }
+
+    @Test
+    void testSyncWhenNodeDoesNotWaitForCompletion() {
+        node.setWaitForCompletion(false);
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(handler.activateWorkItemHandler(null, handler, workItem, null)).isPresent();
+        unitOfWork.end();
+
+        assertThat(handler.invocation).isNull();
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+
+    @Test
+    void testAsyncFailure() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        handler.activateWorkItemHandler(null, handler, workItem, null);
+        unitOfWork.end();
+        handler.invocation.completeExceptionally(new IllegalStateException("failure"));
+
+        verify(processInstance).updateWorkItem(eq("1"), any());
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+
+    @Test
+    void testAsyncNotStartedWhenUnitOfWorkAborts() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        handler.activateWorkItemHandler(null, handler, workItem, null);
+        unitOfWork.abort();
+
+        assertThat(handler.invocation).isNull();
+    }
+
+    @Test
+    void testAsyncCancelledWhenWorkItemAborted() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        handler.activateWorkItemHandler(null, handler, workItem, null);
+        unitOfWork.end();
+
+        handler.abortWorkItemHandler(null, handler, workItem, null);
+
+        assertThat(handler.invocation).isCancelled();
+        verify(processInstance, never()).completeWorkItem(anyString(), anyMap());
+        verify(processInstance, never()).updateWorkItem(anyString(), any());
+    }
+
+    @Test
+    void testAbortAfterAsyncCompletion() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        handler.activateWorkItemHandler(null, handler, workItem, null);
+        unitOfWork.end();
+        handler.invocation.complete("result");
+
+        handler.abortWorkItemHandler(null, handler, workItem, null);
+
+        assertThat(handler.invocation).isCompletedWithValue("result");
+    }
+
+    private static class AsyncHandler extends WorkflowWorkItemHandler {
+
+        private CompletableFuture<Object> invocation;
+
+        @Override
+        protected Object internalExecute(KogitoWorkItem workItem, Map<String, Object> parameters) {
+            return "sync result";
+        }
+
+        @Override
+        protected boolean isAsync(KogitoWorkItem workItem) {
+            return true;
+        }
+
+        @Override
+        protected CompletionStage<?> internalExecuteAsync(KogitoWorkItem workItem, Map<String, Object> parameters) {
+            invocation = new CompletableFuture<>();
+            return invocation;
+        }
+    }
 }
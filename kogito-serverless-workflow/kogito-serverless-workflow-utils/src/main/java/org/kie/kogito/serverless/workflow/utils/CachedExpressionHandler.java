@@ -18,21 +18,39 @@
  */
 package org.kie.kogito.serverless.workflow.utils;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
-
 import org.kie.kogito.process.expr.Expression;
 import org.kie.kogito.process.expr.ExpressionHandler;
 
 public abstract class CachedExpressionHandler implements ExpressionHandler {
 
-    private Map<String, Expression> expressions = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Maximum number of compiled expressions kept by each expression handler
+     */
+    public static final String CACHE_SIZE_PROPERTY = "kogito.sw.expression.cache.size";
+
+    private final ExpressionCache<String, Expression> expressions = new ExpressionCache<>(
+            ConfigResolverHolder.getConfigResolver().getConfigProperty(CACHE_SIZE_PROPERTY, Integer.class).orElse(ExpressionCache.DEFAULT_MAX_SIZE));
+    private final String lang;
+
+    // there is one handler per language, so the language identifies the cache meters
+    protected CachedExpressionHandler(String lang) {
+        this.lang = lang;
+        expressions.registerMeters("lang", lang);
+    }
+
+    @Override
+    public String lang() {
+        return lang;
+    }
 
     @Override
     public Expression get(String expr) {
         return expressions.computeIfAbsent(ExpressionHandlerUtils.trimExpr(expr), this::buildExpression);
     }
 
+    public ExpressionCache<String, Expression> cache() {
+        return expressions;
+    }
+
     protected abstract Expression buildExpression(String expr);
 }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.serverless.workflow.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.kie.kogito.metrics.KogitoMeters;
+
+/**
+ * Bounded cache of compiled expressions.
+ * <p>
+ * Lookups never block: entries live in a {@link ConcurrentHashMap} and only carry a recently used flag. Once the cache
+ * is full, adding a new entry evicts one that has not been used since the eviction scan last visited it (second chance),
+ * so frequently evaluated expressions stay compiled.
+ */
+public class ExpressionCache<K, V> {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static class Entry<V> {
+        private final V value;
+        private volatile boolean used;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpressionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, was " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> builder) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            entry.used = true;
+            return entry.value;
+        }
+        misses.increment();
+        Entry<V> created = new Entry<>(builder.apply(key));
+        entry = entries.putIfAbsent(key, created);
+        if (entry != null) {
+            return entry.value;
+        }
+        if (size.incrementAndGet() > maxSize) {
+            evict();
+        }
+        return created.value;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, Entry<V>>> iter = entries.entrySet().iterator();
+        while (size.get() > maxSize) {
+            if (!iter.hasNext()) {
+                iter = entries.entrySet().iterator();
+                if (!iter.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<K, Entry<V>> candidate = iter.next();
+            if (candidate.getValue().used) {
+                candidate.getValue().used = false;
+            } else if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Exports size, hits, misses, evictions and hit rate as <code>kogito_expression_cache_*</code> meters, see {@link KogitoMeters}
+     */
+    public ExpressionCache<K, V> registerMeters(String... tags) {
+        KogitoMeters.gauge("kogito_expression_cache_size", "Compiled expressions in the cache", this, ExpressionCache::size, tags);
+        KogitoMeters.counter("kogito_expression_cache_hits_total", "Expressions found compiled in the cache", this, ExpressionCache::hits, tags);
+        KogitoMeters.counter("kogito_expression_cache_misses_total", "Expressions compiled because they were not in the cache", this, ExpressionCache::misses, tags);
+        KogitoMeters.counter("kogito_expression_cache_evictions_total", "Compiled expressions evicted from the full cache", this, ExpressionCache::evictions, tags);
+        KogitoMeters.gauge("kogito_expression_cache_hit_rate", "Ratio of the expressions found compiled in the cache", this, ExpressionCache::hitRate, tags);
+        return this;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
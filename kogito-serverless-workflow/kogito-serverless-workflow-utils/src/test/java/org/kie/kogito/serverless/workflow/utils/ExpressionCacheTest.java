@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.serverless.workflow.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class ExpressionCacheTest {
+
+    @Test
+    void testHitsAndMisses() {
+        AtomicInteger builds = new AtomicInteger();
+        Function<String, String> builder = k -> {
+            builds.incrementAndGet();
+            return k.toUpperCase();
+        };
+        ExpressionCache<String, String> cache = new ExpressionCache<>(10);
+        assertThat(cache.computeIfAbsent(".a", builder)).isEqualTo(".A");
+        assertThat(cache.computeIfAbsent(".a", builder)).isEqualTo(".A");
+        assertThat(cache.computeIfAbsent(".a", builder)).isEqualTo(".A");
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.hitRate()).isEqualTo(2.0 / 3);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testBounded() {
+        ExpressionCache<Integer, Integer> cache = new ExpressionCache<>(5);
+        for (int i = 0; i < 100; i++) {
+            cache.computeIfAbsent(i, Function.identity());
+        }
+        assertThat(cache.size()).isEqualTo(5);
+        assertThat(cache.evictions()).isEqualTo(95);
+    }
+
+    @Test
+    void testHotEntryIsKept() {
+        ExpressionCache<Integer, Integer> cache = new ExpressionCache<>(5);
+        cache.computeIfAbsent(-1, Function.identity());
+        for (int i = 0; i < 100; i++) {
+            cache.computeIfAbsent(-1, Function.identity());
+            cache.computeIfAbsent(i, Function.identity());
+        }
+        long misses = cache.misses();
+        cache.computeIfAbsent(-1, Function.identity());
+        assertThat(cache.misses()).isEqualTo(misses);
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ExpressionCache<>(0));
+    }
+}
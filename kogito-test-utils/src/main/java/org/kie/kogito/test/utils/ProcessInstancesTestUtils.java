@@ -18,9 +18,15 @@
  */
 package org.kie.kogito.test.utils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstancePage;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 
@@ -67,4 +73,45 @@ public class ProcessInstancesTestUtils {
             assertThat(stream).hasSize(size);
         }
     }
+
+    /**
+     * Checks {@link ProcessInstances#find(ProcessInstanceQuery)} against the given active instances, the only ones stored
+     *
+     * @param businessKeyPrefix prefix of the business key of some, but not all, of the instances
+     */
+    public static <T> void assertFind(ProcessInstances<T> processInstances, Collection<ProcessInstance<T>> instances, String businessKeyPrefix) {
+        List<String> ids = instances.stream().map(ProcessInstance::id).sorted().collect(Collectors.toList());
+        List<String> prefixedIds = instances.stream().filter(pi -> pi.businessKey() != null && pi.businessKey().startsWith(businessKeyPrefix))
+                .map(ProcessInstance::id).sorted().collect(Collectors.toList());
+        assertThat(prefixedIds).isNotEmpty().hasSizeLessThan(ids.size());
+
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().withPageSize(ids.size() - 1).build();
+        ProcessInstancePage<ProcessInstance<T>> page = processInstances.find(query);
+        assertThat(page.items()).extracting(ProcessInstance::id).containsExactlyElementsOf(ids.subList(0, ids.size() - 1));
+        assertThat(page.hasNext()).isTrue();
+        page = processInstances.find(query.withContinuationToken(page.continuationToken()));
+        assertThat(page.items()).extracting(ProcessInstance::id).containsExactly(ids.get(ids.size() - 1));
+        assertThat(page.hasNext()).isFalse();
+
+        assertThat(findAllIds(processInstances, ProcessInstanceQuery.builder().withPageSize(1).build())).containsExactlyElementsOf(ids);
+        assertThat(findAllIds(processInstances, ProcessInstanceQuery.builder().withPageSize(1).withBusinessKeyPrefix(businessKeyPrefix).build()))
+                .containsExactlyElementsOf(prefixedIds);
+        assertThat(findAllIds(processInstances, ProcessInstanceQuery.builder().withState(ProcessInstance.STATE_ACTIVE).build())).containsExactlyElementsOf(ids);
+        assertThat(findAllIds(processInstances, ProcessInstanceQuery.builder().withState(ProcessInstance.STATE_COMPLETED).withState(ProcessInstance.STATE_ERROR).build()))
+                .isEmpty();
+    }
+
+    /**
+     * Follows the continuation tokens returned by {@link ProcessInstances#find(ProcessInstanceQuery)} until the last page
+     */
+    public static <T> List<String> findAllIds(ProcessInstances<T> processInstances, ProcessInstanceQuery query) {
+        List<String> ids = new ArrayList<>();
+        ProcessInstancePage<ProcessInstance<T>> page = processInstances.find(query);
+        page.items().forEach(pi -> ids.add(pi.id()));
+        while (page.hasNext()) {
+            page = processInstances.find(query.withContinuationToken(page.continuationToken()));
+            page.items().forEach(pi -> ids.add(pi.id()));
+        }
+        return ids;
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Map;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.oauth2.OAuth2FlowType;
 import io.vertx.ext.auth.oauth2.OAuth2Options;
+import io.vertx.mutiny.core.Vertx;
 
 public class ClientOAuth2AuthToken extends OAuth2AuthToken<ClientInfo> {
     public static final String CLIENT_ID = "clientId";
@@ -34,6 +35,10 @@ public class ClientOAuth2AuthToken extends OAuth2AuthToken<ClientInfo> {
         super(tokenUrl, refreshUrl);
     }
 
+    public ClientOAuth2AuthToken(Vertx vertx, String tokenUrl, String refreshUrl) {
+        super(vertx, tokenUrl, refreshUrl);
+    }
+
     @Override
     protected OAuth2Options fillOptions(OAuth2Options options, ClientInfo cacheKey) {
         return options.setFlow(OAuth2FlowType.CLIENT).setClientId(cacheKey.getClientId()).setClientSecret(cacheKey.getClientId());
@@ -18,8 +18,16 @@
  */
 package org.kogito.workitem.rest.auth;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.oauth2.OAuth2Options;
@@ -29,35 +37,112 @@ import io.vertx.mutiny.ext.auth.oauth2.OAuth2Auth;
 
 public abstract class OAuth2AuthToken<T> implements TokenRetriever {
 
-    private static final Map<Object, User> usersCache = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(OAuth2AuthToken.class);
+
+    /**
+     * Seconds before expiration a token is refreshed in background, so callers keep using the current one meanwhile
+     */
+    public static final int REFRESH_LEEWAY_SECONDS = 30;
+
+    private static final Map<Object, CachedToken> tokensCache = new ConcurrentHashMap<>();
+
+    private static class DefaultVertx {
+        // created only when no application instance is provided, shared by every token retriever
+        private static final Vertx INSTANCE = Vertx.vertx();
+    }
 
+    private final Supplier<Vertx> vertx;
     private final String tokenUrl;
     private final String refreshUrl;
 
     protected OAuth2AuthToken(String tokenUrl, String refreshUrl) {
+        this(() -> DefaultVertx.INSTANCE, tokenUrl, refreshUrl);
+    }
+
+    protected OAuth2AuthToken(Vertx vertx, String tokenUrl, String refreshUrl) {
+        this(() -> vertx, tokenUrl, refreshUrl);
+    }
+
+    private OAuth2AuthToken(Supplier<Vertx> vertx, String tokenUrl, String refreshUrl) {
+        this.vertx = vertx;
         this.tokenUrl = tokenUrl;
         this.refreshUrl = refreshUrl;
     }
 
     @Override
     public String getToken(Map<String, Object> parameters) {
-        User user = usersCache.compute(getCacheKey(parameters), this::getOrRefreshUser);
-        return user.principal().getString("access_token");
+        return getToken(parameters, null);
+    }
+
+    @Override
+    public String getToken(Map<String, Object> parameters, Vertx vertx) {
+        return join(getTokenAsync(parameters, vertx).toCompletableFuture());
     }
 
-    private User getOrRefreshUser(Object c, User user) {
-        T cacheKey = (T) c;
+    @Override
+    public CompletionStage<String> getTokenAsync(Map<String, Object> parameters, Vertx vertx) {
+        Supplier<Vertx> requestVertx = vertx == null ? this.vertx : () -> vertx;
+        T cacheKey = getCacheKey(parameters);
+        // parameters might be missing, so the key must accept nulls
+        CachedToken cachedToken = tokensCache.computeIfAbsent(Arrays.asList(tokenUrl, cacheKey), k -> new CachedToken());
+        User user = cachedToken.user;
+        CompletionStage<User> result;
         if (user == null) {
-            return createOAuth2(tokenUrl, cacheKey).authenticateAndAwait(getJsonObject(cacheKey));
-        } else if (user.expired()) {
-            return createOAuth2(refreshUrl != null ? refreshUrl : tokenUrl, cacheKey).refreshAndAwait(user);
+            // no usable token, the caller has to wait for the one being acquired
+            result = cachedToken.acquire(() -> authenticate(requestVertx.get(), cacheKey));
+        } else if (expiresWithin(user, 0)) {
+            User expired = user;
+            result = cachedToken.acquire(() -> refreshOrAuthenticate(requestVertx.get(), cacheKey, expired));
         } else {
-            return user;
+            if (expiresWithin(user, REFRESH_LEEWAY_SECONDS)) {
+                // still valid, the refreshed one will be used by next callers
+                User current = user;
+                cachedToken.acquire(() -> refreshOrAuthenticate(requestVertx.get(), cacheKey, current));
+            }
+            result = CompletableFuture.completedFuture(user);
+        }
+        return result.thenApply(u -> u.principal().getString("access_token"));
+    }
+
+    /**
+     * Refresh tokens might be expired or revoked, in which case a new token is requested
+     */
+    private CompletableFuture<User> refreshOrAuthenticate(Vertx vertx, T cacheKey, User user) {
+        return refresh(vertx, cacheKey, user).exceptionallyCompose(e -> {
+            logger.info("Error refreshing OAuth2 token, authenticating again: {}", e.getMessage());
+            return authenticate(vertx, cacheKey);
+        });
+    }
+
+    /**
+     * User.expired(leeway) treats the leeway as a tolerance after expiration, this checks if the token expires in the given seconds
+     */
+    private static boolean expiresWithin(User user, int seconds) {
+        Long expiration = user.attributes().getLong("exp", user.principal().getLong("exp"));
+        return expiration != null && System.currentTimeMillis() / 1000 + seconds >= expiration;
+    }
+
+    protected CompletableFuture<User> authenticate(Vertx vertx, T cacheKey) {
+        return createOAuth2(vertx, tokenUrl, cacheKey).authenticate(getJsonObject(cacheKey)).subscribeAsCompletionStage();
+    }
+
+    protected CompletableFuture<User> refresh(Vertx vertx, T cacheKey, User user) {
+        return createOAuth2(vertx, refreshUrl != null ? refreshUrl : tokenUrl, cacheKey).refresh(user).subscribeAsCompletionStage();
+    }
+
+    private static User join(CompletableFuture<User> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for OAuth2 token", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error obtaining OAuth2 token", e.getCause());
         }
     }
 
-    private OAuth2Auth createOAuth2(String tokenPath, T cacheKey) {
-        return OAuth2Auth.create(Vertx.vertx(), fillOptions(new OAuth2Options().setTokenPath(tokenPath), cacheKey));
+    private OAuth2Auth createOAuth2(Vertx vertx, String tokenPath, T cacheKey) {
+        return OAuth2Auth.create(vertx, fillOptions(new OAuth2Options().setTokenPath(tokenPath), cacheKey));
     }
 
     protected abstract OAuth2Options fillOptions(OAuth2Options setTokenPath, T cacheKey);
@@ -66,4 +151,32 @@ public abstract class OAuth2AuthToken<T> implements TokenRetriever {
 
     protected abstract T getCacheKey(Map<String, Object> parameters);
 
+    private static class CachedToken {
+
+        private volatile User user;
+        private CompletableFuture<User> inFlight;
+
+        /**
+         * Starts the token acquisition unless there is already one in progress, in which case that one is returned.
+         */
+        synchronized CompletableFuture<User> acquire(Supplier<CompletableFuture<User>> request) {
+            CompletableFuture<User> future = inFlight;
+            if (future == null) {
+                future = request.get();
+                inFlight = future;
+                // might be executed right away if the request is already completed
+                future.whenComplete(this::completed);
+            }
+            return future;
+        }
+
+        private synchronized void completed(User newUser, Throwable error) {
+            inFlight = null;
+            if (error == null) {
+                user = newUser;
+            } else {
+                logger.warn("Error obtaining OAuth2 token, it will be requested again on next call", error);
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Map;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.oauth2.OAuth2FlowType;
 import io.vertx.ext.auth.oauth2.OAuth2Options;
+import io.vertx.mutiny.core.Vertx;
 
 public class PasswordOAuth2AuthToken extends OAuth2AuthToken<UserInfo> {
 
@@ -33,6 +34,10 @@ public class PasswordOAuth2AuthToken extends OAuth2AuthToken<UserInfo> {
         super(tokenUrl, refreshUrl);
     }
 
+    public PasswordOAuth2AuthToken(Vertx vertx, String tokenUrl, String refreshUrl) {
+        super(vertx, tokenUrl, refreshUrl);
+    }
+
     @Override
     protected OAuth2Options fillOptions(OAuth2Options options, UserInfo cacheKey) {
         return options.setFlow(OAuth2FlowType.PASSWORD);
@@ -19,7 +19,31 @@
 package org.kogito.workitem.rest.auth;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import io.vertx.mutiny.core.Vertx;
 
 public interface TokenRetriever {
     String getToken(Map<String, Object> parameters);
+
+    /**
+     * Obtains the token using the given Vertx instance for the requests it might need
+     *
+     * @param parameters parameters identifying the token
+     * @param vertx Vertx instance owned by the caller, the retriever default one is used if null
+     */
+    default String getToken(Map<String, Object> parameters, Vertx vertx) {
+        return getToken(parameters);
+    }
+
+    /**
+     * Obtains the token without blocking the calling thread while it is requested
+     *
+     * @param parameters parameters identifying the token
+     * @param vertx Vertx instance owned by the caller, the retriever default one is used if null
+     */
+    default CompletionStage<String> getTokenAsync(Map<String, Object> parameters, Vertx vertx) {
+        return CompletableFuture.completedFuture(getToken(parameters, vertx));
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kogito.workitem.rest.auth;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.oauth2.OAuth2Options;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.ext.auth.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+
+class OAuth2AuthTokenTest {
+
+    private static final Map<String, Object> PARAMETERS = Map.of("client", "client");
+
+    @Test
+    void testTokenIsCached() {
+        TestToken token = new TestToken("http://cached");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 3600)));
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.authenticated).isEqualTo(1);
+        assertThat(token.refreshed).isZero();
+    }
+
+    @Test
+    void testTokenIsCachedPerTokenUrl() {
+        TestToken token = new TestToken("http://first-url");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 3600)));
+        TestToken otherToken = new TestToken("http://second-url");
+        otherToken.authentications.add(CompletableFuture.completedFuture(user("second", 3600)));
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(otherToken.getToken(PARAMETERS)).isEqualTo("second");
+    }
+
+    @Test
+    void testConcurrentCallersShareOneRequest() throws Exception {
+        TestToken token = new TestToken("http://concurrent");
+        CompletableFuture<User> authentication = new CompletableFuture<>();
+        token.authentications.add(authentication);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> token.getToken(PARAMETERS)));
+            }
+            assertThat(token.requested.await(5, TimeUnit.SECONDS)).isTrue();
+            authentication.complete(user("shared", 3600));
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+            }
+            assertThat(token.authenticated).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTokenAboutToExpireIsRefreshedInBackground() {
+        TestToken token = new TestToken("http://background");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 10)));
+        CompletableFuture<User> refresh = new CompletableFuture<>();
+        token.refreshes.add(refresh);
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        // the token is still valid, callers do not wait for the refresh and only one is started
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.refreshed).isEqualTo(1);
+
+        refresh.complete(user("second", 3600));
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("second");
+        assertThat(token.refreshed).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedRefreshFallsBackToAuthentication() {
+        TestToken token = new TestToken("http://failed-refresh");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 10)));
+        token.authentications.add(CompletableFuture.completedFuture(user("second", 3600)));
+        token.refreshes.add(CompletableFuture.failedFuture(new IllegalStateException("refresh failure")));
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("second");
+        assertThat(token.refreshed).isEqualTo(1);
+        assertThat(token.authenticated).isEqualTo(2);
+    }
+
+    @Test
+    void testFailedBackgroundRefreshAndAuthenticationAreRetried() {
+        TestToken token = new TestToken("http://failed-background");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 10)));
+        token.authentications.add(CompletableFuture.failedFuture(new IllegalArgumentException("invalid credentials")));
+        token.refreshes.add(CompletableFuture.failedFuture(new IllegalStateException("refresh failure")));
+        token.refreshes.add(CompletableFuture.completedFuture(user("second", 3600)));
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        // the failure is logged and the next caller starts a new refresh
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("second");
+        assertThat(token.refreshed).isEqualTo(2);
+    }
+
+    @Test
+    void testAsyncTokenDoesNotBlock() {
+        TestToken token = new TestToken("http://async");
+        CompletableFuture<User> authentication = new CompletableFuture<>();
+        token.authentications.add(authentication);
+
+        CompletableFuture<String> result = token.getTokenAsync(PARAMETERS, null).toCompletableFuture();
+        assertThat(result).isNotDone();
+
+        authentication.complete(user("first", 3600));
+        assertThat(result).isCompletedWithValue("first");
+    }
+
+    @Test
+    void testMissingParametersAreCached() {
+        TestToken token = new TestToken("http://missing");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 3600)));
+
+        assertThat(token.getToken(Map.of())).isEqualTo("first");
+        assertThat(token.getToken(Map.of())).isEqualTo("first");
+        assertThat(token.authenticated).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredTokenWaitsForRefresh() {
+        TestToken token = new TestToken("http://expired");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", -10)));
+        token.refreshes.add(CompletableFuture.completedFuture(user("second", 3600)));
+
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("second");
+    }
+
+    @Test
+    void testFailedAuthentication() {
+        TestToken token = new TestToken("http://failed");
+        token.authentications.add(CompletableFuture.failedFuture(new IllegalArgumentException("invalid credentials")));
+        token.authentications.add(CompletableFuture.completedFuture(user("first", 3600)));
+
+        assertThatIllegalStateException().isThrownBy(() -> token.getToken(PARAMETERS)).withCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(token.getToken(PARAMETERS)).isEqualTo("first");
+    }
+
+    @Test
+    void testCallerVertxIsUsed() {
+        Vertx defaultVertx = mock(Vertx.class);
+        Vertx callerVertx = mock(Vertx.class);
+        TestToken token = new TestToken(defaultVertx, "http://vertx");
+        token.authentications.add(CompletableFuture.completedFuture(user("first", -10)));
+        token.refreshes.add(CompletableFuture.completedFuture(user("second", 3600)));
+
+        token.getToken(PARAMETERS, callerVertx);
+        assertThat(token.usedVertx).isSameAs(callerVertx);
+        token.getToken(PARAMETERS);
+        assertThat(token.usedVertx).isSameAs(defaultVertx);
+    }
+
+    private static User user(String accessToken, long expiresIn) {
+        return User.newInstance(io.vertx.ext.auth.User.create(new JsonObject().put("access_token", accessToken),
+                new JsonObject().put("exp", System.currentTimeMillis() / 1000 + expiresIn)));
+    }
+
+    private static class TestToken extends OAuth2AuthToken<String> {
+
+        private final List<CompletableFuture<User>> authentications = new ArrayList<>();
+        private final List<CompletableFuture<User>> refreshes = new ArrayList<>();
+        private final CountDownLatch requested = new CountDownLatch(1);
+        private volatile int authenticated;
+        private volatile int refreshed;
+        private volatile Vertx usedVertx;
+
+        TestToken(String tokenUrl) {
+            this(mock(Vertx.class), tokenUrl);
+        }
+
+        TestToken(Vertx vertx, String tokenUrl) {
+            super(vertx, tokenUrl, null);
+        }
+
+        @Override
+        protected CompletableFuture<User> authenticate(Vertx vertx, String cacheKey) {
+            usedVertx = vertx;
+            requested.countDown();
+            return authentications.get(authenticated++);
+        }
+
+        @Override
+        protected CompletableFuture<User> refresh(Vertx vertx, String cacheKey, User user) {
+            usedVertx = vertx;
+            return refreshes.get(refreshed++);
+        }
+
+        @Override
+        protected OAuth2Options fillOptions(OAuth2Options options, String cacheKey) {
+            return options;
+        }
+
+        @Override
+        protected JsonObject getJsonObject(String cacheKey) {
+            return new JsonObject();
+        }
+
+        @Override
+        protected String getCacheKey(Map<String, Object> parameters) {
+            return (String) parameters.get("client");
+        }
+    }
+}
@@ -28,7 +28,12 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -43,6 +48,7 @@ import org.kie.kogito.internal.process.workitem.KogitoWorkItemHandler;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItemManager;
 import org.kie.kogito.internal.process.workitem.WorkItemExecutionException;
 import org.kie.kogito.internal.process.workitem.WorkItemTransition;
+import org.kie.kogito.process.impl.AsyncWorkItems;
 import org.kie.kogito.process.workitems.impl.DefaultKogitoWorkItemHandler;
 import org.kogito.workitem.rest.auth.ApiKeyAuthDecorator;
 import org.kogito.workitem.rest.auth.AuthDecorator;
@@ -60,7 +66,10 @@ import org.kogito.workitem.rest.resulthandlers.RestWorkItemHandlerResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
 import io.vertx.mutiny.ext.web.client.HttpResponse;
@@ -90,6 +99,9 @@ public class RestWorkItemHandler extends DefaultKogitoWorkItemHandler {
     public static final String AUTH_METHOD = "AuthMethod";
 
     public static final String REQUEST_TIMEOUT_IN_MILLIS = "RequestTimeout";
+    public static final String ASYNC_COMPLETION = "AsyncCompletion";
+
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 256;
 
     public static final int DEFAULT_PORT = 80;
     public static final int DEFAULT_SSL_PORT = 443;
@@ -108,11 +120,43 @@ public class RestWorkItemHandler extends DefaultKogitoWorkItemHandler {
 
     protected final WebClient httpClient;
     protected final WebClient httpsClient;
+    // used by the auth decorators that need to call other services, like the OAuth2 token endpoint
+    private final Vertx vertx;
     private Collection<RequestDecorator> requestDecorators;
 
+    private final boolean asyncCompletion;
+    private final Semaphore inFlightRequests;
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final AtomicLong completedRequests = new AtomicLong();
+    private final AtomicLong requestsLatencyNanos = new AtomicLong();
+
     public RestWorkItemHandler(WebClient httpClient, WebClient httpsClient) {
+        this(httpClient, httpsClient, false, DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+    }
+
+    public RestWorkItemHandler(WebClient httpClient, WebClient httpsClient, RestWorkItemHandlerConfig config) {
+        this(null, httpClient, httpsClient, config);
+    }
+
+    public RestWorkItemHandler(Vertx vertx, WebClient httpClient, WebClient httpsClient, RestWorkItemHandlerConfig config) {
+        this(vertx, httpClient, httpsClient, config.isAsyncCompletion(), config.getMaxInFlightRequests());
+    }
+
+    /**
+     * @param asyncCompletion if true, the work item is completed from the response callback in a new unit of work instead of waiting for the response.
+     *        It can be overridden per work item through the {@link #ASYNC_COMPLETION} parameter.
+     * @param maxInFlightRequests number of asynchronous requests allowed to be waiting for a response, further requests are executed synchronously
+     */
+    public RestWorkItemHandler(WebClient httpClient, WebClient httpsClient, boolean asyncCompletion, int maxInFlightRequests) {
+        this(null, httpClient, httpsClient, asyncCompletion, maxInFlightRequests);
+    }
+
+    private RestWorkItemHandler(Vertx vertx, WebClient httpClient, WebClient httpsClient, boolean asyncCompletion, int maxInFlightRequests) {
+        this.vertx = vertx;
         this.httpClient = httpClient;
         this.httpsClient = httpsClient;
+        this.asyncCompletion = asyncCompletion;
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
         this.requestDecorators = StreamSupport.stream(ServiceLoader.load(RequestDecorator.class).spliterator(), false).collect(Collectors.toList());
     }
 
@@ -135,6 +179,7 @@ public class RestWorkItemHandler extends DefaultKogitoWorkItemHandler {
         ParamsDecorator paramsDecorator = getClassParam(parameters, PARAMS_DECORATOR, ParamsDecorator.class, DEFAULT_PARAMS_DECORATOR, paramsDecorators);
         PathParamResolver pathParamResolver = getClassParam(parameters, PATH_PARAM_RESOLVER, PathParamResolver.class, DEFAULT_PATH_PARAM_RESOLVER, pathParamsResolvers);
         Collection<? extends AuthDecorator> authDecorators = getClassListParam(parameters, AUTH_METHOD, AuthDecorator.class, DEFAULT_AUTH_DECORATORS, authDecoratorsMap);
+        boolean async = getParam(parameters, ASYNC_COMPLETION, Boolean.class, asyncCompletion);
 
         logger.debug("Filtered parameters are {}", parameters);
         // create request
@@ -181,18 +226,91 @@ public class RestWorkItemHandler extends DefaultKogitoWorkItemHandler {
         WebClient client = isSsl ? httpsClient : httpClient;
         HttpRequest<Buffer> request = client.request(method, port, host, path);
         requestDecorators.forEach(d -> d.decorate(workItem, parameters, request));
-        authDecorators.forEach(d -> d.decorate(workItem, parameters, request));
-        paramsDecorator.decorate(workItem, parameters, request);
         Duration requestTimeout = getRequestTimeout(parameters);
+        // a node that does not wait for completion moves on right away, so the response must not complete the work item again
+        if (async && application != null && AsyncWorkItems.waitsForCompletion(workItem) && inFlightRequests.tryAcquire()) {
+            // authentication (e.g. obtaining an OAuth2 token) is done once the request is sent, without blocking
+            Uni<HttpResponse<Buffer>> response = Uni.createFrom().completionStage(() -> decorateAuth(workItem, parameters, request)
+                    .thenRun(() -> paramsDecorator.decorate(workItem, parameters, request)))
+                    .onItem().transformToUni(v -> method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT) ? request.sendJson(bodyBuilder.apply(parameters)) : request.send());
+            sendAsync(workItem, endPoint, requestTimeout == null ? response : response.ifNoItem().after(requestTimeout).fail(), resultHandler, targetInfo);
+            return Optional.empty();
+        }
+        authDecorators.forEach(d -> d.decorate(workItem, parameters, request, vertx));
+        paramsDecorator.decorate(workItem, parameters, request);
         HttpResponse<Buffer> response = method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT)
                 ? sendJson(request, bodyBuilder.apply(parameters), requestTimeout)
                 : send(request, requestTimeout);
+        checkStatus(response, endPoint);
+
+        return Optional.of(this.workItemLifeCycle.newTransition("complete", workItem.getPhaseStatus(), Collections.singletonMap(RESULT, resultHandler.apply(response, targetInfo))));
+    }
+
+    private CompletionStage<Void> decorateAuth(KogitoWorkItem workItem, Map<String, Object> parameters, HttpRequest<Buffer> request) {
+        CompletionStage<Void> decorated = CompletableFuture.completedFuture(null);
+        for (AuthDecorator decorator : authDecorators) {
+            decorated = decorated.thenCompose(v -> decorator.decorateAsync(workItem, parameters, request, vertx));
+        }
+        return decorated;
+    }
+
+    private static void checkStatus(HttpResponse<Buffer> response, String endPoint) {
         int statusCode = response.statusCode();
         if (statusCode < 200 || statusCode >= 300) {
             throw new WorkItemExecutionException(Integer.toString(statusCode), "Request for endpoint " + endPoint + " failed with message: " + response.statusMessage());
         }
+    }
 
-        return Optional.of(this.workItemLifeCycle.newTransition("complete", workItem.getPhaseStatus(), Collections.singletonMap(RESULT, resultHandler.apply(response, targetInfo))));
+    private void sendAsync(KogitoWorkItem workItem, String endPoint, Uni<HttpResponse<Buffer>> response, RestWorkItemHandlerResult resultHandler, Class<?> targetInfo) {
+        String processId = workItem.getProcessInstance().getProcessId();
+        String processInstanceId = workItem.getProcessInstanceStringId();
+        String workItemId = workItem.getStringId();
+        // the request is sent once the unit of work has ended, otherwise the response might arrive before the work item can be found
+        AsyncWorkItems.executeAfterUnitOfWork(application, workItemId, () -> {
+            long startTime = System.nanoTime();
+            pendingRequests.incrementAndGet();
+            response.emitOn(Infrastructure.getDefaultWorkerPool()).subscribe().with(r -> {
+                requestCompleted(startTime);
+                AsyncWorkItems.complete(application, processId, processInstanceId, workItemId, () -> {
+                    checkStatus(r, endPoint);
+                    return Collections.singletonMap(RESULT, resultHandler.apply(r, targetInfo));
+                });
+            }, e -> {
+                requestCompleted(startTime);
+                logger.debug("Request for endpoint {} of work item {} failed", endPoint, workItemId, e);
+                AsyncWorkItems.complete(application, processId, processInstanceId, workItemId, () -> {
+                    throw new WorkItemExecutionException("500", "Request for endpoint " + endPoint + " failed with message: " + e.getMessage(), e);
+                });
+            });
+        }, inFlightRequests::release);
+    }
+
+    private void requestCompleted(long startTime) {
+        requestsLatencyNanos.addAndGet(System.nanoTime() - startTime);
+        completedRequests.incrementAndGet();
+        pendingRequests.decrementAndGet();
+        inFlightRequests.release();
+    }
+
+    /**
+     * @return number of asynchronous requests waiting for a response
+     */
+    public int getPendingRequests() {
+        return pendingRequests.get();
+    }
+
+    /**
+     * @return number of asynchronous requests that got a response or failed
+     */
+    public long getCompletedRequests() {
+        return completedRequests.get();
+    }
+
+    /**
+     * @return accumulated time, in nanoseconds, asynchronous requests spent waiting for a response
+     */
+    public long getRequestsLatencyNanos() {
+        return requestsLatencyNanos.get();
     }
 
     private static HttpResponse<Buffer> sendJson(HttpRequest<Buffer> request, Object body, Duration requestTimeout) {
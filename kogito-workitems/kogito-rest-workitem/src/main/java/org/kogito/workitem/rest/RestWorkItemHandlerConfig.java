@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kogito.workitem.rest;
+
+/**
+ * Application wide settings of {@link RestWorkItemHandler} instances, set through the
+ * <code>kogito.rest.async-completion</code> and <code>kogito.rest.max-in-flight-requests</code> properties.
+ */
+public class RestWorkItemHandlerConfig {
+
+    public static final String ASYNC_COMPLETION_PROPERTY = "kogito.rest.async-completion";
+    public static final String MAX_IN_FLIGHT_REQUESTS_PROPERTY = "kogito.rest.max-in-flight-requests";
+
+    private final boolean asyncCompletion;
+    private final int maxInFlightRequests;
+
+    public RestWorkItemHandlerConfig() {
+        this(false, RestWorkItemHandler.DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+    }
+
+    public RestWorkItemHandlerConfig(boolean asyncCompletion, int maxInFlightRequests) {
+        this.asyncCompletion = asyncCompletion;
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public boolean isAsyncCompletion() {
+        return asyncCompletion;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+}
@@ -18,7 +18,35 @@
  */
 package org.kogito.workitem.rest.auth;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
 import org.kogito.workitem.rest.decorators.RequestDecorator;
 
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.ext.web.client.HttpRequest;
+
 public interface AuthDecorator extends RequestDecorator {
+
+    /**
+     * Decorates the request, using the given Vertx instance for the calls the authentication requires, like obtaining a token
+     *
+     * @param vertx Vertx instance of the work item handler, null if it has none
+     */
+    default void decorate(KogitoWorkItem item, Map<String, Object> parameters, HttpRequest<?> request, Vertx vertx) {
+        decorate(item, parameters, request);
+    }
+
+    /**
+     * Decorates the request without blocking the calling thread on the calls the authentication requires
+     *
+     * @param vertx Vertx instance of the work item handler, null if it has none
+     * @return stage completed once the request is decorated
+     */
+    default CompletionStage<Void> decorateAsync(KogitoWorkItem item, Map<String, Object> parameters, HttpRequest<?> request, Vertx vertx) {
+        decorate(item, parameters, request, vertx);
+        return CompletableFuture.completedFuture(null);
+    }
 }
@@ -18,6 +18,8 @@
  */
 package org.kogito.workitem.rest.auth;
 
+import io.vertx.mutiny.core.Vertx;
+
 public class ClientOAuth2AuthDecorator extends OAuth2AuthDecorator {
     public static final String CLIENT_ID = "clientId";
     public static final String CLIENT_SECRET = "clientSecret";
@@ -25,4 +27,8 @@ public class ClientOAuth2AuthDecorator extends OAuth2AuthDecorator {
     public ClientOAuth2AuthDecorator(String tokenUrl, String refreshUrl) {
         super(new ClientOAuth2AuthToken(tokenUrl, refreshUrl));
     }
+
+    public ClientOAuth2AuthDecorator(Vertx vertx, String tokenUrl, String refreshUrl) {
+        super(new ClientOAuth2AuthToken(vertx, tokenUrl, refreshUrl));
+    }
 }
\ No newline at end of file
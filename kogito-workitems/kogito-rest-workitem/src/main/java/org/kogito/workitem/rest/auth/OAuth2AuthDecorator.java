@@ -19,9 +19,11 @@
 package org.kogito.workitem.rest.auth;
 
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
 
+import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
 
 public abstract class OAuth2AuthDecorator implements AuthDecorator {
@@ -35,4 +37,14 @@ public abstract class OAuth2AuthDecorator implements AuthDecorator {
     public void decorate(KogitoWorkItem item, Map<String, Object> parameters, HttpRequest<?> request) {
         request.bearerTokenAuthentication(tokenRetriever.getToken(parameters));
     }
+
+    @Override
+    public void decorate(KogitoWorkItem item, Map<String, Object> parameters, HttpRequest<?> request, Vertx vertx) {
+        request.bearerTokenAuthentication(tokenRetriever.getToken(parameters, vertx));
+    }
+
+    @Override
+    public CompletionStage<Void> decorateAsync(KogitoWorkItem item, Map<String, Object> parameters, HttpRequest<?> request, Vertx vertx) {
+        return tokenRetriever.getTokenAsync(parameters, vertx).thenAccept(request::bearerTokenAuthentication);
+    }
 }
@@ -18,9 +18,15 @@
  */
 package org.kogito.workitem.rest.auth;
 
+import io.vertx.mutiny.core.Vertx;
+
 public class PasswordOAuth2AuthDecorator extends OAuth2AuthDecorator {
 
     public PasswordOAuth2AuthDecorator(String tokenUrl, String refreshUrl) {
         super(new PasswordOAuth2AuthToken(tokenUrl, refreshUrl));
     }
+
+    public PasswordOAuth2AuthDecorator(Vertx vertx, String tokenUrl, String refreshUrl) {
+        super(new PasswordOAuth2AuthToken(vertx, tokenUrl, refreshUrl));
+    }
 }
@@ -21,6 +21,8 @@ package org.kogito.workitem.rest;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.jbpm.process.core.Process;
 import org.jbpm.process.core.context.variable.Variable;
@@ -30,14 +32,25 @@ import org.jbpm.process.instance.ProcessInstance;
 import org.jbpm.process.instance.context.variable.VariableScopeInstance;
 import org.jbpm.workflow.core.impl.IOSpecification;
 import org.jbpm.workflow.core.node.WorkItemNode;
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
 import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.Application;
+import org.kie.kogito.internal.process.workitem.KogitoWorkItem;
 import org.kie.kogito.internal.process.workitem.KogitoWorkItemManager;
+import org.kie.kogito.internal.process.workitem.WorkItemExecutionException;
 import org.kie.kogito.internal.process.workitem.WorkItemTransition;
 import org.kie.kogito.jackson.utils.ObjectMapperFactory;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
 import org.kie.kogito.process.workitems.impl.KogitoWorkItemImpl;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kogito.workitem.rest.auth.AuthDecorator;
 import org.kogito.workitem.rest.bodybuilders.DefaultWorkItemHandlerBodyBuilder;
 import org.kogito.workitem.rest.resulthandlers.DefaultRestWorkItemHandlerResult;
 import org.kogito.workitem.rest.resulthandlers.RestWorkItemHandlerResult;
@@ -51,6 +64,7 @@ import org.mockito.quality.Strictness;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
@@ -60,9 +74,13 @@ import io.vertx.mutiny.ext.web.client.WebClient;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kogito.workitem.rest.RestWorkItemHandler.BODY_BUILDER;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -104,9 +122,15 @@ public class RestWorkItemHandlerTest {
 
     private RestWorkItemHandler handler;
 
+    private WebClient webClient;
+
+    private UnitOfWorkManager unitOfWorkManager;
+
+    private org.kie.kogito.process.ProcessInstance<?> kogitoProcessInstance;
+
     @BeforeEach
     public void init() {
-        WebClient webClient = mock(WebClient.class);
+        webClient = mock(WebClient.class);
         WebClient sslClient = mock(WebClient.class);
         ObjectMapper mapper = new ObjectMapper();
         when(webClient.request(any(HttpMethod.class), eq(8080), eq("localhost"), anyString()))
@@ -114,6 +138,8 @@ public class RestWorkItemHandlerTest {
 
         when(request.sendJsonAndAwait(any())).thenReturn(response);
         when(request.sendAndAwait()).thenReturn(response);
+        when(request.sendJson(any())).thenReturn(Uni.createFrom().item(response));
+        when(request.send()).thenReturn(Uni.createFrom().item(response));
         when(response.bodyAsJson(ObjectNode.class)).thenReturn(ObjectMapperFactory.get().createObjectNode().put("num", 1));
         when(response.statusCode()).thenReturn(200);
 
@@ -128,6 +154,8 @@ public class RestWorkItemHandlerTest {
         Process process = mock(Process.class);
         ProcessInstance processInstance = mock(ProcessInstance.class);
         workItem.setProcessInstance(processInstance);
+        workItem.setProcessInstanceId("pi");
+        when(processInstance.getProcessId()).thenReturn("process");
 
         workflowData = mapper.createObjectNode().put("id", 26).put("name", "pepe");
 
@@ -145,12 +173,15 @@ public class RestWorkItemHandlerTest {
         when(node.getIoSpecification()).thenReturn(ioSpecification);
         workItem.setNodeInstance(nodeInstance);
         when(nodeInstance.getNode()).thenReturn(node);
+        when(node.isWaitForCompletion()).thenReturn(true);
         when(node.resolveContext(VariableScope.VARIABLE_SCOPE, DEFAULT_WORKFLOW_VAR)).thenReturn(variableScope);
 
         Map<String, String> outputMapping = Collections.singletonMap(RestWorkItemHandler.RESULT, DEFAULT_WORKFLOW_VAR);
         when(ioSpecification.getOutputMappingBySources()).thenReturn(outputMapping);
 
         handler = new RestWorkItemHandler(webClient, sslClient);
+
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
     }
 
     @Test
@@ -273,6 +304,159 @@ public class RestWorkItemHandlerTest {
 
     }
 
+    @Test
+    public void testAsyncCompletionWithoutApplication() {
+        parameters.put(RestWorkItemHandler.METHOD, "POST");
+        parameters.put(RestWorkItemHandler.CONTENT_DATA, workflowData);
+        parameters.put(RestWorkItemHandler.ASYNC_COMPLETION, true);
+
+        assertResult(handler.transitionToPhase(manager, workItem, handler.startingTransition(parameters)));
+
+        verify(request).sendJsonAndAwait(any());
+        assertThat(handler.getPendingRequests()).isZero();
+        assertThat(handler.getCompletedRequests()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAsyncCompletion() {
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "POST");
+        parameters.put(RestWorkItemHandler.CONTENT_DATA, workflowData);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        assertThat(asyncHandler.getPendingRequests()).isZero();
+        verify(kogitoProcessInstance, never()).completeWorkItem(anyString(), anyMap());
+        unitOfWork.end();
+
+        ArgumentCaptor<Map<String, Object>> resultsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(kogitoProcessInstance, timeout(5000)).completeWorkItem(eq("2"), resultsCaptor.capture());
+        assertThat(((ObjectNode) resultsCaptor.getValue().get(RestWorkItemHandler.RESULT)).get("num").asInt()).isOne();
+        verify(request, never()).sendJsonAndAwait(any());
+        assertThat(asyncHandler.getCompletedRequests()).isOne();
+        assertThat(asyncHandler.getPendingRequests()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAsyncFailure() {
+        when(response.statusCode()).thenReturn(500);
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        WorkflowProcessInstance workflowProcessInstance = mock(WorkflowProcessInstance.class);
+        when(nodeInstance.getProcessInstance()).thenReturn(workflowProcessInstance);
+        when(nodeInstance.getWorkItem()).thenReturn(workItem);
+        // the process has no error handler for the failure
+        doAnswer(invocation -> {
+            throw new IllegalStateException("Unable to execute Action", invocation.getArgument(0));
+        }).when(nodeInstance).workItemFailed(any());
+        doAnswer(invocation -> invocation.getArgument(1, Function.class).apply(workItem)).when(kogitoProcessInstance).updateWorkItem(eq("2"), any());
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        unitOfWork.end();
+
+        ArgumentCaptor<Exception> errorCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(workflowProcessInstance, timeout(5000)).setErrorState(eq(nodeInstance), errorCaptor.capture());
+        assertThat(errorCaptor.getValue()).hasRootCauseInstanceOf(WorkItemExecutionException.class);
+        assertThat(workItem.getState()).isEqualTo(KogitoWorkItem.ABORTED);
+        verify(nodeInstance).internalRemoveWorkItem();
+        verify(kogitoProcessInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+
+    @Test
+    public void testAsyncAuthenticationDoesNotBlock() {
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        AuthDecorator authDecorator = mock(AuthDecorator.class);
+        CompletableFuture<Void> authenticated = new CompletableFuture<>();
+        when(authDecorator.decorateAsync(any(), anyMap(), any(), any())).thenReturn(authenticated);
+        parameters.put(RestWorkItemHandler.AUTH_METHOD, authDecorator);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        unitOfWork.end();
+
+        // the request waits for the authentication instead of the caller
+        verify(request, never()).send();
+        authenticated.complete(null);
+
+        verify(kogitoProcessInstance, timeout(5000)).completeWorkItem(eq("2"), anyMap());
+        verify(request).send();
+        verify(authDecorator, never()).decorate(any(), anyMap(), any(), any());
+    }
+
+    @Test
+    public void testAsyncNotUsedWhenNodeDoesNotWaitForCompletion() {
+        when(node.isWaitForCompletion()).thenReturn(false);
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertResult(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters)));
+        unitOfWork.end();
+
+        verify(request).sendAndAwait();
+        assertThat(asyncHandler.getPendingRequests()).isZero();
+        verify(kogitoProcessInstance, never()).completeWorkItem(anyString(), anyMap());
+    }
+
+    @Test
+    public void testAsyncRequestNotSentWhenUnitOfWorkAborts() {
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        unitOfWork.abort();
+
+        assertThat(asyncHandler.getPendingRequests()).isZero();
+        verify(kogitoProcessInstance, never()).completeWorkItem(anyString(), anyMap());
+
+        // the in-flight permit has been given back, so the next request is asynchronous as well
+        unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        unitOfWork.abort();
+    }
+
+    @Test
+    public void testAsyncFallsBackToSyncWhenInFlightRequestsExhausted() {
+        RestWorkItemHandler asyncHandler = asyncHandler(1);
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters))).isEmpty();
+        assertResult(asyncHandler.transitionToPhase(manager, workItem, asyncHandler.startingTransition(parameters)));
+        verify(request).sendAndAwait();
+        unitOfWork.abort();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private RestWorkItemHandler asyncHandler(int maxInFlightRequests) {
+        Application application = mock(Application.class);
+        Processes processes = mock(Processes.class);
+        org.kie.kogito.process.Process process = mock(org.kie.kogito.process.Process.class);
+        ProcessInstances instances = mock(ProcessInstances.class);
+        kogitoProcessInstance = mock(org.kie.kogito.process.ProcessInstance.class);
+        when(application.unitOfWorkManager()).thenReturn(unitOfWorkManager);
+        when(application.get(Processes.class)).thenReturn(processes);
+        when(processes.processById("process")).thenReturn(process);
+        when(process.instances()).thenReturn(instances);
+        when(instances.findById("pi")).thenReturn(Optional.of(kogitoProcessInstance));
+
+        RestWorkItemHandler asyncHandler = new RestWorkItemHandler(webClient, mock(WebClient.class), new RestWorkItemHandlerConfig(true, maxInFlightRequests));
+        asyncHandler.setApplication(application);
+        return asyncHandler;
+    }
+
     public void assertResult(Optional<WorkItemTransition> transition) {
         Map<String, Object> results = transition.get().data();
         assertThat(results).hasSize(1).containsKey(RestWorkItemHandler.RESULT);
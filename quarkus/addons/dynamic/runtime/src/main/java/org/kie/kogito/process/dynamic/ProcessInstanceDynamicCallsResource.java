@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 
 import org.kie.kogito.process.Process;
 import org.kogito.workitem.rest.RestWorkItemHandler;
+import org.kogito.workitem.rest.RestWorkItemHandlerConfig;
 
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.mutiny.core.Vertx;
@@ -46,6 +47,8 @@ public class ProcessInstanceDynamicCallsResource {
     Vertx vertx;
     @Inject
     WebClientOptions sslOptions;
+    @Inject
+    RestWorkItemHandlerConfig restConfig;
     private RestWorkItemHandler handler;
     private Collection<Process<?>> processes;
 
@@ -56,7 +59,7 @@ public class ProcessInstanceDynamicCallsResource {
 
     @PostConstruct
     void init() {
-        handler = new RestWorkItemHandler(WebClient.create(vertx), WebClient.create(vertx, sslOptions));
+        handler = new RestWorkItemHandler(vertx, WebClient.create(vertx), WebClient.create(vertx, sslOptions), restConfig);
     }
 
     @POST
@@ -56,6 +56,14 @@ public class QuarkusMongoDBEventPublisher extends MongoDBEventPublisher {
     @ConfigProperty(name = "kogito.events.usertasks.collection", defaultValue = "kogitousertaskinstancesevents")
     String quarkusUserTasksEventsCollectionName;
 
+    @Inject
+    @ConfigProperty(name = "kogito.events.mongodb.batch.enabled", defaultValue = "false")
+    boolean quarkusBatchEnabled;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.mongodb.batch.ttl", defaultValue = "60")
+    long quarkusBatchTtlSeconds;
+
     @PostConstruct
     public void setupQuarkusMongoDBEventPublisher() {
         super.configure();
@@ -95,4 +103,14 @@ public class QuarkusMongoDBEventPublisher extends MongoDBEventPublisher {
     protected String userTasksEventsCollection() {
         return this.quarkusUserTasksEventsCollectionName;
     }
+
+    @Override
+    protected boolean batchEnabled() {
+        return this.quarkusBatchEnabled;
+    }
+
+    @Override
+    protected long batchTtlSeconds() {
+        return this.quarkusBatchTtlSeconds;
+    }
 }
@@ -115,24 +115,33 @@ public abstract class AbstractMessagingEventPublisher implements EventPublisher
 
     @Override
     public void publish(Collection<DataEvent<?>> events) {
-        for (DataEvent<?> event : events) {
-            publish(event);
-        }
+        publishAsync(events);
     }
 
-    protected void publishToTopic(AbstractMessageEmitter emitter, Object event) {
+    @Override
+    public abstract CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events);
+
+    /**
+     * Publishes the given event to the topic of the emitter.
+     * 
+     * @return stage completed once the message has been acknowledged, or exceptionally if it could not be created or was not acknowledged
+     */
+    protected CompletionStage<Void> publishToTopic(AbstractMessageEmitter emitter, Object event) {
         logger.debug("About to publish event {} to topic {}", event, emitter.topic);
-        Message<String> message = null;
+        Message<String> message;
         try {
             String eventString = json.writeValueAsString(event);
             logger.debug("Event payload '{}'", eventString);
             message = decorateMessage(ContextAwareMessage.of(eventString));
         } catch (Exception e) {
-            logger.error("Error while creating event to topic {} for event {}", emitter.topic, event);
-        }
-        if (message != null) {
-            emitter.accept(message);
+            logger.error("Error while creating event to topic {} for event {}", emitter.topic, event, e);
+            return CompletableFuture.failedFuture(e);
         }
+        return emitter.send(message);
+    }
+
+    protected static CompletionStage<Void> allOf(Collection<CompletionStage<Void>> stages) {
+        return CompletableFuture.allOf(stages.stream().map(CompletionStage::toCompletableFuture).toArray(CompletableFuture[]::new));
     }
 
     protected Message<String> decorateMessage(Message<String> message) {
@@ -148,6 +157,16 @@ public abstract class AbstractMessagingEventPublisher implements EventPublisher
             this.emitter = emitter;
             this.topic = topic;
         }
+
+        @Override
+        public void accept(Message<String> message) {
+            send(message);
+        }
+
+        /**
+         * Sends the message, returning a stage completed once it has been acknowledged.
+         */
+        protected abstract CompletionStage<Void> send(Message<String> message);
     }
 
     private static class BlockingMessageEmitter extends AbstractMessageEmitter {
@@ -156,9 +175,10 @@ public abstract class AbstractMessagingEventPublisher implements EventPublisher
         }
 
         @Override
-        public void accept(Message<String> message) {
+        protected CompletionStage<Void> send(Message<String> message) {
             emitter.sendMessageAndAwait(message);
             logger.debug("Successfully published message {}", message.getPayload());
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -168,19 +188,23 @@ public abstract class AbstractMessagingEventPublisher implements EventPublisher
         }
 
         @Override
-        public void accept(Message<String> message) {
+        protected CompletionStage<Void> send(Message<String> message) {
+            CompletableFuture<Void> acknowledged = new CompletableFuture<>();
             emitter.sendMessageAndForget(message
-                    .withAck(() -> onAck(message))
-                    .withNack(reason -> onNack(reason, message)));
+                    .withAck(() -> onAck(message, acknowledged))
+                    .withNack(reason -> onNack(reason, message, acknowledged)));
+            return acknowledged;
         }
 
-        private CompletionStage<Void> onAck(Message<String> message) {
+        private CompletionStage<Void> onAck(Message<String> message, CompletableFuture<Void> acknowledged) {
             logger.debug("Successfully published message {}", message.getPayload());
+            acknowledged.complete(null);
             return CompletableFuture.completedFuture(null);
         }
 
-        private CompletionStage<Void> onNack(Throwable reason, Message<String> message) {
+        private CompletionStage<Void> onNack(Throwable reason, Message<String> message, CompletableFuture<Void> acknowledged) {
             logger.error("Error while publishing message {}", message, reason);
+            acknowledged.completeExceptionally(reason);
             return CompletableFuture.completedFuture(null);
         }
 
@@ -23,8 +23,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.event.DataEvent;
@@ -55,30 +57,32 @@ public class GroupingMessagingEventPublisher extends AbstractMessagingEventPubli
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
-    public void publish(Collection<DataEvent<?>> events) {
+    public CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events) {
         Map<AbstractMessageEmitter, Collection> eventsByChannel = new HashMap<>();
         for (DataEvent<?> event : events) {
             getConsumer(event).ifPresent(c -> eventsByChannel.computeIfAbsent(c, k -> new ArrayList<>()).add(event));
         }
-        eventsByChannel.entrySet().forEach(this::publishEvents);
+        List<CompletionStage<Void>> acks = new ArrayList<>();
+        eventsByChannel.entrySet().forEach(entry -> publishEvents(entry, acks));
+        return allOf(acks);
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private void publishEvents(Map.Entry<AbstractMessageEmitter, Collection> entry) {
+    private void publishEvents(Map.Entry<AbstractMessageEmitter, Collection> entry, List<CompletionStage<Void>> acks) {
         DataEvent<?> firstEvent = (DataEvent<?>) entry.getValue().iterator().next();
         URI source = firstEvent.getSource();
         if (firstEvent instanceof UserTaskInstanceDataEvent) {
-            publishToTopic(entry.getKey(), new MultipleUserTaskInstanceDataEvent(source, (Collection<UserTaskInstanceDataEvent<?>>) entry.getValue()));
+            acks.add(publishToTopic(entry.getKey(), new MultipleUserTaskInstanceDataEvent(source, (Collection<UserTaskInstanceDataEvent<?>>) entry.getValue())));
         } else if (firstEvent instanceof ProcessInstanceDataEvent) {
             MultipleProcessInstanceDataEvent sent = new MultipleProcessInstanceDataEvent(source, (Collection<ProcessInstanceDataEvent<? extends KogitoMarshallEventSupport>>) entry.getValue());
             if (binary) {
                 sent.setDataContentType(MultipleProcessInstanceDataEvent.BINARY_CONTENT_TYPE);
                 sent.setCompressed(compress);
             }
-            publishToTopic(entry.getKey(), sent);
+            acks.add(publishToTopic(entry.getKey(), sent));
         } else {
             for (DataEvent<?> event : (Collection<DataEvent<?>>) entry.getValue()) {
-                publishToTopic(entry.getKey(), event);
+                acks.add(publishToTopic(entry.getKey(), event));
             }
         }
     }
@@ -18,7 +18,10 @@
  */
 package org.kie.kogito.events.process;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import org.kie.kogito.event.DataEvent;
 
@@ -36,10 +39,12 @@ public class ReactiveMessagingEventPublisher extends AbstractMessagingEventPubli
     }
 
     @Override
-    public void publish(Collection<DataEvent<?>> events) {
+    public CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events) {
+        List<CompletionStage<Void>> acks = new ArrayList<>(events.size());
         for (DataEvent<?> event : events) {
-            publish(event);
+            getConsumer(event).ifPresent(emitter -> acks.add(publishToTopic(emitter, event)));
         }
+        return allOf(acks);
     }
 
 }
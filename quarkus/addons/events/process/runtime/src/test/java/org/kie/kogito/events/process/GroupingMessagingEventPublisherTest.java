@@ -20,6 +20,7 @@
 package org.kie.kogito.events.process;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -110,6 +111,10 @@ public class GroupingMessagingEventPublisherTest {
 
         when(eventsRuntimeConfig.isProcessInstancesEventsEnabled()).thenReturn(true);
         when(eventsRuntimeConfig.isUserTasksEventsEnabled()).thenReturn(true);
+
+        when(processInstanceConsumer.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(userTaskConsumer.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(processDefinitionConsumer.send(any())).thenReturn(CompletableFuture.completedFuture(null));
     }
 
     @Test
@@ -167,7 +172,7 @@ public class GroupingMessagingEventPublisherTest {
         Collection<DataEvent<?>> events = Arrays.asList(processInstanceEvent, userTaskEvent);
 
         // Spy on the publisher's internal method to verify the calls
-        doNothing().when(groupingMessagingEventPublisher).publishToTopic(any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(groupingMessagingEventPublisher).publishToTopic(any(), any());
 
         // Invoke the method to test
         groupingMessagingEventPublisher.publish(events);
@@ -200,7 +205,7 @@ public class GroupingMessagingEventPublisherTest {
         Collection<DataEvent<?>> events = Arrays.asList(processInstanceEvent1, processInstanceEvent2, userTaskEvent1, userTaskEvent2);
 
         // Spy on the internal publishToTopic to verify grouping
-        doNothing().when(groupingMessagingEventPublisher).publishToTopic(any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(groupingMessagingEventPublisher).publishToTopic(any(), any());
 
         // Invoke the method to test
         groupingMessagingEventPublisher.publish(events);
@@ -228,7 +233,7 @@ public class GroupingMessagingEventPublisherTest {
         Collection<DataEvent<?>> events = Collections.emptyList();
 
         // Spy on the internal publishToTopic to verify no calls are made
-        doNothing().when(groupingMessagingEventPublisher).publishToTopic(any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(groupingMessagingEventPublisher).publishToTopic(any(), any());
 
         groupingMessagingEventPublisher.publish(events);
 
@@ -252,7 +257,7 @@ public class GroupingMessagingEventPublisherTest {
         Collection<DataEvent<?>> events = Arrays.asList(processInstanceEvent, userTaskEvent);
 
         // Spy on the publisher's internal method to verify no calls are made
-        doNothing().when(groupingMessagingEventPublisher).publishToTopic(any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(groupingMessagingEventPublisher).publishToTopic(any(), any());
 
         // Invoke the method to test
         groupingMessagingEventPublisher.publish(events);
@@ -362,7 +367,7 @@ public class GroupingMessagingEventPublisherTest {
 
         // Verify that the message was decorated and sent
         verify(decoratorProvider).decorate(any(Message.class));
-        verify(mockEmitter).accept(decoratedMessage);
+        verify(mockEmitter).send(decoratedMessage);
     }
 
     @Test
@@ -25,18 +25,21 @@ import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.kie.kogito.event.EventBackpressure;
 import org.kie.kogito.event.KogitoEventStreams;
 import org.kie.kogito.event.KogitoThreadPoolFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class QuarkusEventThreadPool extends ThreadPoolExecutor {
+public class QuarkusEventThreadPool extends ThreadPoolExecutor implements EventBackpressure {
 
     private static final Logger logger = LoggerFactory.getLogger(QuarkusEventThreadPool.class);
 
     private final Deque<Runnable> overflowBuffer = new LinkedList<>();
     private final QuarkusEmitterController kogitoEmitter;
     private final String channelName;
+    // several striped executors might share this pool, emission is resumed once every one of them has asked for it
+    private int stopRequests;
 
     public QuarkusEventThreadPool(int numThreads, int queueSize, QuarkusEmitterController kogitoEmitter, String channelName) {
         super(1, numThreads, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(queueSize));
@@ -52,7 +55,7 @@ public class QuarkusEventThreadPool extends ThreadPoolExecutor {
         boolean resume;
         synchronized (overflowBuffer) {
             queued = overflowBuffer.pollFirst();
-            resume = queued != null && overflowBuffer.isEmpty();
+            resume = queued != null && overflowBuffer.isEmpty() && stopRequests == 0;
         }
         if (queued != null) {
             logger.trace("Addding runnable {} back to the executor", queued);
@@ -64,6 +67,34 @@ public class QuarkusEventThreadPool extends ThreadPoolExecutor {
         }
     }
 
+    /**
+     * Invoked when the events waiting for an earlier event of the same process instance pile up.
+     * Emission is not resumed, even if the executor queue is drained, until {@link #resume()} has been called once per call to this method.
+     */
+    @Override
+    public void stop() {
+        synchronized (overflowBuffer) {
+            stopRequests++;
+        }
+        logger.trace("Stopping emission, too many events waiting for their process instance");
+        kogitoEmitter.stop(channelName);
+    }
+
+    @Override
+    public void resume() {
+        boolean resume;
+        synchronized (overflowBuffer) {
+            if (stopRequests > 0) {
+                stopRequests--;
+            }
+            resume = stopRequests == 0 && overflowBuffer.isEmpty();
+        }
+        if (resume) {
+            logger.trace("Resuming emission");
+            kogitoEmitter.resume(channelName);
+        }
+    }
+
     private class NonBlockingRejectedExecutionHandler implements RejectedExecutionHandler {
         @Override
         public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
@@ -111,6 +111,35 @@ public class QuarkusEventThreadPoolTest {
         assertStop();
     }
 
+    @Test
+    void testQuarkusEventThreadPoolStripeBackpressure() {
+        QuarkusEventThreadPool executor = new QuarkusEventThreadPool(1, 1, controller, CHANNEL_NAME);
+        try {
+            executor.stop();
+            assertEquals(1, controller.stopCounter.get());
+            executor.resume();
+            assertStop();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testQuarkusEventThreadPoolNestedStripeBackpressure() {
+        QuarkusEventThreadPool executor = new QuarkusEventThreadPool(1, 1, controller, CHANNEL_NAME);
+        try {
+            executor.stop();
+            executor.stop();
+            executor.resume();
+            // still stopped by the second caller
+            assertEquals(0, controller.resumeCounter.get());
+            executor.resume();
+            assertStop();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private void testIt(int numThreads, int queueSize, int count) throws InterruptedException, ExecutionException {
         ExecutorService executor = new QuarkusEventThreadPool(numThreads, queueSize, controller, CHANNEL_NAME);
         final AtomicInteger counter = new AtomicInteger(0);
@@ -31,8 +31,10 @@ public class JDBCProcessInstancesFactory extends AbstractProcessInstancesFactory
 
     @Inject
     public JDBCProcessInstancesFactory(DataSource dataSource,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(dataSource, lock);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            JDBCWriteBatchManager batchManager,
+            @ConfigProperty(name = "kogito.persistence.delta.enabled", defaultValue = "false") Boolean delta) {
+        super(dataSource, lock, batchManager, delta);
     }
 
     public JDBCProcessInstancesFactory() {
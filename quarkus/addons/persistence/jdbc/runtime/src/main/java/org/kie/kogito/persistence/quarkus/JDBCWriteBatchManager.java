@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.quarkus;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class JDBCWriteBatchManager extends AbstractJDBCWriteBatchManager {
+
+    public JDBCWriteBatchManager() {
+        super(null, false);
+    }
+
+    @Inject
+    public JDBCWriteBatchManager(DataSource dataSource,
+            @ConfigProperty(name = "kogito.persistence.jdbc.batch.enabled", defaultValue = "false") Boolean enabled,
+            @ConfigProperty(name = "kogito.persistence.outbox.enabled", defaultValue = "false") Boolean outboxEnabled) {
+        // the outbox stores events in the write batch, so it turns batching on
+        super(dataSource, Boolean.TRUE.equals(enabled) || Boolean.TRUE.equals(outboxEnabled));
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.kie.kogito.persistence.kafka.quarkus.deployment;
 
+import java.util.List;
+
 import org.kie.kogito.persistence.kafka.KafkaPersistenceUtils;
 import org.kie.kogito.quarkus.addons.common.deployment.KogitoCapability;
 import org.kie.kogito.quarkus.addons.common.deployment.OneOfCapabilityKogitoAddOnProcessor;
@@ -30,6 +32,7 @@ class KogitoAddOnPersistenceKafkaProcessor extends OneOfCapabilityKogitoAddOnPro
 
     private static final String FEATURE = "kie-addon-persistence-kafka-extension";
     private static final String QUARKUS_KAFKA_STREAMS_TOPICS_PROP = "quarkus.kafka-streams.topics";
+    private static final String KAFKA_STREAMS_PREFIX = "kafka-streams.";
 
     KogitoAddOnPersistenceKafkaProcessor() {
         super(KogitoCapability.PROCESSES, KogitoCapability.SERVERLESS_WORKFLOW);
@@ -42,6 +45,13 @@ class KogitoAddOnPersistenceKafkaProcessor extends OneOfCapabilityKogitoAddOnPro
 
     @BuildStep
     RunTimeConfigurationDefaultBuildItem runTimeConfiguration() {
-        return new RunTimeConfigurationDefaultBuildItem(QUARKUS_KAFKA_STREAMS_TOPICS_PROP, KafkaPersistenceUtils.topicName());
+        return new RunTimeConfigurationDefaultBuildItem(QUARKUS_KAFKA_STREAMS_TOPICS_PROP, String.join(",", KafkaPersistenceUtils.topicNames()));
+    }
+
+    @BuildStep
+    List<RunTimeConfigurationDefaultBuildItem> kafkaStreamsConfiguration() {
+        return KafkaPersistenceUtils.streamsConfig().entrySet().stream()
+                .map(e -> new RunTimeConfigurationDefaultBuildItem(KAFKA_STREAMS_PREFIX + e.getKey(), e.getValue()))
+                .toList();
     }
 }
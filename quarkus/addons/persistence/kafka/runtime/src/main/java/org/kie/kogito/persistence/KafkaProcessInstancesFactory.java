@@ -18,11 +18,17 @@
  */
 package org.kie.kogito.persistence;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.kie.kogito.persistence.kafka.KafkaPersistenceUtils;
 import org.kie.kogito.persistence.kafka.KafkaProcessInstances;
 import org.kie.kogito.persistence.kafka.KafkaStreamsStateListener;
 import org.kie.kogito.process.Process;
@@ -43,6 +49,11 @@ public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
 
     KafkaStreamsStateListener stateListener;
     KafkaProducer<String, byte[]> producer;
+    ExecutorService indexingExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "kogito-kafka-persistence-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Inject
     public void setStateListener(KafkaStreamsStateListener stateListener) {
@@ -51,11 +62,17 @@ public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
 
     @Inject
     public void setKafkaConfig(@Identifier("default-kafka-broker") Map<String, Object> kafkaConfig) {
-        producer = new KafkaProducer<>(kafkaConfig, new StringSerializer(), new ByteArraySerializer());
+        KafkaPersistenceUtils.createTopics(kafkaConfig);
+        Map<String, Object> producerConfig = new HashMap<>(kafkaConfig);
+        // instances and their business key index records are written in the same transaction, each node needs its own id
+        producerConfig.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "kogito-persistence-" + UUID.randomUUID());
+        producer = new KafkaProducer<>(producerConfig, new StringSerializer(), new ByteArraySerializer());
+        producer.initTransactions();
     }
 
     @PreDestroy
     public void stop() {
+        indexingExecutor.shutdownNow();
         if (producer != null) {
             producer.close();
         }
@@ -66,7 +83,7 @@ public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("Creating KafkaProcessInstances for process: {}", process.id());
             }
-            KafkaProcessInstances pi = new KafkaProcessInstances(process, producer);
+            KafkaProcessInstances pi = new KafkaProcessInstances(process, producer, indexingExecutor);
             stateListener.addProcessInstances(pi);
             return pi;
         } catch (Exception ex) {
@@ -18,9 +18,27 @@
  */
 package org.kie.kogito.persistence.kafka;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.state.KeyValueStore;
@@ -32,6 +50,9 @@ public class KafkaPersistenceUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaPersistenceUtils.class);
     private static final String TOPIC = "kogito.process";
     private static final String STORE = "kogito-store";
+    private static final String BUSINESS_KEY_TOPIC = "kogito.process.business-key";
+    private static final String BUSINESS_KEY_STORE = "kogito-business-key-store";
+    private static final long ADMIN_TIMEOUT_SECONDS = 30;
 
     private KafkaPersistenceUtils() {
     }
@@ -44,12 +65,84 @@ public class KafkaPersistenceUtils {
         return STORE;
     }
 
+    public static String businessKeyTopicName() {
+        return BUSINESS_KEY_TOPIC;
+    }
+
+    public static String businessKeyStoreName() {
+        return BUSINESS_KEY_STORE;
+    }
+
+    /**
+     * Kafka Streams settings required by the process instance stores: the global stores only read committed records,
+     * so an instance and its business key index records, written in the same transaction, are read together.
+     */
+    public static Map<String, String> streamsConfig() {
+        return Map.of(StreamsConfig.globalConsumerPrefix(ConsumerConfig.ISOLATION_LEVEL_CONFIG), "read_committed");
+    }
+
+    public static List<String> topicNames() {
+        return List.of(topicName(), businessKeyTopicName());
+    }
+
+    /**
+     * Creates the compacted topics backing the process instance stores when they do not exist yet, and warns about existing
+     * topics that are not compacted, since their records would be deleted once the retention period expires.
+     */
+    public static void createTopics(Map<String, Object> kafkaConfig) {
+        try (Admin admin = Admin.create(kafkaConfig)) {
+            Set<String> existing = admin.listTopics().names().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            List<NewTopic> missing = topicNames().stream().filter(topic -> !existing.contains(topic))
+                    .map(topic -> new NewTopic(topic, Optional.empty(), Optional.empty())
+                            .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)))
+                    .toList();
+            if (!missing.isEmpty()) {
+                LOGGER.info("Creating Kafka topics: {}", missing);
+                createTopics(admin, missing);
+            }
+            validateTopics(admin, topicNames().stream().filter(existing::contains).toList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking Kafka topics " + topicNames(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Unable to check Kafka topics " + topicNames(), e);
+        }
+    }
+
+    private static void createTopics(Admin admin, Collection<NewTopic> topics) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            admin.createTopics(topics).all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // another instance of the application created them meanwhile
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void validateTopics(Admin admin, Collection<String> topics) throws InterruptedException, ExecutionException, TimeoutException {
+        if (topics.isEmpty()) {
+            return;
+        }
+        Map<ConfigResource, Config> configs = admin.describeConfigs(topics.stream().map(topic -> new ConfigResource(ConfigResource.Type.TOPIC, topic)).toList())
+                .all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        configs.forEach((resource, config) -> {
+            ConfigEntry cleanupPolicy = config.get(TopicConfig.CLEANUP_POLICY_CONFIG);
+            if (cleanupPolicy == null || !cleanupPolicy.value().contains(TopicConfig.CLEANUP_POLICY_COMPACT)) {
+                LOGGER.warn("Kafka topic {} is not compacted, process instances might be lost once its retention expires", resource.name());
+            }
+        });
+    }
+
     public static Topology createTopologyForProcesses() {
         StreamsBuilder builder = new StreamsBuilder();
         builder.globalTable(topicName(), Materialized.<String, byte[], KeyValueStore<Bytes, byte[]>> as(storeName())
                 .withKeySerde(Serdes.String())
                 .withValueSerde(Serdes.ByteArray()));
-        LOGGER.info("Created Kafka Stream GlobalTable");
+        builder.globalTable(businessKeyTopicName(), Materialized.<String, byte[], KeyValueStore<Bytes, byte[]>> as(businessKeyStoreName())
+                .withKeySerde(Serdes.String())
+                .withValueSerde(Serdes.ByteArray()));
+        LOGGER.info("Created Kafka Stream GlobalTables");
         return builder.build();
     }
 }
@@ -18,17 +18,29 @@
  */
 package org.kie.kogito.persistence.kafka;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
@@ -39,23 +51,49 @@ import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static java.lang.String.format;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.businessKeyTopicName;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
 
+/**
+ * Process instances stored in a compacted topic and read from the global store built from it.
+ * <p>
+ * Every write is a Kafka transaction, so an instance and its business key index records become visible together,
+ * the global stores being configured to read committed records only. The producer must be transactional.
+ * The global stores are updated asynchronously, so the records written by this node are also kept in memory
+ * until the stores catch up with them, letting this node read its own writes without waiting.
+ */
 public class KafkaProcessInstances implements MutableProcessInstances {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProcessInstances.class);
+    private static final int MAX_PENDING_RECORDS = 1024;
+    private static final long PENDING_RECORD_TIMEOUT_MILLIS = 30000;
+    private static final int INDEXING_BATCH_SIZE = 500;
+
     private Process<?> process;
     private KafkaProducer<String, byte[]> producer;
     private String topic;
     private ReadOnlyKeyValueStore<String, byte[]> store;
+    private ReadOnlyKeyValueStore<String, byte[]> businessKeyStore;
+    private final PendingRecords pendingInstances = new PendingRecords(key -> getStore().get(key));
+    private final PendingRecords pendingIndexRecords = new PendingRecords(key -> getBusinessKeyStore().get(key));
+    private final Executor indexingExecutor;
+    private CompletableFuture<Void> businessKeyIndexing;
     private ProcessInstanceMarshallerService marshaller;
     private CountDownLatch latch = new CountDownLatch(1);
 
-    public KafkaProcessInstances(Process<?> process, KafkaProducer<String, byte[]> producer) {
+    /**
+     * @param producer transactional producer, shared by the process instances of every process
+     * @param indexingExecutor executor indexing by business key the instances stored before the index was introduced
+     */
+    public KafkaProcessInstances(Process<?> process, KafkaProducer<String, byte[]> producer, Executor indexingExecutor) {
         this.process = process;
         this.topic = topicName();
         this.producer = producer;
+        this.indexingExecutor = indexingExecutor;
         setMarshaller(ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build());
     }
 
@@ -74,6 +112,23 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     protected void setStore(ReadOnlyKeyValueStore<String, byte[]> store) {
         this.store = store;
         this.latch.countDown();
+        if (store != null && businessKeyStore != null) {
+            // indexes the existing instances in the background, lookups by business key scan the store meanwhile
+            startBusinessKeyIndexing();
+        }
+    }
+
+    protected ReadOnlyKeyValueStore<String, byte[]> getBusinessKeyStore() {
+        return businessKeyStore;
+    }
+
+    /**
+     * Store indexing the process instances by business key, built from the {@link KafkaPersistenceUtils#businessKeyTopicName()} topic.
+     * It must be set before {@link #setStore(ReadOnlyKeyValueStore)}, otherwise lookups by business key scan the whole store
+     * until the instances stored before the index was introduced have been indexed.
+     */
+    protected void setBusinessKeyStore(ReadOnlyKeyValueStore<String, byte[]> businessKeyStore) {
+        this.businessKeyStore = businessKeyStore;
     }
 
     private ReadOnlyKeyValueStore<String, byte[]> getStoreAwait() {
@@ -102,15 +157,76 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     }
 
     protected Optional<byte[]> getProcessInstanceById(String id) {
-        return Optional.ofNullable(getStore().get(getKeyForProcessInstance(id)));
+        return pendingInstances.read(getKeyForProcessInstance(id));
     }
 
     protected String getKeyForProcessInstance(String id) {
         return format("%s-%s", getProcess().id(), id);
     }
 
-    protected void sendKafkaRecord(String id, byte[] data) throws ExecutionException, InterruptedException {
-        producer.send(new ProducerRecord<>(topic, getKeyForProcessInstance(id), data)).get();
+    protected void sendKafkaRecord(String id, byte[] data) {
+        sendInTransaction(List.of(instanceRecord(id, data)));
+    }
+
+    /**
+     * Writes the given records in a single transaction and keeps them as pending until the global stores consume them.
+     * Transactions of a producer cannot overlap, and the producer is shared by every process, so they are serialized.
+     */
+    protected void sendInTransaction(List<ProducerRecord<String, byte[]>> records) {
+        synchronized (producer) {
+            producer.beginTransaction();
+            try {
+                records.forEach(producer::send);
+                producer.commitTransaction();
+            } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+                // the producer cannot be used anymore, not even to abort the transaction
+                throw e;
+            } catch (RuntimeException e) {
+                producer.abortTransaction();
+                throw e;
+            }
+        }
+        for (ProducerRecord<String, byte[]> record : records) {
+            (topic.equals(record.topic()) ? pendingInstances : pendingIndexRecords).put(record.key(), record.value());
+        }
+    }
+
+    private ProducerRecord<String, byte[]> instanceRecord(String id, byte[] data) {
+        return new ProducerRecord<>(topic, getKeyForProcessInstance(id), data);
+    }
+
+    private static ProducerRecord<String, byte[]> indexRecord(String key, String value) {
+        return new ProducerRecord<>(businessKeyTopicName(), key, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected String getKeyForBusinessKey(String businessKey) {
+        return format("%s:key:%s", getProcess().id(), businessKey);
+    }
+
+    protected String getKeyForBusinessKeyOfProcessInstance(String id) {
+        return format("%s:instance:%s", getProcess().id(), id);
+    }
+
+    /**
+     * Reads an index record, returning the last value written by this node until the global store catches up with it.
+     */
+    private Optional<String> readIndexRecord(String key) {
+        return pendingIndexRecords.read(key).map(value -> new String(value, StandardCharsets.UTF_8));
+    }
+
+    private List<ProducerRecord<String, byte[]>> businessKeyRecords(String id, String businessKey) {
+        return List.of(indexRecord(getKeyForBusinessKeyOfProcessInstance(id), businessKey), indexRecord(getKeyForBusinessKey(businessKey), id));
+    }
+
+    private List<ProducerRecord<String, byte[]>> businessKeyRemovalRecords(String id, String businessKey) {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(2);
+        String businessKeyEntry = getKeyForBusinessKey(businessKey);
+        // another instance might have been started later on with the same business key
+        if (readIndexRecord(businessKeyEntry).filter(id::equals).isPresent()) {
+            records.add(indexRecord(businessKeyEntry, null));
+        }
+        records.add(indexRecord(getKeyForBusinessKeyOfProcessInstance(id), null));
+        return records;
     }
 
     @Override
@@ -119,9 +235,14 @@ public class KafkaProcessInstances implements MutableProcessInstances {
             if (getProcessInstanceById(id).isPresent()) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            List<ProducerRecord<String, byte[]>> records = new ArrayList<>(3);
+            if (getBusinessKeyStore() != null && instance.businessKey() != null) {
+                records.addAll(businessKeyRecords(id, instance.businessKey()));
+            }
+            records.add(instanceRecord(id, marshaller.marshallProcessInstance(instance)));
             try {
-                sendKafkaRecord(id, marshaller.marshallProcessInstance(instance));
-            } catch (Exception e) {
+                sendInTransaction(records);
+            } catch (RuntimeException e) {
                 throw new RuntimeException("Unable to persist process instance id: " + id, e);
             }
         }
@@ -142,13 +263,74 @@ public class KafkaProcessInstances implements MutableProcessInstances {
 
     @Override
     public void remove(String id) {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(3);
+        records.add(instanceRecord(id, null));
+        if (getBusinessKeyStore() != null) {
+            readIndexRecord(getKeyForBusinessKeyOfProcessInstance(id)).ifPresent(businessKey -> records.addAll(businessKeyRemovalRecords(id, businessKey)));
+        }
         try {
-            sendKafkaRecord(id, null);
-        } catch (Exception e) {
+            sendInTransaction(records);
+        } catch (RuntimeException e) {
             throw new RuntimeException("Unable to remove process instance id: " + id, e);
         }
     }
 
+    @Override
+    public Optional<ProcessInstance<?>> findByBusinessKey(String businessKey, ProcessInstanceReadMode mode) {
+        // waits for the stores to be available, the business key store is set before the main one
+        getStore();
+        if (getBusinessKeyStore() == null || !isBusinessKeyIndexReady()) {
+            return MutableProcessInstances.super.findByBusinessKey(businessKey, mode);
+        }
+        return readIndexRecord(getKeyForBusinessKey(businessKey))
+                .flatMap(id -> findById(id, mode))
+                // the index might point to an instance whose removal was not indexed, see indexExistingInstances
+                .filter(pi -> businessKey.equals(pi.businessKey()));
+    }
+
+    private synchronized CompletableFuture<Void> startBusinessKeyIndexing() {
+        if (businessKeyIndexing == null || businessKeyIndexing.isCompletedExceptionally()) {
+            businessKeyIndexing = CompletableFuture.runAsync(this::indexExistingInstances, indexingExecutor);
+        }
+        return businessKeyIndexing;
+    }
+
+    // never waits for the indexing, a failed one is started again
+    private boolean isBusinessKeyIndexReady() {
+        CompletableFuture<Void> indexing = startBusinessKeyIndexing();
+        return indexing.isDone() && !indexing.isCompletedExceptionally();
+    }
+
+    /**
+     * Indexes the instances stored before the business key index was introduced. Executed once per process.
+     * Instances removed while being indexed might leave a stale entry, which lookups discard.
+     */
+    private void indexExistingInstances() {
+        String marker = format("%s:indexed", getProcess().id());
+        if (readIndexRecord(marker).isPresent()) {
+            return;
+        }
+        LOGGER.info("Indexing process instances by business key for process: {}", getProcess().id());
+        try (Stream<ProcessInstance<?>> instances = stream(ProcessInstanceReadMode.READ_ONLY)) {
+            List<ProducerRecord<String, byte[]>> batch = new ArrayList<>();
+            Iterator<ProcessInstance<?>> iterator = instances.iterator();
+            while (iterator.hasNext()) {
+                ProcessInstance<?> instance = iterator.next();
+                if (instance.businessKey() != null) {
+                    batch.addAll(businessKeyRecords(instance.id(), instance.businessKey()));
+                }
+                if (batch.size() >= INDEXING_BATCH_SIZE) {
+                    sendInTransaction(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            batch.add(indexRecord(marker, Boolean.TRUE.toString()));
+            sendInTransaction(batch);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Unable to index process instances by business key for process: " + getProcess().id(), e);
+        }
+    }
+
     @Override
     public Optional<ProcessInstance<?>> findById(String id, ProcessInstanceReadMode mode) {
         return getProcessInstanceById(id).map(marshaller.createUnmarshallFunction(process, mode));
@@ -165,4 +347,55 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     protected void disconnect(ProcessInstance<?> instance) {
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> getProcessInstanceById(instance.id()).orElseThrow()));
     }
+
+    /**
+     * Records written by this node that a global store might not have consumed yet. A pending record is dropped once
+     * the store holds the same value, or once it expires, since another node might have written the same key meanwhile.
+     * An empty value is a removal.
+     */
+    private static final class PendingRecords {
+
+        private final Map<String, PendingRecord> records = new ConcurrentHashMap<>();
+        private final Function<String, byte[]> store;
+
+        private PendingRecords(Function<String, byte[]> store) {
+            this.store = store;
+        }
+
+        void put(String key, byte[] value) {
+            long now = System.currentTimeMillis();
+            if (records.size() >= MAX_PENDING_RECORDS) {
+                records.entrySet().removeIf(e -> e.getValue().isObsolete(store.apply(e.getKey()), now));
+            }
+            records.put(key, new PendingRecord(value, now + PENDING_RECORD_TIMEOUT_MILLIS));
+        }
+
+        Optional<byte[]> read(String key) {
+            byte[] stored = store.apply(key);
+            PendingRecord pending = records.get(key);
+            if (pending == null) {
+                return Optional.ofNullable(stored);
+            }
+            if (pending.isObsolete(stored, System.currentTimeMillis())) {
+                records.remove(key, pending);
+                return Optional.ofNullable(stored);
+            }
+            return Optional.ofNullable(pending.value);
+        }
+    }
+
+    private static final class PendingRecord {
+
+        private final byte[] value;
+        private final long expiresAt;
+
+        private PendingRecord(byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isObsolete(byte[] stored, long now) {
+            return Arrays.equals(value, stored) || now >= expiresAt;
+        }
+    }
 }
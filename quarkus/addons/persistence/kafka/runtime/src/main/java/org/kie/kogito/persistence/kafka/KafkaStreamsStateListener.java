@@ -32,6 +32,7 @@ import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.businessKeyStoreName;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.storeName;
 
 @ApplicationScoped
@@ -74,6 +75,7 @@ public class KafkaStreamsStateListener implements KafkaStreams.StateListener {
     }
 
     private void setStore(KafkaProcessInstances pi) {
+        pi.setBusinessKeyStore(streams.store(StoreQueryParameters.fromNameAndType(businessKeyStoreName(), QueryableStoreTypes.keyValueStore())));
         pi.setStore(streams.store(StoreQueryParameters.fromNameAndType(storeName(), QueryableStoreTypes.keyValueStore())));
     }
 
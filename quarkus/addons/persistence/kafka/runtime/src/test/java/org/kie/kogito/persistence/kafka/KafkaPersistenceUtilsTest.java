@@ -22,6 +22,8 @@ import org.apache.kafka.streams.Topology;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.businessKeyStoreName;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.businessKeyTopicName;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.createTopologyForProcesses;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.storeName;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
@@ -38,9 +40,19 @@ public class KafkaPersistenceUtilsTest {
         assertThat(storeName()).isEqualTo("kogito-store");
     }
 
+    @Test
+    public void testBusinessKeyTopicName() {
+        assertThat(businessKeyTopicName()).isEqualTo("kogito.process.business-key");
+    }
+
+    @Test
+    public void testBusinessKeyStoreName() {
+        assertThat(businessKeyStoreName()).isEqualTo("kogito-business-key-store");
+    }
+
     @Test
     public void testTopology() {
         Topology topology = createTopologyForProcesses();
-        assertThat(topology.describe().globalStores()).hasSize(1);
+        assertThat(topology.describe().globalStores()).hasSize(2);
     }
 }
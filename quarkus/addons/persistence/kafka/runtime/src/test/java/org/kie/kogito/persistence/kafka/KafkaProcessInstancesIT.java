@@ -20,10 +20,15 @@ package org.kie.kogito.persistence.kafka;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Stream;
 
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.Config;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
@@ -153,6 +158,41 @@ public class KafkaProcessInstancesIT {
         awaitTillEmpty(instances);
     }
 
+    @Test
+    void testTopicsAreCreated() throws Exception {
+        try (Admin admin = Admin.create(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers()))) {
+            List<ConfigResource> topics = KafkaPersistenceUtils.topicNames().stream().map(topic -> new ConfigResource(ConfigResource.Type.TOPIC, topic)).toList();
+            Map<ConfigResource, Config> configs = admin.describeConfigs(topics).all().get();
+            assertThat(configs).hasSize(2);
+            configs.values().forEach(config -> assertThat(config.get(TopicConfig.CLEANUP_POLICY_CONFIG).value()).isEqualTo(TopicConfig.CLEANUP_POLICY_COMPACT));
+        }
+    }
+
+    @Test
+    void testFindByBusinessKeyAfterCreate() {
+        StaticProcessConfig config = new StaticProcessConfig();
+        ((DefaultWorkItemHandlerConfig) config.workItemHandlers()).register("Human Task", new DefaultKogitoWorkItemHandler());
+        BpmnProcess process = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        listener.setKafkaStreams(createStreams());
+        process.setProcessInstancesFactory(factory);
+        process.configure();
+        listener.getKafkaStreams().start();
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertEmpty(instances);
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("businessKey", BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+
+        // no waiting, the instance must be found by business key even if the global stores have not caught up yet
+        assertThat(instances.findByBusinessKey("businessKey")).hasValueSatisfying(pi -> assertThat(pi.id()).isEqualTo(processInstance.id()));
+        assertThat(instances.findByBusinessKey("anotherBusinessKey")).isEmpty();
+
+        processInstance.abort();
+        assertThat(instances.findByBusinessKey("businessKey")).isEmpty();
+        awaitTillEmpty(instances);
+    }
+
     @Test
     void testValuesReadMode() {
         StaticProcessConfig config = new StaticProcessConfig();
@@ -226,6 +266,7 @@ public class KafkaProcessInstancesIT {
         Properties properties = new Properties();
         properties.put(StreamsConfig.APPLICATION_ID_CONFIG, "kogito");
         properties.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        properties.putAll(KafkaPersistenceUtils.streamsConfig());
         return properties;
     }
 
@@ -43,15 +43,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.businessKeyTopicName;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
 import static org.kie.kogito.test.utils.ProcessInstancesTestUtils.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -81,7 +84,7 @@ public class KafkaProcessInstancesTest {
     public void setup() {
         lenient().doReturn(processId).when(process).id();
 
-        instances = new KafkaProcessInstances(process, producer);
+        instances = new KafkaProcessInstances(process, producer, Runnable::run);
         instances.setStore(store);
         instances.setMarshaller(marshaller);
         lenient().when(marshaller.createUnmarshallFunction(any(), any())).thenCallRealMethod();
@@ -89,7 +92,7 @@ public class KafkaProcessInstancesTest {
 
     @Test
     public void testProcessInstancesSetup() {
-        instances = new KafkaProcessInstances(process, producer);
+        instances = new KafkaProcessInstances(process, producer, Runnable::run);
 
         assertThat(instances.getProcess()).isEqualTo(process);
 
@@ -112,6 +115,7 @@ public class KafkaProcessInstancesTest {
 
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
         verify(producer).send(captor.capture());
+        verify(producer).commitTransaction();
         assertThat(captor.getValue().value()).isNull();
         assertThat(captor.getValue().key()).isEqualTo(storedId);
         assertThat(captor.getValue().topic()).isEqualTo(topicName());
@@ -145,6 +149,83 @@ public class KafkaProcessInstancesTest {
         assertThat(instances.findById(UUID.randomUUID().toString(), ProcessInstanceReadMode.READ_ONLY)).isNotPresent();
     }
 
+    @Test
+    public void testProcessInstancesFindByBusinessKey() {
+        ReadOnlyKeyValueStore<String, byte[]> businessKeyStore = mock(ReadOnlyKeyValueStore.class);
+        instances.setBusinessKeyStore(businessKeyStore);
+        ProcessInstance processInstance = mock(ProcessInstance.class);
+        when(processInstance.businessKey()).thenReturn("aBusinessKey");
+        doReturn(processInstance).when(marshaller).unmarshallProcessInstance(any(), any(), eq(ProcessInstanceReadMode.READ_ONLY));
+        doReturn(new byte[] {}).when(store).get(storedId);
+        doReturn("true".getBytes()).when(businessKeyStore).get(processId + ":indexed");
+        doReturn(id.getBytes()).when(businessKeyStore).get(processId + ":key:aBusinessKey");
+
+        assertThat(instances.findByBusinessKey("aBusinessKey", ProcessInstanceReadMode.READ_ONLY)).containsSame(processInstance);
+        assertThat(instances.findByBusinessKey("anotherBusinessKey", ProcessInstanceReadMode.READ_ONLY)).isNotPresent();
+        verify(store, never()).prefixScan(any(), any());
+    }
+
+    @Test
+    public void testProcessInstancesFindByBusinessKeyBeforeStoreCatchesUp() {
+        ReadOnlyKeyValueStore<String, byte[]> businessKeyStore = mock(ReadOnlyKeyValueStore.class);
+        instances.setBusinessKeyStore(businessKeyStore);
+        doReturn(mock(Future.class)).when(producer).send(any());
+        AbstractProcessInstance instance = mock(AbstractProcessInstance.class);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        when(instance.businessKey()).thenReturn("aBusinessKey");
+        doReturn(new byte[] {}).when(marshaller).marshallProcessInstance(instance);
+        doReturn(instance).when(marshaller).unmarshallProcessInstance(any(), any(), eq(ProcessInstanceReadMode.READ_ONLY));
+        doReturn("true".getBytes()).when(businessKeyStore).get(processId + ":indexed");
+
+        instances.create(id, instance);
+
+        // neither the instance nor the index have been consumed yet, the records written by this node are read instead
+        assertThat(instances.findByBusinessKey("aBusinessKey", ProcessInstanceReadMode.READ_ONLY)).containsSame(instance);
+        verify(producer).commitTransaction();
+    }
+
+    @Test
+    public void testProcessInstancesReadOwnWritesUntilStoreCatchesUp() {
+        doReturn(mock(Future.class)).when(producer).send(any());
+        AbstractProcessInstance instance = mock(AbstractProcessInstance.class);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        byte[] updated = new byte[] { 1 };
+        doReturn(updated).when(marshaller).marshallProcessInstance(instance);
+        doReturn(new byte[] { 0 }).when(store).get(storedId);
+
+        instances.update(id, instance);
+
+        assertThat(instances.getProcessInstanceById(id)).containsSame(updated);
+        // once the store holds the written value, it is read from the store again
+        byte[] stored = new byte[] { 1 };
+        doReturn(stored).when(store).get(storedId);
+        assertThat(instances.getProcessInstanceById(id)).containsSame(stored);
+    }
+
+    @Test
+    public void testProcessInstancesCreateExceptionAbortsTransaction() {
+        ReadOnlyKeyValueStore<String, byte[]> businessKeyStore = mock(ReadOnlyKeyValueStore.class);
+        instances.setBusinessKeyStore(businessKeyStore);
+        doReturn(mock(Future.class)).when(producer).send(any());
+        doThrow(new RuntimeException()).when(producer).send(argThat(r -> r.topic().equals(topicName())));
+        AbstractProcessInstance instance = mock(AbstractProcessInstance.class);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        when(instance.businessKey()).thenReturn("aBusinessKey");
+        doReturn(new byte[] {}).when(marshaller).marshallProcessInstance(instance);
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> instances.create(id, instance));
+
+        // the index records are sent in the same transaction as the instance, so they are discarded with it
+        ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(producer, times(3)).send(captor.capture());
+        assertThat(captor.getAllValues()).filteredOn(r -> r.topic().equals(businessKeyTopicName()))
+                .extracting(ProducerRecord::key)
+                .containsExactly(processId + ":instance:" + id, processId + ":key:aBusinessKey");
+        verify(producer).abortTransaction();
+        verify(producer, never()).commitTransaction();
+        assertThat(instances.exists(id)).isFalse();
+    }
+
     private static class KeyValueIteratorMock implements KeyValueIterator<String, String> {
         boolean hasNext = true;
 
@@ -31,15 +31,16 @@ import jakarta.inject.Inject;
 public class MongoDBProcessInstancesFactory extends AbstractProcessInstancesFactory {
 
     public MongoDBProcessInstancesFactory() {
-        super(null, null, null, null);
+        super(null, null, null, null, null);
     }
 
     @Inject
     public MongoDBProcessInstancesFactory(MongoClient mongoClient,
             AbstractTransactionManager transactionManager,
             @ConfigProperty(name = "quarkus.mongodb.database", defaultValue = "kogito") String dbName,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(mongoClient, dbName, lock, transactionManager);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            @ConfigProperty(name = "kogito.persistence.mongodb.binary.enabled", defaultValue = "false") Boolean binary) {
+        super(mongoClient, dbName, lock, transactionManager, binary);
     }
 
 }
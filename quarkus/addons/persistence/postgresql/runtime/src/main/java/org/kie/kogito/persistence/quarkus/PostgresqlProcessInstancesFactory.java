@@ -32,8 +32,9 @@ public class PostgresqlProcessInstancesFactory extends AbstractProcessInstancesF
     @Inject
     public PostgresqlProcessInstancesFactory(PgPool client,
             @ConfigProperty(name = "kogito.persistence.query.timeout.millis", defaultValue = "10000") Long queryTimeout,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(client, queryTimeout, lock);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            @ConfigProperty(name = "kogito.persistence.delta.enabled", defaultValue = "false") Boolean delta) {
+        super(client, queryTimeout, lock, delta);
     }
 
     protected PostgresqlProcessInstancesFactory() {
@@ -20,12 +20,15 @@ package org.kie.kogito.persistence.quarkus.rocksdb;
 
 import org.kie.kogito.persistence.rocksdb.RocksDBProcessInstancesFactory;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.services.jobs.impl.JobStore;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.quarkus.arc.properties.IfBuildProperty;
+
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -55,6 +58,12 @@ public class RocksDbProcessInstancesFactoryProducer {
         return processInstancesFactory;
     }
 
+    @Produces
+    @IfBuildProperty(name = "kogito.persistence.jobs.enabled", stringValue = "true")
+    JobStore jobStore() {
+        return processInstancesFactory.createJobStore();
+    }
+
     @PreDestroy
     void cleanup() throws RocksDBException {
         processInstancesFactory.close();
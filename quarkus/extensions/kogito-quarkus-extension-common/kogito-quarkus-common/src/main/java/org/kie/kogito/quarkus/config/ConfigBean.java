@@ -25,6 +25,7 @@ import org.kie.kogito.config.StaticConfigBean;
 
 import io.quarkus.runtime.Startup;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -52,6 +53,41 @@ public class ConfigBean extends StaticConfigBean {
         return runtimeConfig.get().processInstanceLimit;
     }
 
+    @Override
+    public boolean asyncContinuationLocal() {
+        return runtimeConfig.get().asyncContinuationConfig.local;
+    }
+
+    @Override
+    public int asyncContinuationPoolSize() {
+        return runtimeConfig.get().asyncContinuationConfig.poolSize;
+    }
+
+    @Override
+    public int asyncContinuationQueueSize() {
+        return runtimeConfig.get().asyncContinuationConfig.queueSize;
+    }
+
+    @Override
+    public long asyncContinuationRecoveryDelay() {
+        return runtimeConfig.get().asyncContinuationConfig.recoveryDelay;
+    }
+
+    @Override
+    public boolean serializationJsonBinary() {
+        return runtimeConfig.get().serializationJsonBinary;
+    }
+
+    @Override
+    public String serializationCompression() {
+        return runtimeConfig.get().serializationCompression;
+    }
+
+    @Override
+    public int serializationCompressionThreshold() {
+        return runtimeConfig.get().serializationCompressionThreshold;
+    }
+
     @Override
     public Optional<KogitoGAV> getGav() {
         return Optional.ofNullable(gav.get());
@@ -66,4 +102,10 @@ public class ConfigBean extends StaticConfigBean {
     public boolean useCloudEvents() {
         return buildTimeConfig.get().useCloudEvents;
     }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+    }
 }
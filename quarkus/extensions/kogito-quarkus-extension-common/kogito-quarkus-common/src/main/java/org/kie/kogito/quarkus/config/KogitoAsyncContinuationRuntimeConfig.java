@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.kie.kogito.quarkus.config;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.quarkus.runtime.annotations.ConfigItem;
+
+@ConfigGroup
+public class KogitoAsyncContinuationRuntimeConfig {
+
+    /**
+     * Executes BPMN async continuations on a local thread pool instead of scheduling an immediate job.
+     */
+    @ConfigItem(name = "local", defaultValue = "false")
+    public boolean local;
+
+    /**
+     * Number of threads executing async continuations locally.
+     */
+    @ConfigItem(name = "pool-size", defaultValue = "10")
+    public int poolSize;
+
+    /**
+     * Number of async continuations waiting for a thread, further ones are scheduled as jobs.
+     */
+    @ConfigItem(name = "queue-size", defaultValue = "1000")
+    public int queueSize;
+
+    /**
+     * Delay, in milliseconds, of the job triggering a continuation that was not executed locally, for example because
+     * the application stopped. Non positive values, the default, disable it.
+     */
+    @ConfigItem(name = "recovery-delay", defaultValue = "0")
+    public long recoveryDelay;
+}
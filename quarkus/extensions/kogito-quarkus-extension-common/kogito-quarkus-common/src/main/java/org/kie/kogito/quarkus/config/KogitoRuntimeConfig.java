@@ -51,4 +51,28 @@ public class KogitoRuntimeConfig {
      */
     @ConfigItem(name = "security.auth")
     public KogitoAuthRuntimeConfig authConfig;
+
+    /**
+     * BPMN async continuations configuration
+     */
+    @ConfigItem(name = "async-continuation")
+    public KogitoAsyncContinuationRuntimeConfig asyncContinuationConfig;
+
+    /**
+     * Persist json process variables as Jackson Smile encoded bytes instead of json text
+     */
+    @ConfigItem(name = "serialization.json.binary", defaultValue = "false")
+    public boolean serializationJsonBinary;
+
+    /**
+     * Algorithm used to compress process instance payloads: none, deflate or gzip
+     */
+    @ConfigItem(name = "serialization.compression", defaultValue = "none")
+    public String serializationCompression;
+
+    /**
+     * Size, in bytes, from which process instance payloads are compressed
+     */
+    @ConfigItem(name = "serialization.compression-threshold", defaultValue = "4096")
+    public int serializationCompressionThreshold;
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.quarkus.runtime;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kogito.workitem.rest.RestWorkItemHandler;
+import org.kogito.workitem.rest.RestWorkItemHandlerConfig;
+
+import io.quarkus.arc.DefaultBean;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+
+@ApplicationScoped
+public class RestWorkItemHandlerConfigProducer {
+
+    @ConfigProperty(name = RestWorkItemHandlerConfig.ASYNC_COMPLETION_PROPERTY, defaultValue = "false")
+    boolean asyncCompletion;
+
+    @ConfigProperty(name = RestWorkItemHandlerConfig.MAX_IN_FLIGHT_REQUESTS_PROPERTY, defaultValue = "" + RestWorkItemHandler.DEFAULT_MAX_IN_FLIGHT_REQUESTS)
+    int maxInFlightRequests;
+
+    @Produces
+    @DefaultBean
+    public RestWorkItemHandlerConfig restWorkItemHandlerConfig() {
+        return new RestWorkItemHandlerConfig(asyncCompletion, maxInFlightRequests);
+    }
+}
@@ -27,9 +27,15 @@ import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.process.ProcessVersionResolver;
 import org.kie.kogito.process.Processes;
 import org.kie.kogito.process.version.ProjectVersionProcessVersionResolver;
+import org.kie.kogito.services.jobs.impl.EmbeddedJobService;
 import org.kie.kogito.services.jobs.impl.InMemoryJobContext;
 import org.kie.kogito.services.jobs.impl.InMemoryJobService;
 import org.kie.kogito.services.jobs.impl.InMemoryProcessJobExecutorFactory;
+import org.kie.kogito.services.jobs.impl.JobStore;
+import org.kie.kogito.services.outbox.EventOutbox;
+import org.kie.kogito.services.outbox.OutboxEventManager;
+import org.kie.kogito.services.outbox.OutboxRelay;
+import org.kie.kogito.services.outbox.OutboxUnitOfWorkFactory;
 import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
 import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
 import org.kie.kogito.uow.UnitOfWorkManager;
@@ -58,14 +64,26 @@ public class KogitoBeanProducer {
 
     @DefaultBean
     @Produces
-    UnitOfWorkManager unitOfWorkManager() {
+    UnitOfWorkManager unitOfWorkManager(Instance<EventOutbox> eventOutbox) {
+        if (eventOutbox.isResolvable()) {
+            OutboxEventManager eventManager = new OutboxEventManager(eventOutbox.get());
+            UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new OutboxUnitOfWorkFactory(), eventManager);
+            // the relay waits for publishing acknowledgements, so it runs on its own thread
+            unitOfWorkManager.register(new OutboxRelay(eventManager).start());
+            return unitOfWorkManager;
+        }
         return new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
     }
 
     @DefaultBean
     @Produces
-    JobsService jobsService(Instance<Processes> processes, Instance<UserTasks> userTasks, UnitOfWorkManager uowm, ScheduledExecutorService executor) {
+    JobsService jobsService(Instance<Processes> processes, Instance<UserTasks> userTasks, UnitOfWorkManager uowm, ScheduledExecutorService executor, Instance<JobStore> jobStore) {
         InMemoryJobContext context = new InMemoryJobContext(null, uowm, processes.isResolvable() ? processes.get() : null, userTasks.isResolvable() ? userTasks.get() : null);
+        if (jobStore.isResolvable()) {
+            EmbeddedJobService embeddedJobService = new EmbeddedJobService(executor, jobStore.get(), uowm);
+            embeddedJobService.registerJobExecutorFactory(new InMemoryProcessJobExecutorFactory(context));
+            return embeddedJobService.start();
+        }
         InMemoryJobService inMemoryJobService = new InMemoryJobService(executor);
         inMemoryJobService.registerJobExecutorFactory(new InMemoryProcessJobExecutorFactory(context));
         return inMemoryJobService;
@@ -19,6 +19,8 @@
 package org.kie.kogito.events.spring;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
@@ -49,51 +51,68 @@ public class KafkaEventPublisher implements EventPublisher {
 
     @Override
     public void publish(DataEvent<?> event) {
+        publishEvent(event);
+    }
 
+    @Override
+    public void publish(Collection<DataEvent<?>> events) {
+        publishAsync(events);
+    }
+
+    @Override
+    public CompletionStage<Void> publishAsync(Collection<DataEvent<?>> events) {
+        return CompletableFuture.allOf(events.stream().map(this::publishEvent).map(CompletionStage::toCompletableFuture).toArray(CompletableFuture[]::new));
+    }
+
+    private CompletionStage<Void> publishEvent(DataEvent<?> event) {
         switch (event.getType()) {
             case "ProcessInstanceErrorDataEvent":
             case "ProcessInstanceNodeDataEvent":
             case "ProcessInstanceSLADataEvent":
             case "ProcessInstanceStateDataEvent":
             case "ProcessInstanceVariableDataEvent":
-                publishToTopic(event, PROCESS_INSTANCES_TOPIC_NAME, "processinstances");
-                break;
+                return publishToTopic(event, PROCESS_INSTANCES_TOPIC_NAME, "processinstances");
             case "UserTaskInstanceAssignmentDataEvent":
             case "UserTaskInstanceAttachmentDataEvent":
             case "UserTaskInstanceCommentDataEvent":
             case "UserTaskInstanceDeadlineDataEvent":
             case "UserTaskInstanceStateDataEvent":
             case "UserTaskInstanceVariableDataEvent":
-                publishToTopic(event, USER_TASK_INSTANCES_TOPIC_NAME, "usertasks");
-                break;
+                return publishToTopic(event, USER_TASK_INSTANCES_TOPIC_NAME, "usertasks");
             case "ProcessDefinitionEvent":
-                publishToTopic(event, PROCESS_DEFINITIONS_TOPIC_NAME, "processdefinitions");
-                break;
+                return publishToTopic(event, PROCESS_DEFINITIONS_TOPIC_NAME, "processdefinitions");
             default:
                 logger.debug("Unknown type of event '{}', ignoring for this publisher", event.getType());
+                return CompletableFuture.completedFuture(null);
         }
     }
 
-    @Override
-    public void publish(Collection<DataEvent<?>> events) {
-        for (DataEvent<?> event : events) {
-            publish(event);
-        }
-    }
-
-    protected void publishToTopic(DataEvent<?> event, String topic, String enabled) {
+    /**
+     * Sends the event to the given topic.
+     * 
+     * @return stage completed once Kafka has acknowledged the record, or exceptionally if it could not be sent
+     */
+    protected CompletionStage<Void> publishToTopic(DataEvent<?> event, String topic, String enabled) {
         if (env.getProperty(String.format(ENABLED_FORMAT, enabled), Boolean.class, true)) {
             logger.debug("About to publish event {} to Kafka topic {}", event, topic);
             try {
                 String eventString = json.writeValueAsString(event);
                 logger.debug("Event payload '{}'", eventString);
-                eventsEmitter.send(env.getProperty(String.format(TOPIC_FORMAT, topic, "topic"), topic), eventString);
-                logger.debug("Successfully published event {} to topic {}", event, topic);
+                return eventsEmitter.send(env.getProperty(String.format(TOPIC_FORMAT, topic, "topic"), topic), eventString)
+                        .whenComplete((result, e) -> {
+                            if (e == null) {
+                                logger.debug("Successfully published event {} to topic {}", event, topic);
+                            } else {
+                                logger.error("Error while publishing event to Kafka topic {} for event {}", topic, event, e);
+                            }
+                        }).thenApply(result -> null);
             } catch (Exception e) {
                 logger.error("Error while publishing event to Kafka topic {} for event {}", topic, event, e);
+                return CompletableFuture.failedFuture(e);
             }
         } else {
             logger.debug("Event {} won't be published because topic {} is disabled", event, topic);
+            return CompletableFuture.completedFuture(null);
         }
     }
 }
@@ -51,6 +51,12 @@ public class SpringbootMongoDBEventPublisher extends MongoDBEventPublisher {
     @Value("${kogito.events.usertasks.collection:kogitousertaskinstancesevents}")
     String springUserTasksEventsCollectionName;
 
+    @Value("${kogito.events.mongodb.batch.enabled:false}")
+    boolean springBatchEnabled;
+
+    @Value("${kogito.events.mongodb.batch.ttl:60}")
+    long springBatchTtlSeconds;
+
     @PostConstruct
     public void setupSpringbootMongoDBEventPublisher() {
         super.configure();
@@ -91,4 +97,14 @@ public class SpringbootMongoDBEventPublisher extends MongoDBEventPublisher {
         return this.springUserTasksEventsCollectionName;
     }
 
+    @Override
+    protected boolean batchEnabled() {
+        return this.springBatchEnabled;
+    }
+
+    @Override
+    protected long batchTtlSeconds() {
+        return this.springBatchTtlSeconds;
+    }
+
 }
@@ -70,7 +70,7 @@ public class CallbackJobsServiceResource {
             return ResponseEntity.badRequest().body("Process id and Process instance id must be  given");
         }
 
-        Optional<Process<? extends Model>> process = processes.processByProcessInstanceId(processInstanceId);
+        Optional<Process<? extends Model>> process = processes.processByProcessInstanceId(processId, processInstanceId);
         if (process.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Process with id " + processId + " not found");
         }
@@ -30,8 +30,10 @@ public class JDBCProcessInstancesFactory extends AbstractProcessInstancesFactory
 
     @Autowired
     public JDBCProcessInstancesFactory(DataSource dataSource,
-            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock) {
-        super(dataSource, lock);
+            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock,
+            JDBCWriteBatchManager batchManager,
+            @Value("${kogito.persistence.delta.enabled:false}") Boolean delta) {
+        super(dataSource, lock, batchManager, delta);
     }
 
 }
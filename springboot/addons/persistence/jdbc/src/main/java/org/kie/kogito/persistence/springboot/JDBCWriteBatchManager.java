@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.kogito.persistence.springboot;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.persistence.jdbc.AbstractJDBCWriteBatchManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JDBCWriteBatchManager extends AbstractJDBCWriteBatchManager {
+
+    @Autowired
+    public JDBCWriteBatchManager(DataSource dataSource,
+            @Value("${kogito.persistence.jdbc.batch.enabled:false}") Boolean enabled,
+            @Value("${kogito.persistence.outbox.enabled:false}") Boolean outboxEnabled) {
+        // the outbox stores events in the write batch, so it turns batching on
+        super(dataSource, Boolean.TRUE.equals(enabled) || Boolean.TRUE.equals(outboxEnabled));
+    }
+}
@@ -32,8 +32,9 @@ public class PostgresqlProcessInstancesFactory extends AbstractProcessInstancesF
     @Autowired
     public PostgresqlProcessInstancesFactory(@Qualifier("kogito") PgPool client,
             @Value("${kogito.persistence.query.timeout.millis:10000}") Long queryTimeout,
-            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock) {
-        super(client, queryTimeout, lock);
+            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock,
+            @Value("${kogito.persistence.delta.enabled:false}") Boolean delta) {
+        super(client, queryTimeout, lock, delta);
     }
 
     protected PostgresqlProcessInstancesFactory() {
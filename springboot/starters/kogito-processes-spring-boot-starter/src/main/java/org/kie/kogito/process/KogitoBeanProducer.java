@@ -25,15 +25,24 @@ import org.kie.kogito.correlation.CorrelationService;
 import org.kie.kogito.event.correlation.DefaultCorrelationService;
 import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.process.version.ProjectVersionProcessVersionResolver;
+import org.kie.kogito.services.jobs.impl.EmbeddedJobService;
 import org.kie.kogito.services.jobs.impl.InMemoryJobContext;
 import org.kie.kogito.services.jobs.impl.InMemoryJobService;
 import org.kie.kogito.services.jobs.impl.InMemoryProcessJobExecutorFactory;
+import org.kie.kogito.services.jobs.impl.JobStore;
+import org.kie.kogito.services.outbox.EventOutbox;
+import org.kie.kogito.services.outbox.OutboxEventManager;
+import org.kie.kogito.services.outbox.OutboxRelay;
+import org.kie.kogito.services.outbox.OutboxUnitOfWorkFactory;
 import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
 import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kie.kogito.usertask.UserTasks;
+import org.kogito.workitem.rest.RestWorkItemHandler;
+import org.kogito.workitem.rest.RestWorkItemHandlerConfig;
 import org.kogito.workitem.rest.RestWorkItemHandlerUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -59,8 +68,13 @@ public class KogitoBeanProducer {
 
     @Bean
     @ConditionalOnMissingBean(JobsService.class)
-    JobsService jobsService(List<Processes> processes, List<UserTasks> userTasks, UnitOfWorkManager uowm) {
+    JobsService jobsService(List<Processes> processes, List<UserTasks> userTasks, UnitOfWorkManager uowm, List<JobStore> jobStores) {
         InMemoryJobContext context = new InMemoryJobContext(null, uowm, !processes.isEmpty() ? processes.get(0) : null, !userTasks.isEmpty() ? userTasks.get(0) : null);
+        if (!jobStores.isEmpty()) {
+            EmbeddedJobService embeddedJobService = new EmbeddedJobService(jobStores.get(0), uowm);
+            embeddedJobService.registerJobExecutorFactory(new InMemoryProcessJobExecutorFactory(context));
+            return embeddedJobService.start();
+        }
         InMemoryJobService inMemoryJobService = new InMemoryJobService();
         inMemoryJobService.registerJobExecutorFactory(new InMemoryProcessJobExecutorFactory(context));
         return inMemoryJobService;
@@ -74,7 +88,13 @@ public class KogitoBeanProducer {
 
     @Bean
     @ConditionalOnMissingBean(UnitOfWorkManager.class)
-    UnitOfWorkManager unitOfWorkManager() {
+    UnitOfWorkManager unitOfWorkManager(List<EventOutbox> eventOutboxes) {
+        if (!eventOutboxes.isEmpty()) {
+            OutboxEventManager eventManager = new OutboxEventManager(eventOutboxes.get(0));
+            UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new OutboxUnitOfWorkFactory(), eventManager);
+            unitOfWorkManager.register(new OutboxRelay(eventManager).start());
+            return unitOfWorkManager;
+        }
         return new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
     }
 
@@ -84,6 +104,13 @@ public class KogitoBeanProducer {
         return RestWorkItemHandlerUtils.sslWebClientOptions();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(RestWorkItemHandlerConfig.class)
+    RestWorkItemHandlerConfig restWorkItemHandlerConfig(@Value("${" + RestWorkItemHandlerConfig.ASYNC_COMPLETION_PROPERTY + ":false}") boolean asyncCompletion,
+            @Value("${" + RestWorkItemHandlerConfig.MAX_IN_FLIGHT_REQUESTS_PROPERTY + ":" + RestWorkItemHandler.DEFAULT_MAX_IN_FLIGHT_REQUESTS + "}") int maxInFlightRequests) {
+        return new RestWorkItemHandlerConfig(asyncCompletion, maxInFlightRequests);
+    }
+
     @Bean
     @ConditionalOnMissingBean(WebClientOptions.class)
     Vertx vertx() {